@@ -0,0 +1,335 @@
+package ports;
+
+import java.lang.management.ManagementFactory;
+
+import components.Dishwasher.DWMode;
+import components.StateCell;
+import controller.DeviceCommand;
+
+/**
+ * The class <code>InboundPortAllocationBenchmark</code> measures the bytes
+ * allocated by a call to the inbound ports of the fridge and of the
+ * dishwasher, with the services created for each call and with the
+ * services created once with the port.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * A BCM component can only run in a CVM, so the component is a stand-in
+ * running the services on the thread of the caller: it keeps the last
+ * service in a field, as the queue of its executor would, so that the JIT
+ * cannot remove the allocation of a service that escapes in the real
+ * component. The devices themselves keep their state in a real
+ * <code>StateCell</code>, with the keys of <code>Fridge</code> and
+ * <code>Dishwasher</code>, and are sent real <code>DeviceCommand</code>s. A call given as a lambda is wrapped
+ * in a service, as <code>handleRequestSync</code> does for a
+ * <code>FComponentService</code>. The calls before are those of the ports
+ * before the services were shared (a new service for each write, a lambda
+ * for each read, a capturing lambda for <code>applyCommands</code>); the
+ * calls after are those of <code>FridgeInboundPort</code> and
+ * <code>DishwasherInboundPort</code> now. The allocation is read with the
+ * <code>ThreadMXBean</code> of the JVM. The argument is the number of
+ * calls of a measure.
+ *
+ * <pre>
+ * java -cp 'bin:jars/*' ports.InboundPortAllocationBenchmark 1000000
+ * </pre>
+ */
+public class InboundPortAllocationBenchmark {
+    protected static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    protected static final DWMode[] MODES = DWMode.values();
+
+    /**
+     * Stand-in of <code>AbstractComponent.AbstractService</code>
+     */
+    protected static abstract class Service<T> {
+        protected Component owner;
+
+        public Component getServiceOwner() {
+            return this.owner;
+        }
+
+        public abstract T call() throws Exception;
+    }
+
+    /**
+     * Stand-in of <code>ComponentI.FComponentService</code>
+     */
+    protected interface FService<T> {
+        T apply(Component owner) throws Exception;
+    }
+
+    /**
+     * Stand-in of a component running its requests on the caller thread
+     */
+    protected static class Component {
+        /** last service run, as held by the queue of the executor */
+        protected volatile Service<?> queued;
+
+        public <T> T handleRequestSync(Service<T> service) throws Exception {
+            service.owner = this;
+            this.queued = service;
+            return service.call();
+        }
+
+        public <T> T handleRequestSync(FService<T> request) throws Exception {
+            return this.handleRequestSync(new Service<T>() {
+                @Override
+                public T call() throws Exception {
+                    return request.apply(this.getServiceOwner());
+                }
+            });
+        }
+    }
+
+    /**
+     * Stand-in of the fridge, on the state cell of the fridge
+     */
+    protected static class Fridge extends Component {
+        protected final StateCell cell = new StateCell();
+
+        public void switchFridgeBreak() {
+            this.cell.toggle(components.Fridge.FRIDGE_BREAK);
+        }
+
+        public void switchFreezerBreak() {
+            this.cell.toggle(components.Fridge.FREEZER_BREAK);
+        }
+
+        public boolean isFridgeOnBreak() {
+            return this.cell.getBoolean(components.Fridge.FRIDGE_BREAK);
+        }
+    }
+
+    /**
+     * Stand-in of the dishwasher, on the state cell of the dishwasher; the
+     * time left is read on its model in the real component
+     */
+    protected static class Dishwasher extends Component {
+        protected final StateCell cell = new StateCell();
+        protected volatile double timeLeft = 3600.0;
+
+        public void switchBreak() {
+            this.cell.toggle(components.Dishwasher.BREAK);
+        }
+
+        public void setMode(DWMode mode) {
+            this.cell.setEnum(components.Dishwasher.MODE, mode);
+        }
+
+        public boolean isOnBreak() {
+            return this.cell.getBoolean(components.Dishwasher.BREAK);
+        }
+
+        public double getTimeLeft() {
+            return this.timeLeft;
+        }
+
+        public int applyCommands(DeviceCommand[] commands) {
+            int changed = 0;
+            for(DeviceCommand c : commands) {
+                if(this.cell.setBoolean(components.Dishwasher.BREAK, c.booleanValue())) {
+                    changed++;
+                }
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * Calls of a port, run in a loop
+     */
+    protected interface Calls {
+        long run(int calls) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        Fridge fridge = new Fridge();
+        Dishwasher dishwasher = new Dishwasher();
+        Service<Void> switchFridgeBreakService = new Service<Void>() {
+            @Override
+            public Void call() throws Exception {
+                ((Fridge)this.getServiceOwner()).switchFridgeBreak();
+                return null;
+            }
+        };
+        Service<Void> switchBreakService = new Service<Void>() {
+            @Override
+            public Void call() throws Exception {
+                ((Dishwasher)this.getServiceOwner()).switchBreak();
+                return null;
+            }
+        };
+        @SuppressWarnings("unchecked")
+        Service<Void>[] setModeServices = new Service[MODES.length];
+        for(DWMode mode : MODES) {
+            setModeServices[mode.ordinal()] = new Service<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    ((Dishwasher)this.getServiceOwner()).setMode(mode);
+                    return null;
+                }
+            };
+        }
+        DeviceCommand[] batch = new DeviceCommand[] {DeviceCommand.setBreak(true)};
+
+        long sum = 0;
+        for(int round = 0 ; round < 5 ; round++) {
+            System.out.println("round " + round);
+            sum += measure("Fridge switchFridgeBreak", calls, n -> {
+                for(int i = 0 ; i < n ; i++) {
+                    fridge.handleRequestSync(new Service<Void>() {
+                        @Override
+                        public Void call() throws Exception {
+                            ((Fridge)this.getServiceOwner()).switchFridgeBreak();
+                            return null;
+                        }
+                    });
+                }
+                return n;
+            }, n -> {
+                for(int i = 0 ; i < n ; i++) {
+                    fridge.handleRequestSync(switchFridgeBreakService);
+                }
+                return n;
+            });
+            sum += measure("Fridge isFridgeOnBreak", calls, n -> {
+                long on = 0;
+                for(int i = 0 ; i < n ; i++) {
+                    if(fridge.handleRequestSync(owner -> ((Fridge)owner).isFridgeOnBreak())) {
+                        on++;
+                    }
+                }
+                return on;
+            }, n -> {
+                long on = 0;
+                for(int i = 0 ; i < n ; i++) {
+                    if(fridge.isFridgeOnBreak()) {
+                        on++;
+                    }
+                }
+                return on;
+            });
+            sum += measure("Dishwasher switchBreak", calls, n -> {
+                for(int i = 0 ; i < n ; i++) {
+                    dishwasher.handleRequestSync(new Service<Void>() {
+                        @Override
+                        public Void call() throws Exception {
+                            ((Dishwasher)this.getServiceOwner()).switchBreak();
+                            return null;
+                        }
+                    });
+                }
+                return n;
+            }, n -> {
+                for(int i = 0 ; i < n ; i++) {
+                    dishwasher.handleRequestSync(switchBreakService);
+                }
+                return n;
+            });
+            sum += measure("Dishwasher setMode", calls, n -> {
+                for(int i = 0 ; i < n ; i++) {
+                    DWMode mode = MODES[i % MODES.length];
+                    dishwasher.handleRequestSync(new Service<Void>() {
+                        @Override
+                        public Void call() throws Exception {
+                            ((Dishwasher)this.getServiceOwner()).setMode(mode);
+                            return null;
+                        }
+                    });
+                }
+                return n;
+            }, n -> {
+                for(int i = 0 ; i < n ; i++) {
+                    dishwasher.handleRequestSync(setModeServices[i % MODES.length]);
+                }
+                return n;
+            });
+            sum += measure("Dishwasher isOnBreak", calls, n -> {
+                long on = 0;
+                for(int i = 0 ; i < n ; i++) {
+                    if(dishwasher.handleRequestSync(owner -> ((Dishwasher)owner).isOnBreak())) {
+                        on++;
+                    }
+                }
+                return on;
+            }, n -> {
+                long on = 0;
+                for(int i = 0 ; i < n ; i++) {
+                    if(dishwasher.isOnBreak()) {
+                        on++;
+                    }
+                }
+                return on;
+            });
+            sum += measure("Dishwasher getTimeLeft", calls, n -> {
+                double left = 0.0;
+                for(int i = 0 ; i < n ; i++) {
+                    left += dishwasher.handleRequestSync(owner -> ((Dishwasher)owner).getTimeLeft());
+                }
+                return (long) left;
+            }, n -> {
+                double left = 0.0;
+                for(int i = 0 ; i < n ; i++) {
+                    left += dishwasher.handleRequestSync(owner -> ((Dishwasher)owner).getTimeLeft());
+                }
+                return (long) left;
+            });
+            sum += measure("Dishwasher applyCommands", calls, n -> {
+                long applied = 0;
+                for(int i = 0 ; i < n ; i++) {
+                    applied += dishwasher.handleRequestSync(owner -> ((Dishwasher)owner).applyCommands(batch));
+                }
+                return applied;
+            }, n -> {
+                long applied = 0;
+                for(int i = 0 ; i < n ; i++) {
+                    applied += dishwasher.handleRequestSync(new ApplyService(batch));
+                }
+                return applied;
+            });
+        }
+        System.out.println("(" + sum + ")");
+    }
+
+    /**
+     * Stand-in of <code>ApplyCommandsService</code>
+     */
+    protected static class ApplyService extends Service<Integer> {
+        protected final DeviceCommand[] commands;
+
+        public ApplyService(DeviceCommand[] commands) {
+            this.commands = commands;
+        }
+
+        @Override
+        public Integer call() throws Exception {
+            return ((Dishwasher)this.getServiceOwner()).applyCommands(this.commands);
+        }
+    }
+
+    /**
+     * Measure and print the bytes allocated by a call before and after
+     *
+     * @param name name of the call
+     * @param calls number of calls of a measure
+     * @param before calls before the services were shared
+     * @param after calls now
+     * @return result of the calls, so that nothing is optimised out
+     * @throws Exception
+     */
+    protected static long measure(String name, int calls, Calls before, Calls after) throws Exception {
+        long thread = Thread.currentThread().getId();
+        long start = THREADS.getThreadAllocatedBytes(thread);
+        long sum = before.run(calls);
+        double bytesBefore = (THREADS.getThreadAllocatedBytes(thread) - start) / (double) calls;
+        start = THREADS.getThreadAllocatedBytes(thread);
+        sum += after.run(calls);
+        double bytesAfter = (THREADS.getThreadAllocatedBytes(thread) - start) / (double) calls;
+        System.out.println(String.format("  %-26s before %5.1f B, after %5.1f B per call",
+                name, bytesBefore, bytesAfter));
+        return sum;
+    }
+}
@@ -0,0 +1,252 @@
+package simulation.utils;
+
+import components.Fridge;
+import components.Fridge.DoorState;
+import components.Fridge.FState;
+import components.StateCell;
+import interfaces.EmbeddingStateI;
+
+/**
+ * The class <code>EmbeddingStateBenchmark</code> measures the cost of the
+ * accesses of a model to the state of its component in one transition.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * A transition of the fridge model reads the states of the two
+ * compartments, of their doors and of their breaks, and sets the state of
+ * one compartment. The benchmark runs such transitions with the keys and the
+ * enumerations of <code>Fridge</code> and a real <code>StateCell</code>:
+ * with the string names of <code>EmbeddingComponentAccessI</code> on plain
+ * fields (names), with the keys of <code>EmbeddingStateI</code> on the cell
+ * (keys), and with one read of the cell for the whole transition
+ * (snapshot), as the device models now read it. A <code>Fridge</code> can
+ * only be created in a CVM, so the lookups are made by a stand-in copying
+ * those of <code>Fridge</code>. It prints the duration of a transition.
+ * The stand-in reads each value once, while
+ * the models read some of them several times per transition before they
+ * took a snapshot, so the keys are a lower bound of their former cost. The
+ * argument is the number of transitions of a measure.
+ *
+ * <pre>
+ * java -cp 'bin:jars/*' simulation.utils.EmbeddingStateBenchmark 10000000
+ * </pre>
+ */
+public class EmbeddingStateBenchmark {
+    protected static final int FRIDGE_STATE = Fridge.FRIDGE_STATE;
+    protected static final int FREEZER_STATE = Fridge.FREEZER_STATE;
+    protected static final int FRIDGE_DOOR = Fridge.FRIDGE_DOOR;
+    protected static final int FREEZER_DOOR = Fridge.FREEZER_DOOR;
+    protected static final int FRIDGE_BREAK = Fridge.FRIDGE_BREAK;
+    protected static final int FREEZER_BREAK = Fridge.FREEZER_BREAK;
+
+    protected static final FState[] STATES = FState.values();
+    protected static final DoorState[] DOORS = DoorState.values();
+
+    /**
+     * Stand-in of the fridge with both accesses to its state, the keys
+     * being looked up as in <code>Fridge</code>
+     */
+    protected static class FridgeState implements EmbeddingStateI {
+        protected volatile FState fridgeState = FState.OFF;
+        protected volatile FState freezerState = FState.OFF;
+        protected DoorState fridgeDoor = DoorState.CLOSE;
+        protected DoorState freezerDoor = DoorState.CLOSE;
+        protected volatile boolean isFridgeOnBreak;
+        protected volatile boolean isFreezerOnBreak;
+        protected final StateCell cell = new StateCell();
+
+        public FridgeState() {
+            cell.setEnum(FRIDGE_STATE, FState.OFF);
+            cell.setEnum(FREEZER_STATE, FState.OFF);
+            cell.setEnum(FRIDGE_DOOR, DoorState.CLOSE);
+            cell.setEnum(FREEZER_DOOR, DoorState.CLOSE);
+        }
+
+        public Object getEmbeddingComponentStateValue(String name) throws Exception {
+            if(name.equals("freezer state")) {
+                return freezerState;
+            } else if (name.equals("fridge state")){
+                return fridgeState;
+            } else if (name.equals("freezer door")){
+                return freezerDoor;
+            } else if (name.equals("fridge door")){
+                return fridgeDoor;
+            } else if (name.equals("freezer break")){
+                return isFreezerOnBreak;
+            } else if (name.equals("fridge break")){
+                return isFridgeOnBreak;
+            } else {
+                throw new RuntimeException();
+            }
+        }
+
+        public void setEmbeddingComponentStateValue(String name, Object value) {
+            if(name.equals("freezer door")) {
+                freezerDoor = (DoorState) value;
+            } else if (name.equals("fridge door")) {
+                fridgeDoor = (DoorState) value;
+            } else if (name.equals("freezer state")) {
+                freezerState = (FState) value;
+            } else if (name.equals("fridge state")) {
+                fridgeState = (FState) value;
+            } else {
+                throw new RuntimeException();
+            }
+        }
+
+        @Override
+        public Enum<?> getEnumState(int key) {
+            switch(key) {
+            case FRIDGE_STATE:
+            case FREEZER_STATE:
+                return this.cell.getEnum(key, STATES);
+            case FRIDGE_DOOR:
+            case FREEZER_DOOR:
+                return this.cell.getEnum(key, DOORS);
+            default:
+                throw new IllegalArgumentException("not an enumerated state " + key);
+            }
+        }
+
+        @Override
+        public void setEnumState(int key, Enum<?> value) {
+            switch(key) {
+            case FRIDGE_STATE:
+            case FREEZER_STATE:
+            case FRIDGE_DOOR:
+            case FREEZER_DOOR:
+                this.cell.setEnum(key, value);
+                break;
+            default:
+                throw new IllegalArgumentException("not a writable enumerated state " + key);
+            }
+        }
+
+        @Override
+        public boolean getBooleanState(int key) {
+            switch(key) {
+            case FRIDGE_BREAK:
+            case FREEZER_BREAK:
+                return this.cell.getBoolean(key);
+            default:
+                throw new IllegalArgumentException("not a boolean state " + key);
+            }
+        }
+
+        @Override
+        public void setBooleanState(int key, boolean value) {
+            throw new IllegalArgumentException("not a writable boolean state " + key);
+        }
+
+        @Override
+        public StateCell getStateCell() {
+            return this.cell;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int transitions = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        FridgeState f = new FridgeState();
+        long sum = 0;
+        for(int round = 0 ; round < 5 ; round++) {
+            long start = System.nanoTime();
+            sum += byName(f, transitions);
+            double before = (System.nanoTime() - start) / (double) transitions;
+            start = System.nanoTime();
+            sum += byKey(f, transitions);
+            double after = (System.nanoTime() - start) / (double) transitions;
+            start = System.nanoTime();
+            sum += bySnapshot(f, transitions);
+            double snapshot = (System.nanoTime() - start) / (double) transitions;
+            System.out.println(String.format(
+                    "round %d : names %.1f ns, keys %.1f ns, snapshot %.1f ns per transition",
+                    round, before, after, snapshot));
+        }
+        System.out.println("(" + sum + ")");
+    }
+
+    /**
+     * Run transitions accessing the state by names
+     *
+     * @param f stand-in of the fridge
+     * @param transitions number of transitions
+     * @return number of compartments seen on, so that nothing is optimised out
+     * @throws Exception
+     */
+    protected static long byName(FridgeState f, int transitions) throws Exception {
+        long on = 0;
+        for(int i = 0 ; i < transitions ; i++) {
+            FState fridge = (FState) f.getEmbeddingComponentStateValue("fridge state");
+            FState freezer = (FState) f.getEmbeddingComponentStateValue("freezer state");
+            DoorState fridgeDoor = (DoorState) f.getEmbeddingComponentStateValue("fridge door");
+            DoorState freezerDoor = (DoorState) f.getEmbeddingComponentStateValue("freezer door");
+            boolean fridgeBreak = (boolean) f.getEmbeddingComponentStateValue("fridge break");
+            boolean freezerBreak = (boolean) f.getEmbeddingComponentStateValue("freezer break");
+            if(fridge == FState.ON && !fridgeBreak && fridgeDoor == DoorState.CLOSE) {
+                on++;
+            }
+            if(freezer == FState.ON && !freezerBreak && freezerDoor == DoorState.CLOSE) {
+                on++;
+            }
+            f.setEmbeddingComponentStateValue((i & 1) == 0 ? "fridge state" : "freezer state",
+                    (i & 2) == 0 ? FState.ON : FState.OFF);
+        }
+        return on;
+    }
+
+    /**
+     * Run transitions accessing the state by keys
+     *
+     * @param f stand-in of the fridge
+     * @param transitions number of transitions
+     * @return number of compartments seen on, so that nothing is optimised out
+     */
+    protected static long byKey(FridgeState f, int transitions) {
+        long on = 0;
+        for(int i = 0 ; i < transitions ; i++) {
+            FState fridge = (FState) f.getEnumState(FRIDGE_STATE);
+            FState freezer = (FState) f.getEnumState(FREEZER_STATE);
+            DoorState fridgeDoor = (DoorState) f.getEnumState(FRIDGE_DOOR);
+            DoorState freezerDoor = (DoorState) f.getEnumState(FREEZER_DOOR);
+            boolean fridgeBreak = f.getBooleanState(FRIDGE_BREAK);
+            boolean freezerBreak = f.getBooleanState(FREEZER_BREAK);
+            if(fridge == FState.ON && !fridgeBreak && fridgeDoor == DoorState.CLOSE) {
+                on++;
+            }
+            if(freezer == FState.ON && !freezerBreak && freezerDoor == DoorState.CLOSE) {
+                on++;
+            }
+            f.setEnumState((i & 1) == 0 ? FRIDGE_STATE : FREEZER_STATE,
+                    (i & 2) == 0 ? FState.ON : FState.OFF);
+        }
+        return on;
+    }
+
+    /**
+     * Run transitions reading the state once
+     *
+     * @param f stand-in of the fridge
+     * @param transitions number of transitions
+     * @return number of compartments seen on, so that nothing is optimised out
+     */
+    protected static long bySnapshot(FridgeState f, int transitions) {
+        StateCell cell = f.getStateCell();
+        long on = 0;
+        for(int i = 0 ; i < transitions ; i++) {
+            long s = cell.read();
+            if(StateCell.getEnum(s, FRIDGE_STATE, STATES) == FState.ON
+                    && !StateCell.getBoolean(s, FRIDGE_BREAK)
+                    && StateCell.getEnum(s, FRIDGE_DOOR, DOORS) == DoorState.CLOSE) {
+                on++;
+            }
+            if(StateCell.getEnum(s, FREEZER_STATE, STATES) == FState.ON
+                    && !StateCell.getBoolean(s, FREEZER_BREAK)
+                    && StateCell.getEnum(s, FREEZER_DOOR, DOORS) == DoorState.CLOSE) {
+                on++;
+            }
+            f.setEnumState((i & 1) == 0 ? FRIDGE_STATE : FREEZER_STATE,
+                    (i & 2) == 0 ? FState.ON : FState.OFF);
+        }
+        return on;
+    }
+}
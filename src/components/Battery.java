@@ -1,9 +1,15 @@
 package components;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import connectors.ConnectorInstrumentation;
+import connectors.ControllerConnector;
+import controller.DeviceCommand;
+import controller.DeviceDescriptor;
+import controller.DeviceType;
 import fr.sorbonne_u.components.cyphy.AbstractCyPhyComponent;
 import fr.sorbonne_u.components.cyphy.interfaces.EmbeddingComponentAccessI;
 import fr.sorbonne_u.components.exceptions.ComponentShutdownException;
@@ -13,7 +19,10 @@ import fr.sorbonne_u.devs_simulation.architectures.SimulationEngineCreationMode;
 import fr.sorbonne_u.devs_simulation.models.architectures.AbstractAtomicModelDescriptor;
 import fr.sorbonne_u.devs_simulation.models.architectures.AtomicModelDescriptor;
 import interfaces.BatteryI;
+import interfaces.ControllerRegistrationI;
+import interfaces.EmbeddingStateI;
 import ports.BatteryInboundPort;
+import ports.ControllerRegistrationOutboundPort;
 import simulation.sil.battery.models.BatteryModel;
 import simulation.sil.battery.plugin.BatterySimulatorPlugin;
 
@@ -28,7 +37,7 @@ import simulation.sil.battery.plugin.BatterySimulatorPlugin;
  * </pre>
  *
  */
-public class Battery extends AbstractCyPhyComponent implements BatteryI, EmbeddingComponentAccessI {
+public class Battery extends AbstractCyPhyComponent implements BatteryI, EmbeddingComponentAccessI, EmbeddingStateI {
 
 	/**
 	 * States of the battery
@@ -37,19 +46,52 @@ public class Battery extends AbstractCyPhyComponent implements BatteryI, Embeddi
 		STANDBY, PRODUCING, CONSUMING
 	}
 
-	/** Current state of the battery  */
-	protected BState mode;
+	/**
+	 * Immutable view of the battery state, returned in a single call to the
+	 * controller.
+	 */
+	public static class BatterySnapshot implements Serializable {
+		private static final long serialVersionUID = 1L;
+		/** current mode of the battery */
+		public final BState mode;
+		/** current capacity of the battery */
+		public final double currentCapacity;
+		/** max capacity of the battery */
+		public final double maxCapacity;
+
+		public BatterySnapshot(BState mode, double currentCapacity, double maxCapacity) {
+			this.mode = mode;
+			this.currentCapacity = currentCapacity;
+			this.maxCapacity = maxCapacity;
+		}
+	}
+
+	/** Keys of the state for <code>EmbeddingStateI</code> */
+	public static final int STATE = 0;
+
+	protected static final BState[] MODES = BState.values();
+
+	/** Mode of the battery, shared with the model */
+	protected final StateCell cell = new StateCell();
 
 	/**
 	 * Port that exposes the offered interface of the battery with the given URI to ease the
 	 * connection from controller components.
 	 */
 	protected BatteryInboundPort batteryInboundPort;
+	/** URI of the executor of the read-only calls, null if they are run by the threads of the component */
+	protected String readExecutorURI;
 
 	/** 
 	 * the plugin in order to access the model 
 	 */
 	protected BatterySimulatorPlugin asp;
+	/** URI of the inbound port of the controller, null if the battery does not register */
+	protected String controllerInboundPortURI;
+	/** Port used to register with the controller */
+	protected ControllerRegistrationOutboundPort registrationPort;
+	/** Descriptor sent to the controller */
+	protected DeviceDescriptor descriptor;
 
 	/**
 	 * Create a battery.
@@ -64,15 +106,50 @@ public class Battery extends AbstractCyPhyComponent implements BatteryI, Embeddi
 	 * @throws Exception			<i>todo.</i>
 	 */
 	protected Battery(String uri, String batteryInboundPortURI) throws Exception {
-		super(uri, 1, 0);
+		super(uri, ComponentThreads.of(ComponentThreads.BATTERY).nbThreads,
+			ComponentThreads.of(ComponentThreads.BATTERY).nbSchedulableThreads);
 		assert uri != null : new PreconditionException("uri can't be null!");
-		this.mode = BState.STANDBY;
+		ComponentThreads threads = ComponentThreads.of(ComponentThreads.BATTERY);
+		if(threads.nbReadThreads > 0) {
+			this.createNewExecutorService(ComponentThreads.READ_EXECUTOR_URI, threads.nbReadThreads, false);
+			this.readExecutorURI = ComponentThreads.READ_EXECUTOR_URI;
+		}
+		this.cell.setEnum(STATE, BState.STANDBY);
 		this.addOfferedInterface(BatteryI.class);
 		batteryInboundPort = new BatteryInboundPort(batteryInboundPortURI, this);
 		batteryInboundPort.publishPort();
 		this.initialise();
 	}
 
+	/**
+	 * Create a battery component that registers with the controller
+	 * 
+	 * @param uri
+	 * @param batteryInboundPortURI
+	 * @param controllerInboundPortURI URI of the inbound port of the controller
+	 * @param householdURI URI of the household of the battery
+	 * @param priority shedding priority of the battery
+	 * @throws Exception
+	 */
+	protected Battery(String uri, String batteryInboundPortURI,
+			String controllerInboundPortURI, String householdURI, int priority) throws Exception {
+		this(uri, batteryInboundPortURI);
+		this.addRequiredInterface(ControllerRegistrationI.class);
+		this.controllerInboundPortURI = controllerInboundPortURI;
+		this.registrationPort = new ControllerRegistrationOutboundPort(this);
+		this.registrationPort.publishPort();
+		this.descriptor = new DeviceDescriptor(householdURI, DeviceType.BATTERY, batteryInboundPortURI,
+				BatteryModel.BATTERY_MODIF, priority);
+	}
+
+	/**
+	 * @return URI of the executor of the read-only calls, or null if they
+	 * are run by the threads of the battery
+	 */
+	public String getReadExecutorURI() {
+		return this.readExecutorURI;
+	}
+
 	/**
 	 * Initialise the battery by installing the plugin for accessing to the model.
 	 * 
@@ -129,6 +206,36 @@ public class Battery extends AbstractCyPhyComponent implements BatteryI, Embeddi
 //      asp.doStandAloneSimulation(0.0, 500.0);
 //  }
 
+	/**
+	 * Register the battery with the controller
+	 * 
+	 * @throws Exception
+	 */
+	@Override
+	public void execute() throws Exception {
+		super.execute();
+		if(this.registrationPort != null) {
+			this.doPortConnection(
+					this.registrationPort.getPortURI(),
+					this.controllerInboundPortURI,
+					ConnectorInstrumentation.select(ControllerConnector.class));
+			this.registrationPort.register(this.descriptor);
+		}
+	}
+
+	/**
+	 * Finalise the component by disconnecting from the controller
+	 * 
+	 * @exception Exception
+	 */
+	@Override
+	public void finalise() throws Exception {
+		if(this.registrationPort != null && this.registrationPort.connected()) {
+			this.doPortDisconnection(this.registrationPort.getPortURI());
+		}
+		super.finalise();
+	}
+
 	/**
 	 * Shutdown the component
 	 * 
@@ -138,6 +245,9 @@ public class Battery extends AbstractCyPhyComponent implements BatteryI, Embeddi
 	public void shutdown() throws ComponentShutdownException {
 		try {
 			batteryInboundPort.unpublishPort();
+			if(this.registrationPort != null) {
+				this.registrationPort.unpublishPort();
+			}
 		} catch (Exception e) {
 			throw new ComponentShutdownException(e);
 		}
@@ -153,6 +263,9 @@ public class Battery extends AbstractCyPhyComponent implements BatteryI, Embeddi
 	public void shutdownNow() throws ComponentShutdownException {
 		try {
 			batteryInboundPort.unpublishPort();
+			if(this.registrationPort != null) {
+				this.registrationPort.unpublishPort();
+			}
 		} catch (Exception e) {
 			throw new ComponentShutdownException(e);
 		}
@@ -166,7 +279,7 @@ public class Battery extends AbstractCyPhyComponent implements BatteryI, Embeddi
 	 */
 	@Override
 	public double getMaxCapacity() throws Exception {
-		return (double) asp.getModelStateValue(BatteryModel.URI, "max capacity");
+		return asp.getMaxCapacity();
 	}
 
 	/**
@@ -176,7 +289,7 @@ public class Battery extends AbstractCyPhyComponent implements BatteryI, Embeddi
 	 */
 	@Override
 	public double getCurrentCapacity() throws Exception {
-		return (double) asp.getModelStateValue(BatteryModel.URI, "capacity");
+		return asp.getCapacity();
 	}
 
 	/**
@@ -186,7 +299,7 @@ public class Battery extends AbstractCyPhyComponent implements BatteryI, Embeddi
 	 */
 	@Override
 	public void setMode(BState mode) throws Exception {
-		this.mode = mode;
+		this.cell.setEnum(STATE, mode);
 	}
 
 	/**
@@ -196,7 +309,39 @@ public class Battery extends AbstractCyPhyComponent implements BatteryI, Embeddi
 	 */
 	@Override
 	public BState getMode() throws Exception {
-		return mode;
+		return this.cell.getEnum(STATE, MODES);
+	}
+
+	/**
+	 * Return the mode and the capacities of the battery in one call
+	 * 
+	 * @return snapshot of the battery
+	 */
+	@Override
+	public BatterySnapshot getSnapshot() throws Exception {
+		return new BatterySnapshot(getMode(), getCurrentCapacity(), getMaxCapacity());
+	}
+
+	/**
+	 * Apply a batch of commands in their order, then return the new state
+	 * of the battery
+	 * 
+	 * @param commands commands to apply
+	 * @return snapshot of the battery after the commands
+	 * @throws Exception
+	 */
+	@Override
+	public BatterySnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+		for(DeviceCommand c : commands) {
+			switch(c.kind) {
+			case SET_MODE:
+				this.setMode((BState) c.value);
+				break;
+			default:
+				throw c.unsupported("battery");
+			}
+		}
+		return this.getSnapshot();
 	}
 
 	/**
@@ -226,7 +371,7 @@ public class Battery extends AbstractCyPhyComponent implements BatteryI, Embeddi
 	@Override
 	public Object getEmbeddingComponentStateValue(String name) throws Exception {
 		if (name.equals("state")) {
-			return mode;
+			return this.getEnumState(STATE);
 		} else {
 			throw new RuntimeException();
 		}
@@ -242,9 +387,60 @@ public class Battery extends AbstractCyPhyComponent implements BatteryI, Embeddi
 	@Override
 	public void setEmbeddingComponentStateValue(String name, Object value) {
 		if (name.equals("state")) {
-			this.mode = (BState) value;
+			this.setEnumState(STATE, (BState) value);
 		} else {
 			throw new RuntimeException();
 		}
 	}
+
+	/**
+	 * @see {@link interfaces.EmbeddingStateI#getEnumState(int)}
+	 */
+	@Override
+	public Enum<?> getEnumState(int key) {
+		switch(key) {
+		case STATE:
+			return this.cell.getEnum(key, MODES);
+		default:
+			throw new IllegalArgumentException("not an enumerated state " + key);
+		}
+	}
+
+	/**
+	 * @see {@link interfaces.EmbeddingStateI#setEnumState(int, Enum)}
+	 */
+	@Override
+	public void setEnumState(int key, Enum<?> value) {
+		switch(key) {
+		case STATE:
+			this.cell.setEnum(key, (BState) value);
+			break;
+		default:
+			throw new IllegalArgumentException("not a writable enumerated state " + key);
+		}
+	}
+
+	/**
+	 * @see {@link interfaces.EmbeddingStateI#getBooleanState(int)}
+	 */
+	@Override
+	public boolean getBooleanState(int key) {
+		throw new IllegalArgumentException("not a boolean state " + key);
+	}
+
+	/**
+	 * @see {@link interfaces.EmbeddingStateI#setBooleanState(int, boolean)}
+	 */
+	@Override
+	public void setBooleanState(int key, boolean value) {
+		throw new IllegalArgumentException("not a writable boolean state " + key);
+	}
+
+	/**
+	 * @see {@link interfaces.EmbeddingStateI#getStateCell()}
+	 */
+	@Override
+	public StateCell getStateCell() {
+		return this.cell;
+	}
 }
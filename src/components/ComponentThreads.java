@@ -0,0 +1,135 @@
+package components;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * The class <code>ComponentThreads</code> gives the number of threads of
+ * each type of device component, read from the deployment.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * The settings are read from <code>threads.properties</code> in the working
+ * directory, or from the file given by <code>-Dziodyne.threads</code>. For
+ * a type of component, e.g. <code>battery</code>, the keys are:
+ *
+ * <ul>
+ * <li><code>battery.threads</code>: threads of the component, running the
+ * calls that change its state in their order when there is only one
+ * (default 1);</li>
+ * <li><code>battery.schedulableThreads</code>: schedulable threads of the
+ * component (default 0);</li>
+ * <li><code>battery.readThreads</code>: threads of a separate executor
+ * running the read-only calls of the controller, which then no longer wait
+ * behind the changes of state and the simulation (default 0, the reads
+ * being run by the threads of the component).</li>
+ * </ul>
+ *
+ * A missing file or key keeps the default, which is the assembly of one
+ * thread per component.
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		nbThreads &gt;= 1
+ * invariant		nbSchedulableThreads &gt;= 0
+ * invariant		nbReadThreads &gt;= 0
+ * </pre>
+ */
+public class ComponentThreads {
+    /** name of the system property giving the file of the settings */
+    public static final String PROPERTY = "ziodyne.threads";
+    /** file of the settings if the property is not set */
+    public static final String DEFAULT_FILE = "threads.properties";
+    /** URI of the executor of the read-only calls */
+    public static final String READ_EXECUTOR_URI = "read-executor";
+    /** URI of the executor sending the notifications to the controller, of one thread */
+    public static final String NOTIFY_EXECUTOR_URI = "notify-executor";
+
+    public static final String LAMP = "lamp";
+    public static final String FRIDGE = "fridge";
+    public static final String DISHWASHER = "dishwasher";
+    public static final String BATTERY = "battery";
+    public static final String WIND_TURBINE = "windturbine";
+    public static final String ELECTRIC_METER = "electricmeter";
+
+    /** settings of the deployment */
+    protected static final Properties settings = load();
+
+    /** threads of the component */
+    public final int nbThreads;
+    /** schedulable threads of the component */
+    public final int nbSchedulableThreads;
+    /** threads of the executor of the read-only calls, 0 if there is none */
+    public final int nbReadThreads;
+
+    /**
+     * Create the settings of a type of component
+     *
+     * @param nbThreads threads of the component
+     * @param nbSchedulableThreads schedulable threads of the component
+     * @param nbReadThreads threads of the executor of the read-only calls
+     */
+    public ComponentThreads(int nbThreads, int nbSchedulableThreads, int nbReadThreads) {
+        if(nbThreads < 1 || nbSchedulableThreads < 0 || nbReadThreads < 0) {
+            throw new IllegalArgumentException("invalid numbers of threads " + nbThreads
+                    + ", " + nbSchedulableThreads + ", " + nbReadThreads);
+        }
+        this.nbThreads = nbThreads;
+        this.nbSchedulableThreads = nbSchedulableThreads;
+        this.nbReadThreads = nbReadThreads;
+    }
+
+    /**
+     * Return the settings of a type of component
+     *
+     * @param type type of component, e.g. <code>BATTERY</code>
+     * @return settings of the type
+     */
+    public static ComponentThreads of(String type) {
+        return new ComponentThreads(
+                get(type + ".threads", 1),
+                get(type + ".schedulableThreads", 0),
+                get(type + ".readThreads", 0));
+    }
+
+    /**
+     * Return a setting
+     *
+     * @param key key of the setting
+     * @param defaultValue value if the setting is missing
+     * @return value of the setting
+     */
+    protected static int get(String key, int defaultValue) {
+        String value = settings.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Read the file of the settings
+     *
+     * @return settings, empty if there is no file
+     */
+    protected static Properties load() {
+        Properties p = new Properties();
+        String file = System.getProperty(PROPERTY, DEFAULT_FILE);
+        if(Files.isReadable(Paths.get(file))) {
+            try(InputStream in = new FileInputStream(file)) {
+                p.load(in);
+            } catch(IOException e) {
+                throw new IllegalStateException("cannot read " + file, e);
+            }
+        }
+        return p;
+    }
+
+    @Override
+    public String toString() {
+        return "threads = " + this.nbThreads + ", schedulable = " + this.nbSchedulableThreads
+                + ", read = " + this.nbReadThreads;
+    }
+}
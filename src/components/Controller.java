@@ -1,46 +1,66 @@
 package components;
 
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-
-import components.Battery.BState;
-import components.Dishwasher.DWMode;
-import connectors.BatteryConnector;
-import connectors.DishwasherConnector;
-import connectors.ElectricMeterConnector;
-import connectors.FridgeConnector;
-import connectors.LampConnector;
-import connectors.WindTurbineConnector;
+import java.util.concurrent.TimeoutException;
+
+import controller.ActuationPipeline;
+import controller.AdaptiveControlPeriod;
+import controller.BudgetAllocator;
+import controller.ConcurrentReads;
+import controller.DeviceDescriptor;
+import controller.DeviceTable.Entry;
+import controller.Flexibility;
+import controller.Household;
+import controller.Registration;
+import controller.ThreadMode;
+import controller.TickStatistics;
 import fr.sorbonne_u.components.cyphy.AbstractCyPhyComponent;
 import fr.sorbonne_u.components.cyphy.interfaces.EmbeddingComponentAccessI;
 import fr.sorbonne_u.components.cyphy.plugins.devs.AtomicSimulatorPlugin;
 import fr.sorbonne_u.components.exceptions.ComponentShutdownException;
-import fr.sorbonne_u.components.exceptions.ComponentStartException;
 import fr.sorbonne_u.devs_simulation.architectures.Architecture;
 import fr.sorbonne_u.devs_simulation.architectures.SimulationEngineCreationMode;
 import fr.sorbonne_u.devs_simulation.models.architectures.AbstractAtomicModelDescriptor;
 import fr.sorbonne_u.devs_simulation.models.architectures.AtomicModelDescriptor;
+import interfaces.BatteryControllerI;
+import interfaces.ControllerI;
+import interfaces.ControllerNotificationI;
 import interfaces.DishwasherControllerI;
+import interfaces.ElectricMeterControllerI;
 import interfaces.FridgeControllerI;
 import interfaces.LampControllerI;
 import interfaces.WindTurbineControllerI;
-import ports.BatteryControllerOutboundPort;
-import ports.DishwasherControllerOutboundPort;
-import ports.ElectricMeterControllerOutboundPort;
-import ports.FridgeControllerOutboundPort;
-import ports.LampControllerOutboundPort;
-import ports.WindTurbineControllerOutboundPort;
-import simulation.sil.battery.models.BatteryModel;
+import ports.ControllerInboundPort;
+import ports.ControllerNotificationInboundPort;
 import simulation.sil.controller.models.ControllerModel;
-import simulation.sil.dishwasher.models.DishwasherModel;
-import simulation.sil.fridge.models.FridgeModel;
-import simulation.sil.lamp.models.LampModel;
 
 
 /**
  *The class <code>Controller</code> implements a controller component that will
  * hold the controller simulation model.
+ * 
+ * The controller manages several households. The devices are not known when
+ * the controller is created: each of them registers through the inbound port
+ * of the controller with a <code>DeviceDescriptor</code> naming its
+ * household, and the controller connects to it at the next control tick.
+ * Each household is given to one of the worker threads of the controller,
+ * its shard, and at each tick the shards run the passes of their households
+ * in parallel. The households are the zones of the building: the controller
+ * only sees their flexibility summaries and gives them watt budgets, each
+ * from the electric meter of the household unless the energy is pooled.
+ * A device may notify its changes of state on the notification port of the
+ * controller; it is then read from its last notification instead of being
+ * queried at each tick. The shards, the reads and the actuations of the
+ * controller run on platform or virtual threads, as chosen by
+ * <code>ThreadMode</code>; the threads of the component itself belong to
+ * BCM.
  * 
   <p><strong>Invariant</strong></p>
  * 
@@ -50,55 +70,61 @@ import simulation.sil.lamp.models.LampModel;
  *
  */
 public class Controller extends AbstractCyPhyComponent implements EmbeddingComponentAccessI {
+    /** number of threads querying the devices, for each shard */
+    public static final int READ_THREADS = 6;
+    /** default number of worker threads running the households */
+    public static final int DEFAULT_SHARDS = Runtime.getRuntime().availableProcessors();
+    /** name of the system property giving the wall-clock time of a tick, in ms */
+    public static final String TICK_BUDGET_PROPERTY = "ziodyne.tickBudget";
+    /** default wall-clock time given to a tick, in milliseconds */
+    public static final long DEFAULT_TICK_BUDGET = Long.getLong(TICK_BUDGET_PROPERTY, 500L);
+    /** fraction of the tick budget under which the fallback decision is used */
+    public static final double FALLBACK_MARGIN = 0.25;
+
 	/**
-	 * Outbound port of the lamp
-	 */
-    private LampControllerOutboundPort lampOutboundPort;
-    /**
-	 * Outbound port of the fridge
-	 */
-    private FridgeControllerOutboundPort fridgeOutboundPort;
-    /**
-	 * Outbound port of the wind turbine
-	 */
-    private WindTurbineControllerOutboundPort windTurbineOutboundPort;
-    /**
-	 * Outbound port of the dishwasher
-	 */
-    private DishwasherControllerOutboundPort dishwasherOutboundPort;
-    /**
-	 * Outbound port of the electric meter
+	 * Inbound port receiving the registrations of the devices
 	 */
-    private ElectricMeterControllerOutboundPort electricMeterOutboundPort;
-    /**
-	 * Outbound port of the battery
-	 */
-    private BatteryControllerOutboundPort batteryOutboundPort;
-
-    /**
-     * Port uri of the lamp
-     */
-    private String lampInboundPortURI;
-    /**
-     * Port uri of the fridge
-     */
-    private String fridgeInboundPortURI;
-    /**
-     * Port uri of the wind turbine
-     */
-    private String windTurbineInboundPortURI;
-    /**
-     * Port uri of the dishwasher
-     */
-    private String dishwasherInboundPortURI;
-    /**
-     * Port uri of the electric meter
-     */
-    private String electricMeterInboundPortURI;
-    /**
-     * Port uri of the battery
-     */
-    private String batteryInboundPortURI;
+    private ControllerInboundPort controllerInboundPort;
+    /** inbound port receiving the changes of state notified by the devices */
+    private ControllerNotificationInboundPort notificationInboundPort;
+    /** devices of all the households, by identifier */
+    protected Entry[] byId = new Entry[16];
+    /** number of devices registered */
+    protected int nbDevices;
+    /** number of notifications received */
+    protected long notifications;
+    /** number of notifications dropped because they were older than the mirror */
+    protected long staleNotifications;
+    /** households by URI */
+    protected final Map<String, Household> households = new HashMap<>();
+    /** households in the order of their registration, replaced when one is added */
+    protected volatile Household[] householdArray = new Household[0];
+    /** worker threads, each one running the passes of its households */
+    protected final ExecutorService[] shards;
+    /** threads shared by the reads of the households */
+    protected final ExecutorService readExecutor;
+    /** threads shared by the actuations of the households */
+    protected final ExecutorService actuationExecutor;
+    /** passes of the current tick */
+    protected Future<?>[] passes = new Future<?>[0];
+    /** summaries reported by the households during the current tick */
+    protected Flexibility[] flexibilities = new Flexibility[0];
+    /** budgets given to the households during the current tick */
+    protected double[] budgets = new double[0];
+    /** gives a watt budget to each household */
+    protected final BudgetAllocator allocator = new BudgetAllocator();
+    /** true if the energy of the households is pooled across the building */
+    protected boolean poolEnergy = BudgetAllocator.DEFAULT_POOLING;
+    /** wall-clock time given to a tick, in milliseconds */
+    protected long tickBudget = DEFAULT_TICK_BUDGET;
+    /** overruns and durations of the ticks */
+    protected final TickStatistics tickStatistics = new TickStatistics();
+    /** max time given to the device queries of a tick, in milliseconds */
+    protected long readTimeout = ConcurrentReads.DEFAULT_TIMEOUT;
+    /** max time given to the actuation commands of a tick, in milliseconds */
+    protected long actuationTimeout = ActuationPipeline.DEFAULT_TIMEOUT;
+    /** true if the devices connected from now on use caching connectors */
+    protected volatile boolean cachingConnectors;
 
     
 	/** 
@@ -106,7 +132,41 @@ public class Controller extends AbstractCyPhyComponent implements EmbeddingCompo
 	 */
     protected AtomicSimulatorPlugin asp;
 
+    /** number of control ticks executed */
+    protected long ticks;
+    /** number of port calls made since the first tick */
+    protected long totalPortCalls;
+    /** number of port calls made during the last tick */
+    protected int lastTickPortCalls;
+    /** number of household passes done since the first tick */
+    protected long householdPasses;
+    /** time spent in the ticks, in nanoseconds */
+    protected long tickNanos;
+    /** period of the controller, fixed unless it adapts to the available energy */
+    protected AdaptiveControlPeriod controlPeriod = AdaptiveControlPeriod.createDefault();
+
     
+	/**
+	 * Create a controller component with one shard per processor.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	reflectionInboundPortURI != null
+	 * pre	controllerInboundPortURI != null
+	 * post	true			// no postcondition.
+	 * </pre>
+	 *
+	 * @param reflectionInboundPortURI	URI of the reflection inbound port of the controller component.
+	 * @param controllerInboundPortURI	URI of the inbound port where the devices register.
+	 * @throws Exception				
+	 */
+    protected Controller(
+            String reflectionInboundPortURI,
+            String controllerInboundPortURI) throws Exception{
+        this(reflectionInboundPortURI, controllerInboundPortURI, DEFAULT_SHARDS);
+    }
+
 	/**
 	 * Create a controller component.
 	 * 
@@ -114,65 +174,46 @@ public class Controller extends AbstractCyPhyComponent implements EmbeddingCompo
 	 * 
 	 * <pre>
 	 * pre	reflectionInboundPortURI != null
+	 * pre	controllerInboundPortURI != null
+	 * pre	nbShards &gt; 0
 	 * post	true			// no postcondition.
 	 * </pre>
 	 *
 	 * @param reflectionInboundPortURI	URI of the reflection inbound port of the controller component.
-	 * @param lampOutboundPortURI	URI of the outbound port of the lamp component.
-	 * @param lampInboundPortURI	URI of the inbound port of the lamp component.
-	 * @param fridgeOutboundPortURI	URI of the outbound port of the fridge component.
-	 * @param fridgeInboundPortURI	URI of the inbound port of the fridge component.
-	 * @param windTurbineOutboundPortURI	URI of the outbound port of the wind turbine component.
-	 * @param windTurbineInboundPortURI	URI of the inbound port of the wind turbine component.
-	 * @param dishwasherOutboundPortURI	URI of the outbound port of the dishwasher component.
-	 * @param dishwasherInboundPortURI	URI of the inbound port of the dishwasher component.
-	 * @param electricMeterpOutboundPortURI	URI of the outbound port of the electric meter component.
-	 * @param electricMeterInboundPortURI	URI of the inbound port of the electric meter component.
-	 * @param batteryOutboundPortURI	URI of the outbound port of the battery component.
-	 * @param batteryInboundPortURI	URI of the inbound port of the battery component.
+	 * @param controllerInboundPortURI	URI of the inbound port where the devices register.
+	 * @param nbShards	number of worker threads running the households.
 	 * @throws Exception				
 	 */
     protected Controller(
             String reflectionInboundPortURI,
-            String lampOutboundPortURI,
-            String lampInboundPortURI,
-            String fridgeOutboundPortURI,
-            String fridgeInboundPortURI,
-            String windTurbineOutboundPortURI,
-            String windTurbineInboundPortURI,
-            String dishwasherOutboundPortURI,
-            String dishwasherInboundPortURI,
-            String electricMeterOutboundPortURI,
-            String electricMeterInboundPortURI,
-            String batteryOutboundPortURI,
-            String batteryInboundPortURI) throws Exception{
+            String controllerInboundPortURI,
+            int nbShards) throws Exception{
         super(reflectionInboundPortURI, 1, 0);
-        this.lampInboundPortURI = lampInboundPortURI;
-        this.fridgeInboundPortURI = fridgeInboundPortURI;
-        this.windTurbineInboundPortURI = windTurbineInboundPortURI;
-        this.dishwasherInboundPortURI = dishwasherInboundPortURI;
-        this.electricMeterInboundPortURI = electricMeterInboundPortURI;
-        this.batteryInboundPortURI = batteryInboundPortURI;
+        assert controllerInboundPortURI != null;
+        assert nbShards > 0;
+        this.shards = new ExecutorService[nbShards];
+        for(int i = 0 ; i < nbShards ; i++) {
+            this.shards[i] = ThreadMode.get().newSingleThreadExecutor(
+                    reflectionInboundPortURI + "-shard-" + i);
+        }
+        this.readExecutor = ThreadMode.get().newPool(
+                reflectionInboundPortURI + "-read", READ_THREADS * nbShards);
+        this.actuationExecutor = ThreadMode.get().newPool(
+                reflectionInboundPortURI + "-actuation", ActuationPipeline.DEFAULT_THREADS * nbShards);
 
+        this.addOfferedInterface(ControllerI.class);
+        this.addOfferedInterface(ControllerNotificationI.class);
         this.addRequiredInterface(LampControllerI.class);
         this.addRequiredInterface(FridgeControllerI.class);
         this.addRequiredInterface(WindTurbineControllerI.class);
         this.addRequiredInterface(DishwasherControllerI.class);
-        this.addRequiredInterface(ElectricMeterControllerOutboundPort.class);
-        this.addRequiredInterface(BatteryControllerOutboundPort.class);
-
-        this.lampOutboundPort = new LampControllerOutboundPort(lampOutboundPortURI,this);
-        this.lampOutboundPort.publishPort();
-        this.fridgeOutboundPort = new FridgeControllerOutboundPort(fridgeOutboundPortURI,this);
-        this.fridgeOutboundPort.publishPort();
-        this.windTurbineOutboundPort = new WindTurbineControllerOutboundPort(windTurbineOutboundPortURI,this);
-        this.windTurbineOutboundPort.publishPort();
-        this.dishwasherOutboundPort = new DishwasherControllerOutboundPort(dishwasherOutboundPortURI, this);
-        this.dishwasherOutboundPort.publishPort();
-        this.electricMeterOutboundPort = new ElectricMeterControllerOutboundPort(electricMeterOutboundPortURI, this);
-        this.electricMeterOutboundPort.publishPort();
-        this.batteryOutboundPort = new BatteryControllerOutboundPort(batteryOutboundPortURI,this);
-        this.batteryOutboundPort.publishPort();
+        this.addRequiredInterface(ElectricMeterControllerI.class);
+        this.addRequiredInterface(BatteryControllerI.class);
+
+        this.controllerInboundPort = new ControllerInboundPort(controllerInboundPortURI, this);
+        this.controllerInboundPort.publishPort();
+        this.notificationInboundPort = new ControllerNotificationInboundPort(this);
+        this.notificationInboundPort.publishPort();
 
         this.initialise();
     }
@@ -211,59 +252,67 @@ public class Controller extends AbstractCyPhyComponent implements EmbeddingCompo
 //        this.tracer.setTitle("Controller");
     }
 
-
     /**
-     * Start the controller component
+     * Register a device in its household, created at its first device; the
+     * controller connects to the device at the next tick
      * 
-     * <p><strong>Contract</strong></p>
+     * @param descriptor descriptor sent by the device
+     * @return identifier of the device and URI of the notification port
+     */
+    public Registration register(DeviceDescriptor descriptor) {
+        assert descriptor != null;
+        Household h;
+        Entry e;
+        int id;
+        synchronized(this.households) {
+            h = this.households.get(descriptor.householdURI);
+            if(h == null) {
+                Household[] old = this.householdArray;
+                h = new Household(descriptor.householdURI, old.length % this.shards.length, this,
+                        this.readExecutor, this.readTimeout,
+                        this.actuationExecutor, this.actuationTimeout);
+                this.households.put(h.uri, h);
+                Household[] a = Arrays.copyOf(old, old.length + 1);
+                a[old.length] = h;
+                this.householdArray = a;
+                this.logMessage("new " + h);
+            }
+            e = h.register(descriptor);
+            id = this.nbDevices++;
+            if(id == this.byId.length) {
+                this.byId = Arrays.copyOf(this.byId, 2 * id);
+            }
+            this.byId[id] = e;
+        }
+        this.logMessage("registered " + id + " (" + e.index + " in " + h.uri + ") : " + descriptor);
+        return new Registration(id, this.notificationInboundPort.getPortURI());
+    }
+
+    /**
+     * Mirror the new state of a device, read instead of querying the device
+     * at the next ticks.
      * 
-     * <pre>
-     * pre	true				// no more preconditions.
-     * post	true				// no more postconditions.
-     * </pre>
+     * The notifications of a device may arrive out of order, as they are
+     * sent from several threads: a state whose version is not newer than
+     * the one of the mirror is dropped. The versions are compared modulo
+     * 2^32, as they wrap around.
      * 
-     * @see fr.sorbonne_u.components.AbstractComponent#start()
+     * @param deviceId identifier given to the device at its registration
+     * @param version version of the state of the device
+     * @param snapshot new state of the device
      */
-    @Override
-    public void start() throws ComponentStartException{
-        super.start();
-        try {
-            //connect with the lamp
-            this.doPortConnection(
-                    this.lampOutboundPort.getPortURI(),
-                    this.lampInboundPortURI,
-                    LampConnector.class.getCanonicalName());
-            //connect with the fridge
-            this.doPortConnection(
-                    this.fridgeOutboundPort.getPortURI(),
-                    this.fridgeInboundPortURI,
-                    FridgeConnector.class.getCanonicalName());
-            //connect with the wind turbine
-            this.doPortConnection(
-                    this.windTurbineOutboundPort.getPortURI(),
-                    this.windTurbineInboundPortURI,
-                    WindTurbineConnector.class.getCanonicalName());
-            //connect with the dish washer
-            this.doPortConnection(
-                    this.dishwasherOutboundPort.getPortURI(),
-                    this.dishwasherInboundPortURI,
-                    DishwasherConnector.class.getCanonicalName());
-            //connect with the electric meter
-            this.doPortConnection(
-                    this.electricMeterOutboundPort.getPortURI(),
-                    this.electricMeterInboundPortURI,
-                    ElectricMeterConnector.class.getCanonicalName());
-            //connect with the battery
-            this.doPortConnection(
-                    this.batteryOutboundPort.getPortURI(),
-                    this.batteryInboundPortURI,
-                    BatteryConnector.class.getCanonicalName());
-        }catch(Exception e) {
-            throw new ComponentStartException(e);
+    public void notifyChange(int deviceId, int version, Serializable snapshot) {
+        assert snapshot != null;
+        synchronized(this.households) {
+            assert deviceId >= 0 && deviceId < this.nbDevices;
+            Entry e = this.byId[deviceId];
+            this.notifications++;
+            if(!e.updateMirror(version, snapshot, true)) {
+                this.staleNotifications++;
+            }
         }
     }
 
-
 	/**
 	 * Shutdown the component
 	 * 
@@ -272,15 +321,11 @@ public class Controller extends AbstractCyPhyComponent implements EmbeddingCompo
     @Override
     public void shutdown() throws ComponentShutdownException {
         try {
-            this.lampOutboundPort.unpublishPort();
-            this.fridgeOutboundPort.unpublishPort();
-            this.windTurbineOutboundPort.unpublishPort();
-            this.dishwasherOutboundPort.unpublishPort();
-            this.electricMeterOutboundPort.unpublishPort();
-            this.batteryOutboundPort.unpublishPort();
+            this.unpublishPorts();
         }catch(Exception e) {
             throw new ComponentShutdownException(e);
         }
+        this.shutdownThreads();
         super.shutdown();
     }
 
@@ -293,18 +338,41 @@ public class Controller extends AbstractCyPhyComponent implements EmbeddingCompo
     @Override
     public void shutdownNow() throws ComponentShutdownException {
         try {
-            this.lampOutboundPort.unpublishPort();
-            this.fridgeOutboundPort.unpublishPort();
-            this.windTurbineOutboundPort.unpublishPort();
-            this.dishwasherOutboundPort.unpublishPort();
-            this.electricMeterOutboundPort.unpublishPort();
-            this.batteryOutboundPort.unpublishPort();
+            this.unpublishPorts();
         }catch(Exception e) {
             throw new ComponentShutdownException(e);
         }
+        this.shutdownThreads();
         super.shutdownNow();
     }
 
+    /**
+     * Unpublish the inbound port and the ports connected to the devices
+     * 
+     * @throws Exception
+     */
+    private void unpublishPorts() throws Exception {
+        this.controllerInboundPort.unpublishPort();
+        this.notificationInboundPort.unpublishPort();
+        for(Household h : this.householdArray) {
+            h.unpublishPorts();
+        }
+    }
+
+    /**
+     * Stop the worker threads and the threads shared by the households
+     */
+    private void shutdownThreads() {
+        for(Household h : this.householdArray) {
+            h.getActuation().shutdown();
+        }
+        for(ExecutorService shard : this.shards) {
+            shard.shutdownNow();
+        }
+        this.readExecutor.shutdownNow();
+        this.actuationExecutor.shutdownNow();
+    }
+
     /**
      * Finalise the component by disconnecting all the ports
      * 
@@ -312,274 +380,331 @@ public class Controller extends AbstractCyPhyComponent implements EmbeddingCompo
      */
     @Override
     public void finalise() throws Exception{
-        this.doPortDisconnection(this.lampOutboundPort.getPortURI());
-        this.doPortDisconnection(this.fridgeOutboundPort.getPortURI());
-        this.doPortDisconnection(this.windTurbineOutboundPort.getPortURI());
-        this.doPortDisconnection(this.dishwasherOutboundPort.getPortURI());
-        this.doPortDisconnection(this.electricMeterOutboundPort.getPortURI());
-        this.doPortDisconnection(this.batteryOutboundPort.getPortURI());
+        long reads = 0, fallbacks = 0;
+        double nominalPower = 0.0;
+        for(Household h : this.householdArray) {
+            h.getActuation().join();
+            reads += h.getReads().getReads();
+            fallbacks += h.getReads().getFallbacks();
+            nominalPower += h.getNominalPower();
+        }
+        if(ThreadMode.isFallback()) {
+            this.logMessage("threads : virtual threads need Java 21, platform threads were used");
+        }
+        this.logMessage(this.householdArray.length + " households on " +
+                this.shards.length + " shards, nominal power = " + nominalPower + " W");
+        this.logMessage("actuations : submitted = " + this.getSubmittedActuations() +
+                ", late = " + this.getLateActuations() +
+                ", failed = " + this.getFailedActuations());
+        this.logMessage("reads : reads = " + reads + ", fallbacks = " + fallbacks +
+                ", notifications = " + this.notifications +
+                " (" + this.staleNotifications + " stale)");
+        long[] cacheCounts = new long[2];
+        for(Household h : this.householdArray) {
+            h.addCacheCounts(cacheCounts);
+        }
+        if(cacheCounts[0] + cacheCounts[1] > 0) {
+            this.logMessage("connector caches : hits = " + cacheCounts[0] +
+                    ", misses = " + cacheCounts[1]);
+        }
+        if(this.ticks > 0) {
+            this.logMessage("port calls per tick = " +
+                    ((double)this.totalPortCalls / this.ticks) +
+                    " (" + this.ticks + " ticks)");
+            this.logMessage("households controlled per second = " +
+                    this.getHouseholdThroughput() +
+                    " (" + this.householdPasses + " passes)");
+            this.logMessage(this.controlPeriod.toString());
+            this.logMessage(this.tickStatistics.toString());
+        }
+        for(Household h : this.householdArray) {
+            h.disconnectPorts();
+        }
         super.finalise();
     }
 
+    /**
+     * Replace the time given to the device queries of a tick
+     * 
+     * @param timeout max time in milliseconds
+     */
+    public void setReadTimeout(long timeout) {
+        this.readTimeout = timeout;
+        for(Household h : this.householdArray) {
+            h.getReads().setTimeout(timeout);
+        }
+    }
+
+    /**
+     * Replace the time given to the actuation commands of a tick
+     * 
+     * @param timeout max time in milliseconds
+     */
+    public void setActuationTimeout(long timeout) {
+        this.actuationTimeout = timeout;
+        for(Household h : this.householdArray) {
+            h.getActuation().setTimeout(timeout);
+        }
+    }
+
+    /**
+     * Return the number of actuation commands submitted
+     * 
+     * @return number of submitted actuations
+     */
+    public long getSubmittedActuations() {
+        long n = 0;
+        for(Household h : this.householdArray) {
+            n += h.getActuation().getSubmitted();
+        }
+        return n;
+    }
+
+    /**
+     * Return the number of times an actuation command was not done when
+     * joined at the next tick
+     * 
+     * @return number of late actuations
+     */
+    public long getLateActuations() {
+        long n = 0;
+        for(Household h : this.householdArray) {
+            n += h.getActuation().getLate();
+        }
+        return n;
+    }
+
+    /**
+     * Return the number of actuation commands that threw an exception
+     * 
+     * @return number of failed actuations
+     */
+    public long getFailedActuations() {
+        long n = 0;
+        for(Household h : this.householdArray) {
+            n += h.getActuation().getFailed();
+        }
+        return n;
+    }
+
+    /**
+     * Return the number of household passes done per second of tick. It is
+     * only measured over the ticks of the run: it tells how many households
+     * the controller could pass at a period of 1 s with the same devices,
+     * shards and latencies, not how it changes with the number of shards,
+     * which takes one run per number of shards
+     * 
+     * @return households controlled per second
+     */
+    public double getHouseholdThroughput() {
+        if(this.tickNanos == 0) {
+            return 0.0;
+        }
+        return this.householdPasses / (this.tickNanos / 1e9);
+    }
+
     /**
      * Return the period of the controller
      * @return period for advancing time
      */
     public double getControlPeriod() {
-        return 1.0;
+        return this.controlPeriod.getPeriod();
     }
-    
+
     /**
-     * Determine the action taken whether the current available energy level is enough or not.
+     * Pool the energy of the households across the building, or keep the
+     * energy of each household for its own devices
+     * 
+     * @param poolEnergy true if the energy of the households is pooled
+     */
+    public void setPoolEnergy(boolean poolEnergy) {
+        this.poolEnergy = poolEnergy;
+    }
+
+    /**
+     * Replace the way the period of the controller is computed
+     * 
+     * @param controlPeriod new period of the controller
+     */
+    public void setControlPeriod(AdaptiveControlPeriod controlPeriod) {
+        assert controlPeriod != null;
+        this.controlPeriod = controlPeriod;
+    }
+
+    /**
+     * Run the control pass of every household.
+     * 
+     * The controller is the top level of a two-level hierarchy whose zones
+     * are the households. In a first phase, every household reads its
+     * devices and reports a summary of what it can shed and absorb; the
+     * controller then gives each household a watt budget from the energy
+     * read on its own electric meter, and in a second phase every household
+     * chooses its own actions within its budget. The households are separate
+     * tenants: the energy of all of them is only pooled if
+     * <code>poolEnergy</code> is set (<code>-Dziodyne.poolEnergy=true</code>). Both phases run in
+     * parallel on the shards of the households. A household whose pass
+     * fails is logged and skipped until the next tick. The period of the
+     * controller follows the energy available in all the households.
+     * 
+     * A tick has a deadline of <code>tickBudget</code> milliseconds of
+     * wall-clock time, as given by <code>System.nanoTime()</code>. It is not
+     * derived from the control period, which is simulated time: the
+     * simulation does not run in real time, so the period says nothing of
+     * the time the controller really has. A household that has not reported its summary at the deadline
+     * is skipped for this tick. If less than <code>FALLBACK_MARGIN</code>
+     * of the budget is left after the first phase, the controller falls back
+     * to the cheap decision: with a surplus nothing is restarted, with a
+     * deficit the households only run their greedy shedding. The households
+     * still running their second phase at the deadline are not waited for;
+     * their commands are joined by their next pass.
      *  
      * @param simulatedTime
      * @throws Exception
      */
     public void controlTask(double simulatedTime) throws Exception {
-        double energy = this.electricMeterOutboundPort.getAvailableEnergy();
-        if(energy > 0) {
-            positiveEnergy(simulatedTime, energy);
-        } else {
-            negativeEnergy(simulatedTime, energy);
+        long start = System.nanoTime();
+        long budgetNanos = TimeUnit.MILLISECONDS.toNanos(this.tickBudget);
+        long deadline = start + budgetNanos;
+        Household[] hs = this.householdArray;
+        int n = hs.length;
+        if(this.passes.length < n) {
+            this.passes = new Future<?>[n];
+            this.flexibilities = new Flexibility[n];
+            this.budgets = new double[n];
         }
+        for(int i = 0 ; i < n ; i++) {
+            Household h = hs[i];
+            this.passes[i] = this.shards[h.shard].submit(() -> h.prepare(simulatedTime));
+        }
+
+        int metered = 0;
+        double energy = 0.0;
+        for(int i = 0 ; i < n ; i++) {
+            Flexibility f = (Flexibility) this.join(hs[i], i, deadline);
+            this.flexibilities[i] = f;
+            if(f != null && f.metered) {
+                metered++;
+                energy += f.availableEnergy;
+            }
+        }
+        if(metered == 0) {
+            //No electric meter yet, nothing to decide on
+            return;
+        }
+
+        //Not enough time left: the low-priority restarts are skipped
+        boolean fallback = deadline - System.nanoTime() < FALLBACK_MARGIN * budgetNanos;
+        if(fallback) {
+            this.tickStatistics.recordFallback();
+        }
+        boolean pooled = this.poolEnergy;
+        double left = pooled
+                ? this.allocator.allocate(fallback ? Math.min(energy, 0.0) : energy,
+                        this.flexibilities, n, this.budgets)
+                : this.allocator.allocateEach(this.flexibilities, n, fallback, this.budgets);
+        int controlled = 0;
+        for(int i = 0 ; i < n ; i++) {
+            Flexibility f = this.flexibilities[i];
+            if(f != null && !(fallback && this.budgets[i] == 0.0)) {
+                Household h = hs[i];
+                double budget = this.budgets[i];
+                double available = pooled ? energy : f.metered ? f.availableEnergy : 0.0;
+                boolean surplus = !fallback && available > 0;
+                this.passes[i] = this.shards[h.shard].submit(() -> h.apply(budget, surplus));
+                controlled++;
+            }
+        }
+        int calls = 0;
+        for(int i = 0 ; i < n ; i++) {
+            if(this.passes[i] != null && this.join(hs[i], i, deadline) != null) {
+                calls += hs[i].getTickPortCalls();
+            }
+            this.flexibilities[i] = null;
+        }
+        if(left < 0) {
+            //Should be impossible, but because of delays, maybe
+            this.logMessage("energy = " + left);
+        }
+
+        this.controlPeriod.update(energy);
+        this.ticks++;
+        this.householdPasses += controlled;
+        long elapsed = System.nanoTime() - start;
+        this.tickNanos += elapsed;
+        this.tickStatistics.record(elapsed, elapsed > budgetNanos);
+        this.totalPortCalls += calls;
+        this.lastTickPortCalls = calls;
     }
 
     /**
-     * Method called when we have enough energy.
-     * The order of the rule is important. Greater the number,
-     * more will be the added consumption.
-     * @param simulatedTime
-     * @param energy
-     * @throws Exception
+     * Wait for the phase of a household submitted to its shard, at most
+     * until the deadline of the tick
+     * 
+     * @param h household
+     * @param i index of the household
+     * @param deadline deadline of the tick, as given by System.nanoTime()
+     * @return result of the phase, or null if it failed or is late
+     * @throws InterruptedException
      */
-    private void positiveEnergy(double simulatedTime, double energy) throws Exception {
-        int rule = 0;
-        double nrj = energy;
-        while(nrj > 0) {
-            switch(rule) {
-            case 0:
-                //If the dishwasher was on break,
-                //we can switch it because it won't consume power when restarting
-                //The test of isOn(), is just in the worst case
-                if(dishwasherOutboundPort.isOnBreak() &&
-                        !dishwasherOutboundPort.isOn()) {
-                    dishwasherOutboundPort.switchBreak();
-                }
-                rule++;
-                break;
-
-            case 1:
-                //Same for the lamp
-                //But we need to be carefull of the consumption
-                if(lampOutboundPort.isOnBreak()) {
-                    double consumption = 0.0;
-                    switch(lampOutboundPort.getState()) {
-                    case OFF:
-                        break;
-                    case LOW:
-                        consumption = LampModel.LOW_MODE_CONSUMPTION;
-                        break;
-                    case MEDIUM:
-                        consumption = LampModel.MEDIUM_MODE_CONSUMPTION;
-                        break;
-                    case HIGH:
-                        consumption = LampModel.HIGH_MODE_CONSUMPTION;
-                        break;
-                    }
-                    if(nrj >= consumption) {
-                        lampOutboundPort.switchBreak();
-                        nrj -= consumption;
-                    }
-                }
-                rule++;
-                break;
-
-            case 2:
-                //Same for the freezer
-                if(fridgeOutboundPort.isFreezerOnBreak()) {
-                    double consumption = 0.0;
-                    if(fridgeOutboundPort.isFreezerOn()) {
-                        consumption = FridgeModel.FREEZER_ON_CONSUMPTION;
-                    }
-                    if (nrj >= consumption) {
-                        fridgeOutboundPort.switchFreezerBreak();
-                        nrj -= consumption;
-                    }
-                }
-                rule++;
-                break;
-
-            case 3:
-                //Same for fridge
-                if(fridgeOutboundPort.isFridgeOnBreak()) {
-                    double consumption = 0.0;
-                    if(fridgeOutboundPort.isFridgeOn()) {
-                        consumption = FridgeModel.FRIDGE_ON_CONSUMPTION;
-                    }
-                    if (nrj >= consumption) {
-                        fridgeOutboundPort.switchFridgeBreak();
-                        nrj -= consumption;
-                    }
-                }
-                rule++;
-                break;
-
-            case 4:
-                //If the battery is PRODUCING, isn't full and we can switch to STANDBY
-                if(batteryOutboundPort.getMode() == BState.PRODUCING
-                && batteryOutboundPort.getCurrentCapacity() < batteryOutboundPort.getMaxCapacity()
-                && nrj >= BatteryModel.BATTERY_MODIF) {
-                    nrj -= BatteryModel.BATTERY_MODIF;
-                    batteryOutboundPort.setMode(BState.STANDBY);
-                }
-                rule++;
-                break;
-
-            case 5:
-                //If the dishwasher's mode is ECO and we can switch to STANDARD
-                if(dishwasherOutboundPort.getMode() == DWMode.ECO) {
-                    double consumption = 0.0;
-                    if(dishwasherOutboundPort.isOn()) {
-                        consumption = DishwasherModel.STANDARD_MODE_CONSUMPTION -
-                                DishwasherModel.ECO_MODE_CONSUMPTION;
-                    }
-                    if(nrj >= consumption) {
-                        dishwasherOutboundPort.setMode(DWMode.STANDARD);
-                        nrj -= consumption;
-                    }
-                }
-                rule++;
-                break;
-
-            case 6:
-                //If the battery is STANDBY, isn't full and we can switch to CONSUMING
-                if(batteryOutboundPort.getMode() != BState.CONSUMING
-                && batteryOutboundPort.getCurrentCapacity() < batteryOutboundPort.getMaxCapacity()
-                && nrj >= BatteryModel.BATTERY_MODIF) {
-                    nrj -= BatteryModel.BATTERY_MODIF;
-                    batteryOutboundPort.setMode(BState.CONSUMING);
-                }
-                rule++;
-                break;
-
-            default:
-                //We can't use the available energy
-                //We can sell it
-                //this.logMessage("SELL : " + nrj + " Watts");
-                nrj = 0;
-                break;
-            }
+    private Object join(Household h, int i, long deadline) throws InterruptedException {
+        try {
+            return this.passes[i].get(Math.max(0L, deadline - System.nanoTime()),
+                    TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            this.logMessage(h.uri + " : " + e.getCause());
+            return null;
+        } catch (TimeoutException e) {
+            // still running on its shard, the next pass is queued after it
+            this.tickStatistics.recordLatePass();
+            return null;
+        } finally {
+            this.passes[i] = null;
         }
     }
 
     /**
-     * Method called when we don't have enough energy.
-     * The order of the rule is important. Greater the number,
-     * less will be the removed consumption.
-     * @param simulatedTime
-     * @param energy
-     * @throws Exception
+     * Replace the wall-clock time given to a tick
+     * 
+     * @param tickBudget wall-clock time given to a tick, in milliseconds
      */
-    private void negativeEnergy(double simulatedTime, double energy) throws Exception {
-        int rule = 0;
-        double nrj = energy;
-        while(nrj < 0) {
-            switch(rule) {
-            case 0:
-                //We look if the battery was charging.
-                //If yes we can set its mode to STANDBY
-                if(batteryOutboundPort.getMode() == BState.CONSUMING) {
-                    batteryOutboundPort.setMode(BState.STANDBY);
-                    nrj += BatteryModel.BATTERY_MODIF; 
-                }
-                rule++;
-                break;
-
-            case 1:
-                //We check if we set the battery mode to producing
-                if(batteryOutboundPort.getMode() != BState.PRODUCING &&
-                batteryOutboundPort.getCurrentCapacity() > 0) {
-                    batteryOutboundPort.setMode(BState.PRODUCING);
-                    nrj += BatteryModel.BATTERY_MODIF;
-                }
-                rule++;
-                break;
-
-            case 2:
-                //If the dishwasher is not on break, ON and STANDARD, we switch to ECO
-                if(!dishwasherOutboundPort.isOnBreak() &&
-                        dishwasherOutboundPort.isOn() &&
-                        dishwasherOutboundPort.getMode() == DWMode.STANDARD) {
-                    dishwasherOutboundPort.setMode(DWMode.ECO);
-                    nrj += DishwasherModel.STANDARD_MODE_CONSUMPTION -
-                            DishwasherModel.ECO_MODE_CONSUMPTION;
-                }
-                rule++;
-                break;
-
-            case 3:
-                //If the dishwasher is not on break and ON,we switch it
-                if(!dishwasherOutboundPort.isOnBreak() && dishwasherOutboundPort.isOn()) {
-                    double consumption = DishwasherModel.STANDARD_MODE_CONSUMPTION;
-                    if(dishwasherOutboundPort.getMode() == DWMode.ECO) {
-                        consumption = DishwasherModel.ECO_MODE_CONSUMPTION;
-                    }
-                    nrj += consumption;
-                    dishwasherOutboundPort.switchBreak();
-                }
-                rule++;
-                break;
-
-            case 4:
-                //If the fridge is not on break and is ON, we switch it
-                if(!fridgeOutboundPort.isFridgeOnBreak() && fridgeOutboundPort.isFridgeOn()) {
-                    nrj += FridgeModel.FRIDGE_ON_CONSUMPTION;
-                    fridgeOutboundPort.switchFridgeBreak();
-                }
-                rule++;
-                break;
-
-            case 5:
-                //If the freezer is not on break and is ON, we switch it
-                if(!fridgeOutboundPort.isFreezerOnBreak() && fridgeOutboundPort.isFreezerOn()) {
-                    nrj += FridgeModel.FREEZER_ON_CONSUMPTION;
-                    fridgeOutboundPort.switchFreezerBreak();
-                }
-                rule++;
-                break;
-
-            case 6:
-                //If the lamp is not on break, we switch it
-                if(!lampOutboundPort.isOnBreak()) {
-                    double consumption = 0.0;
-                    switch(lampOutboundPort.getState()) {
-                    case OFF:
-                        break;
-                    case LOW:
-                        consumption = LampModel.LOW_MODE_CONSUMPTION;
-                        break;
-                    case MEDIUM:
-                        consumption = LampModel.MEDIUM_MODE_CONSUMPTION;
-                        break;
-                    case HIGH:
-                        consumption = LampModel.HIGH_MODE_CONSUMPTION;
-                        break;
-                    }
-                    if(consumption != 0.0) {
-                        nrj += consumption;
-                        lampOutboundPort.switchBreak();
-                    }
-                }
-                rule++;
-                break;
-
-            default:
-                //Should be impossible, but because of delays, maybe
-                this.logMessage("energy = " + nrj);
-                nrj = 0;
-                break;
-            }
-        }
+    public void setTickBudget(long tickBudget) {
+        assert tickBudget > 0;
+        this.tickBudget = tickBudget;
+    }
+
+    /**
+     * Choose whether the devices connected from now on use caching connectors,
+     * which answer the repeated reads of a tick without calling the device
+     * 
+     * @param cachingConnectors true to use caching connectors
+     */
+    public void setCachingConnectors(boolean cachingConnectors) {
+        this.cachingConnectors = cachingConnectors;
+    }
+
+    /**
+     * @return true if the devices connected from now on use caching connectors
+     */
+    public boolean isCachingConnectors() {
+        return this.cachingConnectors;
+    }
+
+    /**
+     * Return the overruns and the durations of the ticks
+     * 
+     * @return statistics of the ticks
+     */
+    public TickStatistics getTickStatistics() {
+        return this.tickStatistics;
+    }
+
+    /**
+     * Return the number of port calls made during the last control tick
+     * 
+     * @return number of port calls of the last tick
+     */
+    public int getLastTickPortCalls() {
+        return this.lastTickPortCalls;
     }
 
 	/**
@@ -1,10 +1,27 @@
 package components;
 
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import connectors.ConnectorInstrumentation;
+import connectors.ControllerConnector;
+import connectors.ControllerNotificationConnector;
+import controller.DeviceCommand;
+import controller.DeviceDescriptor;
+import controller.DeviceType;
+import controller.Registration;
+import fr.sorbonne_u.components.AbstractComponent;
 import fr.sorbonne_u.components.cyphy.AbstractCyPhyComponent;
 import fr.sorbonne_u.components.cyphy.interfaces.EmbeddingComponentAccessI;
 import fr.sorbonne_u.components.exceptions.ComponentShutdownException;
 import fr.sorbonne_u.devs_simulation.architectures.Architecture;
+import interfaces.ControllerNotifierI;
+import interfaces.ControllerRegistrationI;
 import interfaces.DishwasherI;
+import interfaces.EmbeddingStateI;
+import interfaces.VersionedSnapshotI;
+import ports.ControllerNotificationOutboundPort;
+import ports.ControllerRegistrationOutboundPort;
 import ports.DishwasherInboundPort;
 import simulation.sil.dishwasher.models.DishwasherCoupledModel;
 import simulation.sil.dishwasher.models.DishwasherModel;
@@ -21,7 +38,7 @@ import simulation.sil.dishwasher.plugin.DishWasherSimulatorPlugin;
  * </pre>
  *
  */
-public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,EmbeddingComponentAccessI{
+public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,EmbeddingComponentAccessI,EmbeddingStateI{
 	
 	/**
 	 * States of the battery
@@ -32,20 +49,83 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
      */
     public enum DWMode{STANDARD,ECO}
 
-    /** Current state of the dishwasher */
-    private DWState state;
-    /** Current mode of the dishwasher */
-    private DWMode mode;
-    
-    /** true if the dishwasher is on break, false if not*/
-    private boolean isOnBreak;
+    /**
+     * Immutable view of the dishwasher state, returned in a single call to
+     * the controller.
+     */
+    public static class DishwasherSnapshot implements Serializable, VersionedSnapshotI {
+        private static final long serialVersionUID = 1L;
+        /** true if the dishwasher is on */
+        public final boolean isOn;
+        /** current mode of the dishwasher */
+        public final DWMode mode;
+        /** true if the dishwasher is on break */
+        public final boolean isOnBreak;
+        /** version of the state, see <code>StateCell.version</code> */
+        public final int version;
+
+        public DishwasherSnapshot(boolean isOn, DWMode mode, boolean isOnBreak, int version) {
+            this.isOn = isOn;
+            this.mode = mode;
+            this.isOnBreak = isOnBreak;
+            this.version = version;
+        }
+
+        @Override
+        public int getVersion() {
+            return this.version;
+        }
+    }
+
+    /** Keys of the state for <code>EmbeddingStateI</code> */
+    public static final int STATE = 0;
+    public static final int MODE = 1;
+    public static final int BREAK = 2;
+
+    private static final DWState[] STATES = DWState.values();
+    private static final DWMode[] MODES = DWMode.values();
+
+    /** State, mode and break of the dishwasher, shared with the model */
+    private final StateCell cell = new StateCell();
     /**
 	 * Port that exposes the offered interface of the dishwasher with the given URI to ease the
 	 * connection from controller components.
 	 */
     protected DishwasherInboundPort dishwasherInboundPort;
+    /** URI of the executor of the read-only calls, null if they are run by the threads of the component */
+    protected String readExecutorURI;
     /** the plugin in order to access the model 	 */
     protected DishWasherSimulatorPlugin asp;
+    /** URI of the inbound port of the controller, null if the dishwasher does not register */
+    protected String controllerInboundPortURI;
+    /** Port used to register with the controller */
+    protected ControllerRegistrationOutboundPort registrationPort;
+    /** Port used to notify the controller of the changes of state */
+    protected ControllerNotificationOutboundPort notificationPort;
+    /** Identifier given by the controller, -1 until registered */
+    protected volatile int deviceId = -1;
+    /** true while a notification is queued and has not read the state yet */
+    protected final AtomicBoolean notificationPending = new AtomicBoolean();
+    /** service sending the current state to the controller, reused by every notification */
+    protected final AbstractComponent.AbstractService<Void> notifyService =
+            new AbstractComponent.AbstractService<Void>() {
+                @Override
+                public Void call() {
+                    Dishwasher.this.notificationPending.set(false);
+                    int id = Dishwasher.this.deviceId;
+                    if(id >= 0) {
+                        DishwasherSnapshot s = snapshot(Dishwasher.this.cell.read());
+                        try {
+                            Dishwasher.this.notificationPort.notifyChange(id, s.version, s);
+                        }catch(Exception e) {
+                            Dishwasher.this.logMessage("notification " + s.version + " failed : " + e);
+                        }
+                    }
+                    return null;
+                }
+            };
+    /** Descriptor sent to the controller */
+    protected DeviceDescriptor descriptor;
 
     
 
@@ -64,10 +144,16 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
 	 * @throws Exception			<i>todo.</i>
 	 */
     protected Dishwasher(String uri, String dishwasherInboundPortURI) throws Exception{
-        super(uri, 1, 0);
-        state = DWState.OFF;
-        mode = DWMode.STANDARD;
-        isOnBreak = false;
+        super(uri, ComponentThreads.of(ComponentThreads.DISHWASHER).nbThreads,
+            ComponentThreads.of(ComponentThreads.DISHWASHER).nbSchedulableThreads);
+        ComponentThreads threads = ComponentThreads.of(ComponentThreads.DISHWASHER);
+        if(threads.nbReadThreads > 0) {
+            this.createNewExecutorService(ComponentThreads.READ_EXECUTOR_URI, threads.nbReadThreads, false);
+            this.readExecutorURI = ComponentThreads.READ_EXECUTOR_URI;
+        }
+        cell.setEnum(STATE, DWState.OFF);
+        cell.setEnum(MODE, DWMode.STANDARD);
+        cell.setBoolean(BREAK, false);
         this.addOfferedInterface(DishwasherI.class);
         dishwasherInboundPort = new DishwasherInboundPort(dishwasherInboundPortURI, this);
         dishwasherInboundPort.publishPort();
@@ -75,6 +161,39 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
         this.initialise();
     }
 
+    /**
+     * Create a dishwasher component that registers with the controller
+     * 
+     * @param uri
+     * @param dishwasherInboundPortURI
+     * @param controllerInboundPortURI URI of the inbound port of the controller
+     * @param householdURI URI of the household of the dishwasher
+     * @param priority shedding priority of the dishwasher
+     * @throws Exception
+     */
+    protected Dishwasher(String uri, String dishwasherInboundPortURI,
+            String controllerInboundPortURI, String householdURI, int priority) throws Exception {
+        this(uri, dishwasherInboundPortURI);
+        this.addRequiredInterface(ControllerRegistrationI.class);
+        this.addRequiredInterface(ControllerNotifierI.class);
+        this.controllerInboundPortURI = controllerInboundPortURI;
+        this.registrationPort = new ControllerRegistrationOutboundPort(this);
+        this.registrationPort.publishPort();
+        this.notificationPort = new ControllerNotificationOutboundPort(this);
+        this.notificationPort.publishPort();
+        this.createNewExecutorService(ComponentThreads.NOTIFY_EXECUTOR_URI, 1, false);
+        this.descriptor = new DeviceDescriptor(householdURI, DeviceType.DISHWASHER, dishwasherInboundPortURI,
+                DishwasherModel.STANDARD_MODE_CONSUMPTION, priority);
+    }
+
+    /**
+     * @return URI of the executor of the read-only calls, or null if they
+     * are run by the threads of the dishwasher
+     */
+    public String getReadExecutorURI() {
+        return this.readExecutorURI;
+    }
+
     /**
 	 * Initialise the dishwasher by installing the plugin for accessing to the model.
 	 * 
@@ -109,6 +228,67 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
 //        asp.doStandAloneSimulation(0.0, 500.0);
 //    }
 
+    /**
+     * Register the dishwasher with the controller
+     * 
+     * @throws Exception
+     */
+    @Override
+    public void execute() throws Exception {
+        super.execute();
+        if(this.registrationPort != null) {
+            this.doPortConnection(
+                    this.registrationPort.getPortURI(),
+                    this.controllerInboundPortURI,
+                    ConnectorInstrumentation.select(ControllerConnector.class));
+            Registration r = this.registrationPort.register(this.descriptor);
+            this.doPortConnection(
+                    this.notificationPort.getPortURI(),
+                    r.notificationInboundPortURI,
+                    ConnectorInstrumentation.select(ControllerNotificationConnector.class));
+            this.deviceId = r.deviceId;
+            this.notifyController();
+        }
+    }
+
+    /**
+     * Send the current state of the dishwasher to the controller, if registered.
+     * 
+     * The notification is queued to the notifier thread of the dishwasher, so that
+     * the caller, e.g. a transition of the model, never waits for the
+     * controller, and reads the state with its version when it runs: while
+     * a notification is queued, it carries the later changes too. The
+     * controller drops a state older than the one it has. A notification
+     * that fails is logged.
+     */
+    protected void notifyController() {
+        if(this.deviceId >= 0 && this.notificationPending.compareAndSet(false, true)) {
+            try {
+                this.handleRequestAsync(ComponentThreads.NOTIFY_EXECUTOR_URI, this.notifyService);
+            }catch(Exception e) {
+                this.notificationPending.set(false);
+                this.logMessage("notification not sent : " + e);
+            }
+        }
+    }
+
+    /**
+     * Finalise the component by disconnecting from the controller
+     * 
+     * @exception Exception
+     */
+    @Override
+    public void finalise() throws Exception {
+        if(this.registrationPort != null && this.registrationPort.connected()) {
+            this.doPortDisconnection(this.registrationPort.getPortURI());
+        }
+        if(this.notificationPort != null && this.notificationPort.connected()) {
+            this.deviceId = -1;
+            this.doPortDisconnection(this.notificationPort.getPortURI());
+        }
+        super.finalise();
+    }
+
     /**
 	 * Shutdown the component
 	 * 
@@ -118,6 +298,10 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
     public void shutdown() throws ComponentShutdownException {
         try {
             dishwasherInboundPort.unpublishPort();
+            if(this.registrationPort != null) {
+                this.registrationPort.unpublishPort();
+                this.notificationPort.unpublishPort();
+            }
         }catch(Exception e) {
             throw new ComponentShutdownException(e);
         }
@@ -133,6 +317,10 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
     public void shutdownNow() throws ComponentShutdownException {
         try {
             dishwasherInboundPort.unpublishPort();
+            if(this.registrationPort != null) {
+                this.registrationPort.unpublishPort();
+                this.notificationPort.unpublishPort();
+            }
         }catch(Exception e) {
             throw new ComponentShutdownException(e);
         }
@@ -147,7 +335,7 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
      */
     @Override
     public boolean isOn(){
-        return this.state == DWState.ON;
+        return this.cell.getEnum(STATE, STATES) == DWState.ON;
     }
 
     /**
@@ -157,7 +345,7 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
      */
     @Override
     public double getTimeLeft() throws Exception{
-        return (double) asp.getModelStateValue(DishwasherModel.URI, "time");
+        return asp.getTimeLeft();
     }
 
     /** 
@@ -168,7 +356,7 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
      */
     @Override
     public DWMode getMode(){
-        return mode;
+        return this.cell.getEnum(MODE, MODES);
     }
 
     /**
@@ -178,7 +366,9 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
      */
     @Override
     public void setMode(DWMode mode){
-        this.mode = mode;
+        if(this.cell.setEnum(MODE, mode)) {
+            this.notifyController();
+        }
     }
 
 
@@ -187,7 +377,8 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
      */
     @Override
     public void switchBreak() {
-        this.isOnBreak = !this.isOnBreak;
+        this.cell.toggle(BREAK);
+        this.notifyController();
     }
 
     /**
@@ -197,7 +388,54 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
      */
     @Override
     public boolean isOnBreak() {
-        return isOnBreak;
+        return this.cell.getBoolean(BREAK);
+    }
+
+    /**
+     * Return the state of the dishwasher in one call
+     * 
+     * @return snapshot of the dishwasher
+     */
+    @Override
+    public DishwasherSnapshot getSnapshot(){
+        return snapshot(this.cell.read());
+    }
+
+    /**
+     * @param s snapshot of the cell of the dishwasher
+     * @return state of the dishwasher in the snapshot
+     */
+    protected static DishwasherSnapshot snapshot(long s) {
+        return new DishwasherSnapshot(StateCell.getEnum(s, STATE, STATES) == DWState.ON,
+                StateCell.getEnum(s, MODE, MODES), StateCell.getBoolean(s, BREAK),
+                StateCell.version(s));
+    }
+
+    /**
+     * Apply a batch of commands in their order, then return the new state
+     * of the dishwasher
+     * 
+     * @param commands commands to apply
+     * @return snapshot of the dishwasher after the commands
+     * @throws Exception
+     */
+    @Override
+    public DishwasherSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        for(DeviceCommand c : commands) {
+            switch(c.kind) {
+            case SET_BREAK:
+                if(this.cell.setBoolean(BREAK, c.booleanValue())) {
+                    this.notifyController();
+                }
+                break;
+            case SET_MODE:
+                this.setMode((DWMode) c.value);
+                break;
+            default:
+                throw c.unsupported("dishwasher");
+            }
+        }
+        return this.getSnapshot();
     }
 
 	/**
@@ -210,11 +448,11 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
     @Override
     public Object getEmbeddingComponentStateValue(String name) throws Exception{
         if(name.equals("state")) {
-            return state;
+            return this.getEnumState(STATE);
         } else if(name.equals("break")){ 
-            return isOnBreak;
+            return this.getBooleanState(BREAK);
         } else if(name.equals("mode")){ 
-            return mode;
+            return this.getEnumState(MODE);
         } else {
             throw new RuntimeException();
         }
@@ -230,12 +468,72 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
     @Override
     public void setEmbeddingComponentStateValue(String name , Object value) {
         if(name.equals("state")) {
-            this.state = (DWState) value;
+            this.setEnumState(STATE, (DWState) value);
         } else {
             throw new RuntimeException();
         }
     }
 
+    /**
+     * @see {@link interfaces.EmbeddingStateI#getEnumState(int)}
+     */
+    @Override
+    public Enum<?> getEnumState(int key) {
+        switch(key) {
+        case STATE:
+            return this.cell.getEnum(key, STATES);
+        case MODE:
+            return this.cell.getEnum(key, MODES);
+        default:
+            throw new IllegalArgumentException("not an enumerated state " + key);
+        }
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#setEnumState(int, Enum)}
+     */
+    @Override
+    public void setEnumState(int key, Enum<?> value) {
+        switch(key) {
+        case STATE:
+            if(this.cell.setEnum(key, (DWState) value)) {
+                this.notifyController();
+            }
+            break;
+        default:
+            throw new IllegalArgumentException("not a writable enumerated state " + key);
+        }
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#getBooleanState(int)}
+     */
+    @Override
+    public boolean getBooleanState(int key) {
+        switch(key) {
+        case BREAK:
+            return this.cell.getBoolean(key);
+        default:
+            throw new IllegalArgumentException("not a boolean state " + key);
+        }
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#setBooleanState(int, boolean)}
+     */
+    @Override
+    public void setBooleanState(int key, boolean value) {
+        throw new IllegalArgumentException("not a writable boolean state " + key);
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#getStateCell()}
+     */
+    @Override
+    public StateCell getStateCell() {
+        return this.cell;
+    }
+
     /**
 	 * Create local architecture 
 	 * 
@@ -246,4 +544,4 @@ public class Dishwasher extends AbstractCyPhyComponent implements DishwasherI,Em
     protected Architecture createLocalArchitecture(String modelURI) throws Exception {
         return DishwasherCoupledModel.build();
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,9 +1,15 @@
 package components;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import connectors.ConnectorInstrumentation;
+import connectors.ControllerConnector;
+import controller.DeviceCommand;
+import controller.DeviceDescriptor;
+import controller.DeviceType;
 import fr.sorbonne_u.components.cyphy.AbstractCyPhyComponent;
 import fr.sorbonne_u.components.cyphy.interfaces.EmbeddingComponentAccessI;
 import fr.sorbonne_u.components.exceptions.ComponentShutdownException;
@@ -13,10 +19,15 @@ import fr.sorbonne_u.devs_simulation.architectures.Architecture;
 import fr.sorbonne_u.devs_simulation.architectures.SimulationEngineCreationMode;
 import fr.sorbonne_u.devs_simulation.models.architectures.AbstractAtomicModelDescriptor;
 import fr.sorbonne_u.devs_simulation.models.architectures.AtomicModelDescriptor;
+import interfaces.ControllerRegistrationI;
 import interfaces.ElectricMeterI;
+import ports.ControllerRegistrationOutboundPort;
 import ports.ElectricMeterInboundPort;
 import simulation.sil.electricmeter.models.ElectricMeterModel;
 import simulation.sil.electricmeter.plugin.ElectricMeterSimulatorPlugin;
+import transport.BinaryServer;
+import transport.BinaryTransport;
+import transport.ElectricMeterEndpoint;
 
 
 /**
@@ -32,13 +43,43 @@ import simulation.sil.electricmeter.plugin.ElectricMeterSimulatorPlugin;
  */
 public class ElectricMeter extends AbstractCyPhyComponent implements ElectricMeterI, EmbeddingComponentAccessI {
 
+	/**
+	 * Immutable view of the electric meter values, returned in a single call
+	 * to the controller.
+	 */
+	public static class ElectricMeterSnapshot implements Serializable {
+		private static final long serialVersionUID = 1L;
+		/** available energy */
+		public final double availableEnergy;
+		/** produced energy */
+		public final double production;
+		/** consumed energy */
+		public final double consumption;
+
+		public ElectricMeterSnapshot(double availableEnergy, double production, double consumption) {
+			this.availableEnergy = availableEnergy;
+			this.production = production;
+			this.consumption = consumption;
+		}
+	}
+
 	/**
 	 * Port that exposes the offered interface of the electric meter with the given URI to ease the
 	 * connection from controller components.
 	 */
 	protected ElectricMeterInboundPort electricMeterInboundPort;
+	/** URI of the executor of the read-only calls, null if they are run by the threads of the component */
+	protected String readExecutorURI;
 	/** the plugin in order to access the model  */
 	protected ElectricMeterSimulatorPlugin asp;
+	/** URI of the inbound port of the controller, null if the electric meter does not register */
+	protected String controllerInboundPortURI;
+	/** Port used to register with the controller */
+	protected ControllerRegistrationOutboundPort registrationPort;
+	/** Descriptor sent to the controller */
+	protected DeviceDescriptor descriptor;
+	/** Server of the binary transport, null if the transport is not used */
+	protected BinaryServer binaryServer;
 
 	/**
 	 * Create a electric meter component
@@ -66,8 +107,14 @@ public class ElectricMeter extends AbstractCyPhyComponent implements ElectricMet
 	 * @throws Exception
 	 */
 	protected ElectricMeter(String uri, String electricMeterInboundPortURI) throws Exception {
-		super(uri, 1, 0);
+		super(uri, ComponentThreads.of(ComponentThreads.ELECTRIC_METER).nbThreads,
+			ComponentThreads.of(ComponentThreads.ELECTRIC_METER).nbSchedulableThreads);
 		assert uri != null : new PreconditionException("uri can't be null!");
+		ComponentThreads threads = ComponentThreads.of(ComponentThreads.ELECTRIC_METER);
+		if(threads.nbReadThreads > 0) {
+			this.createNewExecutorService(ComponentThreads.READ_EXECUTOR_URI, threads.nbReadThreads, false);
+			this.readExecutorURI = ComponentThreads.READ_EXECUTOR_URI;
+		}
 		this.addOfferedInterface(ElectricMeterI.class);
 		this.electricMeterInboundPort = new ElectricMeterInboundPort(electricMeterInboundPortURI, this);
 		this.electricMeterInboundPort.publishPort();
@@ -85,6 +132,39 @@ public class ElectricMeter extends AbstractCyPhyComponent implements ElectricMet
 				"The component must have a " + "port published with URI " + electricMeterInboundPort.getPortURI());
 	}
 
+	/**
+	 * Create a electric meter component that registers with the controller
+	 * 
+	 * @param uri
+	 * @param electricMeterInboundPortURI
+	 * @param controllerInboundPortURI URI of the inbound port of the controller
+	 * @param householdURI URI of the household of the electric meter
+	 * @throws Exception
+	 */
+	protected ElectricMeter(String uri, String electricMeterInboundPortURI,
+			String controllerInboundPortURI, String householdURI) throws Exception {
+		this(uri, electricMeterInboundPortURI);
+		this.addRequiredInterface(ControllerRegistrationI.class);
+		this.controllerInboundPortURI = controllerInboundPortURI;
+		this.registrationPort = new ControllerRegistrationOutboundPort(this);
+		this.registrationPort.publishPort();
+		if(BinaryTransport.ENABLED) {
+			this.binaryServer = new BinaryServer(new ElectricMeterEndpoint(this.electricMeterInboundPort),
+					this::logMessage);
+		}
+		this.descriptor = new DeviceDescriptor(householdURI, DeviceType.ELECTRIC_METER, electricMeterInboundPortURI,
+				0.0, DeviceDescriptor.DEFAULT_PRIORITY,
+				this.binaryServer == null ? null : this.binaryServer.getAddress());
+	}
+
+	/**
+	 * @return URI of the executor of the read-only calls, or null if they
+	 * are run by the threads of the electric meter
+	 */
+	public String getReadExecutorURI() {
+		return this.readExecutorURI;
+	}
+
     /**
 	 * Initialise the electric meter by installing the plugin for accessing to the model.
 	 * 
@@ -144,6 +224,36 @@ public class ElectricMeter extends AbstractCyPhyComponent implements ElectricMet
 	// }
 
 	
+	/**
+	 * Register the electric meter with the controller
+	 * 
+	 * @throws Exception
+	 */
+	@Override
+	public void execute() throws Exception {
+		super.execute();
+		if(this.registrationPort != null) {
+			this.doPortConnection(
+					this.registrationPort.getPortURI(),
+					this.controllerInboundPortURI,
+					ConnectorInstrumentation.select(ControllerConnector.class));
+			this.registrationPort.register(this.descriptor);
+		}
+	}
+
+	/**
+	 * Finalise the component by disconnecting from the controller
+	 * 
+	 * @exception Exception
+	 */
+	@Override
+	public void finalise() throws Exception {
+		if(this.registrationPort != null && this.registrationPort.connected()) {
+			this.doPortDisconnection(this.registrationPort.getPortURI());
+		}
+		super.finalise();
+	}
+
 	/**
 	 * Shutdown the component
 	 * 
@@ -153,6 +263,12 @@ public class ElectricMeter extends AbstractCyPhyComponent implements ElectricMet
 	public void shutdown() throws ComponentShutdownException {
 		try {
 			this.electricMeterInboundPort.unpublishPort();
+			if(this.registrationPort != null) {
+				this.registrationPort.unpublishPort();
+			}
+			if(this.binaryServer != null) {
+				this.binaryServer.close();
+			}
 		} catch (Exception e) {
 			throw new ComponentShutdownException(e);
 		}
@@ -168,6 +284,12 @@ public class ElectricMeter extends AbstractCyPhyComponent implements ElectricMet
 	public void shutdownNow() throws ComponentShutdownException {
 		try {
 			this.electricMeterInboundPort.unpublishPort();
+			if(this.registrationPort != null) {
+				this.registrationPort.unpublishPort();
+			}
+			if(this.binaryServer != null) {
+				this.binaryServer.close();
+			}
 		} catch (Exception e) {
 			throw new ComponentShutdownException(e);
 		}
@@ -181,7 +303,7 @@ public class ElectricMeter extends AbstractCyPhyComponent implements ElectricMet
 	 */
 	@Override
 	public double getAvailableEnergy() throws Exception {
-		return (double) asp.getModelStateValue(ElectricMeterModel.URI, "available");
+		return asp.getAvailableEnergy();
 	}
 
 	/**
@@ -191,7 +313,7 @@ public class ElectricMeter extends AbstractCyPhyComponent implements ElectricMet
 	 */
 	@Override
 	public double getProduction() throws Exception {
-		return (double) asp.getModelStateValue(ElectricMeterModel.URI, "production");
+		return asp.getProduction();
 	}
 
 	/**
@@ -201,7 +323,34 @@ public class ElectricMeter extends AbstractCyPhyComponent implements ElectricMet
 	 */
 	@Override
 	public double getConsumption() throws Exception {
-		return (double) asp.getModelStateValue(ElectricMeterModel.URI, "consumption");
+		return asp.getConsumption();
+	}
+
+	/**
+	 * Return the values shown in the model in one call
+	 * 
+	 * @return snapshot of the electric meter
+	 */
+	@Override
+	public ElectricMeterSnapshot getSnapshot() throws Exception {
+		return new ElectricMeterSnapshot(getAvailableEnergy(), getProduction(), getConsumption());
+	}
+
+	/**
+	 * Apply a batch of commands in their order, then return the new state
+	 * of the electric meter
+	 * 
+	 * @param commands commands to apply
+	 * @return snapshot of the electric meter after the commands
+	 * @throws Exception
+	 */
+	@Override
+	public ElectricMeterSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+		// the electric meter has no command
+		if(commands.length > 0) {
+			throw commands[0].unsupported("electric meter");
+		}
+		return this.getSnapshot();
 	}
 
 
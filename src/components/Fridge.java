@@ -1,14 +1,35 @@
 package components;
 
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import connectors.ConnectorInstrumentation;
+import connectors.ControllerConnector;
+import connectors.ControllerNotificationConnector;
+import controller.DeviceCommand;
+import controller.DeviceDescriptor;
+import controller.DeviceType;
+import controller.Registration;
+import fr.sorbonne_u.components.AbstractComponent;
 import fr.sorbonne_u.components.cyphy.AbstractCyPhyComponent;
 import fr.sorbonne_u.components.cyphy.interfaces.EmbeddingComponentAccessI;
 import fr.sorbonne_u.components.exceptions.ComponentShutdownException;
 import fr.sorbonne_u.components.exceptions.PreconditionException;
 import fr.sorbonne_u.devs_simulation.architectures.Architecture;
+import interfaces.ControllerNotifierI;
+import interfaces.ControllerRegistrationI;
+import interfaces.EmbeddingStateI;
 import interfaces.FridgeI;
+import interfaces.VersionedSnapshotI;
+import ports.ControllerNotificationOutboundPort;
+import ports.ControllerRegistrationOutboundPort;
 import ports.FridgeInboundPort;
 import simulation.sil.fridge.models.FridgeCoupledModel;
+import simulation.sil.fridge.models.FridgeModel;
 import simulation.sil.fridge.plugin.FridgeSimulatorPlugin;
+import transport.BinaryServer;
+import transport.BinaryTransport;
+import transport.FridgeEndpoint;
 
 /**
  *The class <code>Fridge</code> implements a fridge component that will
@@ -22,27 +43,92 @@ import simulation.sil.fridge.plugin.FridgeSimulatorPlugin;
  * </pre>
  *
  */
-public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingComponentAccessI{
+public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingComponentAccessI,EmbeddingStateI{
 
 	/** State of the fridge's door*/
     public enum DoorState{OPEN,CLOSE}
     /** State of the fridge*/
     public enum FState{ON,OFF}
+
+    /**
+     * Immutable view of the fridge and freezer states, returned in a single
+     * call to the controller.
+     */
+    public static class FridgeSnapshot implements Serializable, VersionedSnapshotI {
+        private static final long serialVersionUID = 1L;
+        /** true if the fridge is on */
+        public final boolean isFridgeOn;
+        /** true if the freezer is on */
+        public final boolean isFreezerOn;
+        /** true if the fridge is on break */
+        public final boolean isFridgeOnBreak;
+        /** true if the freezer is on break */
+        public final boolean isFreezerOnBreak;
+        /** version of the state, see <code>StateCell.version</code> */
+        public final int version;
+
+        public FridgeSnapshot(boolean isFridgeOn, boolean isFreezerOn,
+                boolean isFridgeOnBreak, boolean isFreezerOnBreak, int version) {
+            this.isFridgeOn = isFridgeOn;
+            this.isFreezerOn = isFreezerOn;
+            this.isFridgeOnBreak = isFridgeOnBreak;
+            this.isFreezerOnBreak = isFreezerOnBreak;
+            this.version = version;
+        }
+
+        @Override
+        public int getVersion() {
+            return this.version;
+        }
+    }
     
-    /** Current state of the fridge */
-    protected FState fridgeState;
-    /** Current state of the freezer */
-    protected FState freezerState;
-    /** Current state of the fridge door */
-    protected DoorState fridgeDoor;
-    /** Current state of the freezer door */
-    protected DoorState freezerDoor;
-    /** true if fridge is on break, false if not */
-    protected boolean isFridgeOnBreak;
-    /** true if freezer is on break, false if not */
-    protected boolean isFreezerOnBreak;
+    /** Keys of the state for <code>EmbeddingStateI</code> */
+    public static final int FRIDGE_STATE = 0;
+    public static final int FREEZER_STATE = 1;
+    public static final int FRIDGE_DOOR = 2;
+    public static final int FREEZER_DOOR = 3;
+    public static final int FRIDGE_BREAK = 4;
+    public static final int FREEZER_BREAK = 5;
+
+    protected static final FState[] FSTATES = FState.values();
+    protected static final DoorState[] DOOR_STATES = DoorState.values();
+
+    /** States of the fridge, the freezer, their doors and their breaks, shared with the model */
+    protected final StateCell cell = new StateCell();
     /** the plugin in order to access the model 	 */
     protected FridgeSimulatorPlugin asp;
+    /** URI of the inbound port of the controller, null if the fridge does not register */
+    protected String controllerInboundPortURI;
+    /** Port used to register with the controller */
+    protected ControllerRegistrationOutboundPort registrationPort;
+    /** Port used to notify the controller of the changes of state */
+    protected ControllerNotificationOutboundPort notificationPort;
+    /** Identifier given by the controller, -1 until registered */
+    protected volatile int deviceId = -1;
+    /** true while a notification is queued and has not read the state yet */
+    protected final AtomicBoolean notificationPending = new AtomicBoolean();
+    /** service sending the current state to the controller, reused by every notification */
+    protected final AbstractComponent.AbstractService<Void> notifyService =
+            new AbstractComponent.AbstractService<Void>() {
+                @Override
+                public Void call() {
+                    Fridge.this.notificationPending.set(false);
+                    int id = Fridge.this.deviceId;
+                    if(id >= 0) {
+                        FridgeSnapshot s = snapshot(Fridge.this.cell.read());
+                        try {
+                            Fridge.this.notificationPort.notifyChange(id, s.version, s);
+                        }catch(Exception e) {
+                            Fridge.this.logMessage("notification " + s.version + " failed : " + e);
+                        }
+                    }
+                    return null;
+                }
+            };
+    /** Descriptor sent to the controller */
+    protected DeviceDescriptor descriptor;
+    /** Server of the binary transport, null if the transport is not used */
+    protected BinaryServer binaryServer;
     /**
 	 * Port that exposes the offered interface of the fridge with the given URI to ease the
 	 * connection from controller components.
@@ -62,14 +148,15 @@ public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingC
      * @throws Exception
      */
     protected Fridge(String uri, String fridgeInboundPortURI) throws Exception {
-        super(uri, 1, 0);
+        super(uri, ComponentThreads.of(ComponentThreads.FRIDGE).nbThreads,
+            ComponentThreads.of(ComponentThreads.FRIDGE).nbSchedulableThreads);
         assert uri != null :  new PreconditionException("uri can't be null!") ;
-        fridgeState = FState.OFF;
-        freezerState = FState.OFF;
-        fridgeDoor = DoorState.CLOSE;
-        freezerDoor = DoorState.CLOSE;
-        isFridgeOnBreak = false;
-        isFreezerOnBreak = false;
+        cell.setEnum(FRIDGE_STATE, FState.OFF);
+        cell.setEnum(FREEZER_STATE, FState.OFF);
+        cell.setEnum(FRIDGE_DOOR, DoorState.CLOSE);
+        cell.setEnum(FREEZER_DOOR, DoorState.CLOSE);
+        cell.setBoolean(FRIDGE_BREAK, false);
+        cell.setBoolean(FREEZER_BREAK, false);
 
         this.addOfferedInterface(FridgeI.class);
         fridgeInboundPort = new FridgeInboundPort(fridgeInboundPortURI, this);
@@ -78,6 +165,35 @@ public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingC
         initialise();
     }
 
+    /**
+     * Create a fridge component that registers with the controller
+     * 
+     * @param uri
+     * @param fridgeInboundPortURI
+     * @param controllerInboundPortURI URI of the inbound port of the controller
+     * @param householdURI URI of the household of the fridge
+     * @param priority shedding priority of the fridge
+     * @throws Exception
+     */
+    protected Fridge(String uri, String fridgeInboundPortURI,
+            String controllerInboundPortURI, String householdURI, int priority) throws Exception {
+        this(uri, fridgeInboundPortURI);
+        this.addRequiredInterface(ControllerRegistrationI.class);
+        this.addRequiredInterface(ControllerNotifierI.class);
+        this.controllerInboundPortURI = controllerInboundPortURI;
+        this.registrationPort = new ControllerRegistrationOutboundPort(this);
+        this.registrationPort.publishPort();
+        this.notificationPort = new ControllerNotificationOutboundPort(this);
+        this.notificationPort.publishPort();
+        this.createNewExecutorService(ComponentThreads.NOTIFY_EXECUTOR_URI, 1, false);
+        if(BinaryTransport.ENABLED) {
+            this.binaryServer = new BinaryServer(new FridgeEndpoint(this.fridgeInboundPort), this::logMessage);
+        }
+        this.descriptor = new DeviceDescriptor(householdURI, DeviceType.FRIDGE, fridgeInboundPortURI,
+                FridgeModel.FRIDGE_ON_CONSUMPTION + FridgeModel.FREEZER_ON_CONSUMPTION, priority,
+                this.binaryServer == null ? null : this.binaryServer.getAddress());
+    }
+
     /**
 	 * Initialise the fridge by installing the plugin for accessing to the model.
 	 * 
@@ -132,6 +248,67 @@ public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingC
     //        asp.doStandAloneSimulation(0.0, 500.0);
     //    }
 
+    /**
+     * Register the fridge with the controller
+     * 
+     * @throws Exception
+     */
+    @Override
+    public void execute() throws Exception {
+        super.execute();
+        if(this.registrationPort != null) {
+            this.doPortConnection(
+                    this.registrationPort.getPortURI(),
+                    this.controllerInboundPortURI,
+                    ConnectorInstrumentation.select(ControllerConnector.class));
+            Registration r = this.registrationPort.register(this.descriptor);
+            this.doPortConnection(
+                    this.notificationPort.getPortURI(),
+                    r.notificationInboundPortURI,
+                    ConnectorInstrumentation.select(ControllerNotificationConnector.class));
+            this.deviceId = r.deviceId;
+            this.notifyController();
+        }
+    }
+
+    /**
+     * Send the current state of the fridge to the controller, if registered.
+     * 
+     * The notification is queued to the notifier thread of the fridge, so that
+     * the caller, e.g. a transition of the model, never waits for the
+     * controller, and reads the state with its version when it runs: while
+     * a notification is queued, it carries the later changes too. The
+     * controller drops a state older than the one it has. A notification
+     * that fails is logged.
+     */
+    protected void notifyController() {
+        if(this.deviceId >= 0 && this.notificationPending.compareAndSet(false, true)) {
+            try {
+                this.handleRequestAsync(ComponentThreads.NOTIFY_EXECUTOR_URI, this.notifyService);
+            }catch(Exception e) {
+                this.notificationPending.set(false);
+                this.logMessage("notification not sent : " + e);
+            }
+        }
+    }
+
+    /**
+     * Finalise the component by disconnecting from the controller
+     * 
+     * @exception Exception
+     */
+    @Override
+    public void finalise() throws Exception {
+        if(this.registrationPort != null && this.registrationPort.connected()) {
+            this.doPortDisconnection(this.registrationPort.getPortURI());
+        }
+        if(this.notificationPort != null && this.notificationPort.connected()) {
+            this.deviceId = -1;
+            this.doPortDisconnection(this.notificationPort.getPortURI());
+        }
+        super.finalise();
+    }
+
     /**
   	 * Shutdown the component
   	 * 
@@ -141,6 +318,13 @@ public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingC
     public void shutdown() throws ComponentShutdownException {
         try {
             fridgeInboundPort.unpublishPort();
+            if(this.registrationPort != null) {
+                this.registrationPort.unpublishPort();
+                this.notificationPort.unpublishPort();
+            }
+            if(this.binaryServer != null) {
+                this.binaryServer.close();
+            }
         }catch(Exception e) {
             throw new ComponentShutdownException(e);
         }
@@ -156,6 +340,13 @@ public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingC
     public void shutdownNow() throws ComponentShutdownException {
         try {
             fridgeInboundPort.unpublishPort();
+            if(this.registrationPort != null) {
+                this.registrationPort.unpublishPort();
+                this.notificationPort.unpublishPort();
+            }
+            if(this.binaryServer != null) {
+                this.binaryServer.close();
+            }
         }catch(Exception e) {
             throw new ComponentShutdownException(e);
         }
@@ -167,7 +358,8 @@ public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingC
      */
     @Override
     public void switchFridgeBreak(){
-        this.isFridgeOnBreak = !this.isFridgeOnBreak;
+        this.cell.toggle(FRIDGE_BREAK);
+        this.notifyController();
     }
 
     
@@ -178,7 +370,7 @@ public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingC
      */
     @Override
     public boolean isFridgeOnBreak() throws Exception {
-        return isFridgeOnBreak;
+        return this.cell.getBoolean(FRIDGE_BREAK);
 
     }
 
@@ -187,7 +379,8 @@ public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingC
      */
     @Override
     public void switchFreezerBreak() {
-        this.isFreezerOnBreak = !this.isFreezerOnBreak;
+        this.cell.toggle(FREEZER_BREAK);
+        this.notifyController();
     }
 
     
@@ -198,7 +391,7 @@ public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingC
      */
     @Override
     public boolean isFreezerOnBreak() throws Exception {
-        return isFreezerOnBreak;
+        return this.cell.getBoolean(FREEZER_BREAK);
     }
 
     /**
@@ -208,7 +401,7 @@ public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingC
      */
     @Override
     public boolean isFridgeOn(){
-        return fridgeState == FState.ON;
+        return this.cell.getEnum(FRIDGE_STATE, FSTATES) == FState.ON;
     }
 
     /**
@@ -218,7 +411,59 @@ public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingC
      */
     @Override
     public boolean isFreezerOn(){
-        return freezerState == FState.ON;
+        return this.cell.getEnum(FREEZER_STATE, FSTATES) == FState.ON;
+    }
+
+    /**
+     * Return the state of the fridge and the freezer in one call
+     * 
+     * @return snapshot of the fridge
+     */
+    @Override
+    public FridgeSnapshot getSnapshot(){
+        return snapshot(this.cell.read());
+    }
+
+    /**
+     * @param s snapshot of the cell of the fridge
+     * @return state of the fridge in the snapshot
+     */
+    protected static FridgeSnapshot snapshot(long s) {
+        return new FridgeSnapshot(
+                StateCell.getEnum(s, FRIDGE_STATE, FSTATES) == FState.ON,
+                StateCell.getEnum(s, FREEZER_STATE, FSTATES) == FState.ON,
+                StateCell.getBoolean(s, FRIDGE_BREAK),
+                StateCell.getBoolean(s, FREEZER_BREAK),
+                StateCell.version(s));
+    }
+
+    /**
+     * Apply a batch of commands in their order, then return the new state
+     * of the fridge
+     * 
+     * @param commands commands to apply
+     * @return snapshot of the fridge after the commands
+     * @throws Exception
+     */
+    @Override
+    public FridgeSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        for(DeviceCommand c : commands) {
+            switch(c.kind) {
+            case SET_FRIDGE_BREAK:
+                if(this.cell.setBoolean(FRIDGE_BREAK, c.booleanValue())) {
+                    this.notifyController();
+                }
+                break;
+            case SET_FREEZER_BREAK:
+                if(this.cell.setBoolean(FREEZER_BREAK, c.booleanValue())) {
+                    this.notifyController();
+                }
+                break;
+            default:
+                throw c.unsupported("fridge");
+            }
+        }
+        return this.getSnapshot();
     }
 
     /**
@@ -243,17 +488,17 @@ public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingC
     @Override
     public Object getEmbeddingComponentStateValue(String name) throws Exception{
         if(name.equals("freezer state")) {
-            return freezerState;
+            return this.getEnumState(FREEZER_STATE);
         } else if (name.equals("fridge state")){
-            return fridgeState;
+            return this.getEnumState(FRIDGE_STATE);
         } else if (name.equals("freezer door")){
-            return freezerDoor;
+            return this.getEnumState(FREEZER_DOOR);
         } else if (name.equals("fridge door")){
-            return fridgeDoor;
+            return this.getEnumState(FRIDGE_DOOR);
         } else if (name.equals("freezer break")){
-            return isFreezerOnBreak;
+            return this.getBooleanState(FREEZER_BREAK);
         } else if (name.equals("fridge break")){
-            return isFridgeOnBreak;
+            return this.getBooleanState(FRIDGE_BREAK);
         } else {
             throw new RuntimeException();
         }
@@ -269,15 +514,83 @@ public class Fridge extends AbstractCyPhyComponent implements FridgeI,EmbeddingC
     @Override
     public void setEmbeddingComponentStateValue(String name , Object value) {
         if(name.equals("freezer door")) {
-            freezerDoor = (DoorState) value;
+            this.setEnumState(FREEZER_DOOR, (DoorState) value);
         } else if (name.equals("fridge door")) {
-            fridgeDoor = (DoorState) value;
+            this.setEnumState(FRIDGE_DOOR, (DoorState) value);
         } else if (name.equals("freezer state")) {
-            freezerState = (FState) value;
+            this.setEnumState(FREEZER_STATE, (FState) value);
         } else if (name.equals("fridge state")) {
-            fridgeState = (FState) value;
+            this.setEnumState(FRIDGE_STATE, (FState) value);
         } else {
             throw new RuntimeException();
         }
     }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#getEnumState(int)}
+     */
+    @Override
+    public Enum<?> getEnumState(int key) {
+        switch(key) {
+        case FRIDGE_STATE:
+        case FREEZER_STATE:
+            return this.cell.getEnum(key, FSTATES);
+        case FRIDGE_DOOR:
+        case FREEZER_DOOR:
+            return this.cell.getEnum(key, DOOR_STATES);
+        default:
+            throw new IllegalArgumentException("not an enumerated state " + key);
+        }
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#setEnumState(int, Enum)}
+     */
+    @Override
+    public void setEnumState(int key, Enum<?> value) {
+        switch(key) {
+        case FRIDGE_STATE:
+        case FREEZER_STATE:
+            if(this.cell.setEnum(key, (FState) value)) {
+                this.notifyController();
+            }
+            break;
+        case FRIDGE_DOOR:
+        case FREEZER_DOOR:
+            this.cell.setEnum(key, (DoorState) value);
+            break;
+        default:
+            throw new IllegalArgumentException("not a writable enumerated state " + key);
+        }
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#getBooleanState(int)}
+     */
+    @Override
+    public boolean getBooleanState(int key) {
+        switch(key) {
+        case FRIDGE_BREAK:
+        case FREEZER_BREAK:
+            return this.cell.getBoolean(key);
+        default:
+            throw new IllegalArgumentException("not a boolean state " + key);
+        }
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#setBooleanState(int, boolean)}
+     */
+    @Override
+    public void setBooleanState(int key, boolean value) {
+        throw new IllegalArgumentException("not a writable boolean state " + key);
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#getStateCell()}
+     */
+    @Override
+    public StateCell getStateCell() {
+        return this.cell;
+    }
 }
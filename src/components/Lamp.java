@@ -1,13 +1,31 @@
 package components;
 
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import connectors.ConnectorInstrumentation;
+import connectors.ControllerConnector;
+import connectors.ControllerNotificationConnector;
+import controller.DeviceCommand;
+import controller.DeviceDescriptor;
+import controller.DeviceType;
+import controller.Registration;
+import fr.sorbonne_u.components.AbstractComponent;
 import fr.sorbonne_u.components.cyphy.AbstractCyPhyComponent;
 import fr.sorbonne_u.components.cyphy.interfaces.EmbeddingComponentAccessI;
 import fr.sorbonne_u.components.exceptions.ComponentShutdownException;
 import fr.sorbonne_u.components.exceptions.PostconditionException;
 import fr.sorbonne_u.devs_simulation.architectures.Architecture;
+import interfaces.ControllerNotifierI;
+import interfaces.ControllerRegistrationI;
+import interfaces.EmbeddingStateI;
 import interfaces.LampI;
+import interfaces.VersionedSnapshotI;
+import ports.ControllerNotificationOutboundPort;
+import ports.ControllerRegistrationOutboundPort;
 import ports.LampInboundPort;
 import simulation.sil.lamp.models.LampCoupledModel;
+import simulation.sil.lamp.models.LampModel;
 import simulation.sil.lamp.plugin.LampSimulatorPlugin;
 
 /**
@@ -21,21 +39,81 @@ import simulation.sil.lamp.plugin.LampSimulatorPlugin;
  * </pre>
  *
  */
-public class Lamp extends AbstractCyPhyComponent implements LampI,EmbeddingComponentAccessI{
+public class Lamp extends AbstractCyPhyComponent implements LampI,EmbeddingComponentAccessI,EmbeddingStateI{
 
 	/** State of the lamp*/
     public enum LampState{OFF,LOW,MEDIUM,HIGH}
+
+    /**
+     * Immutable view of the lamp state, returned in a single call to the
+     * controller.
+     */
+    public static class LampSnapshot implements Serializable, VersionedSnapshotI {
+        private static final long serialVersionUID = 1L;
+        /** state of the lamp */
+        public final LampState state;
+        /** true if the lamp is on break */
+        public final boolean isOnBreak;
+        /** version of the state, see <code>StateCell.version</code> */
+        public final int version;
+
+        public LampSnapshot(LampState state, boolean isOnBreak, int version) {
+            this.state = state;
+            this.isOnBreak = isOnBreak;
+            this.version = version;
+        }
+
+        @Override
+        public int getVersion() {
+            return this.version;
+        }
+    }
+
     /**
   	 * Port that exposes the offered interface of the dishwasher with the given URI to ease the
   	 * connection from controller components.
   	 */
     protected LampInboundPort lampInboundPort;
-    /** Current state of the lamp */
-    protected LampState state;
-    /** true if the dishwasher is on break, false if not*/
-    protected boolean isOnBreak;
+    /** Keys of the state for <code>EmbeddingStateI</code> */
+    public static final int STATE = 0;
+    public static final int BREAK = 1;
+
+    protected static final LampState[] STATES = LampState.values();
+
+    /** State and break of the lamp, shared with the model */
+    protected final StateCell cell = new StateCell();
     /** the plugin in order to access the model  */
     protected LampSimulatorPlugin asp ;
+    /** URI of the inbound port of the controller, null if the lamp does not register */
+    protected String controllerInboundPortURI;
+    /** Port used to register with the controller */
+    protected ControllerRegistrationOutboundPort registrationPort;
+    /** Port used to notify the controller of the changes of state */
+    protected ControllerNotificationOutboundPort notificationPort;
+    /** Identifier given by the controller, -1 until registered */
+    protected volatile int deviceId = -1;
+    /** true while a notification is queued and has not read the state yet */
+    protected final AtomicBoolean notificationPending = new AtomicBoolean();
+    /** service sending the current state to the controller, reused by every notification */
+    protected final AbstractComponent.AbstractService<Void> notifyService =
+            new AbstractComponent.AbstractService<Void>() {
+                @Override
+                public Void call() {
+                    Lamp.this.notificationPending.set(false);
+                    int id = Lamp.this.deviceId;
+                    if(id >= 0) {
+                        LampSnapshot s = snapshot(Lamp.this.cell.read());
+                        try {
+                            Lamp.this.notificationPort.notifyChange(id, s.version, s);
+                        }catch(Exception e) {
+                            Lamp.this.logMessage("notification " + s.version + " failed : " + e);
+                        }
+                    }
+                    return null;
+                }
+            };
+    /** Descriptor sent to the controller */
+    protected DeviceDescriptor descriptor;
 
     /**
      * Create a lamp component
@@ -59,16 +137,17 @@ public class Lamp extends AbstractCyPhyComponent implements LampI,EmbeddingCompo
      * @throws Exception
      */
     protected Lamp(String uri, String lampInboundPortURI) throws Exception {
-        super(uri, 1, 0);
-        this.state = LampState.OFF;
-        this.isOnBreak = false;
+        super(uri, ComponentThreads.of(ComponentThreads.LAMP).nbThreads,
+            ComponentThreads.of(ComponentThreads.LAMP).nbSchedulableThreads);
+        this.cell.setEnum(STATE, LampState.OFF);
+        this.cell.setBoolean(BREAK, false);
         this.addOfferedInterface(LampI.class);
         this.lampInboundPort = new LampInboundPort(lampInboundPortURI, this);
         this.lampInboundPort.publishPort();
 
         this.initialise();
 
-        assert this.state == LampState.OFF :
+        assert this.getState() == LampState.OFF :
             new PostconditionException("The lamp's state has not been initialised correctly !");
         assert this.isPortExisting(lampInboundPort.getPortURI()):
             new PostconditionException("The component must have a "
@@ -84,6 +163,31 @@ public class Lamp extends AbstractCyPhyComponent implements LampI,EmbeddingCompo
                     + "port published with URI " + lampInboundPort.getPortURI()) ;
     }
 
+    /**
+     * Create a lamp component that registers with the controller
+     * 
+     * @param uri
+     * @param lampInboundPortURI
+     * @param controllerInboundPortURI URI of the inbound port of the controller
+     * @param householdURI URI of the household of the lamp
+     * @param priority shedding priority of the lamp
+     * @throws Exception
+     */
+    protected Lamp(String uri, String lampInboundPortURI,
+            String controllerInboundPortURI, String householdURI, int priority) throws Exception {
+        this(uri, lampInboundPortURI);
+        this.addRequiredInterface(ControllerRegistrationI.class);
+        this.addRequiredInterface(ControllerNotifierI.class);
+        this.controllerInboundPortURI = controllerInboundPortURI;
+        this.registrationPort = new ControllerRegistrationOutboundPort(this);
+        this.registrationPort.publishPort();
+        this.notificationPort = new ControllerNotificationOutboundPort(this);
+        this.notificationPort.publishPort();
+        this.createNewExecutorService(ComponentThreads.NOTIFY_EXECUTOR_URI, 1, false);
+        this.descriptor = new DeviceDescriptor(householdURI, DeviceType.LAMP, lampInboundPortURI,
+                LampModel.HIGH_MODE_CONSUMPTION, priority);
+    }
+
     /**
  	 * Initialise the lamp by installing the plugin for accessing to the model.
  	 * 
@@ -118,6 +222,67 @@ public class Lamp extends AbstractCyPhyComponent implements LampI,EmbeddingCompo
     //        asp.doStandAloneSimulation(0.0, 500.0);
     //    }
 
+    /**
+     * Register the lamp with the controller
+     * 
+     * @throws Exception
+     */
+    @Override
+    public void execute() throws Exception {
+        super.execute();
+        if(this.registrationPort != null) {
+            this.doPortConnection(
+                    this.registrationPort.getPortURI(),
+                    this.controllerInboundPortURI,
+                    ConnectorInstrumentation.select(ControllerConnector.class));
+            Registration r = this.registrationPort.register(this.descriptor);
+            this.doPortConnection(
+                    this.notificationPort.getPortURI(),
+                    r.notificationInboundPortURI,
+                    ConnectorInstrumentation.select(ControllerNotificationConnector.class));
+            this.deviceId = r.deviceId;
+            this.notifyController();
+        }
+    }
+
+    /**
+     * Send the current state of the lamp to the controller, if registered.
+     * 
+     * The notification is queued to the notifier thread of the lamp, so that
+     * the caller, e.g. a transition of the model, never waits for the
+     * controller, and reads the state with its version when it runs: while
+     * a notification is queued, it carries the later changes too. The
+     * controller drops a state older than the one it has. A notification
+     * that fails is logged.
+     */
+    protected void notifyController() {
+        if(this.deviceId >= 0 && this.notificationPending.compareAndSet(false, true)) {
+            try {
+                this.handleRequestAsync(ComponentThreads.NOTIFY_EXECUTOR_URI, this.notifyService);
+            }catch(Exception e) {
+                this.notificationPending.set(false);
+                this.logMessage("notification not sent : " + e);
+            }
+        }
+    }
+
+    /**
+     * Finalise the component by disconnecting from the controller
+     * 
+     * @exception Exception
+     */
+    @Override
+    public void finalise() throws Exception {
+        if(this.registrationPort != null && this.registrationPort.connected()) {
+            this.doPortDisconnection(this.registrationPort.getPortURI());
+        }
+        if(this.notificationPort != null && this.notificationPort.connected()) {
+            this.deviceId = -1;
+            this.doPortDisconnection(this.notificationPort.getPortURI());
+        }
+        super.finalise();
+    }
+
     /**
  	 * Shutdown the component
  	 * 
@@ -127,6 +292,10 @@ public class Lamp extends AbstractCyPhyComponent implements LampI,EmbeddingCompo
     public void shutdown() throws ComponentShutdownException {
         try {
             this.lampInboundPort.unpublishPort();
+            if(this.registrationPort != null) {
+                this.registrationPort.unpublishPort();
+                this.notificationPort.unpublishPort();
+            }
         }catch(Exception e) {
             throw new ComponentShutdownException(e);
         }
@@ -142,6 +311,10 @@ public class Lamp extends AbstractCyPhyComponent implements LampI,EmbeddingCompo
     public void shutdownNow() throws ComponentShutdownException {
         try {
             this.lampInboundPort.unpublishPort();
+            if(this.registrationPort != null) {
+                this.registrationPort.unpublishPort();
+                this.notificationPort.unpublishPort();
+            }
         }catch(Exception e) {
             throw new ComponentShutdownException(e);
         }
@@ -155,7 +328,7 @@ public class Lamp extends AbstractCyPhyComponent implements LampI,EmbeddingCompo
      */
     @Override
     public LampState getState() {
-        return state;
+        return this.cell.getEnum(STATE, STATES);
     }
 
     /**
@@ -163,7 +336,8 @@ public class Lamp extends AbstractCyPhyComponent implements LampI,EmbeddingCompo
      */
     @Override
     public void switchBreak() throws Exception{
-        this.isOnBreak = !this.isOnBreak;
+        this.cell.toggle(BREAK);
+        this.notifyController();
     }
 
     /**
@@ -173,7 +347,50 @@ public class Lamp extends AbstractCyPhyComponent implements LampI,EmbeddingCompo
      */
     @Override
     public boolean isOnBreak() throws Exception{
-        return this.isOnBreak;
+        return this.cell.getBoolean(BREAK);
+    }
+
+    /**
+     * Return the state of the lamp in one call
+     * 
+     * @return snapshot of the lamp
+     */
+    @Override
+    public LampSnapshot getSnapshot() throws Exception{
+        return snapshot(this.cell.read());
+    }
+
+    /**
+     * @param s snapshot of the cell of the lamp
+     * @return state of the lamp in the snapshot
+     */
+    protected static LampSnapshot snapshot(long s) {
+        return new LampSnapshot(StateCell.getEnum(s, STATE, STATES), StateCell.getBoolean(s, BREAK),
+                StateCell.version(s));
+    }
+
+    /**
+     * Apply a batch of commands in their order, then return the new state
+     * of the lamp
+     * 
+     * @param commands commands to apply
+     * @return snapshot of the lamp after the commands
+     * @throws Exception
+     */
+    @Override
+    public LampSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        for(DeviceCommand c : commands) {
+            switch(c.kind) {
+            case SET_BREAK:
+                if(this.cell.setBoolean(BREAK, c.booleanValue())) {
+                    this.notifyController();
+                }
+                break;
+            default:
+                throw c.unsupported("lamp");
+            }
+        }
+        return this.getSnapshot();
     }
 
     /**
@@ -197,9 +414,9 @@ public class Lamp extends AbstractCyPhyComponent implements LampI,EmbeddingCompo
     @Override
     public Object getEmbeddingComponentStateValue(String name) throws Exception{
         if(name.equals("state")) {
-            return state;
+            return this.getEnumState(STATE);
         } else if(name.equals("break")){ 
-            return isOnBreak;
+            return this.getBooleanState(BREAK);
         } else {
             throw new RuntimeException();
         }
@@ -215,9 +432,67 @@ public class Lamp extends AbstractCyPhyComponent implements LampI,EmbeddingCompo
     @Override
     public void setEmbeddingComponentStateValue(String name , Object value) {
         if(name.equals("state")) {
-            this.state = (LampState) value;
+            this.setEnumState(STATE, (LampState) value);
         } else {
             throw new RuntimeException();
         }
     }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#getEnumState(int)}
+     */
+    @Override
+    public Enum<?> getEnumState(int key) {
+        switch(key) {
+        case STATE:
+            return this.cell.getEnum(key, STATES);
+        default:
+            throw new IllegalArgumentException("not an enumerated state " + key);
+        }
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#setEnumState(int, Enum)}
+     */
+    @Override
+    public void setEnumState(int key, Enum<?> value) {
+        switch(key) {
+        case STATE:
+            if(this.cell.setEnum(key, (LampState) value)) {
+                this.notifyController();
+            }
+            break;
+        default:
+            throw new IllegalArgumentException("not a writable enumerated state " + key);
+        }
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#getBooleanState(int)}
+     */
+    @Override
+    public boolean getBooleanState(int key) {
+        switch(key) {
+        case BREAK:
+            return this.cell.getBoolean(key);
+        default:
+            throw new IllegalArgumentException("not a boolean state " + key);
+        }
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#setBooleanState(int, boolean)}
+     */
+    @Override
+    public void setBooleanState(int key, boolean value) {
+        throw new IllegalArgumentException("not a writable boolean state " + key);
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#getStateCell()}
+     */
+    @Override
+    public StateCell getStateCell() {
+        return this.cell;
+    }
 }
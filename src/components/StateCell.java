@@ -0,0 +1,182 @@
+package components;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class <code>StateCell</code> holds the state of a device, shared by
+ * the component and its simulation model.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * The state is written by the calls of the controller on the threads of the
+ * component, and by the model on the thread of the simulation, which also
+ * reads it at each transition. The variables of a device are booleans and
+ * enumerations of a few values, so they are packed in one word with a
+ * version: the variable of key <code>k</code> takes the bits
+ * <code>4k</code> to <code>4k + 3</code> of the low half, and the high half
+ * counts the writes that changed a value.
+ *
+ * A read is a single volatile load of the word, which gives the values of
+ * all the variables at the same version, so a model reads several of them
+ * consistently without a lock and without retrying. A write is a
+ * compare-and-set of the word, retried if another write came in between,
+ * so that switching a break from two threads never loses a switch.
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		0 &lt;= key &lt; MAX_VARIABLES
+ * invariant		0 &lt;= value &lt; MAX_VALUES
+ * </pre>
+ */
+public class StateCell {
+    /** number of variables of a cell */
+    public static final int MAX_VARIABLES = 8;
+    /** number of values of a variable */
+    public static final int MAX_VALUES = 16;
+
+    protected static final int BITS = 4;
+    protected static final long MASK = MAX_VALUES - 1;
+    protected static final long ONE_VERSION = 1L << 32;
+
+    /** variables and version of the state */
+    protected final AtomicLong word = new AtomicLong();
+
+    /**
+     * Return the state at one version, to be read with the static getters
+     *
+     * @return snapshot of the state
+     */
+    public long read() {
+        return this.word.get();
+    }
+
+    /**
+     * @param snapshot snapshot of the state
+     * @return number of changes of the state before the snapshot, modulo 2^32
+     */
+    public static int version(long snapshot) {
+        return (int) (snapshot >>> 32);
+    }
+
+    /**
+     * @param snapshot snapshot of the state
+     * @param key key of the variable
+     * @return value of the variable in the snapshot
+     */
+    public static int get(long snapshot, int key) {
+        return (int) ((snapshot >>> (key * BITS)) & MASK);
+    }
+
+    /**
+     * @param snapshot snapshot of the state
+     * @param key key of a boolean variable
+     * @return value of the variable in the snapshot
+     */
+    public static boolean getBoolean(long snapshot, int key) {
+        return get(snapshot, key) != 0;
+    }
+
+    /**
+     * @param snapshot snapshot of the state
+     * @param key key of an enumerated variable
+     * @param values values of the enumeration, in the order of their ordinals
+     * @return value of the variable in the snapshot
+     */
+    public static <E extends Enum<E>> E getEnum(long snapshot, int key, E[] values) {
+        return values[get(snapshot, key)];
+    }
+
+    /**
+     * @param key key of the variable
+     * @return current value of the variable
+     */
+    public int get(int key) {
+        return get(this.read(), key);
+    }
+
+    /**
+     * @param key key of a boolean variable
+     * @return current value of the variable
+     */
+    public boolean getBoolean(int key) {
+        return getBoolean(this.read(), key);
+    }
+
+    /**
+     * @param key key of an enumerated variable
+     * @param values values of the enumeration, in the order of their ordinals
+     * @return current value of the variable
+     */
+    public <E extends Enum<E>> E getEnum(int key, E[] values) {
+        return getEnum(this.read(), key, values);
+    }
+
+    /**
+     * Set the value of a variable, and change the version if the value changes
+     *
+     * @param key key of the variable
+     * @param value new value of the variable
+     * @return previous value of the variable
+     */
+    public int set(int key, int value) {
+        if(key < 0 || key >= MAX_VARIABLES || value < 0 || value >= MAX_VALUES) {
+            throw new IllegalArgumentException("invalid variable " + key + " or value " + value);
+        }
+        int shift = key * BITS;
+        for(;;) {
+            long old = this.word.get();
+            int previous = get(old, key);
+            if(previous == value) {
+                return previous;
+            }
+            long next = (old & ~(MASK << shift)) + ((long) value << shift) + ONE_VERSION;
+            if(this.word.compareAndSet(old, next)) {
+                return previous;
+            }
+        }
+    }
+
+    /**
+     * Set the value of a boolean variable
+     *
+     * @param key key of the variable
+     * @param value new value of the variable
+     * @return true if the value changed
+     */
+    public boolean setBoolean(int key, boolean value) {
+        int v = value ? 1 : 0;
+        return this.set(key, v) != v;
+    }
+
+    /**
+     * Set the value of an enumerated variable
+     *
+     * @param key key of the variable
+     * @param value new value of the variable
+     * @return true if the value changed
+     */
+    public boolean setEnum(int key, Enum<?> value) {
+        return this.set(key, value.ordinal()) != value.ordinal();
+    }
+
+    /**
+     * Switch the value of a boolean variable
+     *
+     * @param key key of the variable
+     * @return new value of the variable
+     */
+    public boolean toggle(int key) {
+        if(key < 0 || key >= MAX_VARIABLES) {
+            throw new IllegalArgumentException("invalid variable " + key);
+        }
+        long bit = 1L << (key * BITS);
+        for(;;) {
+            long old = this.word.get();
+            long next = (old ^ bit) + ONE_VERSION;
+            if(this.word.compareAndSet(old, next)) {
+                return getBoolean(next, key);
+            }
+        }
+    }
+}
@@ -59,9 +59,11 @@ import simulation.sil.battery.events.BatteryConsumption;
 import simulation.sil.battery.events.BatteryProduction;
 import simulation.sil.battery.models.BatteryModel;
 import simulation.sil.controller.models.ControllerModel;
+import simulation.sil.controller.models.ControllerModel.ControlMode;
 import simulation.sil.dishwasher.events.DishwasherConsumption;
 import simulation.sil.dishwasher.models.DishwasherCoupledModel;
 import simulation.sil.dishwasher.models.DishwasherModel;
+import simulation.sil.electricmeter.events.NetEnergyChanged;
 import simulation.sil.electricmeter.models.ElectricMeterModel;
 import simulation.sil.fridge.events.FridgeConsumption;
 import simulation.sil.fridge.models.FridgeCoupledModel;
@@ -111,6 +113,12 @@ public class Supervisor extends	AbstractComponent{
     // Constants and variables
     // -------------------------------------------------------------------------
 
+    /** name of the system property choosing how the controller is triggered.	*/
+    public static final String		CONTROL_MODE_PROPERTY = "ziodyne.controlMode" ;
+    /** how the controller is triggered during the simulation runs,
+     *  <code>PERIODIC</code> unless <code>-Dziodyne.controlMode=EVENT</code>.	*/
+    protected static final ControlMode	CONTROL_MODE =
+            ControlMode.valueOf(System.getProperty(CONTROL_MODE_PROPERTY, "PERIODIC")) ;
     /** the supervisor plug-in attached to this component.					*/
     protected SupervisorPlugin		sp ;
     /** maps from URIs of models to URIs of the reflection inbound ports
@@ -278,7 +286,8 @@ public class Supervisor extends	AbstractComponent{
                             FridgeConsumption.class,
                             DishwasherConsumption.class
                         },
-                        null,
+                        (Class<? extends EventI>[])
+                        new Class<?>[]{NetEnergyChanged.class},
                         TimeUnit.SECONDS,
                         this.modelURIs2componentURIs.get(ElectricMeterModel.URI)));
 
@@ -298,7 +307,8 @@ public class Supervisor extends	AbstractComponent{
                 ControllerModel.URI,
                 ComponentAtomicModelDescriptor.create(
                         ControllerModel.URI,
-                        null,
+                        (Class<? extends EventI>[])
+                        new Class<?>[]{NetEnergyChanged.class},
                         null,
                         TimeUnit.SECONDS,
                         this.modelURIs2componentURIs.get(ControllerModel.URI)));
@@ -391,6 +401,15 @@ public class Supervisor extends	AbstractComponent{
                                 DishwasherConsumption.class)
                 }) ;
 
+        //From electric meter to controller
+        connections.put(
+                new EventSource(ElectricMeterModel.URI,
+                        NetEnergyChanged.class),
+                new EventSink[] {
+                        new EventSink(ControllerModel.URI,
+                                NetEnergyChanged.class)
+                }) ;
+
 
         coupledModelDescriptors.put(
                 SGCoupledModel.URI,
@@ -593,6 +612,15 @@ public class Supervisor extends	AbstractComponent{
     private HashMap<String,Object> getSimulationRunParameters2(){
         HashMap<String,Object> simParams = new HashMap<String,Object>();
 
+        //Controller
+        simParams.put(ControllerModel.URI + ":" + ControllerModel.CONTROL_MODE, CONTROL_MODE);
+        simParams.put(ControllerModel.URI + ":" + ControllerModel.HEARTBEAT, 60.0);
+        simParams.put(ControllerModel.URI + ":" + ControllerModel.MIN_PERIOD, 1.0);
+        simParams.put(ControllerModel.URI + ":" + ControllerModel.MAX_PERIOD, 30.0);
+        simParams.put(ControllerModel.URI + ":" + ControllerModel.EWMA_ALPHA, 0.3);
+        simParams.put(ControllerModel.URI + ":" + ControllerModel.VOLATILITY_THRESHOLD, 10.0);
+        simParams.put(ControllerModel.URI + ":" + ControllerModel.PERIOD_GROWTH, 1.5);
+
         //Electric meter
         simParams.put(
                 ElectricMeterModel.URI + ":" + ElectricMeterModel.SERIES_AVAILABLE + PlotterDescription.PLOTTING_PARAM_NAME,
@@ -700,7 +728,7 @@ public class Supervisor extends	AbstractComponent{
         this.sp.doStandAloneSimulation(0, 5000.0) ;
         long end = System.currentTimeMillis() ;
         this.logMessage("supervisor component ends simulation. " +
-                (end - start)) ;
+                (end - start) + " ms, control mode " + CONTROL_MODE) ;
         Thread.sleep(1000) ;
     }
 }
@@ -1,12 +1,22 @@
 package components;
 
+import java.io.Serializable;
+
+import connectors.ConnectorInstrumentation;
+import connectors.ControllerConnector;
+import controller.DeviceCommand;
+import controller.DeviceDescriptor;
+import controller.DeviceType;
 import fr.sorbonne_u.components.cyphy.AbstractCyPhyComponent;
 import fr.sorbonne_u.components.cyphy.interfaces.EmbeddingComponentAccessI;
 import fr.sorbonne_u.components.exceptions.ComponentShutdownException;
 import fr.sorbonne_u.components.exceptions.PostconditionException;
 import fr.sorbonne_u.components.exceptions.PreconditionException;
 import fr.sorbonne_u.devs_simulation.architectures.Architecture;
+import interfaces.ControllerRegistrationI;
+import interfaces.EmbeddingStateI;
 import interfaces.WindTurbineI;
+import ports.ControllerRegistrationOutboundPort;
 import ports.WindTurbineInboundPort;
 import simulation.sil.windturbine.models.WindTurbineCoupledModel;
 import simulation.sil.windturbine.models.WindTurbineModel;
@@ -23,18 +33,49 @@ import simulation.sil.windturbine.plugin.WindTurbineSimulatorPlugin;
  * </pre>
  *
  */
-public class WindTurbine extends AbstractCyPhyComponent implements WindTurbineI,EmbeddingComponentAccessI{
+public class WindTurbine extends AbstractCyPhyComponent implements WindTurbineI,EmbeddingComponentAccessI,EmbeddingStateI{
+
+    /**
+     * Immutable view of the wind turbine state, returned in a single call to
+     * the controller.
+     */
+    public static class WindTurbineSnapshot implements Serializable {
+        private static final long serialVersionUID = 1L;
+        /** true if the wind turbine is on */
+        public final boolean isOn;
+        /** true if the wind turbine is on break */
+        public final boolean isOnBreak;
+        /** current wind speed */
+        public final double windSpeed;
+
+        public WindTurbineSnapshot(boolean isOn, boolean isOnBreak, double windSpeed) {
+            this.isOn = isOn;
+            this.isOnBreak = isOnBreak;
+            this.windSpeed = windSpeed;
+        }
+    }
+
     /**
 	 * Port that exposes the offered interface of the wind turbine with the given URI to ease the
 	 * connection from controller components.
 	 */
     protected WindTurbineInboundPort windTurbineInboundPort;
-    /** true if wind turbine is activated, false if not*/
-    protected boolean isOn;
-    /** true if the wind turbine is on break, false if not*/
-    protected boolean isOnBreak;
+    /** URI of the executor of the read-only calls, null if they are run by the threads of the component */
+    protected String readExecutorURI;
+    /** Keys of the state for <code>EmbeddingStateI</code> */
+    public static final int STATE = 0;
+    public static final int BREAK = 1;
+
+    /** Activation and break of the wind turbine, shared with the model */
+    protected final StateCell cell = new StateCell();
     /** the plugin in order to access the model 	 */
     protected WindTurbineSimulatorPlugin asp;
+    /** URI of the inbound port of the controller, null if the wind turbine does not register */
+    protected String controllerInboundPortURI;
+    /** Port used to register with the controller */
+    protected ControllerRegistrationOutboundPort registrationPort;
+    /** Descriptor sent to the controller */
+    protected DeviceDescriptor descriptor;
 
     /**
      * Create a wind turbine  component
@@ -58,17 +99,23 @@ public class WindTurbine extends AbstractCyPhyComponent implements WindTurbineI,
      * @throws Exception
      */
     protected WindTurbine(String uri, String windTurbineInboundPortURI) throws Exception{
-        super(uri,1,0);
+        super(uri, ComponentThreads.of(ComponentThreads.WIND_TURBINE).nbThreads,
+            ComponentThreads.of(ComponentThreads.WIND_TURBINE).nbSchedulableThreads);
         assert uri != null :new PreconditionException("uri can't be null!") ;
-        this.isOn = false;
-        this.isOnBreak = false;
+        ComponentThreads threads = ComponentThreads.of(ComponentThreads.WIND_TURBINE);
+        if(threads.nbReadThreads > 0) {
+            this.createNewExecutorService(ComponentThreads.READ_EXECUTOR_URI, threads.nbReadThreads, false);
+            this.readExecutorURI = ComponentThreads.READ_EXECUTOR_URI;
+        }
+        this.cell.setBoolean(STATE, false);
+        this.cell.setBoolean(BREAK, false);
         this.addOfferedInterface(WindTurbineI.class);
         windTurbineInboundPort = new WindTurbineInboundPort(windTurbineInboundPortURI, this);
         windTurbineInboundPort.publishPort();
 
         this.initialise();
 
-        assert this.isOn == false :
+        assert this.isOn() == false :
             new PostconditionException("The wind turbine's state has not been initialised correctly !");
         assert this.isPortExisting(windTurbineInboundPort.getPortURI()):
             new PostconditionException("The component must have a "
@@ -82,6 +129,34 @@ public class WindTurbine extends AbstractCyPhyComponent implements WindTurbineI,
                     + "port published with URI " + windTurbineInboundPort.getPortURI()) ;
     }
 
+    /**
+     * Create a wind turbine component that registers with the controller
+     * 
+     * @param uri
+     * @param windTurbineInboundPortURI
+     * @param controllerInboundPortURI URI of the inbound port of the controller
+     * @param householdURI URI of the household of the wind turbine
+     * @throws Exception
+     */
+    protected WindTurbine(String uri, String windTurbineInboundPortURI,
+            String controllerInboundPortURI, String householdURI) throws Exception {
+        this(uri, windTurbineInboundPortURI);
+        this.addRequiredInterface(ControllerRegistrationI.class);
+        this.controllerInboundPortURI = controllerInboundPortURI;
+        this.registrationPort = new ControllerRegistrationOutboundPort(this);
+        this.registrationPort.publishPort();
+        this.descriptor = new DeviceDescriptor(householdURI, DeviceType.WIND_TURBINE, windTurbineInboundPortURI,
+                0.0, DeviceDescriptor.DEFAULT_PRIORITY);
+    }
+
+    /**
+     * @return URI of the executor of the read-only calls, or null if they
+     * are run by the threads of the wind turbine
+     */
+    public String getReadExecutorURI() {
+        return this.readExecutorURI;
+    }
+
     /**
  	 * Initialise the lamp by installing the plugin for accessing to the model.
  	 * 
@@ -152,6 +227,36 @@ public class WindTurbine extends AbstractCyPhyComponent implements WindTurbineI,
 
 
 
+    /**
+     * Register the wind turbine with the controller
+     * 
+     * @throws Exception
+     */
+    @Override
+    public void execute() throws Exception {
+        super.execute();
+        if(this.registrationPort != null) {
+            this.doPortConnection(
+                    this.registrationPort.getPortURI(),
+                    this.controllerInboundPortURI,
+                    ConnectorInstrumentation.select(ControllerConnector.class));
+            this.registrationPort.register(this.descriptor);
+        }
+    }
+
+    /**
+     * Finalise the component by disconnecting from the controller
+     * 
+     * @exception Exception
+     */
+    @Override
+    public void finalise() throws Exception {
+        if(this.registrationPort != null && this.registrationPort.connected()) {
+            this.doPortDisconnection(this.registrationPort.getPortURI());
+        }
+        super.finalise();
+    }
+
     /**
  	 * Shutdown the component
  	 * 
@@ -161,6 +266,9 @@ public class WindTurbine extends AbstractCyPhyComponent implements WindTurbineI,
     public void shutdown() throws ComponentShutdownException {
         try {
             windTurbineInboundPort.unpublishPort();
+            if(this.registrationPort != null) {
+                this.registrationPort.unpublishPort();
+            }
         }catch(Exception e) {
             throw new ComponentShutdownException(e);
         }
@@ -177,6 +285,9 @@ public class WindTurbine extends AbstractCyPhyComponent implements WindTurbineI,
     public void shutdownNow() throws ComponentShutdownException {
         try {
             windTurbineInboundPort.unpublishPort();
+            if(this.registrationPort != null) {
+                this.registrationPort.unpublishPort();
+            }
         }catch(Exception e) {
             throw new ComponentShutdownException(e);
         }
@@ -191,7 +302,7 @@ public class WindTurbine extends AbstractCyPhyComponent implements WindTurbineI,
      */
     @Override
     public boolean isOn() {
-        return isOn;
+        return this.cell.getBoolean(STATE);
     }
 
 
@@ -202,7 +313,7 @@ public class WindTurbine extends AbstractCyPhyComponent implements WindTurbineI,
      */
     @Override
     public boolean isOnBreak() {
-        return isOnBreak;
+        return this.cell.getBoolean(BREAK);
     }
 
     /**
@@ -210,7 +321,7 @@ public class WindTurbine extends AbstractCyPhyComponent implements WindTurbineI,
      */
     @Override
     public void switchBreak() throws Exception {
-        isOnBreak = !isOnBreak;
+        this.cell.toggle(BREAK);
     }
 
 
@@ -221,7 +332,41 @@ public class WindTurbine extends AbstractCyPhyComponent implements WindTurbineI,
      */
     @Override
     public double getWindSpeed() throws Exception {
-        return (double) asp.getModelStateValue(WindTurbineModel.URI, "speed");
+        return asp.getSpeed();
+    }
+
+    /**
+     * Return the state of the wind turbine in one call
+     * 
+     * @return snapshot of the wind turbine
+     */
+    @Override
+    public WindTurbineSnapshot getSnapshot() throws Exception {
+        long s = this.cell.read();
+        return new WindTurbineSnapshot(StateCell.getBoolean(s, STATE), StateCell.getBoolean(s, BREAK),
+                getWindSpeed());
+    }
+
+    /**
+     * Apply a batch of commands in their order, then return the new state
+     * of the wind turbine
+     * 
+     * @param commands commands to apply
+     * @return snapshot of the wind turbine after the commands
+     * @throws Exception
+     */
+    @Override
+    public WindTurbineSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        for(DeviceCommand c : commands) {
+            switch(c.kind) {
+            case SET_BREAK:
+                this.cell.setBoolean(BREAK, c.booleanValue());
+                break;
+            default:
+                throw c.unsupported("wind turbine");
+            }
+        }
+        return this.getSnapshot();
     }
 
 
@@ -246,9 +391,9 @@ public class WindTurbine extends AbstractCyPhyComponent implements WindTurbineI,
     @Override
     public Object getEmbeddingComponentStateValue(String name) throws Exception{
         if(name.equals("state")) {
-            return isOn;
+            return this.getBooleanState(STATE);
         } else if(name.equals("break")) {
-            return isOnBreak;
+            return this.getBooleanState(BREAK);
         } else {
             throw new RuntimeException();
         }
@@ -264,9 +409,61 @@ public class WindTurbine extends AbstractCyPhyComponent implements WindTurbineI,
     @Override
     public void setEmbeddingComponentStateValue(String name , Object value) {
         if(name.equals("state")) {
-            this.isOn = (boolean)value;
+            this.setBooleanState(STATE, (boolean) value);
         } else {
             throw new RuntimeException();
         }
     }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#getEnumState(int)}
+     */
+    @Override
+    public Enum<?> getEnumState(int key) {
+        throw new IllegalArgumentException("not an enumerated state " + key);
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#setEnumState(int, Enum)}
+     */
+    @Override
+    public void setEnumState(int key, Enum<?> value) {
+        throw new IllegalArgumentException("not a writable enumerated state " + key);
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#getBooleanState(int)}
+     */
+    @Override
+    public boolean getBooleanState(int key) {
+        switch(key) {
+        case STATE:
+        case BREAK:
+            return this.cell.getBoolean(key);
+        default:
+            throw new IllegalArgumentException("not a boolean state " + key);
+        }
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#setBooleanState(int, boolean)}
+     */
+    @Override
+    public void setBooleanState(int key, boolean value) {
+        switch(key) {
+        case STATE:
+            this.cell.setBoolean(key, value);
+            break;
+        default:
+            throw new IllegalArgumentException("not a writable boolean state " + key);
+        }
+    }
+
+    /**
+     * @see {@link interfaces.EmbeddingStateI#getStateCell()}
+     */
+    @Override
+    public StateCell getStateCell() {
+        return this.cell;
+    }
 }
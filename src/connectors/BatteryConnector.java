@@ -1,6 +1,8 @@
 package connectors;
 
+import components.Battery.BatterySnapshot;
 import components.Battery.BState;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.connectors.AbstractConnector;
 import interfaces.BatteryControllerI;
 import interfaces.BatteryI;
@@ -49,4 +51,20 @@ public class BatteryConnector extends AbstractConnector implements BatteryContro
     public BState getMode() throws Exception {
         return ((BatteryI)this.offering).getMode();
     }
+
+    /**
+	 * @see {@link interfaces.BatteryControllerI#getSnapshot()}
+	 */
+    @Override
+    public BatterySnapshot getSnapshot() throws Exception {
+        return ((BatteryI)this.offering).getSnapshot();
+    }
+
+    /**
+	 * @see {@link interfaces.BatteryControllerI#applyCommands(DeviceCommand[])}
+	 */
+    @Override
+    public BatterySnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return ((BatteryI)this.offering).applyCommands(commands);
+    }
 }
@@ -0,0 +1,21 @@
+package connectors;
+
+/**
+ * The interface <code>BinaryConnectorI</code> is implemented by the
+ * connectors that can send their calls through the binary transport.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Such a connector is connected as the others; its calls go through the
+ * inbound port of the device until <code>open</code> gives it the address
+ * of the binary server of the device.
+ */
+public interface BinaryConnectorI {
+    /**
+     * Send the next calls to the binary server of the device
+     *
+     * @param address address of the server, as host:port
+     * @throws Exception
+     */
+    public void open(String address) throws Exception;
+}
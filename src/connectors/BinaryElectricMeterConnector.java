@@ -0,0 +1,102 @@
+package connectors;
+
+import java.nio.ByteBuffer;
+
+import components.ElectricMeter.ElectricMeterSnapshot;
+import controller.DeviceCommand;
+import transport.BinaryClient;
+import transport.BinaryTransport;
+import transport.ElectricMeterEndpoint;
+
+/**
+ * The class <code>BinaryElectricMeterConnector</code> implements a connector
+ * for the <code>ElectricMeterControllerI</code> interface that sends its
+ * calls through the binary transport.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * Until it is opened, the calls go through the inbound port of the
+ * electric meter, as with an <code>ElectricMeterConnector</code>.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class BinaryElectricMeterConnector extends ElectricMeterConnector implements BinaryConnectorI {
+    /** client of the server of the electric meter, null until opened */
+    protected volatile BinaryClient client;
+
+    /**
+     * @see {@link connectors.BinaryConnectorI#open(String)}
+     */
+    @Override
+    public void open(String address) throws Exception {
+        this.client = BinaryClient.get(address);
+    }
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#getAvailableEnergy()}
+     */
+    @Override
+    public double getAvailableEnergy() throws Exception {
+        BinaryClient c = this.client;
+        if(c == null) {
+            return super.getAvailableEnergy();
+        }
+        return c.call(ElectricMeterEndpoint.GET_AVAILABLE_ENERGY, null).getDouble();
+    }
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#getProduction()}
+     */
+    @Override
+    public double getProduction() throws Exception {
+        BinaryClient c = this.client;
+        if(c == null) {
+            return super.getProduction();
+        }
+        return c.call(ElectricMeterEndpoint.GET_PRODUCTION, null).getDouble();
+    }
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#getConsumption()}
+     */
+    @Override
+    public double getConsumption() throws Exception {
+        BinaryClient c = this.client;
+        if(c == null) {
+            return super.getConsumption();
+        }
+        return c.call(ElectricMeterEndpoint.GET_CONSUMPTION, null).getDouble();
+    }
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#getSnapshot()}
+     */
+    @Override
+    public ElectricMeterSnapshot getSnapshot() throws Exception {
+        BinaryClient c = this.client;
+        if(c == null) {
+            return super.getSnapshot();
+        }
+        return ElectricMeterEndpoint.getSnapshot(c.call(ElectricMeterEndpoint.GET_SNAPSHOT, null));
+    }
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#applyCommands(DeviceCommand[])}
+     */
+    @Override
+    public ElectricMeterSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        BinaryClient c = this.client;
+        if(c == null) {
+            return super.applyCommands(commands);
+        }
+        ByteBuffer args = ByteBuffer.allocate(2 + 2 * commands.length);
+        BinaryTransport.putCommands(args, commands);
+        args.flip();
+        return ElectricMeterEndpoint.getSnapshot(c.call(ElectricMeterEndpoint.APPLY_COMMANDS, args));
+    }
+}
@@ -0,0 +1,140 @@
+package connectors;
+
+import java.nio.ByteBuffer;
+
+import components.Fridge.FridgeSnapshot;
+import controller.DeviceCommand;
+import transport.BinaryClient;
+import transport.BinaryTransport;
+import transport.FridgeEndpoint;
+
+/**
+ * The class <code>BinaryFridgeConnector</code> implements a connector
+ * for the <code>FridgeControllerI</code> interface that sends its calls
+ * through the binary transport.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * Until it is opened, the calls go through the inbound port of the fridge,
+ * as with a <code>FridgeConnector</code>.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class BinaryFridgeConnector extends FridgeConnector implements BinaryConnectorI {
+    /** client of the server of the fridge, null until opened */
+    protected volatile BinaryClient client;
+
+    /**
+     * @see {@link connectors.BinaryConnectorI#open(String)}
+     */
+    @Override
+    public void open(String address) throws Exception {
+        this.client = BinaryClient.get(address);
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#switchFridgeBreak()}
+     */
+    @Override
+    public void switchFridgeBreak() throws Exception {
+        BinaryClient c = this.client;
+        if(c == null) {
+            super.switchFridgeBreak();
+        } else {
+            c.call(FridgeEndpoint.SWITCH_FRIDGE_BREAK, null);
+        }
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#isFridgeOnBreak()}
+     */
+    @Override
+    public boolean isFridgeOnBreak() throws Exception {
+        BinaryClient c = this.client;
+        if(c == null) {
+            return super.isFridgeOnBreak();
+        }
+        return BinaryTransport.getBoolean(c.call(FridgeEndpoint.IS_FRIDGE_ON_BREAK, null));
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#switchFreezerBreak()}
+     */
+    @Override
+    public void switchFreezerBreak() throws Exception {
+        BinaryClient c = this.client;
+        if(c == null) {
+            super.switchFreezerBreak();
+        } else {
+            c.call(FridgeEndpoint.SWITCH_FREEZER_BREAK, null);
+        }
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#isFreezerOnBreak()}
+     */
+    @Override
+    public boolean isFreezerOnBreak() throws Exception {
+        BinaryClient c = this.client;
+        if(c == null) {
+            return super.isFreezerOnBreak();
+        }
+        return BinaryTransport.getBoolean(c.call(FridgeEndpoint.IS_FREEZER_ON_BREAK, null));
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#isFridgeOn()}
+     */
+    @Override
+    public boolean isFridgeOn() throws Exception {
+        BinaryClient c = this.client;
+        if(c == null) {
+            return super.isFridgeOn();
+        }
+        return BinaryTransport.getBoolean(c.call(FridgeEndpoint.IS_FRIDGE_ON, null));
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#isFreezerOn()}
+     */
+    @Override
+    public boolean isFreezerOn() throws Exception {
+        BinaryClient c = this.client;
+        if(c == null) {
+            return super.isFreezerOn();
+        }
+        return BinaryTransport.getBoolean(c.call(FridgeEndpoint.IS_FREEZER_ON, null));
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#getSnapshot()}
+     */
+    @Override
+    public FridgeSnapshot getSnapshot() throws Exception {
+        BinaryClient c = this.client;
+        if(c == null) {
+            return super.getSnapshot();
+        }
+        return FridgeEndpoint.getSnapshot(c.call(FridgeEndpoint.GET_SNAPSHOT, null));
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#applyCommands(DeviceCommand[])}
+     */
+    @Override
+    public FridgeSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        BinaryClient c = this.client;
+        if(c == null) {
+            return super.applyCommands(commands);
+        }
+        ByteBuffer args = ByteBuffer.allocate(2 + 2 * commands.length);
+        BinaryTransport.putCommands(args, commands);
+        args.flip();
+        return FridgeEndpoint.getSnapshot(c.call(FridgeEndpoint.APPLY_COMMANDS, args));
+    }
+}
@@ -0,0 +1,91 @@
+package connectors;
+
+import components.Battery.BState;
+import components.Battery.BatterySnapshot;
+import controller.DeviceCommand;
+
+/**
+ * The class <code>CachingBatteryConnector</code> implements a connector
+ * for the <code>BatteryControllerI</code> interface that memoizes the
+ * read-only calls to the battery.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * A read is answered from the cache until the next tick of the controller
+ * or until a write through this connector.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class CachingBatteryConnector extends BatteryConnector implements CachingConnectorI {
+    private static final int MAX_CAPACITY = 0;
+    private static final int CURRENT_CAPACITY = 1;
+    private static final int MODE = 2;
+    private static final int SNAPSHOT = 3;
+
+    /** cached reads of the battery */
+    protected final ReadCache cache = new ReadCache(4);
+
+    /**
+     * @see {@link connectors.CachingConnectorI#getCache()}
+     */
+    @Override
+    public ReadCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * @see {@link interfaces.BatteryControllerI#getMaxCapacity()}
+     */
+    @Override
+    public double getMaxCapacity() throws Exception {
+        return this.cache.get(MAX_CAPACITY, super::getMaxCapacity);
+    }
+
+    /**
+     * @see {@link interfaces.BatteryControllerI#getCurrentCapacity()}
+     */
+    @Override
+    public double getCurrentCapacity() throws Exception {
+        return this.cache.get(CURRENT_CAPACITY, super::getCurrentCapacity);
+    }
+
+    /**
+     * @see {@link interfaces.BatteryControllerI#getMode()}
+     */
+    @Override
+    public BState getMode() throws Exception {
+        return this.cache.get(MODE, super::getMode);
+    }
+
+    /**
+     * @see {@link interfaces.BatteryControllerI#getSnapshot()}
+     */
+    @Override
+    public BatterySnapshot getSnapshot() throws Exception {
+        return this.cache.get(SNAPSHOT, super::getSnapshot);
+    }
+
+    /**
+     * @see {@link interfaces.BatteryControllerI#setMode(BState)}
+     */
+    @Override
+    public void setMode(BState mode) throws Exception {
+        super.setMode(mode);
+        this.cache.invalidate();
+    }
+
+    /**
+     * @see {@link interfaces.BatteryControllerI#applyCommands(DeviceCommand[])}
+     */
+    @Override
+    public BatterySnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        BatterySnapshot snapshot = super.applyCommands(commands);
+        this.cache.invalidate();
+        return snapshot;
+    }
+}
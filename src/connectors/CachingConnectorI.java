@@ -0,0 +1,17 @@
+package connectors;
+
+/**
+ * The interface <code>CachingConnectorI</code> is implemented by the
+ * connectors that memoize the read-only calls to a device.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * A caching connector is selected instead of the plain connector of a device
+ * by giving its class to <code>doPortConnection</code>.
+ */
+public interface CachingConnectorI {
+    /**
+     * @return cache of the connector
+     */
+    public ReadCache getCache();
+}
@@ -0,0 +1,109 @@
+package connectors;
+
+import components.Dishwasher.DWMode;
+import components.Dishwasher.DishwasherSnapshot;
+import controller.DeviceCommand;
+
+/**
+ * The class <code>CachingDishwasherConnector</code> implements a connector
+ * for the <code>DishwasherControllerI</code> interface that memoizes the
+ * read-only calls to the dishwasher.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * A read is answered from the cache until the next tick of the controller
+ * or until a write through this connector.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class CachingDishwasherConnector extends DishwasherConnector implements CachingConnectorI {
+    private static final int IS_ON = 0;
+    private static final int TIME_LEFT = 1;
+    private static final int MODE = 2;
+    private static final int IS_ON_BREAK = 3;
+    private static final int SNAPSHOT = 4;
+
+    /** cached reads of the dishwasher */
+    protected final ReadCache cache = new ReadCache(5);
+
+    /**
+     * @see {@link connectors.CachingConnectorI#getCache()}
+     */
+    @Override
+    public ReadCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#isOn()}
+     */
+    @Override
+    public boolean isOn() throws Exception {
+        return this.cache.get(IS_ON, super::isOn);
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#getTimeLeft()}
+     */
+    @Override
+    public double getTimeLeft() throws Exception {
+        return this.cache.get(TIME_LEFT, super::getTimeLeft);
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#getMode()}
+     */
+    @Override
+    public DWMode getMode() throws Exception {
+        return this.cache.get(MODE, super::getMode);
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#isOnBreak()}
+     */
+    @Override
+    public boolean isOnBreak() throws Exception {
+        return this.cache.get(IS_ON_BREAK, super::isOnBreak);
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#getSnapshot()}
+     */
+    @Override
+    public DishwasherSnapshot getSnapshot() throws Exception {
+        return this.cache.get(SNAPSHOT, super::getSnapshot);
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#setMode(DWMode)}
+     */
+    @Override
+    public void setMode(DWMode mode) throws Exception {
+        super.setMode(mode);
+        this.cache.invalidate();
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#switchBreak()}
+     */
+    @Override
+    public void switchBreak() throws Exception {
+        super.switchBreak();
+        this.cache.invalidate();
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#applyCommands(DeviceCommand[])}
+     */
+    @Override
+    public DishwasherSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        DishwasherSnapshot snapshot = super.applyCommands(commands);
+        this.cache.invalidate();
+        return snapshot;
+    }
+}
@@ -0,0 +1,80 @@
+package connectors;
+
+import components.ElectricMeter.ElectricMeterSnapshot;
+import controller.DeviceCommand;
+
+/**
+ * The class <code>CachingElectricMeterConnector</code> implements a connector
+ * for the <code>ElectricMeterControllerI</code> interface that memoizes the
+ * read-only calls to the electric meter.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * A read is answered from the cache until the next tick of the controller.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class CachingElectricMeterConnector extends ElectricMeterConnector implements CachingConnectorI {
+    private static final int AVAILABLE_ENERGY = 0;
+    private static final int PRODUCTION = 1;
+    private static final int CONSUMPTION = 2;
+    private static final int SNAPSHOT = 3;
+
+    /** cached reads of the electric meter */
+    protected final ReadCache cache = new ReadCache(4);
+
+    /**
+     * @see {@link connectors.CachingConnectorI#getCache()}
+     */
+    @Override
+    public ReadCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#getAvailableEnergy()}
+     */
+    @Override
+    public double getAvailableEnergy() throws Exception {
+        return this.cache.get(AVAILABLE_ENERGY, super::getAvailableEnergy);
+    }
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#getProduction()}
+     */
+    @Override
+    public double getProduction() throws Exception {
+        return this.cache.get(PRODUCTION, super::getProduction);
+    }
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#getConsumption()}
+     */
+    @Override
+    public double getConsumption() throws Exception {
+        return this.cache.get(CONSUMPTION, super::getConsumption);
+    }
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#getSnapshot()}
+     */
+    @Override
+    public ElectricMeterSnapshot getSnapshot() throws Exception {
+        return this.cache.get(SNAPSHOT, super::getSnapshot);
+    }
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#applyCommands(DeviceCommand[])}
+     */
+    @Override
+    public ElectricMeterSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        ElectricMeterSnapshot snapshot = super.applyCommands(commands);
+        this.cache.invalidate();
+        return snapshot;
+    }
+}
@@ -0,0 +1,108 @@
+package connectors;
+
+import components.Fridge.FridgeSnapshot;
+import controller.DeviceCommand;
+
+/**
+ * The class <code>CachingFridgeConnector</code> implements a connector
+ * for the <code>FridgeControllerI</code> interface that memoizes the
+ * read-only calls to the fridge.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * A read is answered from the cache until the next tick of the controller
+ * or until a write through this connector.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class CachingFridgeConnector extends FridgeConnector implements CachingConnectorI {
+    private static final int IS_FRIDGE_ON_BREAK = 0;
+    private static final int IS_FREEZER_ON_BREAK = 1;
+    private static final int IS_FRIDGE_ON = 2;
+    private static final int IS_FREEZER_ON = 3;
+    private static final int SNAPSHOT = 4;
+
+    /** cached reads of the fridge */
+    protected final ReadCache cache = new ReadCache(5);
+
+    /**
+     * @see {@link connectors.CachingConnectorI#getCache()}
+     */
+    @Override
+    public ReadCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#isFridgeOnBreak()}
+     */
+    @Override
+    public boolean isFridgeOnBreak() throws Exception {
+        return this.cache.get(IS_FRIDGE_ON_BREAK, super::isFridgeOnBreak);
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#isFreezerOnBreak()}
+     */
+    @Override
+    public boolean isFreezerOnBreak() throws Exception {
+        return this.cache.get(IS_FREEZER_ON_BREAK, super::isFreezerOnBreak);
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#isFridgeOn()}
+     */
+    @Override
+    public boolean isFridgeOn() throws Exception {
+        return this.cache.get(IS_FRIDGE_ON, super::isFridgeOn);
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#isFreezerOn()}
+     */
+    @Override
+    public boolean isFreezerOn() throws Exception {
+        return this.cache.get(IS_FREEZER_ON, super::isFreezerOn);
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#getSnapshot()}
+     */
+    @Override
+    public FridgeSnapshot getSnapshot() throws Exception {
+        return this.cache.get(SNAPSHOT, super::getSnapshot);
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#switchFridgeBreak()}
+     */
+    @Override
+    public void switchFridgeBreak() throws Exception {
+        super.switchFridgeBreak();
+        this.cache.invalidate();
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#switchFreezerBreak()}
+     */
+    @Override
+    public void switchFreezerBreak() throws Exception {
+        super.switchFreezerBreak();
+        this.cache.invalidate();
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#applyCommands(DeviceCommand[])}
+     */
+    @Override
+    public FridgeSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        FridgeSnapshot snapshot = super.applyCommands(commands);
+        this.cache.invalidate();
+        return snapshot;
+    }
+}
@@ -0,0 +1,82 @@
+package connectors;
+
+import components.Lamp.LampSnapshot;
+import components.Lamp.LampState;
+import controller.DeviceCommand;
+
+/**
+ * The class <code>CachingLampConnector</code> implements a connector
+ * for the <code>LampControllerI</code> interface that memoizes the
+ * read-only calls to the lamp.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * A read is answered from the cache until the next tick of the controller
+ * or until a write through this connector.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class CachingLampConnector extends LampConnector implements CachingConnectorI {
+    private static final int STATE = 0;
+    private static final int IS_ON_BREAK = 1;
+    private static final int SNAPSHOT = 2;
+
+    /** cached reads of the lamp */
+    protected final ReadCache cache = new ReadCache(3);
+
+    /**
+     * @see {@link connectors.CachingConnectorI#getCache()}
+     */
+    @Override
+    public ReadCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * @see {@link interfaces.LampControllerI#getState()}
+     */
+    @Override
+    public LampState getState() throws Exception {
+        return this.cache.get(STATE, super::getState);
+    }
+
+    /**
+     * @see {@link interfaces.LampControllerI#isOnBreak()}
+     */
+    @Override
+    public boolean isOnBreak() throws Exception {
+        return this.cache.get(IS_ON_BREAK, super::isOnBreak);
+    }
+
+    /**
+     * @see {@link interfaces.LampControllerI#getSnapshot()}
+     */
+    @Override
+    public LampSnapshot getSnapshot() throws Exception {
+        return this.cache.get(SNAPSHOT, super::getSnapshot);
+    }
+
+    /**
+     * @see {@link interfaces.LampControllerI#switchBreak()}
+     */
+    @Override
+    public void switchBreak() throws Exception {
+        super.switchBreak();
+        this.cache.invalidate();
+    }
+
+    /**
+     * @see {@link interfaces.LampControllerI#applyCommands(DeviceCommand[])}
+     */
+    @Override
+    public LampSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        LampSnapshot snapshot = super.applyCommands(commands);
+        this.cache.invalidate();
+        return snapshot;
+    }
+}
@@ -0,0 +1,188 @@
+package connectors;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The class <code>CallStatistics</code> counts the calls made to one method
+ * through the instrumented connectors and keeps a histogram of their
+ * latencies.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Bucket <code>k</code> of the histogram counts the calls that took less
+ * than 2<sup>k</sup> microseconds and at least 2<sup>k-1</sup>; the last
+ * bucket also counts every longer call. The counters are
+ * <code>LongAdder</code>s, striped between the threads that make the calls,
+ * so that recording a call takes no lock; they can be read from any thread
+ * at any time.
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		name != null
+ * </pre>
+ */
+public class CallStatistics {
+    /** number of buckets of the histogram */
+    public static final int BUCKETS = 20;
+
+    /**
+     * The interface <code>Call</code> is a call returning nothing.
+     */
+    public interface Call {
+        /**
+         * Make the call
+         *
+         * @throws Exception
+         */
+        public void run() throws Exception;
+    }
+
+    /** name of the method, prefixed by the name of the connector */
+    public final String name;
+    /** number of calls in each bucket */
+    protected final LongAdder[] buckets = new LongAdder[BUCKETS];
+    /** number of calls */
+    protected final LongAdder calls = new LongAdder();
+    /** number of calls that threw an exception */
+    protected final LongAdder errors = new LongAdder();
+    /** sum of the latencies in nanoseconds */
+    protected final LongAdder totalNanos = new LongAdder();
+    /** longest call in nanoseconds */
+    protected final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Create the statistics of a method
+     *
+     * @param name name of the method, prefixed by the name of the connector
+     */
+    public CallStatistics(String name) {
+        assert name != null;
+        this.name = name;
+        for(int k = 0 ; k < BUCKETS ; k++) {
+            this.buckets[k] = new LongAdder();
+        }
+    }
+
+    /**
+     * Make a call returning a value and record it
+     *
+     * @param call call to make
+     * @return result of the call
+     * @throws Exception
+     */
+    public <T> T call(Callable<T> call) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return call.call();
+        } catch(Exception e) {
+            this.errors.increment();
+            throw e;
+        } finally {
+            this.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Make a call returning nothing and record it
+     *
+     * @param call call to make
+     * @throws Exception
+     */
+    public void run(Call call) throws Exception {
+        long start = System.nanoTime();
+        try {
+            call.run();
+        } catch(Exception e) {
+            this.errors.increment();
+            throw e;
+        } finally {
+            this.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record a call
+     *
+     * @param nanos latency of the call in nanoseconds
+     */
+    protected void record(long nanos) {
+        this.buckets[bucket(nanos)].increment();
+        this.calls.increment();
+        this.totalNanos.add(nanos);
+        this.maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Return the bucket of a latency
+     *
+     * @param nanos latency in nanoseconds
+     * @return index of the bucket
+     */
+    protected static int bucket(long nanos) {
+        long us = TimeUnit.NANOSECONDS.toMicros(nanos);
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(us));
+    }
+
+    /**
+     * Return a bound of the latency of a fraction of the calls
+     *
+     * @param p fraction of the calls, between 0 and 1
+     * @return latency in microseconds under which at least this fraction of
+     * the calls took, or -1 if the fraction falls in the last bucket
+     */
+    public long getPercentile(double p) {
+        assert p >= 0.0 && p <= 1.0;
+        long total = this.calls.sum();
+        long seen = 0;
+        for(int k = 0 ; k < BUCKETS - 1 ; k++) {
+            seen += this.buckets[k].sum();
+            if(seen >= p * total) {
+                return 1L << k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return number of calls
+     */
+    public long getCalls() {
+        return this.calls.sum();
+    }
+
+    /**
+     * @return number of calls that threw an exception
+     */
+    public long getErrors() {
+        return this.errors.sum();
+    }
+
+    /**
+     * @return mean latency of a call in microseconds
+     */
+    public double getMeanMicros() {
+        long n = this.calls.sum();
+        return n == 0 ? 0.0 : this.totalNanos.sum() / 1e3 / n;
+    }
+
+    /**
+     * @return longest call in microseconds
+     */
+    public double getMaxMicros() {
+        return this.maxNanos.get() / 1e3;
+    }
+
+    @Override
+    public String toString() {
+        return this.name + "(calls = " + getCalls()
+                + ", errors = " + getErrors()
+                + ", mean = " + getMeanMicros()
+                + " us, p50 <= " + getPercentile(0.5)
+                + " us, p99 <= " + getPercentile(0.99)
+                + " us, max = " + getMaxMicros() + " us)";
+    }
+}
@@ -0,0 +1,117 @@
+package connectors;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The class <code>ConnectorInstrumentation</code> chooses between the plain
+ * connectors and their instrumented versions, and holds the statistics of
+ * the instrumented calls.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * The instrumentation is turned on for a whole deployment by starting the
+ * JVM with <code>-Dziodyne.instrumentation=true</code>; the components are
+ * not changed. <code>select</code> then returns, for a connector
+ * <code>XConnector</code>, its subclass <code>InstrumentedXConnector</code>,
+ * which records the count, the errors and the latency of each call in a
+ * <code>CallStatistics</code>. The statistics can be read at any time with
+ * <code>getStatistics</code> and <code>report</code>, and are printed when
+ * the JVM shuts down. A connector without an instrumented version, such as
+ * the caching connectors, is used as it is.
+ *
+ * <p><strong>Overhead</strong></p>
+ *
+ * When the instrumentation is off, the plain connectors are used and
+ * nothing is added to the calls. When it is on, each call costs two
+ * <code>System.nanoTime</code>, four <code>LongAdder</code> updates, one
+ * <code>LongAccumulator</code> update and the allocation of the lambda
+ * wrapping the call, plus boxing for the methods returning a primitive: a
+ * few hundred nanoseconds at most, while a port call through the executor
+ * of a component takes microseconds, and an RMI call much more. The
+ * striped counters keep the threads of the controller from contending on
+ * the same cache line.
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		true
+ * </pre>
+ */
+public class ConnectorInstrumentation {
+    /** name of the system property turning the instrumentation on */
+    public static final String PROPERTY = "ziodyne.instrumentation";
+    /** true if the instrumented connectors are used */
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+    /** prefix of the name of the instrumented connectors */
+    public static final String PREFIX = "Instrumented";
+
+    /** statistics of the methods, by name */
+    protected static final ConcurrentHashMap<String, CallStatistics> statistics =
+            new ConcurrentHashMap<>();
+
+    static {
+        if(ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(
+                    () -> System.out.println(report()), "connector-instrumentation"));
+        }
+    }
+
+    private ConnectorInstrumentation() {
+    }
+
+    /**
+     * Return the connector to give to <code>doPortConnection</code>
+     *
+     * @param connector class of the plain connector
+     * @return name of the instrumented connector if the instrumentation is
+     * on and the connector has one, else the name of the plain connector
+     */
+    public static String select(Class<?> connector) {
+        if(ENABLED) {
+            String name = connector.getPackage().getName() + "." + PREFIX + connector.getSimpleName();
+            try {
+                return Class.forName(name).getCanonicalName();
+            } catch(ClassNotFoundException e) {
+                // no instrumented version, the plain connector is used
+            }
+        }
+        return connector.getCanonicalName();
+    }
+
+    /**
+     * Return the statistics of a method, created at the first call
+     *
+     * @param connector class of the plain connector
+     * @param method name of the method
+     * @return statistics of the method
+     */
+    public static CallStatistics get(Class<?> connector, String method) {
+        return statistics.computeIfAbsent(connector.getSimpleName() + "." + method,
+                CallStatistics::new);
+    }
+
+    /**
+     * @return statistics of all the methods called so far, by name
+     */
+    public static List<CallStatistics> getStatistics() {
+        List<CallStatistics> l = new ArrayList<>(statistics.values());
+        l.sort(Comparator.comparing(s -> s.name));
+        return l;
+    }
+
+    /**
+     * @return statistics of all the methods called so far, one per line
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder("connector calls :");
+        for(CallStatistics s : getStatistics()) {
+            if(s.getCalls() > 0) {
+                sb.append(System.lineSeparator()).append("  ").append(s);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,29 @@
+package connectors;
+
+import controller.DeviceDescriptor;
+import controller.Registration;
+import fr.sorbonne_u.components.connectors.AbstractConnector;
+import interfaces.ControllerI;
+import interfaces.ControllerRegistrationI;
+
+/**
+ * The class <code>ControllerConnector</code> implements a connector
+ * for the <code>ControllerRegistrationI</code> interface.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class ControllerConnector extends AbstractConnector implements ControllerRegistrationI{
+
+    /**
+	 * @see {@link interfaces.ControllerRegistrationI#register(DeviceDescriptor)}
+	 */
+    @Override
+    public Registration register(DeviceDescriptor descriptor) throws Exception {
+        return ((ControllerI)this.offering).register(descriptor);
+    }
+}
@@ -0,0 +1,29 @@
+package connectors;
+
+import java.io.Serializable;
+
+import fr.sorbonne_u.components.connectors.AbstractConnector;
+import interfaces.ControllerNotificationI;
+import interfaces.ControllerNotifierI;
+
+/**
+ * The class <code>ControllerNotificationConnector</code> implements a connector
+ * for the <code>ControllerNotifierI</code> interface.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class ControllerNotificationConnector extends AbstractConnector implements ControllerNotifierI{
+
+    /**
+	 * @see {@link interfaces.ControllerNotifierI#notifyChange(int, int, Serializable)}
+	 */
+    @Override
+    public void notifyChange(int deviceId, int version, Serializable snapshot) throws Exception {
+        ((ControllerNotificationI)this.offering).notifyChange(deviceId, version, snapshot);
+    }
+}
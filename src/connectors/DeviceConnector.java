@@ -0,0 +1,38 @@
+package connectors;
+
+import java.io.Serializable;
+
+import controller.DeviceCommand;
+import fr.sorbonne_u.components.connectors.AbstractConnector;
+import interfaces.DeviceControllerI;
+import interfaces.DeviceI;
+
+/**
+ * The class <code>DeviceConnector</code> implements a connector for the
+ * <code>DeviceControllerI</code> interface, to any device component.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class DeviceConnector extends AbstractConnector implements DeviceControllerI<Serializable> {
+
+    /**
+	 * @see {@link interfaces.DeviceControllerI#getSnapshot()}
+	 */
+    @Override
+    public Serializable getSnapshot() throws Exception {
+        return ((DeviceI<?>)this.offering).getSnapshot();
+    }
+
+    /**
+	 * @see {@link interfaces.DeviceControllerI#applyCommands(DeviceCommand[])}
+	 */
+    @Override
+    public Serializable applyCommands(DeviceCommand[] commands) throws Exception {
+        return ((DeviceI<?>)this.offering).applyCommands(commands);
+    }
+}
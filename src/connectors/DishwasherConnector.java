@@ -1,6 +1,8 @@
 package connectors;
 
+import components.Dishwasher.DishwasherSnapshot;
 import components.Dishwasher.DWMode;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.connectors.AbstractConnector;
 import interfaces.DishwasherControllerI;
 import interfaces.DishwasherI;
@@ -65,4 +67,20 @@ public class DishwasherConnector extends AbstractConnector implements Dishwasher
     public boolean isOnBreak() throws Exception {
         return ((DishwasherI)this.offering).isOnBreak();
     }
+
+    /**
+	 * @see {@link interfaces.DishwasherControllerI#getSnapshot()}
+	 */
+    @Override
+    public DishwasherSnapshot getSnapshot() throws Exception {
+        return ((DishwasherI)this.offering).getSnapshot();
+    }
+
+    /**
+	 * @see {@link interfaces.DishwasherControllerI#applyCommands(DeviceCommand[])}
+	 */
+    @Override
+    public DishwasherSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return ((DishwasherI)this.offering).applyCommands(commands);
+    }
 }
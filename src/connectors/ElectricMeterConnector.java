@@ -1,5 +1,7 @@
 package connectors;
 
+import components.ElectricMeter.ElectricMeterSnapshot;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.connectors.AbstractConnector;
 import interfaces.ElectricMeterControllerI;
 import interfaces.ElectricMeterI;
@@ -40,4 +42,20 @@ public class ElectricMeterConnector extends AbstractConnector implements Electri
     public double getConsumption() throws Exception{
         return ((ElectricMeterI)this.offering).getConsumption();
     }
+
+    /**
+	 * @see {@link interfaces.ElectricMeterControllerI#getSnapshot()}
+	 */
+    @Override
+    public ElectricMeterSnapshot getSnapshot() throws Exception {
+        return ((ElectricMeterI)this.offering).getSnapshot();
+    }
+
+    /**
+	 * @see {@link interfaces.ElectricMeterControllerI#applyCommands(DeviceCommand[])}
+	 */
+    @Override
+    public ElectricMeterSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return ((ElectricMeterI)this.offering).applyCommands(commands);
+    }
 }
@@ -1,5 +1,7 @@
 package connectors;
 
+import components.Fridge.FridgeSnapshot;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.connectors.AbstractConnector;
 import interfaces.FridgeControllerI;
 import interfaces.FridgeI;
@@ -64,4 +66,20 @@ public class FridgeConnector extends AbstractConnector implements FridgeControll
     public boolean isFreezerOn() throws Exception{
         return ((FridgeI)this.offering).isFreezerOn();
     }
+
+    /**
+	 * @see {@link interfaces.FridgeControllerI#getSnapshot()}
+	 */
+    @Override
+    public FridgeSnapshot getSnapshot() throws Exception {
+        return ((FridgeI)this.offering).getSnapshot();
+    }
+
+    /**
+	 * @see {@link interfaces.FridgeControllerI#applyCommands(DeviceCommand[])}
+	 */
+    @Override
+    public FridgeSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return ((FridgeI)this.offering).applyCommands(commands);
+    }
 }
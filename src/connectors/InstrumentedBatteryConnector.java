@@ -0,0 +1,86 @@
+package connectors;
+
+import components.Battery.BState;
+import components.Battery.BatterySnapshot;
+import controller.DeviceCommand;
+
+/**
+ * The class <code>InstrumentedBatteryConnector</code> implements a
+ * <code>BatteryConnector</code> recording the count, the errors and the
+ * latency of its calls.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * It is selected instead of <code>BatteryConnector</code> by
+ * <code>ConnectorInstrumentation.select</code> when the instrumentation is
+ * on.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class InstrumentedBatteryConnector extends BatteryConnector {
+    private static final CallStatistics GET_MAX_CAPACITY =
+            ConnectorInstrumentation.get(BatteryConnector.class, "getMaxCapacity");
+    private static final CallStatistics GET_CURRENT_CAPACITY =
+            ConnectorInstrumentation.get(BatteryConnector.class, "getCurrentCapacity");
+    private static final CallStatistics SET_MODE =
+            ConnectorInstrumentation.get(BatteryConnector.class, "setMode");
+    private static final CallStatistics GET_MODE =
+            ConnectorInstrumentation.get(BatteryConnector.class, "getMode");
+    private static final CallStatistics GET_SNAPSHOT =
+            ConnectorInstrumentation.get(BatteryConnector.class, "getSnapshot");
+    private static final CallStatistics APPLY_COMMANDS =
+            ConnectorInstrumentation.get(BatteryConnector.class, "applyCommands");
+
+    /**
+     * @see {@link interfaces.BatteryControllerI#getMaxCapacity()}
+     */
+    @Override
+    public double getMaxCapacity() throws Exception {
+        return GET_MAX_CAPACITY.call(super::getMaxCapacity);
+    }
+
+    /**
+     * @see {@link interfaces.BatteryControllerI#getCurrentCapacity()}
+     */
+    @Override
+    public double getCurrentCapacity() throws Exception {
+        return GET_CURRENT_CAPACITY.call(super::getCurrentCapacity);
+    }
+
+    /**
+     * @see {@link interfaces.BatteryControllerI#setMode(BState)}
+     */
+    @Override
+    public void setMode(BState mode) throws Exception {
+        SET_MODE.run(() -> super.setMode(mode));
+    }
+
+    /**
+     * @see {@link interfaces.BatteryControllerI#getMode()}
+     */
+    @Override
+    public BState getMode() throws Exception {
+        return GET_MODE.call(super::getMode);
+    }
+
+    /**
+     * @see {@link interfaces.BatteryControllerI#getSnapshot()}
+     */
+    @Override
+    public BatterySnapshot getSnapshot() throws Exception {
+        return GET_SNAPSHOT.call(super::getSnapshot);
+    }
+
+    /**
+     * @see {@link interfaces.BatteryControllerI#applyCommands(DeviceCommand[])}
+     */
+    @Override
+    public BatterySnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return APPLY_COMMANDS.call(() -> super.applyCommands(commands));
+    }
+}
@@ -0,0 +1,35 @@
+package connectors;
+
+import controller.DeviceDescriptor;
+import controller.Registration;
+
+/**
+ * The class <code>InstrumentedControllerConnector</code> implements a
+ * <code>ControllerConnector</code> recording the count, the errors and the
+ * latency of its calls.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * It is selected instead of <code>ControllerConnector</code> by
+ * <code>ConnectorInstrumentation.select</code> when the instrumentation is
+ * on.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class InstrumentedControllerConnector extends ControllerConnector {
+    private static final CallStatistics REGISTER =
+            ConnectorInstrumentation.get(ControllerConnector.class, "register");
+
+    /**
+     * @see {@link interfaces.ControllerRegistrationI#register(DeviceDescriptor)}
+     */
+    @Override
+    public Registration register(DeviceDescriptor descriptor) throws Exception {
+        return REGISTER.call(() -> super.register(descriptor));
+    }
+}
@@ -0,0 +1,34 @@
+package connectors;
+
+import java.io.Serializable;
+
+/**
+ * The class <code>InstrumentedControllerNotificationConnector</code>
+ * implements a <code>ControllerNotificationConnector</code> recording the
+ * count, the errors and the latency of its calls.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * It is selected instead of <code>ControllerNotificationConnector</code> by
+ * <code>ConnectorInstrumentation.select</code> when the instrumentation is
+ * on.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class InstrumentedControllerNotificationConnector extends ControllerNotificationConnector {
+    private static final CallStatistics NOTIFY_CHANGE =
+            ConnectorInstrumentation.get(ControllerNotificationConnector.class, "notifyChange");
+
+    /**
+     * @see {@link interfaces.ControllerNotifierI#notifyChange(int, int, Serializable)}
+     */
+    @Override
+    public void notifyChange(int deviceId, int version, Serializable snapshot) throws Exception {
+        NOTIFY_CHANGE.run(() -> super.notifyChange(deviceId, version, snapshot));
+    }
+}
@@ -0,0 +1,46 @@
+package connectors;
+
+import java.io.Serializable;
+
+import controller.DeviceCommand;
+
+/**
+ * The class <code>InstrumentedDeviceConnector</code> implements a
+ * <code>DeviceConnector</code> recording the count, the errors and the
+ * latency of its calls.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * It is selected instead of <code>DeviceConnector</code> by
+ * <code>ConnectorInstrumentation.select</code> when the instrumentation is
+ * on.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class InstrumentedDeviceConnector extends DeviceConnector {
+    private static final CallStatistics GET_SNAPSHOT =
+            ConnectorInstrumentation.get(DeviceConnector.class, "getSnapshot");
+    private static final CallStatistics APPLY_COMMANDS =
+            ConnectorInstrumentation.get(DeviceConnector.class, "applyCommands");
+
+    /**
+     * @see {@link interfaces.DeviceControllerI#getSnapshot()}
+     */
+    @Override
+    public Serializable getSnapshot() throws Exception {
+        return GET_SNAPSHOT.call(super::getSnapshot);
+    }
+
+    /**
+     * @see {@link interfaces.DeviceControllerI#applyCommands(DeviceCommand[])}
+     */
+    @Override
+    public Serializable applyCommands(DeviceCommand[] commands) throws Exception {
+        return APPLY_COMMANDS.call(() -> super.applyCommands(commands));
+    }
+}
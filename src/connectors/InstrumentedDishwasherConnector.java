@@ -0,0 +1,106 @@
+package connectors;
+
+import components.Dishwasher.DWMode;
+import components.Dishwasher.DishwasherSnapshot;
+import controller.DeviceCommand;
+
+/**
+ * The class <code>InstrumentedDishwasherConnector</code> implements a
+ * <code>DishwasherConnector</code> recording the count, the errors and the
+ * latency of its calls.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * It is selected instead of <code>DishwasherConnector</code> by
+ * <code>ConnectorInstrumentation.select</code> when the instrumentation is
+ * on.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class InstrumentedDishwasherConnector extends DishwasherConnector {
+    private static final CallStatistics IS_ON =
+            ConnectorInstrumentation.get(DishwasherConnector.class, "isOn");
+    private static final CallStatistics GET_TIME_LEFT =
+            ConnectorInstrumentation.get(DishwasherConnector.class, "getTimeLeft");
+    private static final CallStatistics GET_MODE =
+            ConnectorInstrumentation.get(DishwasherConnector.class, "getMode");
+    private static final CallStatistics SET_MODE =
+            ConnectorInstrumentation.get(DishwasherConnector.class, "setMode");
+    private static final CallStatistics SWITCH_BREAK =
+            ConnectorInstrumentation.get(DishwasherConnector.class, "switchBreak");
+    private static final CallStatistics IS_ON_BREAK =
+            ConnectorInstrumentation.get(DishwasherConnector.class, "isOnBreak");
+    private static final CallStatistics GET_SNAPSHOT =
+            ConnectorInstrumentation.get(DishwasherConnector.class, "getSnapshot");
+    private static final CallStatistics APPLY_COMMANDS =
+            ConnectorInstrumentation.get(DishwasherConnector.class, "applyCommands");
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#isOn()}
+     */
+    @Override
+    public boolean isOn() throws Exception {
+        return IS_ON.call(super::isOn);
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#getTimeLeft()}
+     */
+    @Override
+    public double getTimeLeft() throws Exception {
+        return GET_TIME_LEFT.call(super::getTimeLeft);
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#getMode()}
+     */
+    @Override
+    public DWMode getMode() throws Exception {
+        return GET_MODE.call(super::getMode);
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#setMode(DWMode)}
+     */
+    @Override
+    public void setMode(DWMode mode) throws Exception {
+        SET_MODE.run(() -> super.setMode(mode));
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#switchBreak()}
+     */
+    @Override
+    public void switchBreak() throws Exception {
+        SWITCH_BREAK.run(super::switchBreak);
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#isOnBreak()}
+     */
+    @Override
+    public boolean isOnBreak() throws Exception {
+        return IS_ON_BREAK.call(super::isOnBreak);
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#getSnapshot()}
+     */
+    @Override
+    public DishwasherSnapshot getSnapshot() throws Exception {
+        return GET_SNAPSHOT.call(super::getSnapshot);
+    }
+
+    /**
+     * @see {@link interfaces.DishwasherControllerI#applyCommands(DeviceCommand[])}
+     */
+    @Override
+    public DishwasherSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return APPLY_COMMANDS.call(() -> super.applyCommands(commands));
+    }
+}
@@ -0,0 +1,75 @@
+package connectors;
+
+import components.ElectricMeter.ElectricMeterSnapshot;
+import controller.DeviceCommand;
+
+/**
+ * The class <code>InstrumentedElectricMeterConnector</code> implements a
+ * <code>ElectricMeterConnector</code> recording the count, the errors and
+ * the latency of its calls.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * It is selected instead of <code>ElectricMeterConnector</code> by
+ * <code>ConnectorInstrumentation.select</code> when the instrumentation is
+ * on.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class InstrumentedElectricMeterConnector extends ElectricMeterConnector {
+    private static final CallStatistics GET_AVAILABLE_ENERGY =
+            ConnectorInstrumentation.get(ElectricMeterConnector.class, "getAvailableEnergy");
+    private static final CallStatistics GET_PRODUCTION =
+            ConnectorInstrumentation.get(ElectricMeterConnector.class, "getProduction");
+    private static final CallStatistics GET_CONSUMPTION =
+            ConnectorInstrumentation.get(ElectricMeterConnector.class, "getConsumption");
+    private static final CallStatistics GET_SNAPSHOT =
+            ConnectorInstrumentation.get(ElectricMeterConnector.class, "getSnapshot");
+    private static final CallStatistics APPLY_COMMANDS =
+            ConnectorInstrumentation.get(ElectricMeterConnector.class, "applyCommands");
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#getAvailableEnergy()}
+     */
+    @Override
+    public double getAvailableEnergy() throws Exception {
+        return GET_AVAILABLE_ENERGY.call(super::getAvailableEnergy);
+    }
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#getProduction()}
+     */
+    @Override
+    public double getProduction() throws Exception {
+        return GET_PRODUCTION.call(super::getProduction);
+    }
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#getConsumption()}
+     */
+    @Override
+    public double getConsumption() throws Exception {
+        return GET_CONSUMPTION.call(super::getConsumption);
+    }
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#getSnapshot()}
+     */
+    @Override
+    public ElectricMeterSnapshot getSnapshot() throws Exception {
+        return GET_SNAPSHOT.call(super::getSnapshot);
+    }
+
+    /**
+     * @see {@link interfaces.ElectricMeterControllerI#applyCommands(DeviceCommand[])}
+     */
+    @Override
+    public ElectricMeterSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return APPLY_COMMANDS.call(() -> super.applyCommands(commands));
+    }
+}
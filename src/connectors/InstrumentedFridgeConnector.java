@@ -0,0 +1,105 @@
+package connectors;
+
+import components.Fridge.FridgeSnapshot;
+import controller.DeviceCommand;
+
+/**
+ * The class <code>InstrumentedFridgeConnector</code> implements a
+ * <code>FridgeConnector</code> recording the count, the errors and the
+ * latency of its calls.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * It is selected instead of <code>FridgeConnector</code> by
+ * <code>ConnectorInstrumentation.select</code> when the instrumentation is
+ * on.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class InstrumentedFridgeConnector extends FridgeConnector {
+    private static final CallStatistics SWITCH_FRIDGE_BREAK =
+            ConnectorInstrumentation.get(FridgeConnector.class, "switchFridgeBreak");
+    private static final CallStatistics IS_FRIDGE_ON_BREAK =
+            ConnectorInstrumentation.get(FridgeConnector.class, "isFridgeOnBreak");
+    private static final CallStatistics SWITCH_FREEZER_BREAK =
+            ConnectorInstrumentation.get(FridgeConnector.class, "switchFreezerBreak");
+    private static final CallStatistics IS_FREEZER_ON_BREAK =
+            ConnectorInstrumentation.get(FridgeConnector.class, "isFreezerOnBreak");
+    private static final CallStatistics IS_FRIDGE_ON =
+            ConnectorInstrumentation.get(FridgeConnector.class, "isFridgeOn");
+    private static final CallStatistics IS_FREEZER_ON =
+            ConnectorInstrumentation.get(FridgeConnector.class, "isFreezerOn");
+    private static final CallStatistics GET_SNAPSHOT =
+            ConnectorInstrumentation.get(FridgeConnector.class, "getSnapshot");
+    private static final CallStatistics APPLY_COMMANDS =
+            ConnectorInstrumentation.get(FridgeConnector.class, "applyCommands");
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#switchFridgeBreak()}
+     */
+    @Override
+    public void switchFridgeBreak() throws Exception {
+        SWITCH_FRIDGE_BREAK.run(super::switchFridgeBreak);
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#isFridgeOnBreak()}
+     */
+    @Override
+    public boolean isFridgeOnBreak() throws Exception {
+        return IS_FRIDGE_ON_BREAK.call(super::isFridgeOnBreak);
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#switchFreezerBreak()}
+     */
+    @Override
+    public void switchFreezerBreak() throws Exception {
+        SWITCH_FREEZER_BREAK.run(super::switchFreezerBreak);
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#isFreezerOnBreak()}
+     */
+    @Override
+    public boolean isFreezerOnBreak() throws Exception {
+        return IS_FREEZER_ON_BREAK.call(super::isFreezerOnBreak);
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#isFridgeOn()}
+     */
+    @Override
+    public boolean isFridgeOn() throws Exception {
+        return IS_FRIDGE_ON.call(super::isFridgeOn);
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#isFreezerOn()}
+     */
+    @Override
+    public boolean isFreezerOn() throws Exception {
+        return IS_FREEZER_ON.call(super::isFreezerOn);
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#getSnapshot()}
+     */
+    @Override
+    public FridgeSnapshot getSnapshot() throws Exception {
+        return GET_SNAPSHOT.call(super::getSnapshot);
+    }
+
+    /**
+     * @see {@link interfaces.FridgeControllerI#applyCommands(DeviceCommand[])}
+     */
+    @Override
+    public FridgeSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return APPLY_COMMANDS.call(() -> super.applyCommands(commands));
+    }
+}
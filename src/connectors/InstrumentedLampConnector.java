@@ -0,0 +1,76 @@
+package connectors;
+
+import components.Lamp.LampSnapshot;
+import components.Lamp.LampState;
+import controller.DeviceCommand;
+
+/**
+ * The class <code>InstrumentedLampConnector</code> implements a
+ * <code>LampConnector</code> recording the count, the errors and the
+ * latency of its calls.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * It is selected instead of <code>LampConnector</code> by
+ * <code>ConnectorInstrumentation.select</code> when the instrumentation is
+ * on.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class InstrumentedLampConnector extends LampConnector {
+    private static final CallStatistics GET_STATE =
+            ConnectorInstrumentation.get(LampConnector.class, "getState");
+    private static final CallStatistics IS_ON_BREAK =
+            ConnectorInstrumentation.get(LampConnector.class, "isOnBreak");
+    private static final CallStatistics SWITCH_BREAK =
+            ConnectorInstrumentation.get(LampConnector.class, "switchBreak");
+    private static final CallStatistics GET_SNAPSHOT =
+            ConnectorInstrumentation.get(LampConnector.class, "getSnapshot");
+    private static final CallStatistics APPLY_COMMANDS =
+            ConnectorInstrumentation.get(LampConnector.class, "applyCommands");
+
+    /**
+     * @see {@link interfaces.LampControllerI#getState()}
+     */
+    @Override
+    public LampState getState() throws Exception {
+        return GET_STATE.call(super::getState);
+    }
+
+    /**
+     * @see {@link interfaces.LampControllerI#isOnBreak()}
+     */
+    @Override
+    public boolean isOnBreak() throws Exception {
+        return IS_ON_BREAK.call(super::isOnBreak);
+    }
+
+    /**
+     * @see {@link interfaces.LampControllerI#switchBreak()}
+     */
+    @Override
+    public void switchBreak() throws Exception {
+        SWITCH_BREAK.run(super::switchBreak);
+    }
+
+    /**
+     * @see {@link interfaces.LampControllerI#getSnapshot()}
+     */
+    @Override
+    public LampSnapshot getSnapshot() throws Exception {
+        return GET_SNAPSHOT.call(super::getSnapshot);
+    }
+
+    /**
+     * @see {@link interfaces.LampControllerI#applyCommands(DeviceCommand[])}
+     */
+    @Override
+    public LampSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return APPLY_COMMANDS.call(() -> super.applyCommands(commands));
+    }
+}
@@ -0,0 +1,85 @@
+package connectors;
+
+import components.WindTurbine.WindTurbineSnapshot;
+import controller.DeviceCommand;
+
+/**
+ * The class <code>InstrumentedWindTurbineConnector</code> implements a
+ * <code>WindTurbineConnector</code> recording the count, the errors and the
+ * latency of its calls.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * It is selected instead of <code>WindTurbineConnector</code> by
+ * <code>ConnectorInstrumentation.select</code> when the instrumentation is
+ * on.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ * 
+ */
+public class InstrumentedWindTurbineConnector extends WindTurbineConnector {
+    private static final CallStatistics IS_ON =
+            ConnectorInstrumentation.get(WindTurbineConnector.class, "isOn");
+    private static final CallStatistics IS_ON_BREAK =
+            ConnectorInstrumentation.get(WindTurbineConnector.class, "isOnBreak");
+    private static final CallStatistics SWITCH_BREAK =
+            ConnectorInstrumentation.get(WindTurbineConnector.class, "switchBreak");
+    private static final CallStatistics GET_WIND_SPEED =
+            ConnectorInstrumentation.get(WindTurbineConnector.class, "getWindSpeed");
+    private static final CallStatistics GET_SNAPSHOT =
+            ConnectorInstrumentation.get(WindTurbineConnector.class, "getSnapshot");
+    private static final CallStatistics APPLY_COMMANDS =
+            ConnectorInstrumentation.get(WindTurbineConnector.class, "applyCommands");
+
+    /**
+     * @see {@link interfaces.WindTurbineControllerI#isOn()}
+     */
+    @Override
+    public boolean isOn() throws Exception {
+        return IS_ON.call(super::isOn);
+    }
+
+    /**
+     * @see {@link interfaces.WindTurbineControllerI#isOnBreak()}
+     */
+    @Override
+    public boolean isOnBreak() throws Exception {
+        return IS_ON_BREAK.call(super::isOnBreak);
+    }
+
+    /**
+     * @see {@link interfaces.WindTurbineControllerI#switchBreak()}
+     */
+    @Override
+    public void switchBreak() throws Exception {
+        SWITCH_BREAK.run(super::switchBreak);
+    }
+
+    /**
+     * @see {@link interfaces.WindTurbineControllerI#getWindSpeed()}
+     */
+    @Override
+    public double getWindSpeed() throws Exception {
+        return GET_WIND_SPEED.call(super::getWindSpeed);
+    }
+
+    /**
+     * @see {@link interfaces.WindTurbineControllerI#getSnapshot()}
+     */
+    @Override
+    public WindTurbineSnapshot getSnapshot() throws Exception {
+        return GET_SNAPSHOT.call(super::getSnapshot);
+    }
+
+    /**
+     * @see {@link interfaces.WindTurbineControllerI#applyCommands(DeviceCommand[])}
+     */
+    @Override
+    public WindTurbineSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return APPLY_COMMANDS.call(() -> super.applyCommands(commands));
+    }
+}
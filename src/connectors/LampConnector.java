@@ -1,6 +1,8 @@
 package connectors;
 
+import components.Lamp.LampSnapshot;
 import components.Lamp.LampState;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.connectors.AbstractConnector;
 import interfaces.LampControllerI;
 import interfaces.LampI;
@@ -41,4 +43,20 @@ public class LampConnector extends AbstractConnector implements LampControllerI{
     public void switchBreak() throws Exception {
         ((LampI)this.offering).switchBreak();
     }
+
+    /**
+	 * @see {@link interfaces.LampControllerI#getSnapshot()}
+	 */
+    @Override
+    public LampSnapshot getSnapshot() throws Exception {
+        return ((LampI)this.offering).getSnapshot();
+    }
+
+    /**
+	 * @see {@link interfaces.LampControllerI#applyCommands(DeviceCommand[])}
+	 */
+    @Override
+    public LampSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return ((LampI)this.offering).applyCommands(commands);
+    }
 }
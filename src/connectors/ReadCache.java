@@ -0,0 +1,115 @@
+package connectors;
+
+import java.util.concurrent.Callable;
+
+/**
+ * The class <code>ReadCache</code> memoizes the read-only calls made through
+ * a caching connector.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Each read-only method of the connector has its own slot. A value is kept
+ * until the simulated time given to <code>newTick</code> changes, or until
+ * a write through the same connector calls <code>invalidate</code>; the
+ * next call then asks the device again. The cache counts its hits and its
+ * misses.
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		getHits() &gt;= 0 and getMisses() &gt;= 0
+ * </pre>
+ */
+public class ReadCache {
+    /** cached values, by slot */
+    protected final Object[] values;
+    /** epoch of the cached values, by slot */
+    protected final long[] epochs;
+    /** current epoch, incremented at each new tick and each write */
+    protected long epoch = 1;
+    /** simulated time of the current tick */
+    protected double simulatedTime = Double.NaN;
+    /** number of calls answered from the cache */
+    protected long hits;
+    /** number of calls sent to the device */
+    protected long misses;
+
+    /**
+     * Create a cache
+     *
+     * @param nbSlots number of read-only methods of the connector
+     */
+    public ReadCache(int nbSlots) {
+        assert nbSlots > 0;
+        this.values = new Object[nbSlots];
+        this.epochs = new long[nbSlots];
+    }
+
+    /**
+     * Return the cached value of a slot, or call the device if there is none
+     *
+     * @param slot slot of the method
+     * @param call call to the device
+     * @return value of the call
+     * @throws Exception
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(int slot, Callable<T> call) throws Exception {
+        long e;
+        synchronized(this) {
+            if(this.epochs[slot] == this.epoch) {
+                this.hits++;
+                return (T) this.values[slot];
+            }
+            this.misses++;
+            e = this.epoch;
+        }
+        T value = call.call();
+        synchronized(this) {
+            // a write or a new tick during the call makes the value stale
+            if(e == this.epoch) {
+                this.values[slot] = value;
+                this.epochs[slot] = e;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Start a tick: the values cached at another simulated time are dropped
+     *
+     * @param simulatedTime simulated time of the tick
+     */
+    public synchronized void newTick(double simulatedTime) {
+        if(simulatedTime != this.simulatedTime) {
+            this.simulatedTime = simulatedTime;
+            this.epoch++;
+        }
+    }
+
+    /**
+     * Drop all the cached values, after a write
+     */
+    public synchronized void invalidate() {
+        this.epoch++;
+    }
+
+    /**
+     * @return number of calls answered from the cache
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * @return number of calls sent to the device
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "hits = " + this.hits + ", misses = " + this.misses;
+    }
+}
@@ -1,5 +1,7 @@
 package connectors;
 
+import components.WindTurbine.WindTurbineSnapshot;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.connectors.AbstractConnector;
 
 import interfaces.WindTurbineControllerI;
@@ -50,4 +52,20 @@ public class WindTurbineConnector extends AbstractConnector implements WindTurbi
 	public double getWindSpeed() throws Exception {
 		return ((WindTurbineI)this.offering).getWindSpeed();
 	}
+
+    /**
+	 * @see {@link interfaces.WindTurbineControllerI#getSnapshot()}
+	 */
+    @Override
+    public WindTurbineSnapshot getSnapshot() throws Exception {
+        return ((WindTurbineI)this.offering).getSnapshot();
+    }
+
+    /**
+	 * @see {@link interfaces.WindTurbineControllerI#applyCommands(DeviceCommand[])}
+	 */
+    @Override
+    public WindTurbineSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return ((WindTurbineI)this.offering).applyCommands(commands);
+    }
 }
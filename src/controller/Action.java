@@ -0,0 +1,73 @@
+package controller;
+
+import interfaces.DeviceControllerI;
+
+/**
+ * The class <code>Action</code> describes the commands the controller can
+ * send to a device during a control tick.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Actions of the same group are alternatives on the same device: at most one
+ * of them is executed in a tick. <code>watts</code> is the change of the
+ * available energy the action costs (surplus) or frees (deficit), counted
+ * from the state of the device at the beginning of the tick. The commands
+ * of all the actions chosen for a device in a tick are sent together, in
+ * one call to <code>applyCommands</code>.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		group &gt;= 0
+ * invariant		watts &gt;= 0
+ * invariant		device != null
+ * invariant		commands.length &gt; 0
+ * </pre>
+ */
+public class Action {
+
+    /**
+     * The interface <code>Command</code> sends commands to a device.
+     */
+    public interface Command {
+        /**
+         * Send the commands to the device
+         * 
+         * @throws Exception
+         */
+        public void execute() throws Exception;
+    }
+
+    /** group of the action, actions of the same group are alternatives */
+    public final int group;
+    /** watts costed or freed by the action */
+    public final double watts;
+    /** priority of the action, see the planner for its meaning */
+    public final int priority;
+    /** device receiving the commands */
+    public final DeviceControllerI<?> device;
+    /** commands of the action, in their order */
+    public final DeviceCommand[] commands;
+
+    /**
+     * Create an action
+     * 
+     * @param group group of the action
+     * @param watts watts costed or freed by the action
+     * @param priority priority of the action
+     * @param device device receiving the commands
+     * @param commands commands of the action, in their order
+     */
+    public Action(int group, double watts, int priority, DeviceControllerI<?> device,
+            DeviceCommand... commands) {
+        assert group >= 0;
+        assert watts >= 0;
+        assert device != null;
+        assert commands.length > 0;
+        this.group = group;
+        this.watts = watts;
+        this.priority = priority;
+        this.device = device;
+        this.commands = commands;
+    }
+}
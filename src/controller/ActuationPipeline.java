@@ -0,0 +1,200 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The class <code>ActuationPipeline</code> sends the commands of the
+ * controller to the devices without waiting for each of them.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * The commands of a tick are submitted together to a small pool of threads,
+ * so their port calls overlap instead of being done one after another. The
+ * controller joins them with <code>join</code> before reading the devices
+ * at the next tick. A command that is not done when the join times out is
+ * counted as late and joined again at the next tick; a command that throws
+ * is counted as failed.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ */
+public class ActuationPipeline {
+    /** default number of threads sending the commands */
+    public static final int DEFAULT_THREADS = 4;
+    /** default time given to the commands of a tick, in milliseconds */
+    public static final long DEFAULT_TIMEOUT = 500L;
+
+    /** threads sending the commands */
+    protected final ExecutorService executor;
+    /** true if the threads were created by this pipeline */
+    protected final boolean ownsExecutor;
+    /** max time waited by a join, in milliseconds */
+    protected long timeout;
+    /** commands not joined yet */
+    protected final ArrayList<Future<Void>> pending = new ArrayList<>();
+
+    /** number of commands submitted */
+    protected long submitted;
+    /** number of commands that were not done when joined */
+    protected long late;
+    /** number of commands that threw an exception */
+    protected long failed;
+
+    /**
+     * Create a pipeline with the default parameters
+     * 
+     * @param name prefix of the name of the threads
+     */
+    public ActuationPipeline(String name) {
+        this(name, DEFAULT_THREADS, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Create a pipeline
+     * 
+     * <p><strong>Contract</strong></p>
+     * 
+     * <pre>
+     * pre	nbThreads &gt; 0
+     * pre	timeout &gt;= 0
+     * post	true			// no postcondition.
+     * </pre>
+     * 
+     * @param name prefix of the name of the threads
+     * @param nbThreads number of threads sending the commands
+     * @param timeout max time waited by a join, in milliseconds
+     */
+    public ActuationPipeline(String name, int nbThreads, long timeout) {
+        assert nbThreads > 0;
+        assert timeout >= 0;
+        this.executor = ThreadMode.get().newPool(name + "-actuation", nbThreads);
+        this.ownsExecutor = true;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Create a pipeline sending its commands on threads shared with other
+     * pipelines
+     * 
+     * <p><strong>Contract</strong></p>
+     * 
+     * <pre>
+     * pre	executor != null
+     * pre	timeout &gt;= 0
+     * post	true			// no postcondition.
+     * </pre>
+     * 
+     * @param executor threads sending the commands, not stopped by shutdown
+     * @param timeout max time waited by a join, in milliseconds
+     */
+    public ActuationPipeline(ExecutorService executor, long timeout) {
+        assert executor != null;
+        assert timeout >= 0;
+        this.executor = executor;
+        this.ownsExecutor = false;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Submit a command without waiting for it
+     * 
+     * @param command command to send
+     * @return future of the command
+     */
+    public Future<Void> submit(Action.Command command) {
+        Future<Void> f = this.executor.submit(() -> {
+            command.execute();
+            return null;
+        });
+        this.pending.add(f);
+        this.submitted++;
+        return f;
+    }
+
+    /**
+     * Wait for the commands submitted so far, at most the timeout
+     * 
+     * @return number of commands still not done
+     * @throws InterruptedException
+     */
+    public int join() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.timeout);
+        Iterator<Future<Void>> it = this.pending.iterator();
+        while(it.hasNext()) {
+            Future<Void> f = it.next();
+            long left = deadline - System.nanoTime();
+            try {
+                f.get(Math.max(0L, left), TimeUnit.NANOSECONDS);
+                it.remove();
+            } catch (ExecutionException e) {
+                this.failed++;
+                it.remove();
+            } catch (TimeoutException e) {
+                // still running, joined again at the next tick
+                this.late++;
+            }
+        }
+        return this.pending.size();
+    }
+
+    /**
+     * Stop the threads, unless they are shared; the commands not done are
+     * cancelled
+     */
+    public void shutdown() {
+        if(this.ownsExecutor) {
+            this.executor.shutdownNow();
+        } else {
+            for(Future<Void> f : this.pending) {
+                f.cancel(true);
+            }
+            this.pending.clear();
+        }
+    }
+
+    /**
+     * Replace the time given to the commands of a tick
+     * 
+     * @param timeout max time waited by a join, in milliseconds
+     */
+    public void setTimeout(long timeout) {
+        assert timeout >= 0;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return number of commands submitted
+     */
+    public long getSubmitted() {
+        return this.submitted;
+    }
+
+    /**
+     * @return number of times a command was not done when joined
+     */
+    public long getLate() {
+        return this.late;
+    }
+
+    /**
+     * @return number of commands that threw an exception
+     */
+    public long getFailed() {
+        return this.failed;
+    }
+
+    @Override
+    public String toString() {
+        return "ActuationPipeline(submitted = " + submitted + ", late = " + late +
+                ", failed = " + failed + ", pending = " + pending.size() + ")";
+    }
+}
@@ -0,0 +1,191 @@
+package controller;
+
+/**
+ * The class <code>AdaptiveControlPeriod</code> computes the period of the
+ * controller from the available energy seen at each control task.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * The volatility of the available energy is estimated by an exponentially
+ * weighted moving average of |&Delta;energy| between two control tasks. When
+ * the energy is positive and the volatility stays under the threshold, the
+ * period is stretched by <code>growth</code> up to <code>maxPeriod</code>.
+ * When the volatility goes over the threshold the period is divided by
+ * <code>growth</code>, and when the energy is negative it goes back to
+ * <code>minPeriod</code> at once.
+ * 
+ * The adaptation is an opt-in, with <code>-Dziodyne.adaptivePeriod=true</code>
+ * or the <code>adaptive period</code> run parameter of the controller
+ * model: by default the controller keeps the fixed period of one second it
+ * had before, given by <code>fixed</code> as a period whose
+ * <code>minPeriod</code> and <code>maxPeriod</code> are the same.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		0 &lt; minPeriod &lt;= period &lt;= maxPeriod
+ * invariant		0 &lt; alpha &lt;= 1
+ * invariant		growth &gt;= 1
+ * </pre>
+ */
+public class AdaptiveControlPeriod {
+    /** name of the system property turning the adaptation of the period on */
+    public static final String PROPERTY = "ziodyne.adaptivePeriod";
+    /** true if the period adapts to the energy, false by default */
+    public static final boolean DEFAULT_ADAPTIVE = Boolean.getBoolean(PROPERTY);
+    /** default min period in seconds */
+    public static final double DEFAULT_MIN_PERIOD = 1.0;
+    /** default max period in seconds */
+    public static final double DEFAULT_MAX_PERIOD = 30.0;
+    /** default weight of the last |delta energy| in the average */
+    public static final double DEFAULT_ALPHA = 0.3;
+    /** default volatility over which the period shrinks, in watts */
+    public static final double DEFAULT_THRESHOLD = 10.0;
+    /** default factor applied to the period */
+    public static final double DEFAULT_GROWTH = 1.5;
+
+    /** min period */
+    protected final double minPeriod;
+    /** max period */
+    protected final double maxPeriod;
+    /** weight of the last |delta energy| in the average */
+    protected final double alpha;
+    /** volatility over which the period shrinks */
+    protected final double threshold;
+    /** factor applied to the period when it grows or shrinks */
+    protected final double growth;
+
+    /** current period */
+    protected double period;
+    /** current estimation of the volatility */
+    protected double volatility;
+    /** energy seen at the last update */
+    protected double lastEnergy;
+    /** true if no update has been done yet */
+    protected boolean first;
+
+    /** number of updates */
+    protected long updates;
+    /** sum of the periods returned by the updates */
+    protected double periodSum;
+
+    /**
+     * Return a period that never changes
+     * 
+     * @param period period in seconds
+     * @return period staying at <code>period</code>
+     */
+    public static AdaptiveControlPeriod fixed(double period) {
+        return new AdaptiveControlPeriod(period, period, DEFAULT_ALPHA,
+                DEFAULT_THRESHOLD, DEFAULT_GROWTH);
+    }
+
+    /**
+     * Return the default period of the controller
+     * 
+     * @return adaptive period with the default parameters if
+     * <code>DEFAULT_ADAPTIVE</code>, else the fixed min period
+     */
+    public static AdaptiveControlPeriod createDefault() {
+        return DEFAULT_ADAPTIVE ? new AdaptiveControlPeriod() : fixed(DEFAULT_MIN_PERIOD);
+    }
+
+    /**
+     * Create a period with the default parameters
+     */
+    public AdaptiveControlPeriod() {
+        this(DEFAULT_MIN_PERIOD, DEFAULT_MAX_PERIOD, DEFAULT_ALPHA,
+                DEFAULT_THRESHOLD, DEFAULT_GROWTH);
+    }
+
+    /**
+     * Create a period
+     * 
+     * <p><strong>Contract</strong></p>
+     * 
+     * <pre>
+     * pre	0 &lt; minPeriod &lt;= maxPeriod
+     * pre	0 &lt; alpha &lt;= 1
+     * pre	growth &gt;= 1
+     * post	getPeriod() == minPeriod
+     * </pre>
+     * 
+     * @param minPeriod min period
+     * @param maxPeriod max period
+     * @param alpha weight of the last |delta energy| in the average
+     * @param threshold volatility over which the period shrinks
+     * @param growth factor applied to the period
+     */
+    public AdaptiveControlPeriod(double minPeriod, double maxPeriod,
+            double alpha, double threshold, double growth) {
+        assert minPeriod > 0 && minPeriod <= maxPeriod;
+        assert alpha > 0 && alpha <= 1;
+        assert growth >= 1;
+        this.minPeriod = minPeriod;
+        this.maxPeriod = maxPeriod;
+        this.alpha = alpha;
+        this.threshold = threshold;
+        this.growth = growth;
+        this.period = minPeriod;
+        this.first = true;
+    }
+
+    /**
+     * Return the current period
+     * 
+     * @return period in seconds
+     */
+    public double getPeriod() {
+        return this.period;
+    }
+
+    /**
+     * @return true if the period can change, false if it is fixed
+     */
+    public boolean isAdaptive() {
+        return this.minPeriod < this.maxPeriod;
+    }
+
+    /**
+     * Return the current estimation of the volatility
+     * 
+     * @return volatility in watts
+     */
+    public double getVolatility() {
+        return this.volatility;
+    }
+
+    /**
+     * Update the period with the energy seen by a control task
+     * 
+     * @param energy available energy
+     * @return the new period
+     */
+    public double update(double energy) {
+        if(this.first) {
+            this.first = false;
+        } else {
+            double delta = Math.abs(energy - this.lastEnergy);
+            this.volatility = this.alpha * delta + (1 - this.alpha) * this.volatility;
+        }
+        this.lastEnergy = energy;
+
+        if(energy <= 0) {
+            this.period = this.minPeriod;
+        } else if(this.volatility > this.threshold) {
+            this.period = Math.max(this.minPeriod, this.period / this.growth);
+        } else {
+            this.period = Math.min(this.maxPeriod, this.period * this.growth);
+        }
+        this.updates++;
+        this.periodSum += this.period;
+        return this.period;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveControlPeriod[" + minPeriod + ", " + maxPeriod +
+                "](updates = " + updates +
+                ", mean period = " + (updates == 0 ? period : periodSum / updates) + ")";
+    }
+}
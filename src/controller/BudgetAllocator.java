@@ -0,0 +1,175 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The class <code>BudgetAllocator</code> is the top-level controller of the
+ * building: it gives a watt budget to each zone from their flexibility
+ * summaries.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * The zones are households, which are separate tenants: by default,
+ * <code>allocateEach</code> gives each zone a budget from the energy read on
+ * its own electric meter only, so that the surplus of a household is never
+ * used by another one. A zone without an electric meter gets no budget.
+ * 
+ * Pooling the energy of all the zones is an opt-in, for a building whose
+ * households share their production (<code>-Dziodyne.poolEnergy=true</code>):
+ * <code>allocate</code> then uses the energy of the whole building. With a
+ * surplus, the zones with the greatest absorb priority are served
+ * first, each up to the watts it can absorb; what no zone can absorb is
+ * sold. With a deficit, the zones with the smallest shed priority are asked
+ * first, each up to the watts it can shed. A positive budget is the watts a
+ * zone may absorb, a negative budget the watts it must shed.
+ *
+ * With a surplus, a zone left with a zero budget still plans its absorb
+ * actions within this budget: the actions costing no watt, such as
+ * restarting a device that is off, are always taken, as they were before
+ * the zones. <code>planZone</code> gives this choice to the zones.
+ *
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ */
+public class BudgetAllocator {
+    /** name of the system property pooling the energy of the zones */
+    public static final String POOLING_PROPERTY = "ziodyne.poolEnergy";
+    /** true if the energy of the zones is pooled, false by default */
+    public static final boolean DEFAULT_POOLING = Boolean.getBoolean(POOLING_PROPERTY);
+
+    /** zones sorted by priority, as (key &lt;&lt; 32) | index */
+    protected long[] order = new long[0];
+
+    /**
+     * Give a budget to each zone from the energy read on its own electric
+     * meter
+     * 
+     * With a surplus, a zone may absorb up to its surplus; with a deficit,
+     * it must shed up to its deficit. A zone without an electric meter gets
+     * no budget.
+     * 
+     * <p><strong>Contract</strong></p>
+     * 
+     * <pre>
+     * pre	zones.length &gt;= n and budgets.length &gt;= n
+     * post	true			// no postcondition.
+     * </pre>
+     * 
+     * @param zones summaries of the zones, null for a zone without one
+     * @param n number of zones
+     * @param fallback true if the surpluses are not used, only the deficits
+     * are covered
+     * @param budgets array receiving the budget of each zone
+     * @return deficit the zones cannot cover, as a negative number, or 0
+     */
+    public double allocateEach(Flexibility[] zones, int n, boolean fallback, double[] budgets) {
+        assert zones.length >= n && budgets.length >= n;
+        double left = 0.0;
+        for(int i = 0 ; i < n ; i++) {
+            budgets[i] = 0.0;
+            Flexibility f = zones[i];
+            if(f == null || !f.metered) {
+                continue;
+            }
+            if(f.availableEnergy > 0) {
+                if(!fallback) {
+                    budgets[i] = Math.min(f.availableEnergy, f.absorbWatts);
+                }
+            } else {
+                budgets[i] = -Math.min(-f.availableEnergy, f.shedWatts);
+                left += f.availableEnergy - budgets[i];
+            }
+        }
+        return left;
+    }
+
+    /**
+     * Give a budget to each zone from the energy pooled across the building
+     * 
+     * <p><strong>Contract</strong></p>
+     * 
+     * <pre>
+     * pre	zones.length &gt;= n and budgets.length &gt;= n
+     * post	true			// no postcondition.
+     * </pre>
+     * 
+     * @param energy energy available in the building
+     * @param zones summaries of the zones, null for a zone without one
+     * @param n number of zones
+     * @param budgets array receiving the budget of each zone
+     * @return energy left once the budgets are used: the surplus sold if
+     * positive, the deficit not covered if negative
+     */
+    public double allocate(double energy, Flexibility[] zones, int n, double[] budgets) {
+        assert zones.length >= n && budgets.length >= n;
+        if(this.order.length < n) {
+            this.order = new long[n];
+        }
+        int m = 0;
+        for(int i = 0 ; i < n ; i++) {
+            budgets[i] = 0.0;
+            Flexibility f = zones[i];
+            if(f == null) {
+                continue;
+            }
+            if(energy > 0 && f.absorbWatts > 0) {
+                assert f.absorbPriority >= 0;
+                this.order[m++] = ((long)(Integer.MAX_VALUE - f.absorbPriority) << 32) | i;
+            } else if(energy <= 0 && f.shedWatts > 0) {
+                assert f.shedPriority >= 0;
+                this.order[m++] = ((long)f.shedPriority << 32) | i;
+            }
+        }
+        Arrays.sort(this.order, 0, m);
+
+        double left = Math.abs(energy);
+        for(int k = 0 ; k < m && left > 0 ; k++) {
+            int i = (int) this.order[k];
+            if(energy > 0) {
+                double given = Math.min(left, zones[i].absorbWatts);
+                budgets[i] = given;
+                left -= given;
+            } else {
+                double given = Math.min(left, zones[i].shedWatts);
+                budgets[i] = -given;
+                left -= given;
+            }
+        }
+        return energy > 0 ? left : -left;
+    }
+
+    /**
+     * Choose the actions of a zone within the budget given by
+     * <code>allocate</code>
+     *
+     * <p><strong>Contract</strong></p>
+     *
+     * <pre>
+     * pre	surplus or budget &lt;= 0
+     * post	true			// no postcondition.
+     * </pre>
+     *
+     * @param budget budget of the zone
+     * @param surplus true if the energy of the zone is positive, or the
+     * energy of the building if it is pooled
+     * @param absorbPlanner planner of the actions of the zone adding consumption
+     * @param shedPlanner planner of the actions of the zone removing consumption
+     * @param plan list receiving the chosen actions
+     * @return watts absorbed if positive, or shed if negative
+     */
+    public static double planZone(double budget, boolean surplus,
+            LoadSheddingPlanner absorbPlanner, LoadSheddingPlanner shedPlanner, List<Action> plan) {
+        assert surplus || budget <= 0;
+        if(surplus) {
+            //What is not used can be sold
+            return absorbPlanner.planSurplus(Math.max(budget, 0.0), plan);
+        } else if(budget < 0) {
+            return -shedPlanner.planDeficit(-budget, plan);
+        }
+        return 0.0;
+    }
+}
@@ -0,0 +1,219 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The class <code>ConcurrentReads</code> queries the devices at the same
+ * time at the beginning of a control tick.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Each query is registered once with <code>add</code>, which returns a
+ * <code>Reader</code>. <code>begin</code> submits all the queries (or
+ * <code>beginTick</code> then <code>Reader.submit</code> only some of them) to a
+ * pool of threads, then each <code>Reader.get</code> waits for its result
+ * until the common deadline of the tick. A query that is not done at the
+ * deadline, or that fails, is replaced by the last value it returned; it is
+ * not submitted again until it is done. A query that has not returned its
+ * first value at the deadline has nothing to fall back on: its device is
+ * skipped for this tick, so that a device that never answers cannot stall
+ * the tick. The counts are updated by the threads of the households and
+ * read at the end of the run, so they are <code>LongAdder</code>s.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ */
+public class ConcurrentReads {
+    /** default time given to the queries of a tick, in milliseconds */
+    public static final long DEFAULT_TIMEOUT = 200L;
+
+    /** threads running the queries */
+    protected final ExecutorService executor;
+    /** true if the threads were created by these reads */
+    protected final boolean ownsExecutor;
+    /** max time given to the queries of a tick, in milliseconds */
+    protected long timeout;
+    /** deadline of the current tick, as given by System.nanoTime() */
+    protected long deadline;
+    /** registered queries */
+    protected final ArrayList<Reader<?>> readers = new ArrayList<>();
+
+    /** number of values read */
+    protected final LongAdder reads = new LongAdder();
+    /** number of times the last known value was used, or no value at all */
+    protected final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * The class <code>Reader</code> gives the result of one query.
+     */
+    public class Reader<T> {
+        /** query of the device */
+        protected final Callable<T> query;
+        /** query running */
+        protected Future<T> running;
+        /** last value returned by the query */
+        protected T last;
+
+        protected Reader(Callable<T> query) {
+            this.query = query;
+        }
+
+        /**
+         * Submit the query unless the previous one is still running
+         */
+        public void submit() {
+            if(this.running == null || this.running.isDone()) {
+                this.running = executor.submit(this.query);
+            }
+        }
+
+        /**
+         * Return the result of the query, or the last value if it is not
+         * done at the deadline of the tick or if it failed
+         * 
+         * @return result of the query, or null if the first query is not
+         * done at the deadline
+         * @throws Exception if the query failed and no value is known
+         */
+        public T get() throws Exception {
+            try {
+                long left = Math.max(0L, deadline - System.nanoTime());
+                this.last = this.running.get(left, TimeUnit.NANOSECONDS);
+                this.running = null;
+                reads.increment();
+            } catch (TimeoutException e) {
+                fallbacks.increment();
+            } catch (ExecutionException e) {
+                this.running = null;
+                if(this.last == null) {
+                    throw e;
+                }
+                fallbacks.increment();
+            }
+            return this.last;
+        }
+    }
+
+    /**
+     * Create the reads
+     * 
+     * <p><strong>Contract</strong></p>
+     * 
+     * <pre>
+     * pre	nbThreads &gt; 0
+     * pre	timeout &gt;= 0
+     * post	true			// no postcondition.
+     * </pre>
+     * 
+     * @param name prefix of the name of the threads
+     * @param nbThreads number of threads running the queries
+     * @param timeout max time given to the queries of a tick, in milliseconds
+     */
+    public ConcurrentReads(String name, int nbThreads, long timeout) {
+        assert nbThreads > 0;
+        assert timeout >= 0;
+        this.executor = ThreadMode.get().newPool(name + "-read", nbThreads);
+        this.ownsExecutor = true;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Create reads running their queries on threads shared with other reads
+     * 
+     * <p><strong>Contract</strong></p>
+     * 
+     * <pre>
+     * pre	executor != null
+     * pre	timeout &gt;= 0
+     * post	true			// no postcondition.
+     * </pre>
+     * 
+     * @param executor threads running the queries, not stopped by shutdown
+     * @param timeout max time given to the queries of a tick, in milliseconds
+     */
+    public ConcurrentReads(ExecutorService executor, long timeout) {
+        assert executor != null;
+        assert timeout >= 0;
+        this.executor = executor;
+        this.ownsExecutor = false;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Register a query
+     * 
+     * @param query query of a device
+     * @return reader giving the result of the query
+     */
+    public <T> Reader<T> add(Callable<T> query) {
+        Reader<T> r = new Reader<>(query);
+        this.readers.add(r);
+        return r;
+    }
+
+    /**
+     * Submit all the queries for a new tick
+     */
+    public void begin() {
+        this.beginTick();
+        for(int i = 0 ; i < this.readers.size() ; i++) {
+            this.readers.get(i).submit();
+        }
+    }
+
+    /**
+     * Start a new tick without submitting the queries; only the readers
+     * submitted with <code>Reader.submit</code> should then be read
+     */
+    public void beginTick() {
+        this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.timeout);
+    }
+
+    /**
+     * Stop the threads, unless they are shared
+     */
+    public void shutdown() {
+        if(this.ownsExecutor) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Replace the time given to the queries of a tick
+     * 
+     * @param timeout max time given to the queries, in milliseconds
+     */
+    public void setTimeout(long timeout) {
+        assert timeout >= 0;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return number of values read
+     */
+    public long getReads() {
+        return this.reads.sum();
+    }
+
+    /**
+     * @return number of times the last known value was used
+     */
+    public long getFallbacks() {
+        return this.fallbacks.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentReads(reads = " + reads + ", fallbacks = " + fallbacks + ")";
+    }
+}
@@ -0,0 +1,117 @@
+package controller;
+
+import java.io.Serializable;
+
+/**
+ * The class <code>DeviceCommand</code> describes one change of state asked
+ * to a device.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * The commands are sent in batches with <code>DeviceI.applyCommands</code>,
+ * so that a controller drives a device with one call per tick whatever the
+ * number of changes. A command sets a value rather than toggling it: sending
+ * it twice has the same effect as sending it once. A device rejects the kinds
+ * of command it does not have with an <code>IllegalArgumentException</code>.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		kind != null
+ * invariant		value != null
+ * </pre>
+ */
+public class DeviceCommand implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** Kinds of command */
+    public enum Kind {
+        /** put the device on break or not, with a boolean */
+        SET_BREAK,
+        /** put the fridge on break or not, with a boolean */
+        SET_FRIDGE_BREAK,
+        /** put the freezer on break or not, with a boolean */
+        SET_FREEZER_BREAK,
+        /** change the mode of the device, with an enum of the device */
+        SET_MODE
+    }
+
+    /** kind of the command */
+    public final Kind kind;
+    /** new value, a <code>Boolean</code> or an enum of the device */
+    public final Serializable value;
+
+    /**
+     * Create a command
+     * 
+     * @param kind kind of the command
+     * @param value new value
+     */
+    public DeviceCommand(Kind kind, Serializable value) {
+        assert kind != null && value != null;
+        this.kind = kind;
+        this.value = value;
+    }
+
+    /**
+     * @return the value of a command setting a flag
+     */
+    public boolean booleanValue() {
+        return (Boolean) this.value;
+    }
+
+    /**
+     * Create a command putting the device on break or not
+     * 
+     * @param onBreak true to put the device on break
+     * @return command
+     */
+    public static DeviceCommand setBreak(boolean onBreak) {
+        return new DeviceCommand(Kind.SET_BREAK, onBreak);
+    }
+
+    /**
+     * Create a command putting the fridge on break or not
+     * 
+     * @param onBreak true to put the fridge on break
+     * @return command
+     */
+    public static DeviceCommand setFridgeBreak(boolean onBreak) {
+        return new DeviceCommand(Kind.SET_FRIDGE_BREAK, onBreak);
+    }
+
+    /**
+     * Create a command putting the freezer on break or not
+     * 
+     * @param onBreak true to put the freezer on break
+     * @return command
+     */
+    public static DeviceCommand setFreezerBreak(boolean onBreak) {
+        return new DeviceCommand(Kind.SET_FREEZER_BREAK, onBreak);
+    }
+
+    /**
+     * Create a command changing the mode of the device
+     * 
+     * @param mode new mode
+     * @return command
+     */
+    public static DeviceCommand setMode(Enum<?> mode) {
+        return new DeviceCommand(Kind.SET_MODE, mode);
+    }
+
+    /**
+     * Return the exception thrown by a device that does not have a command
+     * 
+     * @param device name of the device
+     * @return exception to throw
+     */
+    public IllegalArgumentException unsupported(String device) {
+        return new IllegalArgumentException(this + " is not a command of the " + device);
+    }
+
+    @Override
+    public String toString() {
+        return this.kind + "(" + this.value + ")";
+    }
+}
@@ -0,0 +1,93 @@
+package controller;
+
+import java.io.Serializable;
+
+/**
+ * The class <code>DeviceDescriptor</code> is sent by a device to the
+ * controller to announce itself.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * The controller uses the URI of the household to find the context the
+ * device belongs to, the URI of the inbound port to connect to the device,
+ * the type to choose the port and the actions, the nominal power to
+ * summarise the load of the household in its <code>Flexibility</code>, and the priority to order the
+ * devices of the same type: the greater the priority, the later the device
+ * is shed and the sooner it is restarted. A device that opened a
+ * <code>BinaryServer</code> gives its address, so that the controller can
+ * call it through the binary transport.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		householdURI != null
+ * invariant		type != null
+ * invariant		inboundPortURI != null
+ * invariant		0 &lt;= priority &lt; MAX_PRIORITY
+ * </pre>
+ */
+public class DeviceDescriptor implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** bound of the priorities of the devices */
+    public static final int MAX_PRIORITY = 100;
+    /** priority given to a device that does not choose one */
+    public static final int DEFAULT_PRIORITY = 50;
+
+    /** URI of the household of the device */
+    public final String householdURI;
+    /** type of the device */
+    public final DeviceType type;
+    /** URI of the inbound port of the device */
+    public final String inboundPortURI;
+    /** nominal power of the device in watts */
+    public final double nominalPower;
+    /** shedding priority of the device */
+    public final int priority;
+    /** address of the binary server of the device, null if it has none */
+    public final String transportAddress;
+
+    /**
+     * Create a descriptor
+     * 
+     * @param householdURI URI of the household of the device
+     * @param type type of the device
+     * @param inboundPortURI URI of the inbound port of the device
+     * @param nominalPower nominal power of the device in watts
+     * @param priority shedding priority of the device
+     */
+    public DeviceDescriptor(String householdURI, DeviceType type, String inboundPortURI,
+            double nominalPower, int priority) {
+        this(householdURI, type, inboundPortURI, nominalPower, priority, null);
+    }
+
+    /**
+     * Create a descriptor of a device with a binary server
+     * 
+     * @param householdURI URI of the household of the device
+     * @param type type of the device
+     * @param inboundPortURI URI of the inbound port of the device
+     * @param nominalPower nominal power of the device in watts
+     * @param priority shedding priority of the device
+     * @param transportAddress address of the binary server of the device,
+     * or null if it has none
+     */
+    public DeviceDescriptor(String householdURI, DeviceType type, String inboundPortURI,
+            double nominalPower, int priority, String transportAddress) {
+        assert householdURI != null;
+        assert type != null;
+        assert inboundPortURI != null;
+        assert priority >= 0 && priority < MAX_PRIORITY;
+        this.householdURI = householdURI;
+        this.type = type;
+        this.inboundPortURI = inboundPortURI;
+        this.nominalPower = nominalPower;
+        this.priority = priority;
+        this.transportAddress = transportAddress;
+    }
+
+    @Override
+    public String toString() {
+        return type + "(" + householdURI + ", " + inboundPortURI + ", " + nominalPower + " W, priority " + priority + ")";
+    }
+}
@@ -0,0 +1,137 @@
+package controller;
+
+import java.util.Arrays;
+
+import connectors.ReadCache;
+import controller.ConcurrentReads.Reader;
+import fr.sorbonne_u.components.ports.AbstractOutboundPort;
+
+/**
+ * The class <code>DeviceTable</code> holds the devices registered with the
+ * controller.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Devices are added when they register and are never removed, so the index
+ * of a device is stable and can be used to name its planner groups. The
+ * outbound port and the reader of an entry are set by the controller when it
+ * connects to the device, at the first control tick after the registration.
+ * A device that notifies its changes of state has a mirror, read instead of
+ * querying the device, with the version of the state it mirrors.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		0 &lt;= size() &lt;= entries.length
+ * </pre>
+ */
+public class DeviceTable {
+
+    /**
+     * The class <code>Entry</code> holds one registered device.
+     */
+    public static class Entry {
+        /** index of the device in the table */
+        public final int index;
+        /** descriptor sent by the device */
+        public final DeviceDescriptor descriptor;
+        /** outbound port connected to the device, null until connected */
+        public AbstractOutboundPort port;
+        /** reader of the snapshot of the device, null until connected */
+        public Reader<?> reader;
+        /** last snapshot pushed by the device, null if it never notified */
+        public volatile Object mirror;
+        /** version of the state of the mirror, see <code>StateCell</code> */
+        public int mirrorVersion;
+        /** cache of the connector of the device, null if it does not cache */
+        public ReadCache cache;
+
+        public Entry(int index, DeviceDescriptor descriptor) {
+            this.index = index;
+            this.descriptor = descriptor;
+        }
+
+        /**
+         * Replace the mirror by a newer snapshot of the device
+         * 
+         * A snapshot that is not notified, such as the one returned by
+         * <code>applyCommands</code>, only refreshes a device that already
+         * has a mirror, so that a device that never notifies is still
+         * queried.
+         * 
+         * @param version version of the state of the snapshot
+         * @param snapshot snapshot of the device
+         * @param notified true if the snapshot was pushed by the device
+         * @return true if the mirror was replaced, false if it is newer
+         */
+        public synchronized boolean updateMirror(int version, Object snapshot, boolean notified) {
+            if(this.mirror == null ? !notified : version - this.mirrorVersion <= 0) {
+                return false;
+            }
+            this.mirrorVersion = version;
+            this.mirror = snapshot;
+            return true;
+        }
+
+        /**
+         * @return true if the controller is connected to the device
+         */
+        public boolean isConnected() {
+            return this.port != null;
+        }
+    }
+
+    /** registered devices */
+    protected Entry[] entries = new Entry[8];
+    /** number of registered devices */
+    protected int size;
+
+    /**
+     * Add a device
+     * 
+     * @param descriptor descriptor sent by the device
+     * @return entry of the device
+     */
+    public synchronized Entry add(DeviceDescriptor descriptor) {
+        if(this.size == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, 2 * this.size);
+        }
+        Entry e = new Entry(this.size, descriptor);
+        this.entries[this.size++] = e;
+        return e;
+    }
+
+    /**
+     * @return number of registered devices
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Return a device
+     * 
+     * @param index index of the device
+     * @return entry of the device
+     */
+    public synchronized Entry get(int index) {
+        assert index >= 0 && index < this.size;
+        return this.entries[index];
+    }
+
+    /**
+     * Return the first device of a type; the household uses it for its
+     * electric meter, of which it registers only one
+     * 
+     * @param type type of the device
+     * @return entry of the device, or null if none is registered
+     */
+    public synchronized Entry first(DeviceType type) {
+        for(int i = 0 ; i < this.size ; i++) {
+            if(this.entries[i].descriptor.type == type) {
+                return this.entries[i];
+            }
+        }
+        return null;
+    }
+}
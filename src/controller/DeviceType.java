@@ -0,0 +1,14 @@
+package controller;
+
+/**
+ * The enumeration <code>DeviceType</code> lists the kinds of devices the
+ * controller knows how to drive.
+ */
+public enum DeviceType {
+    LAMP,
+    FRIDGE,
+    DISHWASHER,
+    BATTERY,
+    WIND_TURBINE,
+    ELECTRIC_METER
+}
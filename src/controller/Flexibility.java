@@ -0,0 +1,49 @@
+package controller;
+
+/**
+ * The class <code>Flexibility</code> summarises what a zone of the building
+ * can do during a control tick, as reported to the top-level controller.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * A zone can shed up to <code>shedWatts</code>, starting with actions of
+ * priority <code>shedPriority</code>, and absorb up to
+ * <code>absorbWatts</code>, with its best action of priority
+ * <code>absorbPriority</code>. <code>nominalPower</code> is the load of
+ * the zone if all its devices ran at their nominal power, as they announced
+ * it when they registered. The top-level controller only uses these
+ * summaries to give a watt budget to each zone; the zone then chooses its
+ * own actions within its budget.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		shedWatts &gt;= 0 and absorbWatts &gt;= 0
+ * invariant		shedPriority &gt;= 0 and absorbPriority &gt;= 0
+ * invariant		nominalPower &gt;= 0
+ * </pre>
+ */
+public class Flexibility {
+    /** true if the zone has an electric meter */
+    public boolean metered;
+    /** available energy read on the electric meter of the zone */
+    public double availableEnergy;
+    /** nominal power of the devices of the zone, in watts */
+    public double nominalPower;
+    /** watts the zone can shed */
+    public double shedWatts;
+    /** smallest priority of the actions shedding watts */
+    public int shedPriority;
+    /** watts the zone can absorb */
+    public double absorbWatts;
+    /** greatest priority of the actions absorbing watts */
+    public int absorbPriority;
+
+    @Override
+    public String toString() {
+        return "Flexibility(energy = " + availableEnergy + ", nominal = " + nominalPower +
+                ", shed = " + shedWatts +
+                " at " + shedPriority + ", absorb = " + absorbWatts + " at " +
+                absorbPriority + ")";
+    }
+}
@@ -0,0 +1,644 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import components.Battery.BState;
+import components.Battery.BatterySnapshot;
+import components.Controller;
+import components.Dishwasher.DWMode;
+import components.Dishwasher.DishwasherSnapshot;
+import components.ElectricMeter.ElectricMeterSnapshot;
+import components.Fridge.FridgeSnapshot;
+import components.Lamp.LampSnapshot;
+import connectors.BatteryConnector;
+import connectors.BinaryElectricMeterConnector;
+import connectors.BinaryFridgeConnector;
+import connectors.CachingBatteryConnector;
+import connectors.CachingDishwasherConnector;
+import connectors.CachingElectricMeterConnector;
+import connectors.CachingFridgeConnector;
+import connectors.CachingLampConnector;
+import connectors.ConnectorInstrumentation;
+import connectors.DishwasherConnector;
+import connectors.ElectricMeterConnector;
+import connectors.FridgeConnector;
+import connectors.LampConnector;
+import connectors.ReadCache;
+import connectors.WindTurbineConnector;
+import controller.DeviceTable.Entry;
+import fr.sorbonne_u.components.ports.AbstractOutboundPort;
+import interfaces.DeviceControllerI;
+import interfaces.VersionedSnapshotI;
+import ports.BatteryControllerOutboundPort;
+import ports.DishwasherControllerOutboundPort;
+import ports.ElectricMeterControllerOutboundPort;
+import ports.FridgeControllerOutboundPort;
+import ports.LampControllerOutboundPort;
+import ports.WindTurbineControllerOutboundPort;
+import simulation.sil.battery.models.BatteryModel;
+import simulation.sil.dishwasher.models.DishwasherModel;
+import simulation.sil.fridge.models.FridgeModel;
+
+/**
+ * The class <code>Household</code> holds the context of one household
+ * managed by the controller.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * A household has its own devices, ports, planners and rule state, and
+ * usually its own electric meter. It is the zone controller of a two-level
+ * hierarchy: at each tick it reads its devices, lists the actions it could
+ * take and reports a <code>Flexibility</code> summary to the controller,
+ * which gives it a watt budget from the energy of its own electric meter
+ * with a <code>BudgetAllocator</code>; the household then runs its own
+ * shedding logic within this budget.
+ * 
+ * The controller runs both phases of a household always on the same worker
+ * thread, its shard: the households run in parallel, while the state of a
+ * household is only used by one thread at a time. The reads and the
+ * actuations of a household are run on threads shared by all the
+ * households.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		uri != null
+ * invariant		shard &gt;= 0
+ * invariant		0 &lt;= connected &lt;= devices.size()
+ * </pre>
+ */
+public class Household {
+    /** URI of the household */
+    public final String uri;
+    /** index of the worker thread running the passes of the household */
+    public final int shard;
+    /** controller owning the ports of the household */
+    protected final Controller owner;
+    /** devices registered in the household */
+    protected final DeviceTable devices = new DeviceTable();
+    /** number of devices of the table the controller is connected to */
+    protected int connected;
+    /** nominal power of the connected devices, in watts */
+    protected double nominalPower;
+    /** view of the household, reused at each tick */
+    protected final HouseholdView view = new HouseholdView();
+    /** planner choosing the actions adding consumption */
+    protected final LoadSheddingPlanner absorbPlanner = new LoadSheddingPlanner();
+    /** planner choosing the actions removing consumption */
+    protected final LoadSheddingPlanner shedPlanner = new LoadSheddingPlanner();
+    /** summary reported to the controller, reused at each tick */
+    protected final Flexibility flexibility = new Flexibility();
+    /** actions chosen for the current tick */
+    protected final ArrayList<Action> plan = new ArrayList<>();
+    /** commands of the current tick, by device */
+    protected final LinkedHashMap<Entry, ArrayList<DeviceCommand>> batches =
+            new LinkedHashMap<>();
+    /** sends the actions to the devices without waiting for them */
+    protected final ActuationPipeline actuation;
+    /** queries the devices at the same time */
+    protected final ConcurrentReads reads;
+    /** number of port calls made during the current tick */
+    protected int tickPortCalls;
+
+    /**
+     * Create a household
+     * 
+     * <p><strong>Contract</strong></p>
+     * 
+     * <pre>
+     * pre	uri != null and owner != null
+     * pre	shard &gt;= 0
+     * post	true			// no postcondition.
+     * </pre>
+     * 
+     * @param uri URI of the household
+     * @param shard index of the worker thread running the passes of the household
+     * @param owner controller owning the ports of the household
+     * @param readExecutor threads shared by the reads of the households
+     * @param readTimeout max time given to the queries of a tick, in milliseconds
+     * @param actuationExecutor threads shared by the actuations of the households
+     * @param actuationTimeout max time waited by a join, in milliseconds
+     */
+    public Household(String uri, int shard, Controller owner,
+            ExecutorService readExecutor, long readTimeout,
+            ExecutorService actuationExecutor, long actuationTimeout) {
+        assert uri != null && owner != null;
+        assert shard >= 0;
+        this.uri = uri;
+        this.shard = shard;
+        this.owner = owner;
+        this.reads = new ConcurrentReads(readExecutor, readTimeout);
+        this.actuation = new ActuationPipeline(actuationExecutor, actuationTimeout);
+    }
+
+    /**
+     * Register a device; the controller connects to it at the next pass.
+     * 
+     * A household reads its available energy on one electric meter only, so
+     * a second electric meter is rejected.
+     * 
+     * @param descriptor descriptor sent by the device
+     * @return entry of the device
+     * @throws IllegalArgumentException if the device is a second electric
+     * meter of the household
+     */
+    public Entry register(DeviceDescriptor descriptor) {
+        assert descriptor.householdURI.equals(this.uri);
+        if(descriptor.type == DeviceType.ELECTRIC_METER
+                && this.devices.first(DeviceType.ELECTRIC_METER) != null) {
+            throw new IllegalArgumentException("a second electric meter in " + this.uri + " : " + descriptor);
+        }
+        return this.devices.add(descriptor);
+    }
+
+    /**
+     * First phase of the control pass of the household.
+     * 
+     * The devices registered since the last pass are connected first, and
+     * the caching connectors are moved to the new tick. The state of the
+     * household is then read once, with one snapshot per device, and every
+     * action the household could take is listed from this view only.
+     * 
+     * @param simulatedTime
+     * @return summary of the actions of the household
+     * @throws Exception
+     */
+    public Flexibility prepare(double simulatedTime) throws Exception {
+        // the commands of the last pass must be done before reading the devices
+        this.actuation.join();
+        this.tickPortCalls = 0;
+        this.connectDevices();
+        for(int i = 0 ; i < this.connected ; i++) {
+            ReadCache cache = this.devices.get(i).cache;
+            if(cache != null) {
+                cache.newTick(simulatedTime);
+            }
+        }
+        HouseholdView h = this.readHousehold();
+        absorbActions(simulatedTime, h);
+        shedActions(simulatedTime, h);
+
+        Flexibility f = this.flexibility;
+        f.metered = h.metered;
+        f.availableEnergy = h.availableEnergy;
+        f.nominalPower = this.nominalPower;
+        f.absorbWatts = this.absorbPlanner.getMaxWatts();
+        f.absorbPriority = this.absorbPlanner.getMaxPriority();
+        f.shedWatts = this.shedPlanner.getMaxWatts();
+        f.shedPriority = this.shedPlanner.getMinPriority();
+        return f;
+    }
+
+    /**
+     * Second phase of the control pass of the household: choose and send
+     * the actions that fit in the budget given by the controller.
+     * 
+     * With a surplus, the actions costing no watt are taken even with a
+     * zero budget.
+     *
+     * @param budget watts the household may absorb if positive, or must shed
+     * if negative
+     * @param surplus true if the energy of the household is positive, or the
+     * energy of the building if it is pooled
+     * @return watts absorbed if positive, or shed if negative
+     * @throws Exception
+     */
+    public double apply(double budget, boolean surplus) throws Exception {
+        this.plan.clear();
+        double watts = BudgetAllocator.planZone(budget, surplus,
+                this.absorbPlanner, this.shedPlanner, this.plan);
+        this.executePlan();
+        return watts;
+    }
+
+    /**
+     * Connect to the devices registered since the last tick
+     * 
+     * @throws Exception
+     */
+    protected void connectDevices() throws Exception {
+        while(this.connected < this.devices.size()) {
+            Entry e = this.devices.get(this.connected);
+            switch(e.descriptor.type) {
+            case LAMP: {
+                LampControllerOutboundPort port = new LampControllerOutboundPort(this.owner);
+                this.connect(e, port, LampConnector.class, CachingLampConnector.class,
+                        () -> port.getSnapshot());
+                e.cache = port.getCache();
+                break;
+            }
+            case FRIDGE: {
+                FridgeControllerOutboundPort port = new FridgeControllerOutboundPort(this.owner);
+                this.connect(e, port,
+                        e.descriptor.transportAddress == null ? FridgeConnector.class : BinaryFridgeConnector.class,
+                        CachingFridgeConnector.class, () -> port.getSnapshot());
+                port.openTransport(e.descriptor.transportAddress);
+                e.cache = port.getCache();
+                break;
+            }
+            case DISHWASHER: {
+                DishwasherControllerOutboundPort port = new DishwasherControllerOutboundPort(this.owner);
+                this.connect(e, port, DishwasherConnector.class, CachingDishwasherConnector.class,
+                        () -> port.getSnapshot());
+                e.cache = port.getCache();
+                break;
+            }
+            case BATTERY: {
+                BatteryControllerOutboundPort port = new BatteryControllerOutboundPort(this.owner);
+                this.connect(e, port, BatteryConnector.class, CachingBatteryConnector.class,
+                        () -> port.getSnapshot());
+                e.cache = port.getCache();
+                break;
+            }
+            case WIND_TURBINE: {
+                WindTurbineControllerOutboundPort port = new WindTurbineControllerOutboundPort(this.owner);
+                this.connect(e, port, WindTurbineConnector.class, null, () -> port.getSnapshot());
+                break;
+            }
+            case ELECTRIC_METER: {
+                ElectricMeterControllerOutboundPort port = new ElectricMeterControllerOutboundPort(this.owner);
+                this.connect(e, port,
+                        e.descriptor.transportAddress == null
+                                ? ElectricMeterConnector.class : BinaryElectricMeterConnector.class,
+                        CachingElectricMeterConnector.class, () -> port.getSnapshot());
+                port.openTransport(e.descriptor.transportAddress);
+                e.cache = port.getCache();
+                break;
+            }
+            }
+            this.nominalPower += e.descriptor.nominalPower;
+            this.connected++;
+        }
+    }
+
+    /**
+     * Publish an outbound port, connect it to a device and register the
+     * query of the snapshot of the device
+     * 
+     * @param e entry of the device
+     * @param port outbound port created for the device
+     * @param connector class of the connector
+     * @param cachingConnector class of the caching connector, used if the
+     * controller caches the reads, or null if the device has none
+     * @param query query of the snapshot of the device
+     * @throws Exception
+     */
+    private void connect(Entry e, AbstractOutboundPort port, Class<?> connector,
+            Class<?> cachingConnector, Callable<?> query) throws Exception {
+        if(cachingConnector != null && this.owner.isCachingConnectors()) {
+            connector = cachingConnector;
+        }
+        port.publishPort();
+        this.owner.doPortConnection(
+                port.getPortURI(),
+                e.descriptor.inboundPortURI,
+                ConnectorInstrumentation.select(connector));
+        e.reader = this.reads.add(query);
+        e.port = port;
+    }
+
+    /**
+     * Build the view of the household from one snapshot of each connected
+     * device. The devices are queried at the same time; a device that does
+     * not answer in time is seen with its last known snapshot, and left out
+     * of the view for this tick if it never answered. A device that
+     * notifies its changes is not queried: its mirror is read instead.
+     * 
+     * A household without a connected electric meter is seen with no
+     * available energy.
+     * 
+     * @return view of the household for the current tick
+     * @throws Exception
+     */
+    protected HouseholdView readHousehold() throws Exception {
+        HouseholdView h = this.view;
+        h.clear(this.connected);
+        this.reads.beginTick();
+        for(int i = 0 ; i < this.connected ; i++) {
+            Entry e = this.devices.get(i);
+            if(e.mirror == null) {
+                e.reader.submit();
+                this.tickPortCalls++;
+            }
+        }
+        for(int i = 0 ; i < this.connected ; i++) {
+            Entry e = this.devices.get(i);
+            Object mirror = e.mirror;
+            h.set(i, mirror != null ? mirror : e.reader.get());
+        }
+        Entry meter = this.devices.first(DeviceType.ELECTRIC_METER);
+        if(meter != null && meter.index < this.connected && h.get(meter.index) != null) {
+            h.metered = true;
+            h.availableEnergy = ((ElectricMeterSnapshot) h.get(meter.index)).availableEnergy;
+        }
+        return h;
+    }
+
+
+    /**
+     * Return the priority of an action of a device: actions of a lower rank
+     * always come before, and the devices of a same rank are ordered by the
+     * priority they registered with.
+     * 
+     * @param rank rank of the action
+     * @param e entry of the device
+     * @return priority given to the planner
+     */
+    private static int priority(int rank, Entry e) {
+        return rank * DeviceDescriptor.MAX_PRIORITY + e.descriptor.priority;
+    }
+
+    /**
+     * List the actions to take when we have enough energy.
+     * Every action that adds consumption is given to the planner with a
+     * priority: the greater the priority, the more we want the action.
+     * Each device has two groups, <code>2 * index</code> and
+     * <code>2 * index + 1</code>.
+     * @param simulatedTime
+     * @param h view of the household
+     * @throws Exception
+     */
+    private void absorbActions(double simulatedTime, HouseholdView h) throws Exception {
+        this.absorbPlanner.clear();
+
+        for(int i = 0 ; i < h.size() ; i++) {
+            if(h.get(i) == null) {
+                //Not read yet, skipped for this tick
+                continue;
+            }
+            Entry e = this.devices.get(i);
+            int group = 2 * e.index;
+            switch(e.descriptor.type) {
+            case DISHWASHER: {
+                DishwasherSnapshot dw = (DishwasherSnapshot) h.get(i);
+                DishwasherControllerOutboundPort port = (DishwasherControllerOutboundPort) e.port;
+                //If the dishwasher was on break,
+                //we can switch it because it won't consume power when restarting
+                //The test of isOn(), is just in the worst case
+                if(dw.isOnBreak && !dw.isOn) {
+                    this.absorbPlanner.addAction(new Action(group, 0.0, priority(7, e),
+                            port, DeviceCommand.setBreak(false)));
+                }
+                //If the dishwasher's mode is ECO we can switch to STANDARD
+                if(dw.mode == DWMode.ECO) {
+                    this.absorbPlanner.addAction(new Action(group + 1,
+                            dw.isOn ? DishwasherModel.STANDARD_MODE_CONSUMPTION -
+                                    DishwasherModel.ECO_MODE_CONSUMPTION : 0.0, priority(2, e),
+                            port, DeviceCommand.setMode(DWMode.STANDARD)));
+                }
+                break;
+            }
+            case LAMP: {
+                LampSnapshot lamp = (LampSnapshot) h.get(i);
+                LampControllerOutboundPort port = (LampControllerOutboundPort) e.port;
+                //Same for the lamp
+                //But we need to be carefull of the consumption
+                if(lamp.isOnBreak) {
+                    this.absorbPlanner.addAction(new Action(group,
+                            HouseholdView.lampConsumption(lamp.state), priority(6, e),
+                            port, DeviceCommand.setBreak(false)));
+                }
+                break;
+            }
+            case FRIDGE: {
+                FridgeSnapshot fridge = (FridgeSnapshot) h.get(i);
+                FridgeControllerOutboundPort port = (FridgeControllerOutboundPort) e.port;
+                //Same for the freezer
+                if(fridge.isFreezerOnBreak) {
+                    this.absorbPlanner.addAction(new Action(group + 1,
+                            fridge.isFreezerOn ? FridgeModel.FREEZER_ON_CONSUMPTION : 0.0, priority(5, e),
+                            port, DeviceCommand.setFreezerBreak(false)));
+                }
+                //Same for fridge
+                if(fridge.isFridgeOnBreak) {
+                    this.absorbPlanner.addAction(new Action(group,
+                            fridge.isFridgeOn ? FridgeModel.FRIDGE_ON_CONSUMPTION : 0.0, priority(4, e),
+                            port, DeviceCommand.setFridgeBreak(false)));
+                }
+                break;
+            }
+            case BATTERY: {
+                BatterySnapshot battery = (BatterySnapshot) h.get(i);
+                BatteryControllerOutboundPort port = (BatteryControllerOutboundPort) e.port;
+                //If the battery isn't full, it can stop PRODUCING and start CONSUMING
+                if(battery.currentCapacity < battery.maxCapacity) {
+                    if(battery.mode == BState.PRODUCING) {
+                        this.absorbPlanner.addAction(new Action(group, BatteryModel.BATTERY_MODIF, priority(3, e),
+                                port, DeviceCommand.setMode(BState.STANDBY)));
+                        this.absorbPlanner.addAction(new Action(group, 2 * BatteryModel.BATTERY_MODIF, priority(4, e),
+                                port, DeviceCommand.setMode(BState.CONSUMING)));
+                    } else if(battery.mode == BState.STANDBY) {
+                        this.absorbPlanner.addAction(new Action(group, BatteryModel.BATTERY_MODIF, priority(1, e),
+                                port, DeviceCommand.setMode(BState.CONSUMING)));
+                    }
+                }
+                break;
+            }
+            default:
+                break;
+            }
+        }
+    }
+
+    /**
+     * List the actions to take when we don't have enough energy.
+     * Every action that removes consumption is given to the planner with a
+     * priority: the smaller the priority, the sooner the action is taken.
+     * Each device has two groups, <code>2 * index</code> and
+     * <code>2 * index + 1</code>.
+     * @param simulatedTime
+     * @param h view of the household
+     * @throws Exception
+     */
+    private void shedActions(double simulatedTime, HouseholdView h) throws Exception {
+        this.shedPlanner.clear();
+
+        for(int i = 0 ; i < h.size() ; i++) {
+            if(h.get(i) == null) {
+                continue;
+            }
+            Entry e = this.devices.get(i);
+            int group = 2 * e.index;
+            switch(e.descriptor.type) {
+            case BATTERY: {
+                BatterySnapshot battery = (BatterySnapshot) h.get(i);
+                BatteryControllerOutboundPort port = (BatteryControllerOutboundPort) e.port;
+                //We look if the battery was charging.
+                //If yes we can set its mode to STANDBY, then to PRODUCING
+                if(battery.mode == BState.CONSUMING) {
+                    this.shedPlanner.addAction(new Action(group, BatteryModel.BATTERY_MODIF, priority(0, e),
+                            port, DeviceCommand.setMode(BState.STANDBY)));
+                }
+                if(battery.mode != BState.PRODUCING && battery.currentCapacity > 0) {
+                    double modif = battery.mode == BState.CONSUMING ?
+                            2 * BatteryModel.BATTERY_MODIF : BatteryModel.BATTERY_MODIF;
+                    this.shedPlanner.addAction(new Action(group, modif, priority(1, e),
+                            port, DeviceCommand.setMode(BState.PRODUCING)));
+                }
+                break;
+            }
+            case DISHWASHER: {
+                DishwasherSnapshot dw = (DishwasherSnapshot) h.get(i);
+                DishwasherControllerOutboundPort port = (DishwasherControllerOutboundPort) e.port;
+                //If the dishwasher is not on break and ON, we switch it to ECO, then on break
+                if(!dw.isOnBreak && dw.isOn) {
+                    if(dw.mode == DWMode.STANDARD) {
+                        this.shedPlanner.addAction(new Action(group + 1,
+                                DishwasherModel.STANDARD_MODE_CONSUMPTION -
+                                DishwasherModel.ECO_MODE_CONSUMPTION, priority(2, e),
+                                port, DeviceCommand.setMode(DWMode.ECO)));
+                        this.shedPlanner.addAction(new Action(group + 1,
+                                DishwasherModel.STANDARD_MODE_CONSUMPTION, priority(3, e),
+                                port, DeviceCommand.setMode(DWMode.ECO), DeviceCommand.setBreak(true)));
+                    } else {
+                        this.shedPlanner.addAction(new Action(group + 1,
+                                DishwasherModel.ECO_MODE_CONSUMPTION, priority(3, e),
+                                port, DeviceCommand.setBreak(true)));
+                    }
+                }
+                break;
+            }
+            case FRIDGE: {
+                FridgeSnapshot fridge = (FridgeSnapshot) h.get(i);
+                FridgeControllerOutboundPort port = (FridgeControllerOutboundPort) e.port;
+                //If the fridge is not on break and is ON, we switch it
+                if(!fridge.isFridgeOnBreak && fridge.isFridgeOn) {
+                    this.shedPlanner.addAction(new Action(group, FridgeModel.FRIDGE_ON_CONSUMPTION, priority(4, e),
+                            port, DeviceCommand.setFridgeBreak(true)));
+                }
+                //If the freezer is not on break and is ON, we switch it
+                if(!fridge.isFreezerOnBreak && fridge.isFreezerOn) {
+                    this.shedPlanner.addAction(new Action(group + 1, FridgeModel.FREEZER_ON_CONSUMPTION, priority(5, e),
+                            port, DeviceCommand.setFreezerBreak(true)));
+                }
+                break;
+            }
+            case LAMP: {
+                LampSnapshot lamp = (LampSnapshot) h.get(i);
+                LampControllerOutboundPort port = (LampControllerOutboundPort) e.port;
+                double consumption = HouseholdView.lampConsumption(lamp.state);
+                //If the lamp is not on break, we switch it
+                if(!lamp.isOnBreak && consumption != 0.0) {
+                    this.shedPlanner.addAction(new Action(group, consumption, priority(6, e),
+                            port, DeviceCommand.setBreak(true)));
+                }
+                break;
+            }
+            default:
+                break;
+            }
+        }
+    }
+
+    /**
+     * Send the actions chosen by the planner to the devices, without waiting
+     * for them; they are joined at the beginning of the next tick. The
+     * commands chosen for a device are sent in one batch, and the snapshot
+     * it returns refreshes its mirror.
+     * 
+     * @throws Exception
+     */
+    private void executePlan() throws Exception {
+        this.batches.clear();
+        for(int i = 0 ; i < this.plan.size() ; i++) {
+            Action a = this.plan.get(i);
+            Entry e = this.devices.get(a.group / 2);
+            assert e.port == a.device;
+            ArrayList<DeviceCommand> batch = this.batches.get(e);
+            if(batch == null) {
+                batch = new ArrayList<>();
+                this.batches.put(e, batch);
+            }
+            Collections.addAll(batch, a.commands);
+        }
+        for(Map.Entry<Entry, ArrayList<DeviceCommand>> b : this.batches.entrySet()) {
+            Entry e = b.getKey();
+            DeviceControllerI<?> device = (DeviceControllerI<?>) e.port;
+            DeviceCommand[] commands = b.getValue().toArray(new DeviceCommand[b.getValue().size()]);
+            this.tickPortCalls++;
+            this.actuation.submit(() -> {
+                Object s = device.applyCommands(commands);
+                if(s instanceof VersionedSnapshotI) {
+                    e.updateMirror(((VersionedSnapshotI) s).getVersion(), s, false);
+                }
+            });
+        }
+    }
+
+
+    /**
+     * Unpublish the ports connected to the devices
+     * 
+     * @throws Exception
+     */
+    public void unpublishPorts() throws Exception {
+        for(int i = 0 ; i < this.connected ; i++) {
+            this.devices.get(i).port.unpublishPort();
+        }
+    }
+
+    /**
+     * Disconnect the ports connected to the devices
+     * 
+     * @throws Exception
+     */
+    public void disconnectPorts() throws Exception {
+        for(int i = 0 ; i < this.connected ; i++) {
+            this.owner.doPortDisconnection(this.devices.get(i).port.getPortURI());
+        }
+    }
+
+    /**
+     * @return number of port calls made during the last pass
+     */
+    public int getTickPortCalls() {
+        return this.tickPortCalls;
+    }
+
+    /**
+     * Return the hits and misses of the caching connectors of the household
+     * 
+     * @param counts array receiving the hits at index 0 and the misses at index 1
+     */
+    public void addCacheCounts(long[] counts) {
+        for(int i = 0 ; i < this.connected ; i++) {
+            ReadCache cache = this.devices.get(i).cache;
+            if(cache != null) {
+                counts[0] += cache.getHits();
+                counts[1] += cache.getMisses();
+            }
+        }
+    }
+
+    /**
+     * @return actuations of the household
+     */
+    public ActuationPipeline getActuation() {
+        return this.actuation;
+    }
+
+    /**
+     * @return nominal power of the connected devices, in watts
+     */
+    public double getNominalPower() {
+        return this.nominalPower;
+    }
+
+    /**
+     * @return reads of the household
+     */
+    public ConcurrentReads getReads() {
+        return this.reads;
+    }
+
+    @Override
+    public String toString() {
+        return "Household(" + uri + ", shard " + shard + ", " + devices.size() + " devices, " +
+                nominalPower + " W)";
+    }
+}
@@ -0,0 +1,100 @@
+package controller;
+
+import java.util.Arrays;
+
+import components.Lamp.LampState;
+import simulation.sil.lamp.models.LampModel;
+
+/**
+ * The class <code>HouseholdView</code> gathers the state of every device
+ * handled by the controller for one control tick.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * The view is built from the snapshots returned by the devices at the
+ * beginning of the tick, indexed as the <code>DeviceTable</code> of the
+ * controller. The controller then decides only from this view, without
+ * asking the devices again. A device that is registered but not yet
+ * connected has no snapshot. The view is reused from one tick to the next.
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		0 &lt;= size() &lt;= snapshots.length
+ * </pre>
+ */
+public class HouseholdView {
+    /** available energy read on the electric meter */
+    public double availableEnergy;
+    /** true if the available energy was read on an electric meter */
+    public boolean metered;
+
+    /** snapshots of the devices, by index in the device table */
+    protected Object[] snapshots = new Object[8];
+    /** number of devices in the view */
+    protected int size;
+
+    /**
+     * Empty the view for a new tick
+     *
+     * @param size number of registered devices
+     */
+    public void clear(int size) {
+        if(this.snapshots.length < size) {
+            this.snapshots = new Object[Math.max(size, 2 * this.snapshots.length)];
+        } else {
+            Arrays.fill(this.snapshots, 0, this.size, null);
+        }
+        this.size = size;
+        this.availableEnergy = 0.0;
+        this.metered = false;
+    }
+
+    /**
+     * Set the snapshot of a device
+     *
+     * @param index index of the device
+     * @param snapshot snapshot of the device
+     */
+    public void set(int index, Object snapshot) {
+        assert index >= 0 && index < this.size;
+        this.snapshots[index] = snapshot;
+    }
+
+    /**
+     * Return the snapshot of a device
+     *
+     * @param index index of the device
+     * @return snapshot of the device, or null if it was never read
+     */
+    public Object get(int index) {
+        assert index >= 0 && index < this.size;
+        return this.snapshots[index];
+    }
+
+    /**
+     * @return number of devices in the view
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Return the consumption of a lamp in a state
+     *
+     * @param state state of the lamp
+     * @return consumption of the lamp
+     */
+    public static double lampConsumption(LampState state) {
+        switch(state) {
+        case LOW:
+            return LampModel.LOW_MODE_CONSUMPTION;
+        case MEDIUM:
+            return LampModel.MEDIUM_MODE_CONSUMPTION;
+        case HIGH:
+            return LampModel.HIGH_MODE_CONSUMPTION;
+        default:
+            return 0.0;
+        }
+    }
+}
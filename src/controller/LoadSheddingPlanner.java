@@ -0,0 +1,267 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The class <code>LoadSheddingPlanner</code> chooses the actions the
+ * controller sends to the devices during a control tick.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * The controller adds every possible action of the tick, then asks for a
+ * plan:
+ * <ul>
+ * <li>with a surplus, the planner solves a group knapsack: at most one
+ *   action per group, the sum of the watts must fit in the surplus, and the
+ *   sum of the priorities is maximised. Watts are counted in steps of
+ *   <code>WATT_STEP</code>, rounded up, so the plan never goes over the
+ *   surplus.</li>
+ * <li>with a deficit, the actions are taken by increasing priority until the
+ *   deficit is covered. An action replaces the action already taken in its
+ *   group, so a group can be upgraded (e.g. ECO mode, then break).</li>
+ * </ul>
+ * The arrays of the solver are kept between ticks.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ */
+public class LoadSheddingPlanner {
+    /** resolution of the knapsack in watts */
+    public static final double WATT_STEP = 10.0;
+
+    /** orders the actions by increasing priority */
+    protected static final Comparator<Action> BY_PRIORITY =
+            (a1, a2) -> Integer.compare(a1.priority, a2.priority);
+
+    /** actions of the current tick */
+    protected final ArrayList<Action> actions = new ArrayList<>();
+    /** number of groups used by the actions of the current tick */
+    protected int groups;
+
+    /** best value for each capacity */
+    protected int[] best = new int[0];
+    /** index + 1 of the action chosen for each group and capacity, 0 if none */
+    protected int[][] choice = new int[0][];
+    /** actions sorted by group */
+    protected Action[] byGroup = new Action[0];
+    /** first index in byGroup of each group, and end of the last group */
+    protected int[] groupStart = new int[0];
+    /** next free index in byGroup of each group */
+    protected int[] groupNext = new int[0];
+    /** index + 1 in the plan of the action taken in each group, 0 if none */
+    protected int[] taken = new int[0];
+    /** greatest watts of an action in each group */
+    protected double[] groupMax = new double[0];
+
+    /**
+     * Remove the actions of the last tick
+     */
+    public void clear() {
+        this.actions.clear();
+        this.groups = 0;
+    }
+
+    /**
+     * Add a possible action for the current tick
+     * 
+     * @param action possible action
+     */
+    public void addAction(Action action) {
+        this.actions.add(action);
+        this.groups = Math.max(this.groups, action.group + 1);
+    }
+
+    /**
+     * Return the actions of the current tick
+     * 
+     * @return actions of the current tick
+     */
+    public List<Action> getActions() {
+        return this.actions;
+    }
+
+    /**
+     * Return the watts of the actions of the current tick if the greatest
+     * action of each group is taken
+     * 
+     * @return max watts of a plan
+     */
+    public double getMaxWatts() {
+        if(this.groupMax.length < this.groups) {
+            this.groupMax = new double[this.groups];
+        }
+        for(int g = 0 ; g < this.groups ; g++) {
+            this.groupMax[g] = 0.0;
+        }
+        for(Action a : this.actions) {
+            if(a.watts > this.groupMax[a.group]) {
+                this.groupMax[a.group] = a.watts;
+            }
+        }
+        double total = 0.0;
+        for(int g = 0 ; g < this.groups ; g++) {
+            total += this.groupMax[g];
+        }
+        return total;
+    }
+
+    /**
+     * @return smallest priority of the actions of the current tick, 0 if none
+     */
+    public int getMinPriority() {
+        int p = Integer.MAX_VALUE;
+        for(Action a : this.actions) {
+            p = Math.min(p, a.priority);
+        }
+        return this.actions.isEmpty() ? 0 : p;
+    }
+
+    /**
+     * @return greatest priority of the actions of the current tick, 0 if none
+     */
+    public int getMaxPriority() {
+        int p = 0;
+        for(Action a : this.actions) {
+            p = Math.max(p, a.priority);
+        }
+        return p;
+    }
+
+    /**
+     * Choose the actions to take with a surplus of energy
+     * 
+     * @param surplus available energy
+     * @param plan list receiving the chosen actions
+     * @return watts used by the chosen actions
+     */
+    public double planSurplus(double surplus, List<Action> plan) {
+        assert surplus >= 0;
+        this.sortByGroup();
+
+        double total = 0.0;
+        for(Action a : this.actions) {
+            total += a.watts;
+        }
+        int capacity = (int) Math.floor(Math.min(surplus, total) / WATT_STEP);
+        if(this.best.length < capacity + 1) {
+            this.best = new int[capacity + 1];
+        }
+        if(this.choice.length < this.groups || (this.groups > 0 && this.choice[0].length < capacity + 1)) {
+            this.choice = new int[Math.max(this.groups, this.choice.length)][capacity + 1];
+        }
+        for(int c = 0 ; c <= capacity ; c++) {
+            this.best[c] = 0;
+        }
+
+        for(int g = 0 ; g < this.groups ; g++) {
+            int[] chosen = this.choice[g];
+            // decreasing capacities so that best[] still holds the previous groups
+            for(int c = capacity ; c >= 0 ; c--) {
+                int value = this.best[c];
+                int pick = 0;
+                for(int i = this.groupStart[g] ; i < this.groupStart[g + 1] ; i++) {
+                    Action a = this.byGroup[i];
+                    int w = steps(a.watts);
+                    if(w <= c && a.priority > 0 && this.best[c - w] + a.priority > value) {
+                        value = this.best[c - w] + a.priority;
+                        pick = i + 1;
+                    }
+                }
+                this.best[c] = value;
+                chosen[c] = pick;
+            }
+        }
+
+        double used = 0.0;
+        int c = capacity;
+        for(int g = this.groups - 1 ; g >= 0 ; g--) {
+            int pick = this.choice[g][c];
+            if(pick > 0) {
+                Action a = this.byGroup[pick - 1];
+                plan.add(a);
+                used += a.watts;
+                c -= steps(a.watts);
+            }
+        }
+        return used;
+    }
+
+    /**
+     * Choose the actions to take with a deficit of energy
+     * 
+     * @param deficit missing energy
+     * @param plan list receiving the chosen actions
+     * @return watts freed by the chosen actions
+     */
+    public double planDeficit(double deficit, List<Action> plan) {
+        assert deficit >= 0;
+        this.actions.sort(BY_PRIORITY);
+        if(this.taken.length < this.groups) {
+            this.taken = new int[this.groups];
+        }
+        int[] taken = this.taken;
+        for(int g = 0 ; g < this.groups ; g++) {
+            taken[g] = 0;
+        }
+
+        double freed = 0.0;
+        for(Action a : this.actions) {
+            if(freed >= deficit) {
+                break;
+            }
+            int t = taken[a.group];
+            if(t == 0) {
+                plan.add(a);
+                taken[a.group] = plan.size();
+                freed += a.watts;
+            } else if(a.watts > plan.get(t - 1).watts) {
+                freed += a.watts - plan.get(t - 1).watts;
+                plan.set(t - 1, a);
+            }
+        }
+        return freed;
+    }
+
+    /**
+     * Sort the actions by group into <code>byGroup</code>
+     */
+    protected void sortByGroup() {
+        if(this.byGroup.length < this.actions.size()) {
+            this.byGroup = new Action[this.actions.size()];
+        }
+        if(this.groupStart.length < this.groups + 1) {
+            this.groupStart = new int[this.groups + 1];
+            this.groupNext = new int[this.groups + 1];
+        }
+        for(int g = 0 ; g <= this.groups ; g++) {
+            this.groupStart[g] = 0;
+        }
+        for(Action a : this.actions) {
+            this.groupStart[a.group + 1]++;
+        }
+        for(int g = 0 ; g < this.groups ; g++) {
+            this.groupStart[g + 1] += this.groupStart[g];
+        }
+        for(int g = 0 ; g < this.groups ; g++) {
+            this.groupNext[g] = this.groupStart[g];
+        }
+        for(Action a : this.actions) {
+            this.byGroup[this.groupNext[a.group]++] = a;
+        }
+    }
+
+    /**
+     * Return the number of knapsack steps needed by some watts
+     * 
+     * @param watts watts
+     * @return number of steps, rounded up
+     */
+    protected static int steps(double watts) {
+        return (int) Math.ceil(watts / WATT_STEP);
+    }
+}
@@ -0,0 +1,468 @@
+package controller;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Random;
+
+import components.Battery.BState;
+import components.Dishwasher.DWMode;
+import components.Lamp.LampState;
+import interfaces.DeviceControllerI;
+import simulation.sil.battery.models.BatteryModel;
+import simulation.sil.dishwasher.models.DishwasherModel;
+import simulation.sil.fridge.models.FridgeModel;
+
+/**
+ * The class <code>LoadSheddingPlannerBenchmark</code> compares the decision
+ * of a control tick taken by the <code>LoadSheddingPlanner</code> with the
+ * decision of the rule chain it replaced.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * A household has a dishwasher, a lamp, a fridge and a battery, repeated
+ * <code>copies</code> times, in random states drawn once before the
+ * measures, with an available energy between -1500 W and 1500 W. The rule
+ * chain is the one of the former <code>Controller.positiveEnergy</code> and
+ * <code>negativeEnergy</code>, run on the states instead of the ports; the
+ * planner is given the actions listed as <code>Household</code> does. Only
+ * the decision is measured: no device is called, the rules change a copy
+ * of the states as the devices would. The benchmark prints the duration of
+ * a decision, the mean surplus used on the ticks with a surplus and the
+ * mean deficit left on the ticks with a deficit, for each. The arguments
+ * are the number of ticks of a measure and the number of copies of the
+ * devices.
+ *
+ * <pre>
+ * java -cp bin controller.LoadSheddingPlannerBenchmark 100000 1
+ * java -cp bin controller.LoadSheddingPlannerBenchmark 100000 10
+ * </pre>
+ */
+public class LoadSheddingPlannerBenchmark {
+    /** device receiving the actions, never called */
+    protected static final DeviceControllerI<Serializable> DEVICE = new DeviceControllerI<Serializable>() {
+        @Override
+        public Serializable getSnapshot() {
+            return null;
+        }
+
+        @Override
+        public Serializable applyCommands(DeviceCommand[] commands) {
+            return null;
+        }
+    };
+
+    protected static final LampState[] LAMP_STATES = LampState.values();
+    protected static final BState[] BATTERY_STATES = BState.values();
+
+    /**
+     * State of the devices of one copy
+     */
+    protected static class Devices {
+        boolean dwOn, dwBreak;
+        DWMode dwMode;
+        LampState lamp;
+        boolean lampBreak;
+        boolean fridgeOn, freezerOn, fridgeBreak, freezerBreak;
+        BState battery;
+        double capacity, maxCapacity;
+    }
+
+    /**
+     * State of the household at one tick
+     */
+    protected static class Tick {
+        double energy;
+        Devices[] devices;
+    }
+
+    /** surplus used by the decisions of the last measure */
+    protected static double used;
+    /** deficit left by the decisions of the last measure */
+    protected static double left;
+
+    public static void main(String[] args) throws Exception {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int copies = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        Tick[] states = states(ticks, copies, new Random(42));
+        LoadSheddingPlanner absorb = new LoadSheddingPlanner();
+        LoadSheddingPlanner shed = new LoadSheddingPlanner();
+        ArrayList<Action> plan = new ArrayList<>();
+        Devices[] scratch = new Devices[copies];
+        for(int c = 0 ; c < copies ; c++) {
+            scratch[c] = new Devices();
+        }
+        int surplusTicks = 0;
+        for(Tick t : states) {
+            if(t.energy > 0) {
+                surplusTicks++;
+            }
+        }
+        int deficitTicks = Math.max(1, ticks - surplusTicks);
+        surplusTicks = Math.max(1, surplusTicks);
+        long sum = 0;
+        for(int round = 0 ; round < 5 ; round++) {
+            long start = System.nanoTime();
+            sum += rules(states, scratch);
+            double rules = (System.nanoTime() - start) / (double) ticks;
+            String rulesWatts = String.format("used %.1f W, left %.1f W",
+                    used / surplusTicks, left / deficitTicks);
+            start = System.nanoTime();
+            sum += planner(states, absorb, shed, plan);
+            double planner = (System.nanoTime() - start) / (double) ticks;
+            String plannerWatts = String.format("used %.1f W, left %.1f W",
+                    used / surplusTicks, left / deficitTicks);
+            System.out.println(String.format(
+                    "round %d : rules %.0f ns (%s), planner %.0f ns (%s) per tick",
+                    round, rules, rulesWatts, planner, plannerWatts));
+        }
+        System.out.println("(" + sum + ")");
+    }
+
+    /**
+     * Draw the states of the household
+     *
+     * @param ticks number of ticks
+     * @param copies number of copies of the devices
+     * @param random source of the states
+     * @return states of the household at each tick
+     */
+    protected static Tick[] states(int ticks, int copies, Random random) {
+        Tick[] states = new Tick[ticks];
+        for(int t = 0 ; t < ticks ; t++) {
+            Tick tick = new Tick();
+            tick.energy = random.nextDouble() * 3000.0 - 1500.0;
+            tick.devices = new Devices[copies];
+            for(int c = 0 ; c < copies ; c++) {
+                Devices d = new Devices();
+                d.dwOn = random.nextBoolean();
+                d.dwBreak = random.nextBoolean();
+                d.dwMode = random.nextBoolean() ? DWMode.ECO : DWMode.STANDARD;
+                d.lamp = LAMP_STATES[random.nextInt(LAMP_STATES.length)];
+                d.lampBreak = random.nextBoolean();
+                d.fridgeOn = random.nextBoolean();
+                d.freezerOn = random.nextBoolean();
+                d.fridgeBreak = random.nextBoolean();
+                d.freezerBreak = random.nextBoolean();
+                d.battery = BATTERY_STATES[random.nextInt(BATTERY_STATES.length)];
+                d.maxCapacity = 1000.0;
+                d.capacity = random.nextInt(3) * 500.0;
+                tick.devices[c] = d;
+            }
+            states[t] = tick;
+        }
+        return states;
+    }
+
+    /**
+     * Decide with the rule chain
+     *
+     * @param states states of the household
+     * @param scratch copies of the states changed by the rules
+     * @return number of actions taken, so that nothing is optimised out
+     */
+    protected static long rules(Tick[] states, Devices[] scratch) {
+        long actions = 0;
+        used = 0.0;
+        left = 0.0;
+        for(Tick t : states) {
+            for(int c = 0 ; c < scratch.length ; c++) {
+                copy(t.devices[c], scratch[c]);
+            }
+            double nrj = t.energy;
+            if(nrj > 0) {
+                for(int rule = 0 ; rule < 7 && nrj > 0 ; rule++) {
+                    for(Devices d : scratch) {
+                        double cost = positiveRule(rule, d, nrj);
+                        if(cost >= 0) {
+                            nrj -= cost;
+                            actions++;
+                        }
+                    }
+                }
+                used += t.energy - nrj;
+            } else {
+                for(int rule = 0 ; rule < 7 && nrj < 0 ; rule++) {
+                    for(Devices d : scratch) {
+                        double freed = negativeRule(rule, d);
+                        if(freed >= 0) {
+                            nrj += freed;
+                            actions++;
+                        }
+                    }
+                }
+                left -= Math.min(nrj, 0.0);
+            }
+        }
+        return actions;
+    }
+
+    /**
+     * Copy the state of the devices
+     *
+     * @param from state copied
+     * @param to state replaced
+     */
+    protected static void copy(Devices from, Devices to) {
+        to.dwOn = from.dwOn;
+        to.dwBreak = from.dwBreak;
+        to.dwMode = from.dwMode;
+        to.lamp = from.lamp;
+        to.lampBreak = from.lampBreak;
+        to.fridgeOn = from.fridgeOn;
+        to.freezerOn = from.freezerOn;
+        to.fridgeBreak = from.fridgeBreak;
+        to.freezerBreak = from.freezerBreak;
+        to.battery = from.battery;
+        to.capacity = from.capacity;
+        to.maxCapacity = from.maxCapacity;
+    }
+
+    /**
+     * Run a rule of the former <code>positiveEnergy</code> on a copy
+     *
+     * @param rule index of the rule
+     * @param d state of the devices, changed by the action
+     * @param nrj energy left
+     * @return watts used by the action, or -1 if the rule does nothing
+     */
+    protected static double positiveRule(int rule, Devices d, double nrj) {
+        switch(rule) {
+        case 0:
+            if(d.dwBreak && !d.dwOn) {
+                d.dwBreak = false;
+                return 0.0;
+            }
+            return -1;
+        case 1: {
+            double consumption = HouseholdView.lampConsumption(d.lamp);
+            if(d.lampBreak && nrj >= consumption) {
+                d.lampBreak = false;
+                return consumption;
+            }
+            return -1;
+        }
+        case 2: {
+            double consumption = d.freezerOn ? FridgeModel.FREEZER_ON_CONSUMPTION : 0.0;
+            if(d.freezerBreak && nrj >= consumption) {
+                d.freezerBreak = false;
+                return consumption;
+            }
+            return -1;
+        }
+        case 3: {
+            double consumption = d.fridgeOn ? FridgeModel.FRIDGE_ON_CONSUMPTION : 0.0;
+            if(d.fridgeBreak && nrj >= consumption) {
+                d.fridgeBreak = false;
+                return consumption;
+            }
+            return -1;
+        }
+        case 4:
+            if(d.battery == BState.PRODUCING && d.capacity < d.maxCapacity
+                    && nrj >= BatteryModel.BATTERY_MODIF) {
+                d.battery = BState.STANDBY;
+                return BatteryModel.BATTERY_MODIF;
+            }
+            return -1;
+        case 5: {
+            double consumption = d.dwOn ? DishwasherModel.STANDARD_MODE_CONSUMPTION -
+                    DishwasherModel.ECO_MODE_CONSUMPTION : 0.0;
+            if(d.dwMode == DWMode.ECO && nrj >= consumption) {
+                d.dwMode = DWMode.STANDARD;
+                return consumption;
+            }
+            return -1;
+        }
+        default:
+            if(d.battery != BState.CONSUMING && d.capacity < d.maxCapacity
+                    && nrj >= BatteryModel.BATTERY_MODIF) {
+                d.battery = BState.CONSUMING;
+                return BatteryModel.BATTERY_MODIF;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Run a rule of the former <code>negativeEnergy</code> on a copy
+     *
+     * @param rule index of the rule
+     * @param d state of the devices, changed by the action
+     * @return watts freed by the action, or -1 if the rule does nothing
+     */
+    protected static double negativeRule(int rule, Devices d) {
+        switch(rule) {
+        case 0:
+            if(d.battery == BState.CONSUMING) {
+                d.battery = BState.STANDBY;
+                return BatteryModel.BATTERY_MODIF;
+            }
+            return -1;
+        case 1:
+            if(d.battery != BState.PRODUCING && d.capacity > 0) {
+                d.battery = BState.PRODUCING;
+                return BatteryModel.BATTERY_MODIF;
+            }
+            return -1;
+        case 2:
+            if(!d.dwBreak && d.dwOn && d.dwMode == DWMode.STANDARD) {
+                d.dwMode = DWMode.ECO;
+                return DishwasherModel.STANDARD_MODE_CONSUMPTION - DishwasherModel.ECO_MODE_CONSUMPTION;
+            }
+            return -1;
+        case 3:
+            if(!d.dwBreak && d.dwOn) {
+                d.dwBreak = true;
+                return d.dwMode == DWMode.ECO ?
+                        DishwasherModel.ECO_MODE_CONSUMPTION : DishwasherModel.STANDARD_MODE_CONSUMPTION;
+            }
+            return -1;
+        case 4:
+            if(!d.fridgeBreak && d.fridgeOn) {
+                d.fridgeBreak = true;
+                return FridgeModel.FRIDGE_ON_CONSUMPTION;
+            }
+            return -1;
+        case 5:
+            if(!d.freezerBreak && d.freezerOn) {
+                d.freezerBreak = true;
+                return FridgeModel.FREEZER_ON_CONSUMPTION;
+            }
+            return -1;
+        default: {
+            double consumption = HouseholdView.lampConsumption(d.lamp);
+            if(!d.lampBreak && consumption != 0.0) {
+                d.lampBreak = true;
+                return consumption;
+            }
+            return -1;
+        }
+        }
+    }
+
+    /**
+     * Decide with the planner
+     *
+     * @param states states of the household
+     * @param absorb planner of the actions adding consumption
+     * @param shed planner of the actions removing consumption
+     * @param plan list receiving the chosen actions
+     * @return number of actions taken, so that nothing is optimised out
+     */
+    protected static long planner(Tick[] states, LoadSheddingPlanner absorb, LoadSheddingPlanner shed,
+            ArrayList<Action> plan) {
+        long actions = 0;
+        used = 0.0;
+        left = 0.0;
+        for(Tick t : states) {
+            plan.clear();
+            if(t.energy > 0) {
+                absorb.clear();
+                for(int c = 0 ; c < t.devices.length ; c++) {
+                    absorbActions(absorb, 8 * c, t.devices[c]);
+                }
+                used += absorb.planSurplus(t.energy, plan);
+            } else {
+                shed.clear();
+                for(int c = 0 ; c < t.devices.length ; c++) {
+                    shedActions(shed, 8 * c, t.devices[c]);
+                }
+                left -= Math.min(t.energy + shed.planDeficit(-t.energy, plan), 0.0);
+            }
+            actions += plan.size();
+        }
+        return actions;
+    }
+
+    /**
+     * @param rank rank of the action
+     * @return priority of the action, for a device of priority 0
+     */
+    private static int priority(int rank) {
+        return rank * DeviceDescriptor.MAX_PRIORITY;
+    }
+
+    /**
+     * List the actions adding consumption, as <code>Household</code>
+     *
+     * @param p planner
+     * @param g first group of the copy
+     * @param d state of the devices
+     */
+    protected static void absorbActions(LoadSheddingPlanner p, int g, Devices d) {
+        if(d.dwBreak && !d.dwOn) {
+            p.addAction(new Action(g, 0.0, priority(7), DEVICE, DeviceCommand.setBreak(false)));
+        }
+        if(d.dwMode == DWMode.ECO) {
+            p.addAction(new Action(g + 1, d.dwOn ? DishwasherModel.STANDARD_MODE_CONSUMPTION -
+                    DishwasherModel.ECO_MODE_CONSUMPTION : 0.0, priority(2),
+                    DEVICE, DeviceCommand.setMode(DWMode.STANDARD)));
+        }
+        if(d.lampBreak) {
+            p.addAction(new Action(g + 2, HouseholdView.lampConsumption(d.lamp), priority(6),
+                    DEVICE, DeviceCommand.setBreak(false)));
+        }
+        if(d.freezerBreak) {
+            p.addAction(new Action(g + 5, d.freezerOn ? FridgeModel.FREEZER_ON_CONSUMPTION : 0.0,
+                    priority(5), DEVICE, DeviceCommand.setFreezerBreak(false)));
+        }
+        if(d.fridgeBreak) {
+            p.addAction(new Action(g + 4, d.fridgeOn ? FridgeModel.FRIDGE_ON_CONSUMPTION : 0.0,
+                    priority(4), DEVICE, DeviceCommand.setFridgeBreak(false)));
+        }
+        if(d.capacity < d.maxCapacity) {
+            if(d.battery == BState.PRODUCING) {
+                p.addAction(new Action(g + 6, BatteryModel.BATTERY_MODIF, priority(3),
+                        DEVICE, DeviceCommand.setMode(BState.STANDBY)));
+                p.addAction(new Action(g + 6, 2 * BatteryModel.BATTERY_MODIF, priority(4),
+                        DEVICE, DeviceCommand.setMode(BState.CONSUMING)));
+            } else if(d.battery == BState.STANDBY) {
+                p.addAction(new Action(g + 6, BatteryModel.BATTERY_MODIF, priority(1),
+                        DEVICE, DeviceCommand.setMode(BState.CONSUMING)));
+            }
+        }
+    }
+
+    /**
+     * List the actions removing consumption, as <code>Household</code>
+     *
+     * @param p planner
+     * @param g first group of the copy
+     * @param d state of the devices
+     */
+    protected static void shedActions(LoadSheddingPlanner p, int g, Devices d) {
+        if(d.battery == BState.CONSUMING) {
+            p.addAction(new Action(g + 6, BatteryModel.BATTERY_MODIF, priority(0),
+                    DEVICE, DeviceCommand.setMode(BState.STANDBY)));
+        }
+        if(d.battery != BState.PRODUCING && d.capacity > 0) {
+            double modif = d.battery == BState.CONSUMING ?
+                    2 * BatteryModel.BATTERY_MODIF : BatteryModel.BATTERY_MODIF;
+            p.addAction(new Action(g + 6, modif, priority(1), DEVICE, DeviceCommand.setMode(BState.PRODUCING)));
+        }
+        if(!d.dwBreak && d.dwOn) {
+            if(d.dwMode == DWMode.STANDARD) {
+                p.addAction(new Action(g + 1, DishwasherModel.STANDARD_MODE_CONSUMPTION -
+                        DishwasherModel.ECO_MODE_CONSUMPTION, priority(2),
+                        DEVICE, DeviceCommand.setMode(DWMode.ECO)));
+                p.addAction(new Action(g + 1, DishwasherModel.STANDARD_MODE_CONSUMPTION, priority(3),
+                        DEVICE, DeviceCommand.setMode(DWMode.ECO), DeviceCommand.setBreak(true)));
+            } else {
+                p.addAction(new Action(g + 1, DishwasherModel.ECO_MODE_CONSUMPTION, priority(3),
+                        DEVICE, DeviceCommand.setBreak(true)));
+            }
+        }
+        if(!d.fridgeBreak && d.fridgeOn) {
+            p.addAction(new Action(g + 4, FridgeModel.FRIDGE_ON_CONSUMPTION, priority(4),
+                    DEVICE, DeviceCommand.setFridgeBreak(true)));
+        }
+        if(!d.freezerBreak && d.freezerOn) {
+            p.addAction(new Action(g + 5, FridgeModel.FREEZER_ON_CONSUMPTION, priority(5),
+                    DEVICE, DeviceCommand.setFreezerBreak(true)));
+        }
+        double consumption = HouseholdView.lampConsumption(d.lamp);
+        if(!d.lampBreak && consumption != 0.0) {
+            p.addAction(new Action(g + 2, consumption, priority(6), DEVICE, DeviceCommand.setBreak(true)));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package controller;
+
+import java.io.Serializable;
+
+/**
+ * The class <code>Registration</code> is returned by the controller to a
+ * device that registers with it.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * The device uses the URI to connect its notification port to the
+ * controller, and sends the identifier with each of its notifications.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		deviceId &gt;= 0
+ * invariant		notificationInboundPortURI != null
+ * </pre>
+ */
+public class Registration implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** identifier of the device in the controller */
+    public final int deviceId;
+    /** URI of the inbound port receiving the notifications of the device */
+    public final String notificationInboundPortURI;
+
+    /**
+     * Create a registration
+     * 
+     * @param deviceId identifier of the device in the controller
+     * @param notificationInboundPortURI URI of the inbound port receiving the notifications
+     */
+    public Registration(int deviceId, String notificationInboundPortURI) {
+        assert deviceId >= 0;
+        assert notificationInboundPortURI != null;
+        this.deviceId = deviceId;
+        this.notificationInboundPortURI = notificationInboundPortURI;
+    }
+}
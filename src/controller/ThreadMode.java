@@ -0,0 +1,187 @@
+package controller;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The enumeration <code>ThreadMode</code> chooses the kind of threads
+ * running the calls the controller makes to the devices. It only applies to
+ * the pools created by the controller.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * The shards, the reads and the actuations of the controller block on port
+ * calls most of their time. In the <code>PLATFORM</code> mode, the default,
+ * they run on pools of daemon threads of fixed size. In the
+ * <code>VIRTUAL</code> mode, each read and each actuation gets its own
+ * virtual thread, so that the number of devices queried at the same time
+ * is no longer bounded by the size of a pool, and a blocked call does not
+ * hold a platform thread. <code>ThreadModeBenchmark</code> compares the
+ * modes on synthetic devices only; the footprint of the
+ * <code>VIRTUAL</code> mode with real components is not measured.
+ *
+ * The mode is chosen for a whole JVM with <code>-Dziodyne.threadMode</code>
+ * (<code>platform</code> or <code>virtual</code>), or with
+ * <code>set</code> before the controller is created; any other name is
+ * rejected with an <code>IllegalArgumentException</code> naming the
+ * property. The project is built for Java 8, so the virtual threads are
+ * created by reflection; on a JVM without them (before Java 21) the
+ * <code>VIRTUAL</code> mode falls back to <code>PLATFORM</code>, which
+ * <code>isFallback</code> tells so that the controller logs it. The
+ * threads of the components, including those of the devices and of the
+ * controller component itself, belong to BCM and are not changed.
+ */
+public enum ThreadMode {
+    PLATFORM,
+    VIRTUAL;
+
+    /** name of the system property choosing the mode */
+    public static final String PROPERTY = "ziodyne.threadMode";
+
+    /** factory of the builders of virtual threads, null before Java 21 */
+    private static final Method OF_VIRTUAL = method(Thread.class, "ofVirtual");
+    /** mode of the JVM, null until it is set or read from the property */
+    private static volatile ThreadMode current;
+    /** true if the virtual threads were asked for and are not available */
+    private static volatile boolean fallback;
+
+    /**
+     * Return the mode of the JVM, read from the system property the first
+     * time if it was not set
+     *
+     * @return mode of the JVM
+     * @throws IllegalArgumentException if the property names no mode
+     */
+    public static ThreadMode get() {
+        ThreadMode mode = current;
+        if(mode == null) {
+            mode = set(System.getProperty(PROPERTY, "platform"));
+        }
+        return mode;
+    }
+
+    /**
+     * @return true if the <code>VIRTUAL</code> mode was asked for on a JVM
+     * without virtual threads, and <code>PLATFORM</code> is used instead
+     */
+    public static boolean isFallback() {
+        return fallback;
+    }
+
+    /**
+     * Choose the mode of the JVM; the pools created before keep their mode
+     *
+     * @param mode mode to use
+     * @return mode used, <code>PLATFORM</code> if virtual threads are asked
+     * for and not available
+     */
+    public static ThreadMode set(ThreadMode mode) {
+        assert mode != null;
+        fallback = mode == VIRTUAL && !isVirtualAvailable();
+        if(fallback) {
+            mode = PLATFORM;
+        }
+        current = mode;
+        return mode;
+    }
+
+    /**
+     * Choose the mode of the JVM from its name
+     *
+     * @param name <code>platform</code> or <code>virtual</code>
+     * @return mode used
+     * @throws IllegalArgumentException if the name is not a mode
+     */
+    public static ThreadMode set(String name) {
+        for(ThreadMode mode : values()) {
+            if(mode.name().equalsIgnoreCase(name.trim())) {
+                return set(mode);
+            }
+        }
+        throw new IllegalArgumentException("unknown thread mode '" + name + "' (" + PROPERTY +
+                " or the argument of the CVM), expected platform or virtual");
+    }
+
+    /**
+     * @return true if the JVM has virtual threads
+     */
+    public static boolean isVirtualAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Return a factory of threads
+     *
+     * @param name prefix of the name of the threads
+     * @return factory of daemon platform threads, or of virtual threads
+     */
+    public ThreadFactory factory(String name) {
+        if(this == VIRTUAL) {
+            try {
+                Object builder = OF_VIRTUAL.invoke(null);
+                Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+                builder = ofVirtual.getMethod("name", String.class, long.class)
+                        .invoke(builder, name + "-", 1L);
+                return (ThreadFactory) ofVirtual.getMethod("factory").invoke(builder);
+            } catch(ReflectiveOperationException e) {
+                throw new IllegalStateException("cannot create virtual threads", e);
+            }
+        }
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Return a pool of threads for blocking calls
+     *
+     * @param name prefix of the name of the threads
+     * @param nbThreads number of platform threads, unused in the
+     * <code>VIRTUAL</code> mode where each call gets its own thread
+     * @return pool of threads
+     */
+    public ExecutorService newPool(String name, int nbThreads) {
+        assert nbThreads > 0;
+        if(this == VIRTUAL) {
+            try {
+                return (ExecutorService) Executors.class
+                        .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, this.factory(name));
+            } catch(ReflectiveOperationException e) {
+                throw new IllegalStateException("cannot create virtual threads", e);
+            }
+        }
+        return Executors.newFixedThreadPool(nbThreads, this.factory(name));
+    }
+
+    /**
+     * Return an executor running its tasks one at a time, in their order
+     *
+     * @param name name of the thread
+     * @return executor
+     */
+    public ExecutorService newSingleThreadExecutor(String name) {
+        return Executors.newSingleThreadExecutor(this.factory(name));
+    }
+
+    /**
+     * Return a public method, or null if it does not exist
+     *
+     * @param c class of the method
+     * @param name name of the method
+     * @return method, or null
+     */
+    private static Method method(Class<?> c, String name) {
+        try {
+            return c.getMethod(name);
+        } catch(NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
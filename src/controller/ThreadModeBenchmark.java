@@ -0,0 +1,129 @@
+package controller;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import controller.ConcurrentReads.Reader;
+
+/**
+ * The class <code>ThreadModeBenchmark</code> compares the threads reading
+ * a large number of devices at each tick.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Each synthetic device is a query blocking for the latency of a port call
+ * to a busy component, then returning its value. The devices are read with
+ * <code>ConcurrentReads</code>, as a household does, on one of three
+ * pools: <code>pool</code>, the fixed pool of a shard of the controller,
+ * <code>device</code>, one platform thread per device, as when every device
+ * gets its own thread, or <code>virtual</code>, virtual threads, if the JVM
+ * has them. The benchmark prints the duration of a tick, the reads per
+ * second, the peak number of threads and the resident memory of the JVM,
+ * so each pool is measured in its own JVM. The arguments are the pool, the
+ * number of devices, the latency of a call in milliseconds and the number
+ * of ticks. With six devices, the pool reads one household as a shard does:
+ * a tick lasts about one latency, where reading the devices one after the
+ * other would last six.
+ *
+ * <pre>
+ * java -cp bin controller.ThreadModeBenchmark pool 6 5 50
+ * java -cp bin controller.ThreadModeBenchmark pool 1000 5 20
+ * java -cp bin controller.ThreadModeBenchmark device 1000 5 20
+ * java -cp bin controller.ThreadModeBenchmark virtual 1000 5 20
+ * </pre>
+ */
+public class ThreadModeBenchmark {
+    /** threads of the pool of a shard, as <code>Controller.READ_THREADS</code> */
+    protected static final int POOL_THREADS = 6;
+
+    public static void main(String[] args) throws Exception {
+        String pool = args.length > 0 ? args[0] : "pool";
+        int devices = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long latency = args.length > 2 ? Long.parseLong(args[2]) : 5L;
+        int ticks = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        System.out.println(devices + " devices, " + latency + " ms per call, " + ticks + " ticks");
+        switch(pool) {
+        case "pool":
+            run("platform, pool of " + POOL_THREADS, devices, latency, ticks,
+                    ThreadMode.PLATFORM.newPool("pool", POOL_THREADS));
+            break;
+        case "device":
+            run("platform, one per device", devices, latency, ticks,
+                    ThreadMode.PLATFORM.newPool("device", devices));
+            break;
+        case "virtual":
+            if(!ThreadMode.isVirtualAvailable()) {
+                System.out.println("virtual : not available on Java " + System.getProperty("java.version"));
+                return;
+            }
+            run("virtual", devices, latency, ticks, ThreadMode.VIRTUAL.newPool("virtual", devices));
+            break;
+        default:
+            throw new IllegalArgumentException("unknown pool " + pool);
+        }
+    }
+
+    /**
+     * Read the devices on a pool and print the measures
+     *
+     * @param name name of the pool
+     * @param devices number of devices
+     * @param latency latency of a call in milliseconds
+     * @param ticks number of ticks
+     * @param executor pool running the reads
+     * @throws Exception
+     */
+    protected static void run(String name, int devices, long latency, int ticks,
+            ExecutorService executor) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        ConcurrentReads reads = new ConcurrentReads(executor, 60000L);
+        List<Reader<Integer>> readers = new ArrayList<>(devices);
+        for(int i = 0 ; i < devices ; i++) {
+            int value = i;
+            readers.add(reads.add(() -> {
+                Thread.sleep(latency);
+                return value;
+            }));
+        }
+        threads.resetPeakThreadCount();
+        long start = System.nanoTime();
+        long sum = 0;
+        for(int t = 0 ; t < ticks ; t++) {
+            reads.begin();
+            for(Reader<Integer> r : readers) {
+                sum += r.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long rss = residentKiloBytes();
+        executor.shutdownNow();
+        if(sum != (long) ticks * devices * (devices - 1) / 2) {
+            throw new IllegalStateException("wrong reads");
+        }
+        System.out.println(String.format("%s : %.1f ms per tick, %.0f reads/s, %d threads, %d MB resident",
+                name, seconds * 1e3 / ticks, ticks * devices / seconds,
+                threads.getPeakThreadCount(), rss / 1024));
+    }
+
+    /**
+     * @return resident memory of the JVM in kilobytes, or -1 if unknown
+     */
+    protected static long residentKiloBytes() {
+        try {
+            for(String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if(line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch(Exception e) {
+            // not on Linux
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,171 @@
+package controller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The class <code>TickStatistics</code> counts the control ticks that miss
+ * their deadline and keeps a histogram of the tick durations.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Bucket <code>k</code> of the histogram counts the ticks that took less
+ * than 2<sup>k</sup> ms and at least 2<sup>k-1</sup> ms; the last bucket
+ * also counts every longer tick. The counters can be read from any thread
+ * while the controller records its ticks.
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ */
+public class TickStatistics {
+    /** number of buckets of the histogram */
+    public static final int BUCKETS = 16;
+
+    /** number of ticks in each bucket */
+    protected final LongAdder[] buckets = new LongAdder[BUCKETS];
+    /** number of ticks recorded */
+    protected final LongAdder ticks = new LongAdder();
+    /** number of ticks that missed their deadline */
+    protected final LongAdder overruns = new LongAdder();
+    /** number of ticks that used the fallback decision */
+    protected final LongAdder fallbacks = new LongAdder();
+    /** number of household phases not done at the deadline */
+    protected final LongAdder latePasses = new LongAdder();
+    /** sum of the tick durations in nanoseconds */
+    protected final LongAdder totalNanos = new LongAdder();
+    /** longest tick in nanoseconds */
+    protected final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    public TickStatistics() {
+        for(int k = 0 ; k < BUCKETS ; k++) {
+            this.buckets[k] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a tick
+     * 
+     * @param nanos duration of the tick in nanoseconds
+     * @param overrun true if the tick missed its deadline
+     */
+    public void record(long nanos, boolean overrun) {
+        this.buckets[bucket(nanos)].increment();
+        this.ticks.increment();
+        this.totalNanos.add(nanos);
+        this.maxNanos.accumulate(nanos);
+        if(overrun) {
+            this.overruns.increment();
+        }
+    }
+
+    /**
+     * Record a tick that used the fallback decision
+     */
+    public void recordFallback() {
+        this.fallbacks.increment();
+    }
+
+    /**
+     * Record a household phase not done at the deadline
+     */
+    public void recordLatePass() {
+        this.latePasses.increment();
+    }
+
+    /**
+     * Return the bucket of a duration
+     * 
+     * @param nanos duration in nanoseconds
+     * @return index of the bucket
+     */
+    protected static int bucket(long nanos) {
+        long ms = TimeUnit.NANOSECONDS.toMillis(nanos);
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(ms));
+    }
+
+    /**
+     * Return a bound of the duration of a fraction of the ticks
+     * 
+     * @param p fraction of the ticks, between 0 and 1
+     * @return duration in ms under which at least this fraction of the ticks
+     * took, or -1 if the fraction falls in the last bucket
+     */
+    public long getPercentile(double p) {
+        assert p >= 0.0 && p <= 1.0;
+        long total = this.ticks.sum();
+        long seen = 0;
+        for(int k = 0 ; k < BUCKETS - 1 ; k++) {
+            seen += this.buckets[k].sum();
+            if(seen >= p * total) {
+                return 1L << k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return number of ticks recorded
+     */
+    public long getTicks() {
+        return this.ticks.sum();
+    }
+
+    /**
+     * @return number of ticks that missed their deadline
+     */
+    public long getOverruns() {
+        return this.overruns.sum();
+    }
+
+    /**
+     * @return number of ticks that used the fallback decision
+     */
+    public long getFallbacks() {
+        return this.fallbacks.sum();
+    }
+
+    /**
+     * @return number of household phases not done at the deadline
+     */
+    public long getLatePasses() {
+        return this.latePasses.sum();
+    }
+
+    /**
+     * @return mean duration of a tick in ms
+     */
+    public double getMeanMillis() {
+        long n = this.ticks.sum();
+        return n == 0 ? 0.0 : this.totalNanos.sum() / 1e6 / n;
+    }
+
+    /**
+     * @return longest tick in ms
+     */
+    public double getMaxMillis() {
+        return this.maxNanos.get() / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("TickStatistics(ticks = ").append(getTicks())
+                .append(", overruns = ").append(getOverruns())
+                .append(", fallbacks = ").append(getFallbacks())
+                .append(", late passes = ").append(getLatePasses())
+                .append(", mean = ").append(getMeanMillis())
+                .append(" ms, max = ").append(getMaxMillis())
+                .append(" ms, histogram =");
+        for(int k = 0 ; k < BUCKETS ; k++) {
+            long n = this.buckets[k].sum();
+            if(n > 0) {
+                sb.append(k == BUCKETS - 1 ? " >=" : " <").append(1L << (k == BUCKETS - 1 ? k - 1 : k))
+                  .append("ms:").append(n);
+            }
+        }
+        return sb.append(")").toString();
+    }
+}
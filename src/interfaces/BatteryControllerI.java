@@ -1,13 +1,13 @@
 package interfaces;
 
+import components.Battery.BatterySnapshot;
 import components.Battery.BState;
-import fr.sorbonne_u.components.interfaces.RequiredI;
 
 /**
  * The interface <code>BatteryControllerI</code> defines the interface required by a
  * component that needs to get information from a battery component.
  */
-public interface BatteryControllerI extends RequiredI {
+public interface BatteryControllerI extends DeviceControllerI<BatterySnapshot> {
 	/**
 	 * get max capacity
 	 * 
@@ -35,4 +35,11 @@ public interface BatteryControllerI extends RequiredI {
      * @throws Exception
      */
     public BState getMode() throws Exception;
+    /**
+     * Return the whole state of the battery in one call
+     * 
+     * @return snapshot of the battery
+     * @throws Exception
+     */
+    public BatterySnapshot getSnapshot() throws Exception;
 }
@@ -1,13 +1,13 @@
 package interfaces;
 
+import components.Battery.BatterySnapshot;
 import components.Battery.BState;
-import fr.sorbonne_u.components.interfaces.OfferedI;
 
 /**
  * The interface <code>BatteryI</code> defines the interface offered by a
  * component that needs to get information from a battery component.
  */
-public interface BatteryI extends OfferedI {
+public interface BatteryI extends DeviceI<BatterySnapshot> {
 	/**
 	 * get max capacity
 	 * 
@@ -35,4 +35,11 @@ public interface BatteryI extends OfferedI {
      * @throws Exception
      */
     public BState getMode() throws Exception;
+    /**
+     * Return the whole state of the battery in one call
+     * 
+     * @return snapshot of the battery
+     * @throws Exception
+     */
+    public BatterySnapshot getSnapshot() throws Exception;
 }
@@ -0,0 +1,20 @@
+package interfaces;
+
+import controller.DeviceDescriptor;
+import controller.Registration;
+import fr.sorbonne_u.components.interfaces.OfferedI;
+
+/**
+ * The interface <code>ControllerI</code> defines the interface offered by
+ * the controller to the devices that register with it.
+ */
+public interface ControllerI extends OfferedI {
+    /**
+     * Register a device with the controller
+     * 
+     * @param descriptor descriptor of the device
+     * @return identifier of the device and port for its notifications
+     * @throws Exception
+     */
+    public Registration register(DeviceDescriptor descriptor) throws Exception;
+}
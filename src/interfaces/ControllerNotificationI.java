@@ -0,0 +1,22 @@
+package interfaces;
+
+import java.io.Serializable;
+
+import fr.sorbonne_u.components.interfaces.OfferedI;
+
+/**
+ * The interface <code>ControllerNotificationI</code> defines the interface
+ * offered by the controller to receive the changes of state of the devices.
+ */
+public interface ControllerNotificationI extends OfferedI {
+    /**
+     * Notify the controller of the new state of a device
+     * 
+     * @param deviceId identifier given to the device at its registration
+     * @param version version of the state of the device, as given by its
+     * <code>StateCell</code>
+     * @param snapshot new state of the device
+     * @throws Exception
+     */
+    public void notifyChange(int deviceId, int version, Serializable snapshot) throws Exception;
+}
@@ -0,0 +1,22 @@
+package interfaces;
+
+import java.io.Serializable;
+
+import fr.sorbonne_u.components.interfaces.RequiredI;
+
+/**
+ * The interface <code>ControllerNotifierI</code> defines the interface
+ * required by a device that notifies the controller of its changes of state.
+ */
+public interface ControllerNotifierI extends RequiredI {
+    /**
+     * Notify the controller of the new state of a device
+     * 
+     * @param deviceId identifier given to the device at its registration
+     * @param version version of the state of the device, as given by its
+     * <code>StateCell</code>
+     * @param snapshot new state of the device
+     * @throws Exception
+     */
+    public void notifyChange(int deviceId, int version, Serializable snapshot) throws Exception;
+}
@@ -0,0 +1,20 @@
+package interfaces;
+
+import controller.DeviceDescriptor;
+import controller.Registration;
+import fr.sorbonne_u.components.interfaces.RequiredI;
+
+/**
+ * The interface <code>ControllerRegistrationI</code> defines the interface
+ * required by a device that needs to register with the controller.
+ */
+public interface ControllerRegistrationI extends RequiredI {
+    /**
+     * Register a device with the controller
+     * 
+     * @param descriptor descriptor of the device
+     * @return identifier of the device and port for its notifications
+     * @throws Exception
+     */
+    public Registration register(DeviceDescriptor descriptor) throws Exception;
+}
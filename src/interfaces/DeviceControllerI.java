@@ -0,0 +1,31 @@
+package interfaces;
+
+import java.io.Serializable;
+
+import controller.DeviceCommand;
+import fr.sorbonne_u.components.interfaces.RequiredI;
+
+/**
+ * The interface <code>DeviceControllerI</code> defines the interface required
+ * by a component driving devices of any type.
+ *
+ * @param <S> type of the snapshot of the device
+ */
+public interface DeviceControllerI<S extends Serializable> extends RequiredI {
+    /**
+     * Return the whole state of the device in one call
+     * 
+     * @return snapshot of the device
+     * @throws Exception
+     */
+    public S getSnapshot() throws Exception;
+    /**
+     * Apply a batch of commands in their order, then return the new state
+     * of the device
+     * 
+     * @param commands commands to apply
+     * @return snapshot of the device after the commands
+     * @throws Exception
+     */
+    public S applyCommands(DeviceCommand[] commands) throws Exception;
+}
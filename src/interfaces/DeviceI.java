@@ -0,0 +1,32 @@
+package interfaces;
+
+import java.io.Serializable;
+
+import controller.DeviceCommand;
+import fr.sorbonne_u.components.interfaces.OfferedI;
+
+/**
+ * The interface <code>DeviceI</code> defines the interface offered by every
+ * device component: its whole state in one call, and a batch of commands in
+ * one call.
+ *
+ * @param <S> type of the snapshot of the device
+ */
+public interface DeviceI<S extends Serializable> extends OfferedI {
+    /**
+     * Return the whole state of the device in one call
+     * 
+     * @return snapshot of the device
+     * @throws Exception
+     */
+    public S getSnapshot() throws Exception;
+    /**
+     * Apply a batch of commands in their order, then return the new state
+     * of the device
+     * 
+     * @param commands commands to apply
+     * @return snapshot of the device after the commands
+     * @throws Exception
+     */
+    public S applyCommands(DeviceCommand[] commands) throws Exception;
+}
@@ -1,13 +1,13 @@
 package interfaces;
 
+import components.Dishwasher.DishwasherSnapshot;
 import components.Dishwasher.DWMode;
-import fr.sorbonne_u.components.interfaces.RequiredI;
 
 /**
  * The interface <code>DishwasherControllerI</code> defines the interface required by a
  * component that needs to get information from a dishwasher component.
  */
-public interface DishwasherControllerI extends RequiredI{
+public interface DishwasherControllerI extends DeviceControllerI<DishwasherSnapshot> {
 	/**
 	 * get isOn value
 	 * 
@@ -49,4 +49,11 @@ public interface DishwasherControllerI extends RequiredI{
      * @throws Exception
      */
     public boolean isOnBreak() throws Exception;
-}
\ No newline at end of file
+    /**
+     * Return the whole state of the dishwasher in one call
+     * 
+     * @return snapshot of the dishwasher
+     * @throws Exception
+     */
+    public DishwasherSnapshot getSnapshot() throws Exception;
+}
@@ -1,13 +1,13 @@
 package interfaces;
 
+import components.Dishwasher.DishwasherSnapshot;
 import components.Dishwasher.DWMode;
-import fr.sorbonne_u.components.interfaces.OfferedI;
 
 /**
  * The interface <code>DishwasherControllerI</code> defines the interface offered by a
  * component that needs to get information from a dishwasher component.
  */
-public interface DishwasherI extends OfferedI{
+public interface DishwasherI extends DeviceI<DishwasherSnapshot> {
 	/**
 	 * get isOn value
 	 * 
@@ -49,4 +49,11 @@ public interface DishwasherI extends OfferedI{
      * @throws Exception
      */
     public boolean isOnBreak() throws Exception;
-}
\ No newline at end of file
+    /**
+     * Return the whole state of the dishwasher in one call
+     * 
+     * @return snapshot of the dishwasher
+     * @throws Exception
+     */
+    public DishwasherSnapshot getSnapshot() throws Exception;
+}
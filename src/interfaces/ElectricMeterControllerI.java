@@ -1,12 +1,12 @@
 package interfaces;
 
-import fr.sorbonne_u.components.interfaces.RequiredI;
+import components.ElectricMeter.ElectricMeterSnapshot;
 
 /**
  * The interface <code>ElectricMeterControllerI</code> defines the interface required by a
  * component that needs to get information from a electric meter component.
  */
-public interface ElectricMeterControllerI extends RequiredI{
+public interface ElectricMeterControllerI extends DeviceControllerI<ElectricMeterSnapshot> {
 	/**
 	 * get available energy
 	 * @return available energy
@@ -27,4 +27,11 @@ public interface ElectricMeterControllerI extends RequiredI{
      * @throws Exception
      */
     public double getConsumption() throws Exception;
+    /**
+     * Return the whole state of the electric meter in one call
+     * 
+     * @return snapshot of the electric meter
+     * @throws Exception
+     */
+    public ElectricMeterSnapshot getSnapshot() throws Exception;
 }
@@ -1,12 +1,12 @@
 package interfaces;
 
-import fr.sorbonne_u.components.interfaces.OfferedI;
+import components.ElectricMeter.ElectricMeterSnapshot;
 
 /**
  * The interface <code>ElectricMeterControllerI</code> defines the interface offered by a
  * component that needs to get information from a electric meter component.
  */
-public interface ElectricMeterI extends OfferedI{
+public interface ElectricMeterI extends DeviceI<ElectricMeterSnapshot> {
 	/**
 	 * get available energy
 	 * @return available energy
@@ -27,4 +27,11 @@ public interface ElectricMeterI extends OfferedI{
      * @throws Exception
      */
     public double getConsumption() throws Exception;
+    /**
+     * Return the whole state of the electric meter in one call
+     * 
+     * @return snapshot of the electric meter
+     * @throws Exception
+     */
+    public ElectricMeterSnapshot getSnapshot() throws Exception;
 }
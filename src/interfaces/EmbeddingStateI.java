@@ -0,0 +1,56 @@
+package interfaces;
+
+import components.StateCell;
+
+/**
+ * The interface <code>EmbeddingStateI</code> gives the simulation models a
+ * typed access to the state of their embedding component.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * <code>EmbeddingComponentAccessI</code> names each variable with a string
+ * and returns it as an <code>Object</code>, so every transition of a model
+ * compares strings and boxes its booleans. Here a variable is named by an
+ * integer key declared as a constant by the component, e.g.
+ * <code>Fridge.FRIDGE_STATE</code>, and the booleans are read and written
+ * as primitives. A key of the wrong kind, or unknown to the component,
+ * throws an <code>IllegalArgumentException</code>. The variables are held
+ * by a <code>StateCell</code>, from which a model reads several of them at
+ * the same version.
+ */
+public interface EmbeddingStateI {
+    /**
+     * Return the value of an enumerated variable of the state
+     *
+     * @param key key of the variable
+     * @return value of the variable
+     */
+    public Enum<?> getEnumState(int key);
+    /**
+     * Set the value of an enumerated variable of the state
+     *
+     * @param key key of the variable
+     * @param value new value of the variable
+     */
+    public void setEnumState(int key, Enum<?> value);
+    /**
+     * Return the value of a boolean variable of the state
+     *
+     * @param key key of the variable
+     * @return value of the variable
+     */
+    public boolean getBooleanState(int key);
+    /**
+     * Set the value of a boolean variable of the state
+     *
+     * @param key key of the variable
+     * @param value new value of the variable
+     */
+    public void setBooleanState(int key, boolean value);
+    /**
+     * Return the cell holding the state, whose keys are those of the getters
+     *
+     * @return cell of the state
+     */
+    public StateCell getStateCell();
+}
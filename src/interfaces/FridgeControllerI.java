@@ -1,12 +1,12 @@
 package interfaces;
 
-import fr.sorbonne_u.components.interfaces.RequiredI;
+import components.Fridge.FridgeSnapshot;
 
 /**
  * The interface <code>FridgeControllerI</code> defines the interface required by a
  * component that needs to get information from a fridge component.
  */
-public interface FridgeControllerI extends RequiredI {
+public interface FridgeControllerI extends DeviceControllerI<FridgeSnapshot> {
 	/**
      * Set the  fridge on break or not on break
 	 * @throws Exception
@@ -43,4 +43,11 @@ public interface FridgeControllerI extends RequiredI {
      * @throws Exception
      */
     public boolean isFreezerOn() throws Exception ;
+    /**
+     * Return the whole state of the fridge in one call
+     * 
+     * @return snapshot of the fridge
+     * @throws Exception
+     */
+    public FridgeSnapshot getSnapshot() throws Exception;
 }
@@ -1,13 +1,13 @@
 package interfaces;
 
+import components.Lamp.LampSnapshot;
 import components.Lamp.LampState;
-import fr.sorbonne_u.components.interfaces.RequiredI;
 
 /**
  * The interface <code>LampControllerI</code> defines the interface required by a
  * component that needs to get information from a lamp component.
  */
-public interface LampControllerI extends RequiredI {
+public interface LampControllerI extends DeviceControllerI<LampSnapshot> {
 	/**
 	 * get current lamp state
 	 * @return lamp state
@@ -25,4 +25,11 @@ public interface LampControllerI extends RequiredI {
      * @return isOnBreak
      */
     public boolean isOnBreak() throws Exception;
+    /**
+     * Return the whole state of the lamp in one call
+     * 
+     * @return snapshot of the lamp
+     * @throws Exception
+     */
+    public LampSnapshot getSnapshot() throws Exception;
 }
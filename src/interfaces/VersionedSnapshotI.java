@@ -0,0 +1,15 @@
+package interfaces;
+
+/**
+ * The interface <code>VersionedSnapshotI</code> is implemented by the
+ * snapshots of the devices that notify their changes of state: a snapshot
+ * carries the version of the state it was read at, so that the controller
+ * can tell the newer of two snapshots of the same device.
+ */
+public interface VersionedSnapshotI {
+    /**
+     * @return version of the state in the snapshot, see
+     * <code>StateCell.version</code>
+     */
+    public int getVersion();
+}
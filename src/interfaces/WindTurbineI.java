@@ -1,12 +1,12 @@
 package interfaces;
 
-import fr.sorbonne_u.components.interfaces.OfferedI;
+import components.WindTurbine.WindTurbineSnapshot;
 
 /**
  * The interface <code>WindTurbineControllerI</code> defines the interface offered by a
  * component that needs to get information from a wind turbine component.
  */
-public interface WindTurbineI extends OfferedI{
+public interface WindTurbineI extends DeviceI<WindTurbineSnapshot> {
 	/**
 	 * get wind turbine state
 	 * 
@@ -32,4 +32,11 @@ public interface WindTurbineI extends OfferedI{
      * @throws Exception
      */
     public double getWindSpeed() throws Exception;
+    /**
+     * Return the whole state of the wind turbine in one call
+     * 
+     * @return snapshot of the wind turbine
+     * @throws Exception
+     */
+    public WindTurbineSnapshot getSnapshot() throws Exception;
 }
@@ -11,6 +11,8 @@ import components.Fridge;
 import components.Lamp;
 import components.Supervisor;
 import components.WindTurbine;
+import controller.DeviceDescriptor;
+import controller.ThreadMode;
 import fr.sorbonne_u.components.AbstractComponent;
 import fr.sorbonne_u.components.cvm.AbstractCVM;
 import fr.sorbonne_u.devs_simulation.simulators.SimulationEngine;
@@ -30,6 +32,10 @@ import simulation.sil.windturbine.models.WindTurbineCoupledModel;
  *
  * <p><strong>Description</strong></p>
  * 
+ * The optional argument chooses the threads of the controller,
+ * <code>platform</code> or <code>virtual</code>, as
+ * <code>-Dziodyne.threadMode</code> does.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -64,60 +70,65 @@ public class CVM extends AbstractCVM{
         String controllerComponent = AbstractComponent.createComponent(Controller.class.getCanonicalName(),
                 new Object[] {
                         URI.COMPONENT_CONTROLLER,
-                        URI.LAMP_CONTROLLER_OUTBOUND_PORT,
-                        URI.LAMP_INBOUND_PORT,
-                        URI.FRIDGE_CONTROLLER_OUTBOUND_PORT,
-                        URI.FRIDGE_INBOUND_PORT,
-                        URI.WINDTURBINE_CONTROLLER_OUTBOUND_PORT,
-                        URI.WINDTURBINE_INBOUND_PORT,
-                        URI.DISHWASHER_CONTROLLER_OUTBOUND_PORT,
-                        URI.DISHWASHER_INBOUND_PORT,
-                        URI.ELECTRICMETER_CONTROLLER_OUTBOUND_PORT,
-                        URI.ELECTRICMETER_INBOUND_PORT,
-                        URI.BATTERY_CONTROLLER_OUTBOUND_PORT,
-                        URI.BATTERY_INBOUND_PORT});
+                        URI.CONTROLLER_INBOUND_PORT});
         hm.put(ControllerModel.URI, controllerComponent);
 
         // Create the lamp
         String lampComponent = AbstractComponent.createComponent(Lamp.class.getCanonicalName(),
                 new Object[] {
                         URI.COMPONENT_LAMP,
-                        URI.LAMP_INBOUND_PORT});
+                        URI.LAMP_INBOUND_PORT,
+                        URI.CONTROLLER_INBOUND_PORT,
+                        URI.HOUSEHOLD,
+                        DeviceDescriptor.DEFAULT_PRIORITY});
         hm.put(LampCoupledModel.URI, lampComponent);
 
         // Create the fridge
         String fridgeComponent = AbstractComponent.createComponent(Fridge.class.getCanonicalName(),
                 new Object[] {
                         URI.COMPONENT_FRIDGE,
-                        URI.FRIDGE_INBOUND_PORT});
+                        URI.FRIDGE_INBOUND_PORT,
+                        URI.CONTROLLER_INBOUND_PORT,
+                        URI.HOUSEHOLD,
+                        DeviceDescriptor.DEFAULT_PRIORITY});
         hm.put(FridgeCoupledModel.URI, fridgeComponent);
 
         // Create the wind turbine
         String WTComponent = AbstractComponent.createComponent(WindTurbine.class.getCanonicalName(),
                 new Object[] {
                         URI.COMPONENT_WINDTURBINE,
-                        URI.WINDTURBINE_INBOUND_PORT});
+                        URI.WINDTURBINE_INBOUND_PORT,
+                        URI.CONTROLLER_INBOUND_PORT,
+                        URI.HOUSEHOLD});
         hm.put(WindTurbineCoupledModel.URI, WTComponent);
 
         // Create the dishwasher
         String DWComponent = AbstractComponent.createComponent(Dishwasher.class.getCanonicalName(),
                 new Object[] {
                         URI.COMPONENT_DISHWASHER,
-                        URI.DISHWASHER_INBOUND_PORT});
+                        URI.DISHWASHER_INBOUND_PORT,
+                        URI.CONTROLLER_INBOUND_PORT,
+                        URI.HOUSEHOLD,
+                        DeviceDescriptor.DEFAULT_PRIORITY});
         hm.put(DishwasherCoupledModel.URI, DWComponent);
 
         // Create the electric meter
         String EMComponent = AbstractComponent.createComponent(ElectricMeter.class.getCanonicalName(),
                 new Object[] {
                         URI.COMPONENT_ELECTRICMETER,
-                        URI.ELECTRICMETER_INBOUND_PORT});
+                        URI.ELECTRICMETER_INBOUND_PORT,
+                        URI.CONTROLLER_INBOUND_PORT,
+                        URI.HOUSEHOLD});
         hm.put(ElectricMeterModel.URI, EMComponent);
 
         //Create the battery
         String batteryComponent = AbstractComponent.createComponent(Battery.class.getCanonicalName(),
                 new Object[] {
                         URI.COMPONENT_BATTERY,
-                        URI.BATTERY_INBOUND_PORT});
+                        URI.BATTERY_INBOUND_PORT,
+                        URI.CONTROLLER_INBOUND_PORT,
+                        URI.HOUSEHOLD,
+                        DeviceDescriptor.DEFAULT_PRIORITY});
         hm.put(BatteryModel.URI, batteryComponent);
 
         //Create the coordinator
@@ -135,6 +146,9 @@ public class CVM extends AbstractCVM{
 
     public static void main(String[] args) throws Exception{
         try {
+            if(args.length > 0) {
+                ThreadMode.set(args[0]) ;
+            }
             CVM c = new CVM() ;
             c.startStandardLifeCycle(75000L) ;
             Thread.sleep(10000L) ;
@@ -7,6 +7,8 @@ import components.ElectricMeter;
 import components.Fridge;
 import components.Lamp;
 import components.WindTurbine;
+import controller.DeviceDescriptor;
+import controller.ThreadMode;
 import fr.sorbonne_u.components.AbstractComponent;
 import fr.sorbonne_u.components.cvm.AbstractDistributedCVM;
 
@@ -14,6 +16,24 @@ import fr.sorbonne_u.components.cvm.AbstractDistributedCVM;
 /**
  * The class <code>DistributedCVM</code> implements the multi-JVM assembly for
  * the Ziondyne project.
+ * 
+ * <p><strong>Description</strong></p>
+ * 
+ * By default the controller, the electric meter and the other devices each
+ * have their own JVM. Any component can be moved to another JVM of
+ * <code>config.xml</code> with a system property, for instance
+ * <code>-Dziodyne.placement.fridge-uri=controller</code> to run the fridge
+ * in the JVM of the controller. The connections are not changed, so the
+ * calls still go through the executor of the device, which keeps its
+ * threading guarantees; whether BCM then calls a port of the same JVM
+ * without RMI is up to BCM. Started with
+ * <code>-Dziodyne.instrumentation=true</code>, the JVM of the controller
+ * prints at exit the latency of the calls to each device for the chosen
+ * placement, which tells a local fridge from a remote one. An optional third argument, after the URI of the JVM
+ * and the deployment file, chooses the threads of the controller,
+ * <code>platform</code> or <code>virtual</code>, as
+ * <code>-Dziodyne.threadMode</code> does.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -21,6 +41,8 @@ import fr.sorbonne_u.components.cvm.AbstractDistributedCVM;
  * </pre>
  */
 public class DistributedCVM extends AbstractDistributedCVM{
+    /** prefix of the system properties placing a component in a JVM */
+    public static final String PLACEMENT_PROPERTY = "ziodyne.placement.";
 
     public DistributedCVM(String[] args,int xLayout, int yLayout) throws Exception {
         super(args,xLayout,yLayout);
@@ -44,6 +66,9 @@ public class DistributedCVM extends AbstractDistributedCVM{
     public static void	main(String[] args)
     {
         try {
+            if(args.length > 2) {
+                ThreadMode.set(args[2]) ;
+            }
             DistributedCVM da  = new DistributedCVM(args, 2, 5) ;
             da.startStandardLifeCycle(6000L) ;
             Thread.sleep(10000L) ;
@@ -65,86 +90,143 @@ public class DistributedCVM extends AbstractDistributedCVM{
 	 */
     @Override
     public void instantiateAndPublish() throws Exception{
-        if(thisJVMURI.equals(URI.JVM_CONTROLLER)) {
+        if(!this.isPlacedHere(URI.COMPONENT_CONTROLLER)
+                && !this.isPlacedHere(URI.COMPONENT_ELECTRICMETER)
+                && !this.isPlacedHere(URI.COMPONENT_LAMP)
+                && !this.isPlacedHere(URI.COMPONENT_FRIDGE)
+                && !this.isPlacedHere(URI.COMPONENT_WINDTURBINE)
+                && !this.isPlacedHere(URI.COMPONENT_DISHWASHER)
+                && !this.isPlacedHere(URI.COMPONENT_BATTERY)) {
+            System.out.println("Unknown JVM URI... " + thisJVMURI) ;
+        }
+        if(this.isPlacedHere(URI.COMPONENT_CONTROLLER)) {
             // Create the controller
             AbstractComponent.createComponent(Controller.class.getCanonicalName(),
                     new Object[] {
                             URI.COMPONENT_CONTROLLER,
-                            URI.LAMP_CONTROLLER_OUTBOUND_PORT,
-                            URI.LAMP_INBOUND_PORT,
-                            URI.FRIDGE_CONTROLLER_OUTBOUND_PORT,
-                            URI.FRIDGE_INBOUND_PORT,
-                            URI.WINDTURBINE_CONTROLLER_OUTBOUND_PORT,
-                            URI.WINDTURBINE_INBOUND_PORT,
-                            URI.DISHWASHER_CONTROLLER_OUTBOUND_PORT,
-                            URI.DISHWASHER_INBOUND_PORT,
-                            URI.ELECTRICMETER_CONTROLLER_OUTBOUND_PORT,
-                            URI.ELECTRICMETER_INBOUND_PORT,
-                            URI.BATTERY_CONTROLLER_OUTBOUND_PORT,
-                            URI.BATTERY_INBOUND_PORT});
+                            URI.CONTROLLER_INBOUND_PORT});
 
             assert this.isDeployedComponent(URI.COMPONENT_CONTROLLER);
             this.toggleLogging(URI.COMPONENT_CONTROLLER);
             this.toggleTracing(URI.COMPONENT_CONTROLLER);
-
         }
-        else if (thisJVMURI.equals(URI.JVM_ELECTRICMETER)) {
+        if(this.isPlacedHere(URI.COMPONENT_ELECTRICMETER)) {
             AbstractComponent.createComponent(ElectricMeter.class.getCanonicalName(),
                     new Object[] {
                             URI.COMPONENT_ELECTRICMETER,
-                            URI.ELECTRICMETER_INBOUND_PORT});
+                            URI.ELECTRICMETER_INBOUND_PORT,
+                            URI.CONTROLLER_INBOUND_PORT,
+                            URI.HOUSEHOLD});
 
             assert this.isDeployedComponent(URI.COMPONENT_ELECTRICMETER);
             this.toggleLogging(URI.COMPONENT_ELECTRICMETER);
             this.toggleTracing(URI.COMPONENT_ELECTRICMETER);
         }
-        else if (thisJVMURI.equals(URI.JVM_COMPONENTS)) {
+        if(this.isPlacedHere(URI.COMPONENT_LAMP)) {
             AbstractComponent.createComponent(Lamp.class.getCanonicalName(),
                     new Object[] {
                             URI.COMPONENT_LAMP,
-                            URI.LAMP_INBOUND_PORT});
+                            URI.LAMP_INBOUND_PORT,
+                            URI.CONTROLLER_INBOUND_PORT,
+                            URI.HOUSEHOLD,
+                            DeviceDescriptor.DEFAULT_PRIORITY});
             assert this.isDeployedComponent(URI.COMPONENT_LAMP);
             this.toggleLogging(URI.COMPONENT_LAMP);
             this.toggleTracing(URI.COMPONENT_LAMP);
-
+        }
+        if(this.isPlacedHere(URI.COMPONENT_FRIDGE)) {
             AbstractComponent.createComponent(Fridge.class.getCanonicalName(),
                     new Object[] {
                             URI.COMPONENT_FRIDGE,
-                            URI.FRIDGE_INBOUND_PORT});
+                            URI.FRIDGE_INBOUND_PORT,
+                            URI.CONTROLLER_INBOUND_PORT,
+                            URI.HOUSEHOLD,
+                            DeviceDescriptor.DEFAULT_PRIORITY});
             assert this.isDeployedComponent(URI.COMPONENT_FRIDGE);
             this.toggleLogging(URI.COMPONENT_FRIDGE);
             this.toggleTracing(URI.COMPONENT_FRIDGE);
-
+        }
+        if(this.isPlacedHere(URI.COMPONENT_WINDTURBINE)) {
             AbstractComponent.createComponent(WindTurbine.class.getCanonicalName(),
                     new Object[] {
                             URI.COMPONENT_WINDTURBINE,
-                            URI.WINDTURBINE_INBOUND_PORT});
+                            URI.WINDTURBINE_INBOUND_PORT,
+                            URI.CONTROLLER_INBOUND_PORT,
+                            URI.HOUSEHOLD});
             assert this.isDeployedComponent(URI.COMPONENT_WINDTURBINE);
             this.toggleLogging(URI.COMPONENT_WINDTURBINE);
             this.toggleTracing(URI.COMPONENT_WINDTURBINE);
-
+        }
+        if(this.isPlacedHere(URI.COMPONENT_DISHWASHER)) {
             AbstractComponent.createComponent(Dishwasher.class.getCanonicalName(),
                     new Object[] {
                             URI.COMPONENT_DISHWASHER,
-                            URI.DISHWASHER_INBOUND_PORT});
+                            URI.DISHWASHER_INBOUND_PORT,
+                            URI.CONTROLLER_INBOUND_PORT,
+                            URI.HOUSEHOLD,
+                            DeviceDescriptor.DEFAULT_PRIORITY});
             assert this.isDeployedComponent(URI.COMPONENT_DISHWASHER);
             this.toggleLogging(URI.COMPONENT_DISHWASHER);
             this.toggleTracing(URI.COMPONENT_DISHWASHER);
-
+        }
+        if(this.isPlacedHere(URI.COMPONENT_BATTERY)) {
             AbstractComponent.createComponent(Battery.class.getCanonicalName(),
                     new Object[] {
                             URI.COMPONENT_BATTERY,
-                            URI.BATTERY_INBOUND_PORT});
+                            URI.BATTERY_INBOUND_PORT,
+                            URI.CONTROLLER_INBOUND_PORT,
+                            URI.HOUSEHOLD,
+                            DeviceDescriptor.DEFAULT_PRIORITY});
             assert this.isDeployedComponent(URI.COMPONENT_BATTERY);
             this.toggleLogging(URI.COMPONENT_BATTERY);
             this.toggleTracing(URI.COMPONENT_BATTERY);
         }
-        else {
-            System.out.println("Unknown JVM URI... " + thisJVMURI) ;
-        }
         super.instantiateAndPublish();
     }
-    
+
+    /**
+     * Return the JVM in which a component is created. It is the JVM given by
+     * the system property <code>ziodyne.placement.</code> followed by the URI
+     * of the component, if it is set, else the JVM of the default assembly.
+     * 
+     * @param componentURI URI of the component
+     * @return URI of the JVM of the component
+     */
+    public static String placementOf(String componentURI) {
+        String jvm = System.getProperty(PLACEMENT_PROPERTY + componentURI);
+        if(jvm != null) {
+            return jvm;
+        }
+        switch(componentURI) {
+        case URI.COMPONENT_CONTROLLER:
+            return URI.JVM_CONTROLLER;
+        case URI.COMPONENT_ELECTRICMETER:
+            return URI.JVM_ELECTRICMETER;
+        default:
+            return URI.JVM_COMPONENTS;
+        }
+    }
+
+    /**
+     * Return true if a component is created in this JVM, and say whether it
+     * shares it with the controller.
+     * 
+     * @param componentURI URI of the component
+     * @return true if the component is created in this JVM
+     */
+    protected boolean isPlacedHere(String componentURI) {
+        if(!placementOf(componentURI).equals(thisJVMURI)) {
+            return false;
+        }
+        if(!componentURI.equals(URI.COMPONENT_CONTROLLER)) {
+            System.out.println(componentURI + " in " + thisJVMURI
+                    + (placementOf(URI.COMPONENT_CONTROLLER).equals(thisJVMURI)
+                            ? ", co-located with the controller"
+                            : ", remote from the controller"));
+        }
+        return true;
+    }
+
     /**
 	 * interconnect the components.
 	 * 
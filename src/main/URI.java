@@ -16,6 +16,9 @@ public class URI {
     public static final String COMPONENT_ELECTRICMETER = "electricmeter-uri";
     public static final String COMPONENT_BATTERY = "battery-uri" ;
 
+    //households
+    public static final String HOUSEHOLD = "household-uri";
+
     //jvm
     public static final String JVM_CONTROLLER = "controller";
     public static final String JVM_ELECTRICMETER = "electricmeter";
@@ -23,22 +26,18 @@ public class URI {
 
     //ports uri
 
-    public static final String LAMP_CONTROLLER_OUTBOUND_PORT = "port-lamp-controller-out-uri";
+    public static final String CONTROLLER_INBOUND_PORT = "port-controller-in-uri";
+
     public static final String LAMP_INBOUND_PORT = "port-lamp-in-uri";
 
-    public static final String FRIDGE_CONTROLLER_OUTBOUND_PORT = "port-fridge-controller-out-uri";
     public static final String FRIDGE_INBOUND_PORT = "port-fridge-in-uri";
 
-    public static final String DISHWASHER_CONTROLLER_OUTBOUND_PORT = "port-dishwasher-controller-out-uri";
     public static final String DISHWASHER_INBOUND_PORT = "port-dishwasher-in-uri";
 
-    public static final String WINDTURBINE_CONTROLLER_OUTBOUND_PORT = "port-windturbine-controller-out-uri";
     public static final String WINDTURBINE_INBOUND_PORT = "port-windturbine-in-uri";
 
-    public static final String ELECTRICMETER_CONTROLLER_OUTBOUND_PORT = "port-electricmeter-controller-out-uri";
     public static final String ELECTRICMETER_INBOUND_PORT = "port-electricmeter-in-uri";
 
-    public static final Object BATTERY_CONTROLLER_OUTBOUND_PORT = "port-battery-controller-out-uri" ;
     public static final String BATTERY_INBOUND_PORT = "port-battery-in-uri" ;
 
 }
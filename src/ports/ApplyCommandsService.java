@@ -0,0 +1,46 @@
+package ports;
+
+import java.io.Serializable;
+
+import controller.DeviceCommand;
+import fr.sorbonne_u.components.AbstractComponent;
+import interfaces.DeviceI;
+
+/**
+ * The class <code>ApplyCommandsService</code> implements the service running
+ * a batch of commands on a device component.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * The service holds its batch, so the inbound ports of the devices create
+ * one service for each call instead of sharing it between callers; the
+ * ports keep no state for <code>applyCommands</code>.
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		true
+ * </pre>
+ *
+ * @param <S> type of the snapshot of the device
+ */
+public class ApplyCommandsService<S extends Serializable> extends AbstractComponent.AbstractService<S> {
+    /** batch of commands to apply */
+    protected final DeviceCommand[] commands;
+
+    /**
+     * Create the service applying a batch of commands
+     *
+     * @param commands commands to apply
+     */
+    public ApplyCommandsService(DeviceCommand[] commands) {
+        assert commands != null;
+        this.commands = commands;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public S call() throws Exception {
+        return ((DeviceI<S>)this.getServiceOwner()).applyCommands(this.commands);
+    }
+}
@@ -1,7 +1,11 @@
 package ports;
 
+import components.Battery.BatterySnapshot;
 import components.Battery.BState;
 import components.Controller;
+import connectors.CachingConnectorI;
+import connectors.ReadCache;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractOutboundPort;
 import interfaces.BatteryControllerI;
@@ -79,4 +83,30 @@ public class BatteryControllerOutboundPort extends AbstractOutboundPort implemen
     public BState getMode() throws Exception {
         return ((BatteryControllerI)this.connector).getMode();
     }
+
+    /**
+     * @see interfaces.BatteryControllerI#getSnapshot()
+     */
+    @Override
+    public BatterySnapshot getSnapshot() throws Exception{
+        return ((BatteryControllerI)this.connector).getSnapshot();
+    }
+
+    /**
+     * @see interfaces.BatteryControllerI#applyCommands(DeviceCommand[])
+     */
+    @Override
+    public BatterySnapshot applyCommands(DeviceCommand[] commands) throws Exception{
+        return ((BatteryControllerI)this.connector).applyCommands(commands);
+    }
+
+    /**
+     * Return the cache of the connector of the port
+     * 
+     * @return cache of the connector, or null if the connector does not cache
+     */
+    public ReadCache getCache() {
+        return this.connector instanceof CachingConnectorI ?
+                ((CachingConnectorI)this.connector).getCache() : null;
+    }
 }
@@ -1,7 +1,9 @@
 package ports;
 
 import components.Battery;
+import components.Battery.BatterySnapshot;
 import components.Battery.BState;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.AbstractComponent;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractInboundPort;
@@ -14,6 +16,18 @@ import interfaces.BatteryI;
  *
  * <p><strong>Description</strong></p>
  * 
+ * <code>getMode</code> only reads the mode, held in the
+ * <code>StateCell</code> of the battery with one volatile read of its word,
+ * so it is answered on the thread of the caller without a request to the
+ * component. The capacities and the snapshot are read from the
+ * model of the battery and run on the read executor of the battery, if the
+ * deployment gives it one, else by the component. The other calls are run
+ * by the component, with service objects created once with the port and
+ * reused by every call.
+ * <code>applyCommands</code> is run by the component with an
+ * <code>ApplyCommandsService</code> created for the call, which holds the
+ * batch as a plain final field.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -23,6 +37,9 @@ import interfaces.BatteryI;
 public class BatteryInboundPort extends AbstractInboundPort implements BatteryI {
 
     private static final long serialVersionUID = 1L;
+
+    /** services setting each mode of the battery, by ordinal of the mode */
+    private final AbstractComponent.AbstractService<Void>[] setModeServices = this.createSetModeServices();
     
     /**
 	 * create the port with the given URI and the given battery.
@@ -54,7 +71,7 @@ public class BatteryInboundPort extends AbstractInboundPort implements BatteryI
      */
     @Override
     public double getMaxCapacity() throws Exception {
-        return this.getOwner().handleRequestSync(
+        return this.read(
                 owner -> ((Battery)owner).getMaxCapacity());
     }
     
@@ -63,7 +80,7 @@ public class BatteryInboundPort extends AbstractInboundPort implements BatteryI
      */
     @Override
     public double getCurrentCapacity() throws Exception {
-        return this.getOwner().handleRequestSync(
+        return this.read(
                 owner -> ((Battery)owner).getCurrentCapacity());
     }
     
@@ -72,14 +89,7 @@ public class BatteryInboundPort extends AbstractInboundPort implements BatteryI
      */
     @Override
     public void setMode(BState mode) throws Exception {
-        this.getOwner().handleRequestSync(
-                new AbstractComponent.AbstractService<Void>() {
-                    @Override
-                    public Void call() throws Exception {
-                        ((Battery)this.getServiceOwner()).setMode(mode);
-                        return null;
-                    }
-                }) ;
+        this.getOwner().handleRequestSync(this.setModeServices[mode.ordinal()]);
     }
     
     /**
@@ -87,7 +97,58 @@ public class BatteryInboundPort extends AbstractInboundPort implements BatteryI
      */
     @Override
     public BState getMode() throws Exception {
-        return this.getOwner().handleRequestSync(
-                owner -> ((Battery)owner).getMode());
+        return ((Battery)this.getOwner()).getMode();
+    }
+
+    /**
+     * @see interfaces.BatteryI#getSnapshot()
+     */
+    @Override
+    public BatterySnapshot getSnapshot() throws Exception {
+        return this.read(
+                owner -> ((Battery)owner).getSnapshot());
+    }
+
+
+    /**
+     * @see interfaces.BatteryI#applyCommands(DeviceCommand[])
+     */
+    @Override
+    public BatterySnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return this.getOwner().handleRequestSync(new ApplyCommandsService<BatterySnapshot>(commands));
+    }
+    /**
+     * Create the services setting each mode of the battery
+     * 
+     * @return services by ordinal of the mode
+     */
+    @SuppressWarnings("unchecked")
+    private AbstractComponent.AbstractService<Void>[] createSetModeServices() {
+        BState[] modes = BState.values();
+        AbstractComponent.AbstractService<Void>[] services = new AbstractComponent.AbstractService[modes.length];
+        for(BState mode : modes) {
+            services[mode.ordinal()] = new AbstractComponent.AbstractService<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    ((Battery)this.getServiceOwner()).setMode(mode);
+                    return null;
+                }
+            };
+        }
+        return services;
+    }
+
+    /**
+     * Run a read-only call on the read executor of the battery, or by the
+     * component if it has none
+     * 
+     * @param call call to run
+     * @return result of the call
+     * @throws Exception
+     */
+    protected <T> T read(ComponentI.FComponentService<T> call) throws Exception {
+        String uri = ((Battery)this.getOwner()).getReadExecutorURI();
+        return uri == null ? this.getOwner().handleRequestSync(call)
+                : this.getOwner().handleRequestSync(uri, call);
     }
 }
@@ -0,0 +1,60 @@
+package ports;
+
+import components.Controller;
+import controller.DeviceDescriptor;
+import controller.Registration;
+import fr.sorbonne_u.components.ComponentI;
+import fr.sorbonne_u.components.ports.AbstractInboundPort;
+import interfaces.ControllerI;
+
+/**
+ * The class <code>ControllerInboundPort</code> implements an inbound port for
+ * the <code>ControllerI</code> interface.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ */
+public class ControllerInboundPort extends AbstractInboundPort implements ControllerI{
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+	 * create the port with the given URI and the given controller.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	uri != null and controller != null
+	 * post	true			// no postcondition.
+	 * </pre>
+	 *
+	 * @param uri		URI of the port.
+	 * @param controller		owner of the port.
+	 * @throws Exception	<i>todo.</i>
+	 */
+    public ControllerInboundPort(String uri, ComponentI controller) throws Exception {
+        super(uri, ControllerI.class, controller);
+
+        assert uri != null && controller instanceof Controller;
+    }
+
+    public ControllerInboundPort(ComponentI controller) throws Exception {
+        super(ControllerI.class, controller);
+
+        assert controller instanceof Controller;
+    }
+
+    /**
+     * @see interfaces.ControllerI#register(DeviceDescriptor)
+     */
+    @Override
+    public Registration register(DeviceDescriptor descriptor) throws Exception {
+        return this.getOwner().handleRequestSync(
+                owner -> ((Controller)owner).register(descriptor));
+    }
+}
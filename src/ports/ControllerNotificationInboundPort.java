@@ -0,0 +1,70 @@
+package ports;
+
+import java.io.Serializable;
+
+import components.Controller;
+import fr.sorbonne_u.components.AbstractComponent;
+import fr.sorbonne_u.components.ComponentI;
+import fr.sorbonne_u.components.ports.AbstractInboundPort;
+import interfaces.ControllerNotificationI;
+
+/**
+ * The class <code>ControllerNotificationInboundPort</code> implements an inbound port for
+ * the <code>ControllerNotificationI</code> interface.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ */
+public class ControllerNotificationInboundPort extends AbstractInboundPort implements ControllerNotificationI{
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+	 * create the port with the given URI and the given controller.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	uri != null and controller != null
+	 * post	true			// no postcondition.
+	 * </pre>
+	 *
+	 * @param uri		URI of the port.
+	 * @param controller		owner of the port.
+	 * @throws Exception	<i>todo.</i>
+	 */
+    public ControllerNotificationInboundPort(String uri, ComponentI controller) throws Exception {
+        super(uri, ControllerNotificationI.class, controller);
+
+        assert uri != null && controller instanceof Controller;
+    }
+
+    public ControllerNotificationInboundPort(ComponentI controller) throws Exception {
+        super(ControllerNotificationI.class, controller);
+
+        assert controller instanceof Controller;
+    }
+
+    /**
+     * The notification is handled asynchronously, so that the device does
+     * not wait for the controller.
+     * 
+     * @see interfaces.ControllerNotificationI#notifyChange(int, int, Serializable)
+     */
+    @Override
+    public void notifyChange(int deviceId, int version, Serializable snapshot) throws Exception {
+        this.getOwner().handleRequestAsync(
+                new AbstractComponent.AbstractService<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        ((Controller)this.getServiceOwner()).notifyChange(deviceId, version, snapshot);
+                        return null;
+                    }
+                }) ;
+    }
+}
@@ -0,0 +1,58 @@
+package ports;
+
+import java.io.Serializable;
+
+import fr.sorbonne_u.components.ComponentI;
+import fr.sorbonne_u.components.ports.AbstractOutboundPort;
+import interfaces.ControllerNotifierI;
+
+/**
+ * The class <code>ControllerNotificationOutboundPort</code> implements an
+ * outbound port for the <code>ControllerNotifierI</code> interface.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ */
+public class ControllerNotificationOutboundPort extends AbstractOutboundPort implements ControllerNotifierI{
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+	 * create the port with the given URI and the given owner.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	uri != null and owner != null
+	 * post	true			// no postcondition.
+	 * </pre>
+	 *
+	 * @param uri		URI of the port.
+	 * @param owner		owner of the port.
+	 * @throws Exception	<i>todo.</i>
+	 */
+    public ControllerNotificationOutboundPort(String uri, ComponentI owner) throws Exception {
+        super(uri, ControllerNotifierI.class, owner);
+
+        assert uri != null && owner != null;
+    }
+
+    public ControllerNotificationOutboundPort(ComponentI owner) throws Exception {
+        super(ControllerNotifierI.class, owner);
+
+        assert owner != null;
+    }
+
+    /**
+     * @see interfaces.ControllerNotifierI#notifyChange(int, int, Serializable)
+     */
+    @Override
+    public void notifyChange(int deviceId, int version, Serializable snapshot) throws Exception {
+        ((ControllerNotifierI)this.connector).notifyChange(deviceId, version, snapshot);
+    }
+}
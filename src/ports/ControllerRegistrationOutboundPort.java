@@ -0,0 +1,58 @@
+package ports;
+
+import controller.DeviceDescriptor;
+import controller.Registration;
+import fr.sorbonne_u.components.ComponentI;
+import fr.sorbonne_u.components.ports.AbstractOutboundPort;
+import interfaces.ControllerRegistrationI;
+
+/**
+ * The class <code>ControllerRegistrationOutboundPort</code> implements an
+ * outbound port for the <code>ControllerRegistrationI</code> interface.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ */
+public class ControllerRegistrationOutboundPort extends AbstractOutboundPort implements ControllerRegistrationI{
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+	 * create the port with the given URI and the given owner.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	uri != null and owner != null
+	 * post	true			// no postcondition.
+	 * </pre>
+	 *
+	 * @param uri		URI of the port.
+	 * @param owner		owner of the port.
+	 * @throws Exception	<i>todo.</i>
+	 */
+    public ControllerRegistrationOutboundPort(String uri, ComponentI owner) throws Exception {
+        super(uri, ControllerRegistrationI.class, owner);
+
+        assert uri != null && owner != null;
+    }
+
+    public ControllerRegistrationOutboundPort(ComponentI owner) throws Exception {
+        super(ControllerRegistrationI.class, owner);
+
+        assert owner != null;
+    }
+
+    /**
+     * @see interfaces.ControllerRegistrationI#register(DeviceDescriptor)
+     */
+    @Override
+    public Registration register(DeviceDescriptor descriptor) throws Exception {
+        return ((ControllerRegistrationI)this.connector).register(descriptor);
+    }
+}
@@ -0,0 +1,68 @@
+package ports;
+
+import java.io.Serializable;
+
+import controller.DeviceCommand;
+import fr.sorbonne_u.components.ComponentI;
+import fr.sorbonne_u.components.ports.AbstractOutboundPort;
+import interfaces.DeviceControllerI;
+
+/**
+ * The class <code>DeviceOutboundPort</code> implements an outbound port for
+ * the <code>DeviceControllerI</code> interface, connected with a
+ * <code>DeviceConnector</code> to the inbound port of any device.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p><strong>Invariant</strong></p>
+ * 
+ * <pre>
+ * invariant		true
+ * </pre>
+ */
+public class DeviceOutboundPort extends AbstractOutboundPort implements DeviceControllerI<Serializable> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+	 * create the port with the given URI and the given owner.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	uri != null and owner != null
+	 * post	true			// no postcondition.
+	 * </pre>
+	 *
+	 * @param uri		URI of the port.
+	 * @param owner		owner of the port.
+	 * @throws Exception	<i>todo.</i>
+	 */
+    public DeviceOutboundPort(String uri, ComponentI owner) throws Exception {
+        super(uri, DeviceControllerI.class, owner);
+
+        assert uri != null && owner != null;
+    }
+
+    public DeviceOutboundPort(ComponentI owner) throws Exception {
+        super(DeviceControllerI.class, owner);
+
+        assert owner != null;
+    }
+
+    /**
+     * @see interfaces.DeviceControllerI#getSnapshot()
+     */
+    @Override
+    public Serializable getSnapshot() throws Exception {
+        return ((DeviceControllerI<?>)this.connector).getSnapshot();
+    }
+
+    /**
+     * @see interfaces.DeviceControllerI#applyCommands(DeviceCommand[])
+     */
+    @Override
+    public Serializable applyCommands(DeviceCommand[] commands) throws Exception {
+        return ((DeviceControllerI<?>)this.connector).applyCommands(commands);
+    }
+}
@@ -1,6 +1,10 @@
 package ports;
 
+import components.Dishwasher.DishwasherSnapshot;
 import components.Dishwasher.DWMode;
+import connectors.CachingConnectorI;
+import connectors.ReadCache;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractOutboundPort;
 import interfaces.DishwasherControllerI;
@@ -94,4 +98,30 @@ public class DishwasherControllerOutboundPort extends AbstractOutboundPort imple
     public boolean isOnBreak() throws Exception {
         return ((DishwasherControllerI)this.connector).isOnBreak();
     }
-}
\ No newline at end of file
+
+    /**
+     * @see interfaces.DishwasherControllerI#getSnapshot()
+     */
+    @Override
+    public DishwasherSnapshot getSnapshot() throws Exception{
+        return ((DishwasherControllerI)this.connector).getSnapshot();
+    }
+
+    /**
+     * @see interfaces.DishwasherControllerI#applyCommands(DeviceCommand[])
+     */
+    @Override
+    public DishwasherSnapshot applyCommands(DeviceCommand[] commands) throws Exception{
+        return ((DishwasherControllerI)this.connector).applyCommands(commands);
+    }
+
+    /**
+     * Return the cache of the connector of the port
+     * 
+     * @return cache of the connector, or null if the connector does not cache
+     */
+    public ReadCache getCache() {
+        return this.connector instanceof CachingConnectorI ?
+                ((CachingConnectorI)this.connector).getCache() : null;
+    }
+}
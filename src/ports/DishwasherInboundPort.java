@@ -1,7 +1,9 @@
 package ports;
 
 import components.Dishwasher;
+import components.Dishwasher.DishwasherSnapshot;
 import components.Dishwasher.DWMode;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.AbstractComponent;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractInboundPort;
@@ -14,6 +16,20 @@ import interfaces.DishwasherI;
  *
  * <p><strong>Description</strong></p>
  * 
+ * <code>isOn</code>, <code>getMode</code>, <code>isOnBreak</code> and
+ * <code>getSnapshot</code> only read its state, its mode and its break
+ * flag, held in the <code>StateCell</code> of the dishwasher, so they are
+ * answered on the thread of the caller without a request to the component.
+ * Each call is one volatile read of the cell, and
+ * <code>getSnapshot</code> gets the three values at the same version.
+ * <code>getTimeLeft</code> is run on the read executor of the dishwasher,
+ * if the deployment gives it one, else by the component. The other calls
+ * are run by the component, with service objects created once with the
+ * port and reused by every call.
+ * <code>applyCommands</code> is run by the component with an
+ * <code>ApplyCommandsService</code> created for the call, which holds the
+ * batch as a plain final field.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -23,6 +39,18 @@ import interfaces.DishwasherI;
 public class DishwasherInboundPort extends AbstractInboundPort implements DishwasherI {
 
     private static final long serialVersionUID = 4328509908271704575L;
+
+    /** services setting each mode of the dishwasher, by ordinal of the mode */
+    private final AbstractComponent.AbstractService<Void>[] setModeServices = this.createSetModeServices();
+    /** service switching the break of the dishwasher */
+    private final AbstractComponent.AbstractService<Void> switchBreakService =
+            new AbstractComponent.AbstractService<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    ((Dishwasher)this.getServiceOwner()).switchBreak();
+                    return null;
+                }
+            };
     
     /**
 	 * create the port with the given URI and the given dishwasher.
@@ -51,8 +79,7 @@ public class DishwasherInboundPort extends AbstractInboundPort implements Dishwa
      */
     @Override
     public boolean isOn() throws Exception {
-        return this.getOwner().handleRequestSync(
-                owner -> ((Dishwasher)owner).isOn());
+        return ((Dishwasher)this.getOwner()).isOn();
     }
     
     /**
@@ -60,7 +87,7 @@ public class DishwasherInboundPort extends AbstractInboundPort implements Dishwa
      */
     @Override
     public double getTimeLeft() throws Exception {
-        return this.getOwner().handleRequestSync(
+        return this.read(
                 owner -> ((Dishwasher)owner).getTimeLeft());
     }
     
@@ -69,8 +96,7 @@ public class DishwasherInboundPort extends AbstractInboundPort implements Dishwa
      */
     @Override
     public DWMode getMode() throws Exception {
-        return this.getOwner().handleRequestSync(
-                owner -> ((Dishwasher)owner).getMode());
+        return ((Dishwasher)this.getOwner()).getMode();
     }
     
     /**
@@ -78,14 +104,7 @@ public class DishwasherInboundPort extends AbstractInboundPort implements Dishwa
      */
     @Override
     public void setMode(DWMode mode) throws Exception {
-        this.getOwner().handleRequestSync(
-                new AbstractComponent.AbstractService<Void>() {
-                    @Override
-                    public Void call() throws Exception {
-                        ((Dishwasher)this.getServiceOwner()).setMode(mode);
-                        return null;
-                    }
-                }) ;
+        this.getOwner().handleRequestSync(this.setModeServices[mode.ordinal()]);
     }
     
     /**
@@ -93,14 +112,7 @@ public class DishwasherInboundPort extends AbstractInboundPort implements Dishwa
      */
     @Override
     public void switchBreak() throws Exception {
-        this.getOwner().handleRequestSync(
-                new AbstractComponent.AbstractService<Void>() {
-                    @Override
-                    public Void call() throws Exception {
-                        ((Dishwasher)this.getServiceOwner()).switchBreak();
-                        return null;
-                    }
-                }) ;
+        this.getOwner().handleRequestSync(this.switchBreakService);
     }
     
     /**
@@ -108,7 +120,57 @@ public class DishwasherInboundPort extends AbstractInboundPort implements Dishwa
      */
     @Override
     public boolean isOnBreak() throws Exception {
-        return this.getOwner().handleRequestSync(
-                owner -> ((Dishwasher)owner).isOnBreak());
+        return ((Dishwasher)this.getOwner()).isOnBreak();
+    }
+
+    /**
+     * @see interfaces.DishwasherI#getSnapshot()
+     */
+    @Override
+    public DishwasherSnapshot getSnapshot() throws Exception {
+        return ((Dishwasher)this.getOwner()).getSnapshot();
+    }
+
+
+    /**
+     * @see interfaces.DishwasherI#applyCommands(DeviceCommand[])
+     */
+    @Override
+    public DishwasherSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return this.getOwner().handleRequestSync(new ApplyCommandsService<DishwasherSnapshot>(commands));
+    }
+    /**
+     * Create the services setting each mode of the dishwasher
+     * 
+     * @return services by ordinal of the mode
+     */
+    @SuppressWarnings("unchecked")
+    private AbstractComponent.AbstractService<Void>[] createSetModeServices() {
+        DWMode[] modes = DWMode.values();
+        AbstractComponent.AbstractService<Void>[] services = new AbstractComponent.AbstractService[modes.length];
+        for(DWMode mode : modes) {
+            services[mode.ordinal()] = new AbstractComponent.AbstractService<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    ((Dishwasher)this.getServiceOwner()).setMode(mode);
+                    return null;
+                }
+            };
+        }
+        return services;
+    }
+
+    /**
+     * Run a read-only call on the read executor of the dishwasher, or by the
+     * component if it has none
+     * 
+     * @param call call to run
+     * @return result of the call
+     * @throws Exception
+     */
+    protected <T> T read(ComponentI.FComponentService<T> call) throws Exception {
+        String uri = ((Dishwasher)this.getOwner()).getReadExecutorURI();
+        return uri == null ? this.getOwner().handleRequestSync(call)
+                : this.getOwner().handleRequestSync(uri, call);
     }
-}
\ No newline at end of file
+}
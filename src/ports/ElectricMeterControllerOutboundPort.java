@@ -1,6 +1,11 @@
 package ports;
 
+import components.ElectricMeter.ElectricMeterSnapshot;
 import components.Controller;
+import connectors.BinaryConnectorI;
+import connectors.CachingConnectorI;
+import connectors.ReadCache;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractOutboundPort;
 import interfaces.ElectricMeterControllerI;
@@ -70,4 +75,44 @@ public class ElectricMeterControllerOutboundPort extends AbstractOutboundPort im
     public double getConsumption() throws Exception{
         return ((ElectricMeterControllerI)this.connector).getConsumption();
     }
+
+    /**
+     * @see interfaces.ElectricMeterControllerI#getSnapshot()
+     */
+    @Override
+    public ElectricMeterSnapshot getSnapshot() throws Exception{
+        return ((ElectricMeterControllerI)this.connector).getSnapshot();
+    }
+
+    /**
+     * @see interfaces.ElectricMeterControllerI#applyCommands(DeviceCommand[])
+     */
+    @Override
+    public ElectricMeterSnapshot applyCommands(DeviceCommand[] commands) throws Exception{
+        return ((ElectricMeterControllerI)this.connector).applyCommands(commands);
+    }
+
+    /**
+     * Return the cache of the connector of the port
+     * 
+     * @return cache of the connector, or null if the connector does not cache
+     */
+    public ReadCache getCache() {
+        return this.connector instanceof CachingConnectorI ?
+                ((CachingConnectorI)this.connector).getCache() : null;
+    }
+
+    /**
+     * Send the next calls through the binary transport, if the connector of
+     * the port can
+     * 
+     * @param address address of the binary server of the device, or null if
+     * it has none
+     * @throws Exception
+     */
+    public void openTransport(String address) throws Exception {
+        if(address != null && this.connector instanceof BinaryConnectorI) {
+            ((BinaryConnectorI)this.connector).open(address);
+        }
+    }
 }
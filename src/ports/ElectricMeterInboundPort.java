@@ -1,6 +1,8 @@
 package ports;
 
 import components.ElectricMeter;
+import components.ElectricMeter.ElectricMeterSnapshot;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractInboundPort;
 import interfaces.ElectricMeterI;
@@ -12,6 +14,12 @@ import interfaces.ElectricMeterI;
  *
  * <p><strong>Description</strong></p>
  * 
+ * The reads are run on the read executor of the electric meter, if the
+ * deployment gives it one, else by the component.
+ * <code>applyCommands</code> is run by the component with an
+ * <code>ApplyCommandsService</code> created for the call, which holds the
+ * batch as a plain final field.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -20,7 +28,7 @@ import interfaces.ElectricMeterI;
  */
 public class ElectricMeterInboundPort extends AbstractInboundPort implements ElectricMeterI {
     private static final long serialVersionUID = 1L;
-    
+
     /**
 	 * create the port with the given URI and the given owner.
 	 * 
@@ -52,7 +60,7 @@ public class ElectricMeterInboundPort extends AbstractInboundPort implements Ele
      */
     @Override
     public double getAvailableEnergy() throws Exception {
-        return this.getOwner().handleRequestSync(
+        return this.read(
                 owner -> ((ElectricMeter)owner).getAvailableEnergy());
     }
     
@@ -61,7 +69,7 @@ public class ElectricMeterInboundPort extends AbstractInboundPort implements Ele
      */
     @Override
     public double getProduction() throws Exception {
-        return this.getOwner().handleRequestSync(
+        return this.read(
                 owner -> ((ElectricMeter)owner).getProduction());
     }
     
@@ -70,7 +78,38 @@ public class ElectricMeterInboundPort extends AbstractInboundPort implements Ele
      */
     @Override
     public double getConsumption() throws Exception {
-        return this.getOwner().handleRequestSync(
+        return this.read(
                 owner -> ((ElectricMeter)owner).getConsumption());
     }
+
+    /**
+     * @see interfaces.ElectricMeterI#getSnapshot()
+     */
+    @Override
+    public ElectricMeterSnapshot getSnapshot() throws Exception {
+        return this.read(
+                owner -> ((ElectricMeter)owner).getSnapshot());
+    }
+
+    /**
+     * @see interfaces.ElectricMeterI#applyCommands(DeviceCommand[])
+     */
+    @Override
+    public ElectricMeterSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return this.getOwner().handleRequestSync(new ApplyCommandsService<ElectricMeterSnapshot>(commands));
+    }
+
+    /**
+     * Run a read-only call on the read executor of the electric meter, or by
+     * the component if it has none
+     * 
+     * @param call call to run
+     * @return result of the call
+     * @throws Exception
+     */
+    protected <T> T read(ComponentI.FComponentService<T> call) throws Exception {
+        String uri = ((ElectricMeter)this.getOwner()).getReadExecutorURI();
+        return uri == null ? this.getOwner().handleRequestSync(call)
+                : this.getOwner().handleRequestSync(uri, call);
+    }
 }
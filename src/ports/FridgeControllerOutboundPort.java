@@ -1,6 +1,11 @@
 package ports;
 
+import components.Fridge.FridgeSnapshot;
 import components.Controller;
+import connectors.BinaryConnectorI;
+import connectors.CachingConnectorI;
+import connectors.ReadCache;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractOutboundPort;
 import interfaces.FridgeControllerI;
@@ -94,4 +99,44 @@ public class FridgeControllerOutboundPort extends AbstractOutboundPort implement
     public boolean isFreezerOn() throws Exception{
         return ((FridgeControllerI)this.connector).isFreezerOn();
     }
+
+    /**
+     * @see interfaces.FridgeControllerI#getSnapshot()
+     */
+    @Override
+    public FridgeSnapshot getSnapshot() throws Exception{
+        return ((FridgeControllerI)this.connector).getSnapshot();
+    }
+
+    /**
+     * @see interfaces.FridgeControllerI#applyCommands(DeviceCommand[])
+     */
+    @Override
+    public FridgeSnapshot applyCommands(DeviceCommand[] commands) throws Exception{
+        return ((FridgeControllerI)this.connector).applyCommands(commands);
+    }
+
+    /**
+     * Return the cache of the connector of the port
+     * 
+     * @return cache of the connector, or null if the connector does not cache
+     */
+    public ReadCache getCache() {
+        return this.connector instanceof CachingConnectorI ?
+                ((CachingConnectorI)this.connector).getCache() : null;
+    }
+
+    /**
+     * Send the next calls through the binary transport, if the connector of
+     * the port can
+     * 
+     * @param address address of the binary server of the device, or null if
+     * it has none
+     * @throws Exception
+     */
+    public void openTransport(String address) throws Exception {
+        if(address != null && this.connector instanceof BinaryConnectorI) {
+            ((BinaryConnectorI)this.connector).open(address);
+        }
+    }
 }
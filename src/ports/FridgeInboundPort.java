@@ -1,6 +1,8 @@
 package ports;
 
 import components.Fridge;
+import components.Fridge.FridgeSnapshot;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.AbstractComponent;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractInboundPort;
@@ -12,6 +14,19 @@ import interfaces.FridgeI;
  *
  * <p><strong>Description</strong></p>
  * 
+ * <code>isFridgeOnBreak</code>, <code>isFreezerOnBreak</code>,
+ * <code>isFridgeOn</code>, <code>isFreezerOn</code> and
+ * <code>getSnapshot</code> only read the states and the break flags of the
+ * fridge and the freezer, held in the <code>StateCell</code> of the fridge,
+ * so they are answered on the thread of the caller without a request to the
+ * component. Each call is one volatile read of the cell, and
+ * <code>getSnapshot</code> gets the four values at the same version. The
+ * other calls are run by the component, with service objects created once
+ * with the port and reused by every call.
+ * <code>applyCommands</code> is run by the component with an
+ * <code>ApplyCommandsService</code> created for the call, which holds the
+ * batch as a plain final field.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -21,6 +36,25 @@ import interfaces.FridgeI;
 public class FridgeInboundPort extends AbstractInboundPort implements FridgeI{
 
     private static final long serialVersionUID = 1L;
+
+    /** service switching the break of the fridge */
+    private final AbstractComponent.AbstractService<Void> switchFridgeBreakService =
+            new AbstractComponent.AbstractService<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    ((Fridge)this.getServiceOwner()).switchFridgeBreak();
+                    return null;
+                }
+            };
+    /** service switching the break of the freezer */
+    private final AbstractComponent.AbstractService<Void> switchFreezerBreakService =
+            new AbstractComponent.AbstractService<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    ((Fridge)this.getServiceOwner()).switchFreezerBreak();
+                    return null;
+                }
+            };
     
     /**
 	 * create the port with the given URI and the given owner.
@@ -54,14 +88,7 @@ public class FridgeInboundPort extends AbstractInboundPort implements FridgeI{
      */
     @Override
     public void switchFridgeBreak() throws Exception {
-        this.getOwner().handleRequestSync(
-                new AbstractComponent.AbstractService<Void>() {
-                    @Override
-                    public Void call() throws Exception {
-                        ((Fridge)this.getServiceOwner()).switchFridgeBreak();
-                        return null;
-                    }
-                }) ;
+        this.getOwner().handleRequestSync(this.switchFridgeBreakService);
     }
     
     /**
@@ -69,8 +96,7 @@ public class FridgeInboundPort extends AbstractInboundPort implements FridgeI{
      */
     @Override
     public boolean isFridgeOnBreak() throws Exception {
-        return this.getOwner().handleRequestSync(
-                owner -> ((Fridge)owner).isFridgeOnBreak());
+        return ((Fridge)this.getOwner()).isFridgeOnBreak();
     }
     
     /**
@@ -78,14 +104,7 @@ public class FridgeInboundPort extends AbstractInboundPort implements FridgeI{
      */
     @Override
     public void switchFreezerBreak() throws Exception {
-        this.getOwner().handleRequestSync(
-                new AbstractComponent.AbstractService<Void>() {
-                    @Override
-                    public Void call() throws Exception {
-                        ((Fridge)this.getServiceOwner()).switchFreezerBreak();
-                        return null;
-                    }
-                }) ;
+        this.getOwner().handleRequestSync(this.switchFreezerBreakService);
     }
     
     /**
@@ -93,8 +112,7 @@ public class FridgeInboundPort extends AbstractInboundPort implements FridgeI{
      */
     @Override
     public boolean isFreezerOnBreak() throws Exception {
-        return this.getOwner().handleRequestSync(
-                owner -> ((Fridge)owner).isFreezerOnBreak());
+        return ((Fridge)this.getOwner()).isFreezerOnBreak();
     }
     
     /**
@@ -102,8 +120,7 @@ public class FridgeInboundPort extends AbstractInboundPort implements FridgeI{
      */
     @Override
     public boolean isFridgeOn() throws Exception {
-        return this.getOwner().handleRequestSync(
-                owner -> ((Fridge)owner).isFridgeOn());
+        return ((Fridge)this.getOwner()).isFridgeOn();
     }
     
     /**
@@ -111,9 +128,24 @@ public class FridgeInboundPort extends AbstractInboundPort implements FridgeI{
      */
     @Override
     public boolean isFreezerOn() throws Exception {
-        return this.getOwner().handleRequestSync(
-                owner -> ((Fridge)owner).isFreezerOn());
+        return ((Fridge)this.getOwner()).isFreezerOn();
     }
 
 
+
+    /**
+     * @see interfaces.FridgeI#getSnapshot()
+     */
+    @Override
+    public FridgeSnapshot getSnapshot() throws Exception {
+        return ((Fridge)this.getOwner()).getSnapshot();
+    }
+
+    /**
+     * @see interfaces.FridgeI#applyCommands(DeviceCommand[])
+     */
+    @Override
+    public FridgeSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return this.getOwner().handleRequestSync(new ApplyCommandsService<FridgeSnapshot>(commands));
+    }
 }
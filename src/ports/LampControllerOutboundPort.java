@@ -1,7 +1,11 @@
 package ports;
 
 import components.Controller;
+import components.Lamp.LampSnapshot;
 import components.Lamp.LampState;
+import connectors.CachingConnectorI;
+import connectors.ReadCache;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractOutboundPort;
 import interfaces.LampControllerI;
@@ -71,4 +75,30 @@ public class LampControllerOutboundPort extends AbstractOutboundPort implements
     public void switchBreak() throws Exception{
         ((LampControllerI)this.connector).switchBreak();
     }
+
+    /**
+     * @see interfaces.LampControllerI#getSnapshot()
+     */
+    @Override
+    public LampSnapshot getSnapshot() throws Exception{
+        return ((LampControllerI)this.connector).getSnapshot();
+    }
+
+    /**
+     * @see interfaces.LampControllerI#applyCommands(DeviceCommand[])
+     */
+    @Override
+    public LampSnapshot applyCommands(DeviceCommand[] commands) throws Exception{
+        return ((LampControllerI)this.connector).applyCommands(commands);
+    }
+
+    /**
+     * Return the cache of the connector of the port
+     * 
+     * @return cache of the connector, or null if the connector does not cache
+     */
+    public ReadCache getCache() {
+        return this.connector instanceof CachingConnectorI ?
+                ((CachingConnectorI)this.connector).getCache() : null;
+    }
 }
@@ -1,7 +1,9 @@
 package ports;
 
 import components.Lamp;
+import components.Lamp.LampSnapshot;
 import components.Lamp.LampState;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.AbstractComponent;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractInboundPort;
@@ -13,6 +15,18 @@ import interfaces.LampI;
  *
  * <p><strong>Description</strong></p>
  * 
+ * <code>getState</code>, <code>isOnBreak</code> and
+ * <code>getSnapshot</code> only read its state and its break flag, held in
+ * the <code>StateCell</code> of the lamp, so they are answered on the thread
+ * of the caller without a request to the component. Each call is one
+ * volatile read of the cell, and <code>getSnapshot</code> gets both values
+ * at the same version. The other calls are run by the
+ * component, with service objects created once with the port and reused by
+ * every call.
+ * <code>applyCommands</code> is run by the component with an
+ * <code>ApplyCommandsService</code> created for the call, which holds the
+ * batch as a plain final field.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -22,6 +36,16 @@ import interfaces.LampI;
 public class LampInboundPort extends AbstractInboundPort implements LampI{
 
     private static final long serialVersionUID = 1L;
+
+    /** service switching the break of the lamp */
+    private final AbstractComponent.AbstractService<Void> switchBreakService =
+            new AbstractComponent.AbstractService<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    ((Lamp)this.getServiceOwner()).switchBreak();
+                    return null;
+                }
+            };
     
     /**
 	 * create the port with the given URI and the given lamp.
@@ -54,8 +78,7 @@ public class LampInboundPort extends AbstractInboundPort implements LampI{
      */
     @Override
     public LampState getState() throws Exception {
-        return this.getOwner().handleRequestSync(
-                owner -> ((Lamp)owner).getState());
+        return ((Lamp)this.getOwner()).getState();
     }
     
     /**
@@ -63,14 +86,7 @@ public class LampInboundPort extends AbstractInboundPort implements LampI{
      */
     @Override
     public void switchBreak() throws Exception {
-        this.getOwner().handleRequestSync(
-                new AbstractComponent.AbstractService<Void>() {
-                    @Override
-                    public Void call() throws Exception {
-                        ((Lamp)this.getServiceOwner()).switchBreak();
-                        return null;
-                    }
-                }) ;
+        this.getOwner().handleRequestSync(this.switchBreakService);
     }
     
     /**
@@ -78,7 +94,22 @@ public class LampInboundPort extends AbstractInboundPort implements LampI{
      */
     @Override
     public boolean isOnBreak() throws Exception {
-        return this.getOwner().handleRequestSync(
-                owner -> ((Lamp)owner).isOnBreak());
+        return ((Lamp)this.getOwner()).isOnBreak();
+    }
+
+    /**
+     * @see interfaces.LampI#getSnapshot()
+     */
+    @Override
+    public LampSnapshot getSnapshot() throws Exception {
+        return ((Lamp)this.getOwner()).getSnapshot();
+    }
+
+    /**
+     * @see interfaces.LampI#applyCommands(DeviceCommand[])
+     */
+    @Override
+    public LampSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return this.getOwner().handleRequestSync(new ApplyCommandsService<LampSnapshot>(commands));
     }
 }
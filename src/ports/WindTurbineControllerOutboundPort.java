@@ -1,6 +1,8 @@
 package ports;
 
+import components.WindTurbine.WindTurbineSnapshot;
 import components.Controller;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractOutboundPort;
 import interfaces.WindTurbineControllerI;
@@ -79,4 +81,20 @@ public class WindTurbineControllerOutboundPort extends AbstractOutboundPort impl
     public double getWindSpeed() throws Exception {
         return ((WindTurbineControllerI)this.connector).getWindSpeed();
     }
+
+    /**
+     * @see interfaces.WindTurbineControllerI#getSnapshot()
+     */
+    @Override
+    public WindTurbineSnapshot getSnapshot() throws Exception{
+        return ((WindTurbineControllerI)this.connector).getSnapshot();
+    }
+
+    /**
+     * @see interfaces.WindTurbineControllerI#applyCommands(DeviceCommand[])
+     */
+    @Override
+    public WindTurbineSnapshot applyCommands(DeviceCommand[] commands) throws Exception{
+        return ((WindTurbineControllerI)this.connector).applyCommands(commands);
+    }
 }
@@ -1,6 +1,8 @@
 package ports;
 
 import components.WindTurbine;
+import components.WindTurbine.WindTurbineSnapshot;
+import controller.DeviceCommand;
 import fr.sorbonne_u.components.AbstractComponent;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractInboundPort;
@@ -12,6 +14,18 @@ import interfaces.WindTurbineI;
  *
  * <p><strong>Description</strong></p>
  * 
+ * <code>isOn</code> and <code>isOnBreak</code> only read its state and its
+ * break flag, held in the <code>StateCell</code> of the wind turbine with
+ * one volatile read of the cell each, so they are answered on the thread of
+ * the caller without a request to the component.
+ * <code>getWindSpeed</code> and <code>getSnapshot</code> are run on the read
+ * executor of the wind turbine, if the deployment gives it one, else by the
+ * component. The other calls are run by the component, with service
+ * objects created once with the port and reused by every call.
+ * <code>applyCommands</code> is run by the component with an
+ * <code>ApplyCommandsService</code> created for the call, which holds the
+ * batch as a plain final field.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -21,6 +35,16 @@ import interfaces.WindTurbineI;
 public class WindTurbineInboundPort extends AbstractInboundPort implements WindTurbineI{
 
     private static final long serialVersionUID = 1L;
+
+    /** service switching the break of the wind turbine */
+    private final AbstractComponent.AbstractService<Void> switchBreakService =
+            new AbstractComponent.AbstractService<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    ((WindTurbine)this.getServiceOwner()).switchBreak();
+                    return null;
+                }
+            };
     
     /**
 	 * create the port with the given URI and the given windTurbine.
@@ -54,8 +78,7 @@ public class WindTurbineInboundPort extends AbstractInboundPort implements WindT
      */
     @Override
     public boolean isOn() throws Exception {
-        return this.getOwner().handleRequestSync(
-                owner -> ((WindTurbine)owner).isOn());
+        return ((WindTurbine)this.getOwner()).isOn();
     }
 
     /**
@@ -63,8 +86,7 @@ public class WindTurbineInboundPort extends AbstractInboundPort implements WindT
      */
     @Override
     public boolean isOnBreak() throws Exception {
-        return this.getOwner().handleRequestSync(
-                owner -> ((WindTurbine)owner).isOnBreak());
+        return ((WindTurbine)this.getOwner()).isOnBreak();
     }
 
     /**
@@ -72,14 +94,7 @@ public class WindTurbineInboundPort extends AbstractInboundPort implements WindT
      */
     @Override
     public void switchBreak() throws Exception {
-        this.getOwner().handleRequestSync(
-                new AbstractComponent.AbstractService<Void>() {
-                    @Override
-                    public Void call() throws Exception {
-                        ((WindTurbine)this.getServiceOwner()).switchBreak();
-                        return null;
-                    }
-                }) ;
+        this.getOwner().handleRequestSync(this.switchBreakService);
     }
 
     /**
@@ -87,7 +102,38 @@ public class WindTurbineInboundPort extends AbstractInboundPort implements WindT
      */
     @Override
     public double getWindSpeed() throws Exception {
-        return this.getOwner().handleRequestSync(
+        return this.read(
                 owner -> ((WindTurbine)owner).getWindSpeed());
     }
+
+    /**
+     * @see interfaces.WindTurbineI#getSnapshot()
+     */
+    @Override
+    public WindTurbineSnapshot getSnapshot() throws Exception {
+        return this.read(
+                owner -> ((WindTurbine)owner).getSnapshot());
+    }
+
+    /**
+     * @see interfaces.WindTurbineI#applyCommands(DeviceCommand[])
+     */
+    @Override
+    public WindTurbineSnapshot applyCommands(DeviceCommand[] commands) throws Exception {
+        return this.getOwner().handleRequestSync(new ApplyCommandsService<WindTurbineSnapshot>(commands));
+    }
+
+    /**
+     * Run a read-only call on the read executor of the wind turbine, or by the
+     * component if it has none
+     * 
+     * @param call call to run
+     * @return result of the call
+     * @throws Exception
+     */
+    protected <T> T read(ComponentI.FComponentService<T> call) throws Exception {
+        String uri = ((WindTurbine)this.getOwner()).getReadExecutorURI();
+        return uri == null ? this.getOwner().handleRequestSync(call)
+                : this.getOwner().handleRequestSync(uri, call);
+    }
 }
@@ -220,11 +220,13 @@ public class BatteryModel extends AtomicModel {
             if(state == BState.CONSUMING && this.getCapacity() == maxCapacity ||
                     state == BState.PRODUCING && this.getCapacity() == 0) {
                 setState(BState.STANDBY);
+                state = BState.STANDBY;
             }
 
             //Check consumption
+            double consumption = getConsumption(state);
             if(this.consumptionPlotter != null) {
-                if(this.lastConsumption != this.getConsumption()) {
+                if(this.lastConsumption != consumption) {
                     this.consumptionPlotter.addData(
                             SERIES_CONSUMPTION,
                             this.getCurrentStateTime().getSimulatedTime(),
@@ -233,16 +235,17 @@ public class BatteryModel extends AtomicModel {
                 this.consumptionPlotter.addData(
                         SERIES_CONSUMPTION,
                         this.getCurrentStateTime().getSimulatedTime(),
-                        this.getConsumption());
+                        consumption);
             }
-            if(this.lastConsumption != this.getConsumption()) {
-                this.lastConsumption = this.getConsumption();
+            if(this.lastConsumption != consumption) {
+                this.lastConsumption = consumption;
                 this.consumptionHasChanged = true;
             }
 
             //Check production
+            double production = getProduction(state);
             if(this.productionPlotter != null) {
-                if(this.lastProduction != this.getProduction()) {
+                if(this.lastProduction != production) {
                     this.productionPlotter.addData(
                             SERIES_PRODUCTION,
                             this.getCurrentStateTime().getSimulatedTime(),
@@ -251,10 +254,10 @@ public class BatteryModel extends AtomicModel {
                 this.productionPlotter.addData(
                         SERIES_PRODUCTION,
                         this.getCurrentStateTime().getSimulatedTime(),
-                        this.getProduction());
+                        production);
             }
-            if(this.lastProduction != this.getProduction()) {
-                this.lastProduction = this.getProduction();
+            if(this.lastProduction != production) {
+                this.lastProduction = production;
                 this.productionHasChanged = true;
             }
         }
@@ -321,7 +324,11 @@ public class BatteryModel extends AtomicModel {
     }
 
     private double getProduction() {
-        if(this.getState() == BState.PRODUCING) {
+        return getProduction(this.getState());
+    }
+
+    private static double getProduction(BState state) {
+        if(state == BState.PRODUCING) {
             return BATTERY_MODIF;
         } else {
             return 0.0;
@@ -330,7 +337,11 @@ public class BatteryModel extends AtomicModel {
 
 
     private double getConsumption() {
-        if(this.getState() == BState.CONSUMING) {
+        return getConsumption(this.getState());
+    }
+
+    private static double getConsumption(BState state) {
+        if(state == BState.CONSUMING) {
             return BATTERY_MODIF;
         } else {
             return 0.0;
@@ -339,20 +350,12 @@ public class BatteryModel extends AtomicModel {
 
 
     private BState getState() {
-        try {
-            return (BState) this.componentRef.getEmbeddingComponentStateValue("state");
-        }catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return (BState) this.componentRef.getEnumState(Battery.STATE);
     }
 
     private void setState(BState s) {
-        try {
-            if(this.getState() != s) {
-                this.componentRef.setEmbeddingComponentStateValue("state", s);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        if(this.getState() != s) {
+            this.componentRef.setEnumState(Battery.STATE, s);
         }
     }
 }
@@ -11,6 +11,13 @@ import simulation.sil.battery.models.BatteryModel;
  * The class <code>BatterySimulatorPlugin</code> implements the simulation
  * plug-in for the component <code>Battery</code>.
  * 
+ * <p><strong>Description</strong></p>
+ * 
+ * The model of the battery is resolved once per run and kept, so that the
+ * queries of the component, e.g. <code>getCapacity</code>, are direct calls
+ * returning primitive values. <code>getModelStateValue</code> remains for
+ * the other users of the plug-in.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -19,8 +26,12 @@ import simulation.sil.battery.models.BatteryModel;
  * 
  */
 public class BatterySimulatorPlugin extends AtomicSimulatorPlugin {
+
     private static final long serialVersionUID = 1L;
 
+    /** model of the battery, null until the first request of a run */
+    protected volatile BatteryModel model;
+
     @Override
     public void setSimulationRunParameters(
             Map<String, Object> simParams
@@ -28,11 +39,44 @@ public class BatterySimulatorPlugin extends AtomicSimulatorPlugin {
         simParams.put(BatteryModel.COMPONENT_REF, this.owner) ;
         super.setSimulationRunParameters(simParams) ;
         simParams.remove(BatteryModel.COMPONENT_REF) ;
+        this.model = null ;
+    }
+
+    /**
+     * Return the model of the battery, resolved once per run
+     * 
+     * @return model of the battery
+     * @throws Exception
+     */
+    protected BatteryModel getModel() throws Exception {
+        BatteryModel m = this.model;
+        if(m == null) {
+            m = (BatteryModel) this.simulator.getDescendentModel(BatteryModel.URI);
+            this.model = m;
+        }
+        return m;
+    }
+
+    /**
+     * @return current capacity of the battery
+     * @throws Exception
+     */
+    public double getCapacity() throws Exception {
+        return this.getModel().getCapacity();
+    }
+
+    /**
+     * @return maximal capacity of the battery
+     * @throws Exception
+     */
+    public double getMaxCapacity() throws Exception {
+        return this.getModel().getMaxCapacity();
     }
 
     @Override
     public Object getModelStateValue(String modelURI, String name) throws Exception {
-        ModelDescriptionI m = this.simulator.getDescendentModel(modelURI) ;
+        ModelDescriptionI m = BatteryModel.URI.equals(modelURI) ?
+                this.getModel() : this.simulator.getDescendentModel(modelURI) ;
         assert  m instanceof BatteryModel;
         if(name.equals("capacity")) {
             return ((BatteryModel)m).getCapacity();
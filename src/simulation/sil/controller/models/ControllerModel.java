@@ -5,15 +5,38 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import components.Controller;
+import controller.ActuationPipeline;
+import controller.AdaptiveControlPeriod;
+import controller.ConcurrentReads;
+import fr.sorbonne_u.devs_simulation.interfaces.SimulationReportI;
 import fr.sorbonne_u.devs_simulation.models.AtomicModel;
+import fr.sorbonne_u.devs_simulation.models.annotations.ModelExternalEvents;
 import fr.sorbonne_u.devs_simulation.models.events.EventI;
 import fr.sorbonne_u.devs_simulation.models.time.Duration;
+import fr.sorbonne_u.devs_simulation.models.time.Time;
 import fr.sorbonne_u.devs_simulation.simulators.interfaces.SimulatorI;
+import fr.sorbonne_u.devs_simulation.utils.AbstractSimulationReport;
+import simulation.sil.electricmeter.events.NetEnergyChanged;
 
 /**
  * The class <code>ControllerModel</code> implements a simulation model
  * of a controller
  *  
+ * <p><strong>Description</strong></p>
+ * 
+ * In <code>PERIODIC</code> mode, the control task is run every
+ * <code>getControlPeriod()</code> of the controller component. In
+ * <code>EVENT</code> mode, it is run each time the electric meter sends a
+ * <code>NetEnergyChanged</code> event, and without event after the
+ * heartbeat.
+ * 
+ * The period is fixed to the min period unless the <code>adaptive
+ * period</code> run parameter, or <code>-Dziodyne.adaptivePeriod=true</code>,
+ * turns the adaptation on. The period then grows up to the max period
+ * while the surplus is calm, and in <code>EVENT</code> mode it also bounds
+ * the heartbeat: a calm surplus is checked rarely, a deficit every min
+ * period.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -21,17 +44,97 @@ import fr.sorbonne_u.devs_simulation.simulators.interfaces.SimulatorI;
  * </pre>
  * 
  */
+@ModelExternalEvents(imported = {NetEnergyChanged.class})
 public class ControllerModel extends AtomicModel{
+
+    private static final long serialVersionUID = 1L;
+
+    public static class ControllerReport extends AbstractSimulationReport {
+
+        private static final long serialVersionUID = 1L;
+        /** control mode used during the run */
+        public final ControlMode mode;
+        /** number of control tasks run on a period or a heartbeat */
+        public final long timedInvocations;
+        /** number of control tasks run on a NetEnergyChanged event */
+        public final long eventInvocations;
+        /** simulated time spent with a negative available energy */
+        public final double negativeEnergyTime;
+
+        public ControllerReport(String modelURI, ControlMode mode,
+                long timedInvocations, long eventInvocations, double negativeEnergyTime) {
+            super(modelURI);
+            this.mode = mode;
+            this.timedInvocations = timedInvocations;
+            this.eventInvocations = eventInvocations;
+            this.negativeEnergyTime = negativeEnergyTime;
+        }
+
+        @Override
+        public String toString() {
+            return "ControllerReport(" + this.getModelURI() + ", mode = " + mode +
+                    ", timed = " + timedInvocations + ", on event = " + eventInvocations +
+                    ", total = " + (timedInvocations + eventInvocations) +
+                    ", negative energy time = " + negativeEnergyTime + ")";
+        }
+    }
+
+    /** How the control task is triggered */
+    public enum ControlMode{PERIODIC,EVENT}
+
     // -------------------------------------------------------------------------
     // Constants and variables
     // -------------------------------------------------------------------------
 
-    private static final long serialVersionUID = 1L;
-
     public static final String	URI = "SILController";
     public static final String COMPONENT_REF = URI + ":componentRef";
+    /** name of the run parameter giving the control mode */
+    public static final String CONTROL_MODE = "control mode";
+    /** name of the run parameter giving the max time between two control tasks in EVENT mode */
+    public static final String HEARTBEAT = "heartbeat";
+    /** name of the run parameter turning the adaptive period on, a boolean */
+    public static final String ADAPTIVE_PERIOD = "adaptive period";
+    /** name of the run parameter giving the min period of the controller */
+    public static final String MIN_PERIOD = "min period";
+    /** name of the run parameter giving the max period of the controller */
+    public static final String MAX_PERIOD = "max period";
+    /** name of the run parameter giving the weight of the last |delta energy| */
+    public static final String EWMA_ALPHA = "ewma alpha";
+    /** name of the run parameter giving the volatility over which the period shrinks */
+    public static final String VOLATILITY_THRESHOLD = "volatility threshold";
+    /** name of the run parameter giving the factor applied to the period */
+    public static final String PERIOD_GROWTH = "period growth";
+    /** name of the run parameter giving the time given to the device queries, in ms */
+    public static final String READ_TIMEOUT = "read timeout";
+    /** name of the run parameter giving the time given to the commands, in ms */
+    public static final String ACTUATION_TIMEOUT = "actuation timeout";
+    /** name of the run parameter giving the wall-clock time of a tick, in ms */
+    public static final String TICK_BUDGET = "tick budget";
+    /** name of the run parameter choosing the caching connectors, a boolean */
+    public static final String CACHING_CONNECTORS = "caching connectors";
     protected Controller componentRef ;
 
+    /** current control mode */
+    protected ControlMode mode = ControlMode.PERIODIC;
+    /** max time between two control tasks in EVENT mode */
+    protected double heartbeat = 60.0;
+    /** true if the period of the controller adapts to the energy */
+    protected boolean adaptivePeriod = AdaptiveControlPeriod.DEFAULT_ADAPTIVE;
+    /** time of the last control task */
+    protected double lastControlTime;
+    /** true if a NetEnergyChanged event has been received since the last control task */
+    protected boolean energyHasChanged;
+    /** last available energy received from the electric meter */
+    protected double netEnergy;
+    /** number of control tasks run on a period or a heartbeat */
+    protected long timedInvocations;
+    /** number of control tasks run on a NetEnergyChanged event */
+    protected long eventInvocations;
+    /** time of the last NetEnergyChanged event */
+    protected double lastEnergyChangeTime;
+    /** simulated time spent with a negative available energy */
+    protected double negativeEnergyTime;
+
     // -------------------------------------------------------------------------
     // Constructor
     // -------------------------------------------------------------------------
@@ -60,11 +163,85 @@ public class ControllerModel extends AtomicModel{
         if(simParams.containsKey(COMPONENT_REF)) {
             this.componentRef = (Controller) simParams.get(COMPONENT_REF);
         }
+        String vname = this.getURI() + ":" + CONTROL_MODE;
+        if(simParams.containsKey(vname)) {
+            this.mode = (ControlMode) simParams.get(vname);
+        }
+        vname = this.getURI() + ":" + HEARTBEAT;
+        if(simParams.containsKey(vname)) {
+            this.heartbeat = (double) simParams.get(vname);
+        }
+        vname = this.getURI() + ":" + ADAPTIVE_PERIOD;
+        if(simParams.containsKey(vname)) {
+            this.adaptivePeriod = (boolean) simParams.get(vname);
+        }
+        if(this.componentRef != null) {
+            double minPeriod = getParam(simParams, MIN_PERIOD, AdaptiveControlPeriod.DEFAULT_MIN_PERIOD);
+            if(this.adaptivePeriod) {
+                this.componentRef.setControlPeriod(new AdaptiveControlPeriod(minPeriod,
+                        getParam(simParams, MAX_PERIOD, AdaptiveControlPeriod.DEFAULT_MAX_PERIOD),
+                        getParam(simParams, EWMA_ALPHA, AdaptiveControlPeriod.DEFAULT_ALPHA),
+                        getParam(simParams, VOLATILITY_THRESHOLD, AdaptiveControlPeriod.DEFAULT_THRESHOLD),
+                        getParam(simParams, PERIOD_GROWTH, AdaptiveControlPeriod.DEFAULT_GROWTH)));
+            } else {
+                this.componentRef.setControlPeriod(AdaptiveControlPeriod.fixed(minPeriod));
+            }
+            this.componentRef.setReadTimeout((long) getParam(simParams, READ_TIMEOUT,
+                    ConcurrentReads.DEFAULT_TIMEOUT));
+            this.componentRef.setActuationTimeout((long) getParam(simParams, ACTUATION_TIMEOUT,
+                    ActuationPipeline.DEFAULT_TIMEOUT));
+            this.componentRef.setTickBudget((long) getParam(simParams, TICK_BUDGET,
+                    Controller.DEFAULT_TICK_BUDGET));
+            vname = this.getURI() + ":" + CACHING_CONNECTORS;
+            if(simParams.containsKey(vname)) {
+                this.componentRef.setCachingConnectors((boolean) simParams.get(vname));
+            }
+        }
+    }
+
+    /**
+     * Return the value of a run parameter of this model
+     * 
+     * @param simParams run parameters
+     * @param name name of the parameter
+     * @param defaultValue value returned if the parameter is not set
+     * @return value of the parameter
+     */
+    private double getParam(Map<String, Object> simParams, String name, double defaultValue) {
+        String vname = this.getURI() + ":" + name;
+        if(simParams.containsKey(vname)) {
+            return (double) simParams.get(vname);
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public void	initialiseState(Time initialTime){
+        this.lastControlTime = initialTime.getSimulatedTime();
+        this.energyHasChanged = false;
+        this.netEnergy = 0.0;
+        this.timedInvocations = 0;
+        this.eventInvocations = 0;
+        this.lastEnergyChangeTime = initialTime.getSimulatedTime();
+        this.negativeEnergyTime = 0.0;
+        super.initialiseState(initialTime);
     }
 
     public Duration	timeAdvance(){
         assert	this.componentRef != null ;
-        double d = this.componentRef.getControlPeriod() ;
+        double next;
+        if(this.mode == ControlMode.EVENT) {
+            if(this.energyHasChanged) {
+                return Duration.zero(this.getSimulatedTimeUnit());
+            }
+            next = this.lastControlTime + (this.adaptivePeriod
+                    ? Math.min(this.heartbeat, this.componentRef.getControlPeriod())
+                    : this.heartbeat);
+        } else {
+            next = this.lastControlTime + this.componentRef.getControlPeriod();
+        }
+        // external transitions must not shift the next control task
+        double d = Math.max(0.0, next - this.getCurrentStateTime().getSimulatedTime());
         return new Duration(d, this.getSimulatedTimeUnit()) ;
     }
 
@@ -76,10 +253,76 @@ public class ControllerModel extends AtomicModel{
     @Override
     public void	userDefinedInternalTransition(Duration elapsedTime){
         super.userDefinedInternalTransition(elapsedTime) ;
+        if(this.mode == ControlMode.EVENT && this.energyHasChanged) {
+            this.eventInvocations++;
+        } else {
+            this.timedInvocations++;
+        }
+        this.energyHasChanged = false;
+        this.lastControlTime = this.getCurrentStateTime().getSimulatedTime();
         try {
-            this.componentRef.controlTask(this.getCurrentStateTime().getSimulatedTime()) ;
+            this.componentRef.controlTask(this.lastControlTime) ;
         } catch (Exception e) {
             throw new RuntimeException(e) ;
         }
     }
+
+    @Override
+    public void	userDefinedExternalTransition(Duration elapsedTime){
+        this.updateNegativeEnergyTime(this.getCurrentStateTime().getSimulatedTime());
+        ArrayList<EventI> currentEvents = this.getStoredEventAndReset();
+        for(EventI e : currentEvents) {
+            e.executeOn(this);
+        }
+        super.userDefinedExternalTransition(elapsedTime) ;
+    }
+
+    @Override
+    public void	endSimulation(Time endTime) throws Exception {
+        this.updateNegativeEnergyTime(endTime.getSimulatedTime());
+        this.componentRef.logMessage(this.getFinalReport().toString());
+        super.endSimulation(endTime);
+    }
+
+    @Override
+    public SimulationReportI getFinalReport() throws Exception{
+        return new ControllerReport(this.getURI(), this.mode,
+                this.timedInvocations, this.eventInvocations, this.negativeEnergyTime) ;
+    }
+
+    /**
+     * Add the time spent since the last NetEnergyChanged event if the
+     * available energy was negative
+     * 
+     * @param time current simulated time
+     */
+    protected void updateNegativeEnergyTime(double time) {
+        if(this.netEnergy < 0) {
+            this.negativeEnergyTime += time - this.lastEnergyChangeTime;
+        }
+        this.lastEnergyChangeTime = time;
+    }
+
+    // ------------------------------------------------------------------------
+    // Model-specific methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Record a new available energy sent by the electric meter
+     * 
+     * @param value available energy
+     */
+    public void setNetEnergy(double value) {
+        this.netEnergy = value;
+        this.energyHasChanged = true;
+    }
+
+    /**
+     * Return the last available energy sent by the electric meter
+     * 
+     * @return last available energy
+     */
+    public double getNetEnergy() {
+        return this.netEnergy;
+    }
 }
@@ -7,6 +7,7 @@ import java.util.concurrent.TimeUnit;
 import components.Dishwasher;
 import components.Dishwasher.DWMode;
 import components.Dishwasher.DWState;
+import components.StateCell;
 import fr.sorbonne_u.devs_simulation.interfaces.SimulationReportI;
 import fr.sorbonne_u.devs_simulation.models.AtomicModel;
 import fr.sorbonne_u.devs_simulation.models.annotations.ModelExternalEvents;
@@ -65,6 +66,8 @@ public class DishwasherModel extends AtomicModel{
     private static final double STANDARD_MODE_DURATION = 30;
     public static final double	ECO_MODE_CONSUMPTION = 200.0 ; // Watts
     public static final double	STANDARD_MODE_CONSUMPTION = 420.0 ; // Watts
+    private static final DWState[] STATES = DWState.values();
+    private static final DWMode[] MODES = DWMode.values();
 
     private double lastPower;
     private double endCycle;
@@ -171,32 +174,38 @@ public class DishwasherModel extends AtomicModel{
         super.userDefinedInternalTransition(elapsedTime);
         if(elapsedTime.greaterThan(Duration.zero(getSimulatedTimeUnit()))){
             double currentTime = this.getCurrentStateTime().getSimulatedTime();
+            //State of the component, read once for the transition
+            long s = this.componentRef.getStateCell().read();
+            DWState state = StateCell.getEnum(s, Dishwasher.STATE, STATES);
+            DWMode mode = StateCell.getEnum(s, Dishwasher.MODE, MODES);
 
             //Change State to OFF if the dishwasher if on break
             //or it's the end of the cycle
-            if(this.isOnBreak() && this.getState() == DWState.ON ||
-                    this.getState() == DWState.ON && currentTime >= endCycle) {
+            if(StateCell.getBoolean(s, Dishwasher.BREAK) && state == DWState.ON ||
+                    state == DWState.ON && currentTime >= endCycle) {
                 this.setState(DWState.OFF);
+                state = DWState.OFF;
             }
             
             //Check if the mode has changed
             //If yes, change the endCycle following the remaining time
-            if(this.getState() == DWState.ON &&
-                    this.lastMode != this.getMode()) {
+            if(state == DWState.ON &&
+                    this.lastMode != mode) {
                 double remaining = endCycle - currentTime;
                 double r;
-                if(this.getMode() == DWMode.ECO) {
+                if(mode == DWMode.ECO) {
                     r = ECO_MODE_DURATION/STANDARD_MODE_DURATION;
                 } else {
                     r = STANDARD_MODE_DURATION/ECO_MODE_DURATION;
                 }
                 endCycle = currentTime + r * remaining;
-                this.lastMode = this.getMode();
+                this.lastMode = mode;
             }
 
             //Plotter
+            double power = getPower(state, mode);
             if(this.powerPlotter != null) {
-                if(this.lastPower != this.getPower()) {
+                if(this.lastPower != power) {
                     this.powerPlotter.addData(
                             SERIES,
                             currentTime,
@@ -205,13 +214,13 @@ public class DishwasherModel extends AtomicModel{
                 this.powerPlotter.addData(
                         SERIES,
                         currentTime,
-                        this.getPower());
+                        power);
             }
 
             //Check if consumption has changed
-            if(this.lastPower != this.getPower()) {
+            if(this.lastPower != power) {
                 this.consumptionHasChanged = true;
-                this.lastPower = this.getPower();
+                this.lastPower = power;
             }
         }
     }
@@ -249,55 +258,45 @@ public class DishwasherModel extends AtomicModel{
     // ------------------------------------------------------------------------
 
     private DWState getState(){
-        try {
-            return (DWState) this.componentRef.getEmbeddingComponentStateValue("state");
-        }catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return (DWState) this.componentRef.getEnumState(Dishwasher.STATE);
     }
 
     public void setState(DWState s){
-        try {
-            if(this.getState() != s) {
-                this.componentRef.setEmbeddingComponentStateValue("state", s);
-                if(s == DWState.ON) {
-                    DWMode m = this.getMode();
-                    if(m == DWMode.ECO) {
-                        this.endCycle =
-                                this.getCurrentStateTime().getSimulatedTime() +
-                                ECO_MODE_DURATION;
-                    } else if(m == DWMode.STANDARD) {
-                        this.endCycle =
-                                this.getCurrentStateTime().getSimulatedTime() +
-                                STANDARD_MODE_DURATION;
-                    }
-                    this.lastMode = m;
+        if(this.getState() != s) {
+            this.componentRef.setEnumState(Dishwasher.STATE, s);
+            if(s == DWState.ON) {
+                DWMode m = this.getMode();
+                if(m == DWMode.ECO) {
+                    this.endCycle =
+                            this.getCurrentStateTime().getSimulatedTime() +
+                            ECO_MODE_DURATION;
+                } else if(m == DWMode.STANDARD) {
+                    this.endCycle =
+                            this.getCurrentStateTime().getSimulatedTime() +
+                            STANDARD_MODE_DURATION;
                 }
+                this.lastMode = m;
             }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
         }
     }
 
     private DWMode getMode() {
-        try {
-            return (DWMode) this.componentRef.getEmbeddingComponentStateValue("mode");
-        }catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return (DWMode) this.componentRef.getEnumState(Dishwasher.MODE);
     }
 
     public boolean isOnBreak() {
-        try {
-            return (boolean) this.componentRef.getEmbeddingComponentStateValue("break");
-        }catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return this.componentRef.getBooleanState(Dishwasher.BREAK);
     }
 
     public double getPower(){
-        if(this.getState() == DWState.ON) {
-            if(this.getMode() == DWMode.ECO) {
+        long s = this.componentRef.getStateCell().read();
+        return getPower(StateCell.getEnum(s, Dishwasher.STATE, STATES),
+                StateCell.getEnum(s, Dishwasher.MODE, MODES));
+    }
+
+    private static double getPower(DWState state, DWMode mode){
+        if(state == DWState.ON) {
+            if(mode == DWMode.ECO) {
                 return ECO_MODE_CONSUMPTION;
             } else {
                 return STANDARD_MODE_CONSUMPTION;
@@ -10,6 +10,13 @@ import simulation.sil.dishwasher.models.DishwasherModel;
  * The class <code>DishWasherSimulatorPlugin</code> implements the simulation
  * plug-in for the component <code>Dishwasher</code>.
  * 
+ * <p><strong>Description</strong></p>
+ * 
+ * The model of the dishwasher is resolved once per run and kept, so that the
+ * queries of the component, e.g. <code>getTimeLeft</code>, are direct calls
+ * returning primitive values. <code>getModelStateValue</code> remains for
+ * the other users of the plug-in.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -21,6 +28,9 @@ public class DishWasherSimulatorPlugin extends AtomicSimulatorPlugin{
 
     private static final long serialVersionUID = 1L;
 
+    /** model of the dishwasher, null until the first request of a run */
+    protected volatile DishwasherModel model;
+
     @Override
     public void setSimulationRunParameters(
             Map<String, Object> simParams
@@ -28,11 +38,36 @@ public class DishWasherSimulatorPlugin extends AtomicSimulatorPlugin{
         simParams.put(DishwasherModel.COMPONENT_REF, this.owner) ;
         super.setSimulationRunParameters(simParams) ;
         simParams.remove(DishwasherModel.COMPONENT_REF) ;
+        this.model = null ;
+    }
+
+    /**
+     * Return the model of the dishwasher, resolved once per run
+     * 
+     * @return model of the dishwasher
+     * @throws Exception
+     */
+    protected DishwasherModel getModel() throws Exception {
+        DishwasherModel m = this.model;
+        if(m == null) {
+            m = (DishwasherModel) this.simulator.getDescendentModel(DishwasherModel.URI);
+            this.model = m;
+        }
+        return m;
+    }
+
+    /**
+     * @return time left before the end of the wash
+     * @throws Exception
+     */
+    public double getTimeLeft() throws Exception {
+        return this.getModel().getTimeLeft();
     }
 
     @Override
     public Object getModelStateValue(String modelURI, String name) throws Exception {
-        ModelDescriptionI m = this.simulator.getDescendentModel(modelURI) ;
+        ModelDescriptionI m = DishwasherModel.URI.equals(modelURI) ?
+                this.getModel() : this.simulator.getDescendentModel(modelURI) ;
         assert  m instanceof DishwasherModel;
         if(name.equals("time")) {
             return ((DishwasherModel)m).getTimeLeft();
@@ -0,0 +1,49 @@
+package simulation.sil.electricmeter.events;
+
+
+import fr.sorbonne_u.devs_simulation.models.AtomicModel;
+import fr.sorbonne_u.devs_simulation.models.events.Event;
+import fr.sorbonne_u.devs_simulation.models.events.EventInformationI;
+import fr.sorbonne_u.devs_simulation.models.time.Time;
+import simulation.sil.controller.models.ControllerModel;
+
+
+/**
+ * The class <code>NetEnergyChanged</code> represents a change in the
+ * available energy shown by the electric meter.
+ */
+public class NetEnergyChanged extends Event {
+
+    private static final long serialVersionUID = 1L;
+
+    public static class Reading implements EventInformationI {
+        private static final long serialVersionUID = 1L;
+        public final double value;
+
+        public Reading(double value) {
+            super();
+            this.value = value;
+        }
+    }
+
+    public NetEnergyChanged(Time timeOfOccurrence, double value) {
+        super(timeOfOccurrence, new Reading(value));
+    }
+
+    @Override
+    public String eventAsString() {
+        return "NetEnergyChanged(" + this.getTimeOfOccurrence().getSimulatedTime() + ")";
+    }
+
+    @Override
+    public String eventContentAsString() {
+        return "available = " +  ((Reading)this.getEventInformation()).value +" Watts ";
+    }
+
+    @Override
+    public void executeOn(AtomicModel model) {
+        assert model instanceof ControllerModel;
+        ControllerModel m = (ControllerModel) model;
+        m.setNetEnergy(((Reading)this.getEventInformation()).value);
+    }
+}
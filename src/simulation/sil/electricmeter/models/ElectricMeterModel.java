@@ -18,6 +18,7 @@ import fr.sorbonne_u.utils.XYPlotter;
 import simulation.sil.battery.events.BatteryConsumption;
 import simulation.sil.battery.events.BatteryProduction;
 import simulation.sil.dishwasher.events.DishwasherConsumption;
+import simulation.sil.electricmeter.events.NetEnergyChanged;
 import simulation.sil.fridge.events.FridgeConsumption;
 import simulation.sil.lamp.events.LampConsumption;
 import simulation.sil.windturbine.events.WindTurbineProduction;
@@ -39,7 +40,8 @@ import simulation.sil.windturbine.events.WindTurbineProduction;
         WindTurbineProduction.class,
         LampConsumption.class,
         FridgeConsumption.class,
-        DishwasherConsumption.class})
+        DishwasherConsumption.class},
+        exported = {NetEnergyChanged.class})
 public class ElectricMeterModel extends AtomicModel {
 
     private static final long serialVersionUID = 1L;
@@ -85,6 +87,11 @@ public class ElectricMeterModel extends AtomicModel {
     /** energy production of the wind turbine */
     private double windTurbineProduction;
 
+    /** true if the available energy has changed since the last notification */
+    private boolean energyHasChanged;
+    /** available energy sent in the last notification */
+    private double lastAvailableEnergy;
+
     /** plotter for the intensity over time. */
     protected XYPlotter consumptionPlotter;
     /** plotter for the produced energy over time. */
@@ -162,6 +169,9 @@ public class ElectricMeterModel extends AtomicModel {
         this.batteryProduction = 0.0;
         this.windTurbineProduction = 0.0;
 
+        this.energyHasChanged = false;
+        this.lastAvailableEnergy = 0.0;
+
         if(this.consumptionPlotter != null) {
             this.consumptionPlotter.initialise();
             this.consumptionPlotter.showPlotter();
@@ -199,13 +209,25 @@ public class ElectricMeterModel extends AtomicModel {
 
     @Override
     public ArrayList<EventI> output() {
-        return null;
+        if (this.energyHasChanged) {
+            ArrayList<EventI> ret = new ArrayList<EventI>();
+            Time currentTime = this.getCurrentStateTime().add(this.getNextTimeAdvance());
+            ret.add(new NetEnergyChanged(currentTime, this.lastAvailableEnergy));
+            this.energyHasChanged = false;
+            return ret;
+        } else {
+            return null;
+        }
     }
 
 
     @Override
     public Duration timeAdvance() {
-        return Duration.INFINITY;
+        if (this.energyHasChanged) {
+            return Duration.zero(this.getSimulatedTimeUnit());
+        } else {
+            return Duration.INFINITY;
+        }
     }
 
 
@@ -215,6 +237,10 @@ public class ElectricMeterModel extends AtomicModel {
         for(EventI e : currentEvents) {
             e.executeOn(this);
         }
+        if(this.lastAvailableEnergy != this.getAvailableEnergy()) {
+            this.lastAvailableEnergy = this.getAvailableEnergy();
+            this.energyHasChanged = true;
+        }
         if(consumptionPlotter != null) {
             this.consumptionPlotter.addData(
                     SERIES_CONSUMPTION,
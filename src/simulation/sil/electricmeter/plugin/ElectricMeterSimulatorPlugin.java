@@ -1,5 +1,7 @@
 package simulation.sil.electricmeter.plugin;
 
+import java.util.Map;
+
 import fr.sorbonne_u.components.cyphy.plugins.devs.AtomicSimulatorPlugin;
 import fr.sorbonne_u.devs_simulation.interfaces.ModelDescriptionI;
 import simulation.sil.electricmeter.models.ElectricMeterModel;
@@ -8,6 +10,13 @@ import simulation.sil.electricmeter.models.ElectricMeterModel;
  * The class <code>ElectricMeterSimulatorPlugin</code> implements the simulation
  * plug-in for the component <code>ElectricMeter</code>.
  * 
+ * <p><strong>Description</strong></p>
+ * 
+ * The model of the electric meter is resolved once per run and kept, so that the
+ * queries of the component, e.g. <code>getAvailableEnergy</code>, are direct calls
+ * returning primitive values. <code>getModelStateValue</code> remains for
+ * the other users of the plug-in.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -16,12 +25,63 @@ import simulation.sil.electricmeter.models.ElectricMeterModel;
  * 
  */
 public class ElectricMeterSimulatorPlugin extends AtomicSimulatorPlugin {
-    
+
     private static final long serialVersionUID = 1L;
 
+    /** model of the electric meter, null until the first request of a run */
+    protected volatile ElectricMeterModel model;
+
+    @Override
+    public void setSimulationRunParameters(
+            Map<String, Object> simParams
+            ) throws Exception {
+        super.setSimulationRunParameters(simParams) ;
+        this.model = null ;
+    }
+
+    /**
+     * Return the model of the electric meter, resolved once per run
+     * 
+     * @return model of the electric meter
+     * @throws Exception
+     */
+    protected ElectricMeterModel getModel() throws Exception {
+        ElectricMeterModel m = this.model;
+        if(m == null) {
+            m = (ElectricMeterModel) this.simulator.getDescendentModel(ElectricMeterModel.URI);
+            this.model = m;
+        }
+        return m;
+    }
+
+    /**
+     * @return energy available in the model
+     * @throws Exception
+     */
+    public double getAvailableEnergy() throws Exception {
+        return this.getModel().getAvailableEnergy();
+    }
+
+    /**
+     * @return energy consumed in the model
+     * @throws Exception
+     */
+    public double getConsumption() throws Exception {
+        return this.getModel().getConsumption();
+    }
+
+    /**
+     * @return energy produced in the model
+     * @throws Exception
+     */
+    public double getProduction() throws Exception {
+        return this.getModel().getProduction();
+    }
+
     @Override
     public Object getModelStateValue(String modelURI, String name) throws Exception {
-        ModelDescriptionI m = this.simulator.getDescendentModel(modelURI) ;
+        ModelDescriptionI m = ElectricMeterModel.URI.equals(modelURI) ?
+                this.getModel() : this.simulator.getDescendentModel(modelURI) ;
         assert  m instanceof ElectricMeterModel;
         if(name.equals("available")) {
             return ((ElectricMeterModel)m).getAvailableEnergy();
@@ -7,8 +7,8 @@ import java.util.concurrent.TimeUnit;
 import components.Fridge;
 import components.Fridge.DoorState;
 import components.Fridge.FState;
+import components.StateCell;
 import fr.sorbonne_u.devs_simulation.hioa.models.AtomicHIOAwithEquations;
-import fr.sorbonne_u.devs_simulation.hioa.models.vars.Value;
 import fr.sorbonne_u.devs_simulation.models.annotations.ModelExternalEvents;
 import fr.sorbonne_u.devs_simulation.models.events.EventI;
 import fr.sorbonne_u.devs_simulation.models.time.Duration;
@@ -23,6 +23,7 @@ import simulation.sil.fridge.events.FreezerOpen;
 import simulation.sil.fridge.events.FridgeClose;
 import simulation.sil.fridge.events.FridgeConsumption;
 import simulation.sil.fridge.events.FridgeOpen;
+import simulation.utils.DoubleVariable;
 
 /**
  * The class <code>FridgeModel</code> implements a simulation model
@@ -88,14 +89,17 @@ public class FridgeModel extends AtomicHIOAwithEquations{
     /** Ambient temperature */ 
     protected static final double AMBIENT_TEMP = 25.0 ; 
 
+    protected static final FState[] FSTATES = FState.values();
+    protected static final DoorState[] DOOR_STATES = DoorState.values();
+
     /** Fridge's temperature in Celsius		*/
-    private final Value<Double> currentFridgeTemperature = new Value<Double>(this, FRIDGE_TEMP_MIN, 0) ;
+    private final DoubleVariable currentFridgeTemperature = new DoubleVariable(FRIDGE_TEMP_MIN) ;
     /** Freezer's temperature in Celsius		*/
-    private final Value<Double> currentFreezerTemperature = new Value<Double>(this, FREEZER_TEMP_MIN, 0) ;
+    private final DoubleVariable currentFreezerTemperature = new DoubleVariable(FREEZER_TEMP_MIN) ;
     /** Freezer's intensity in Celsius		*/
-    private final Value<Double> currentFreezerPower = new Value<Double>(this, 0.0, 0) ;
+    private final DoubleVariable currentFreezerPower = new DoubleVariable(0.0) ;
     /** Fridge's intensity in Celsius		*/
-    private final Value<Double> currentFridgePower = new Value<Double>(this, 0.0, 0) ;
+    private final DoubleVariable currentFridgePower = new DoubleVariable(0.0) ;
 
     /** Check if the consumption has changed since last time */
     private boolean consumptionHasChanged;
@@ -238,30 +242,31 @@ public class FridgeModel extends AtomicHIOAwithEquations{
     public void userDefinedInternalTransition(Duration elapsedTime) {
         super.userDefinedInternalTransition(elapsedTime);
         if(elapsedTime.greaterThan(Duration.zero(getSimulatedTimeUnit()))){
-            FState fridgeState = this.getFridgeState();
-            FState freezerState = this.getFreezerState();
+            //State of the component, read once for the transition
+            long s = this.componentRef.getStateCell().read();
+            FState fridgeState = StateCell.getEnum(s, Fridge.FRIDGE_STATE, FSTATES);
+            FState freezerState = StateCell.getEnum(s, Fridge.FREEZER_STATE, FSTATES);
+            double steps = elapsedTime.getSimulatedDuration()/timeAdvance().getSimulatedDuration();
 
             //Coefficients for when the fridge or the freezer is open
             double doorFreezerOpenCoefficient = 1;
             double doorFridgeOpenCoefficient = 1;
-            if(this.getFridgeDoorState() == DoorState.OPEN) {
+            if(StateCell.getEnum(s, Fridge.FRIDGE_DOOR, DOOR_STATES) == DoorState.OPEN) {
                 doorFridgeOpenCoefficient = 1.5;
             }
-            if(this.getFreezerDoorState() == DoorState.OPEN) {
+            if(StateCell.getEnum(s, Fridge.FREEZER_DOOR, DOOR_STATES) == DoorState.OPEN) {
                 doorFreezerOpenCoefficient = 2;
             }
 
             //Change freezer's temperature
-            if(freezerState == FState.OFF || this.isFreezerOnBreak()) {
+            if(freezerState == FState.OFF || StateCell.getBoolean(s, Fridge.FREEZER_BREAK)) {
                 this.currentFreezerTemperature.v =
                         Math.min(AMBIENT_TEMP, this.currentFreezerTemperature.v +
-                                FREEZER_TEMP_MODIF * doorFreezerOpenCoefficient *
-                                (elapsedTime.getSimulatedDuration()/timeAdvance().getSimulatedDuration()));
+                                FREEZER_TEMP_MODIF * doorFreezerOpenCoefficient * steps);
             } else {
                 this.currentFreezerTemperature.v =
                         this.currentFreezerTemperature.v -
-                        FREEZER_TEMP_MODIF * doorFreezerOpenCoefficient *
-                        (elapsedTime.getSimulatedDuration()/timeAdvance().getSimulatedDuration());
+                        FREEZER_TEMP_MODIF * doorFreezerOpenCoefficient * steps;
             }
             if(this.temperatureFreezerPlotter != null) {
                 this.temperatureFreezerPlotter.addData(
@@ -270,16 +275,14 @@ public class FridgeModel extends AtomicHIOAwithEquations{
                         this.getFreezerTemperature());
             }
             //Change fridge's temperature
-            if(fridgeState == FState.OFF || this.isFridgeOnBreak()) {
+            if(fridgeState == FState.OFF || StateCell.getBoolean(s, Fridge.FRIDGE_BREAK)) {
                 this.currentFridgeTemperature.v =
                         Math.min(AMBIENT_TEMP, this.currentFridgeTemperature.v +
-                                FRIDGE_TEMP_MODIF * doorFridgeOpenCoefficient *
-                                (elapsedTime.getSimulatedDuration()/timeAdvance().getSimulatedDuration()));
+                                FRIDGE_TEMP_MODIF * doorFridgeOpenCoefficient * steps);
             } else {
                 this.currentFridgeTemperature.v =
                         this.currentFridgeTemperature.v -
-                        FRIDGE_TEMP_MODIF * doorFridgeOpenCoefficient *
-                        (elapsedTime.getSimulatedDuration()/timeAdvance().getSimulatedDuration());
+                        FRIDGE_TEMP_MODIF * doorFridgeOpenCoefficient * steps;
             }
             if(this.temperatureFridgePlotter != null) {
                 this.temperatureFridgePlotter.addData(
@@ -307,9 +310,10 @@ public class FridgeModel extends AtomicHIOAwithEquations{
             }
 
 
-            //Power consumption
+            //Power consumption, the breaks are only changed by the component
+            double power = this.getPower(s);
             if(this.powerPlotter != null) {
-                if(this.lastPower != getPower()) {
+                if(this.lastPower != power) {
                     this.powerPlotter.addData(
                             SERIES_POWER,
                             this.getCurrentStateTime().getSimulatedTime(),
@@ -318,11 +322,11 @@ public class FridgeModel extends AtomicHIOAwithEquations{
                 this.powerPlotter.addData(
                         SERIES_POWER,
                         this.getCurrentStateTime().getSimulatedTime(),
-                        this.getPower());
+                        power);
             }
-            if(this.lastPower != this.getPower()) {
+            if(this.lastPower != power) {
                 this.consumptionHasChanged = true;
-                this.lastPower = this.getPower();
+                this.lastPower = power;
             }
         }
     }
@@ -382,38 +386,22 @@ public class FridgeModel extends AtomicHIOAwithEquations{
     // ------------------------------------------------------------------------
 
     private DoorState getFridgeDoorState() {
-        try {
-            return (DoorState) this.componentRef.getEmbeddingComponentStateValue("fridge door");
-        }catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return (DoorState) this.componentRef.getEnumState(Fridge.FRIDGE_DOOR);
     }
 
     public void setFridgeDoor(DoorState state) {
-        try {
-            if(this.getFridgeDoorState() != state) {
-                this.componentRef.setEmbeddingComponentStateValue("fridge door", state);
-            }
-        }catch (Exception e) {
-            throw new RuntimeException(e);
+        if(this.getFridgeDoorState() != state) {
+            this.componentRef.setEnumState(Fridge.FRIDGE_DOOR, state);
         }
     }
 
     private DoorState getFreezerDoorState() {
-        try {
-            return (DoorState) this.componentRef.getEmbeddingComponentStateValue("freezer door");
-        }catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return (DoorState) this.componentRef.getEnumState(Fridge.FREEZER_DOOR);
     }
 
     public void setFreezerDoor(DoorState state) {
-        try {
-            if(this.getFreezerDoorState() != state) {
-                this.componentRef.setEmbeddingComponentStateValue("freezer door", state);
-            }
-        }catch (Exception e) {
-            throw new RuntimeException(e);
+        if(this.getFreezerDoorState() != state) {
+            this.componentRef.setEnumState(Fridge.FREEZER_DOOR, state);
         }
     }
 
@@ -425,75 +413,60 @@ public class FridgeModel extends AtomicHIOAwithEquations{
         this.currentFreezerPower.v = v;
     }
 
-    private double getFridgePower() {
-        if(this.isFridgeOnBreak()) {
-            return 0.0;
-        } else {
-            return this.currentFridgePower.v;
-        }
+    public double getPower() {
+        // both breaks at the same version of the state
+        return this.getPower(this.componentRef.getStateCell().read());
     }
 
-    private double getFreezerPower() {
-        if(this.isFreezerOnBreak()) {
-            return 0.0;
-        } else {
-            return this.currentFreezerPower.v;
+    /**
+     * Return the power consumed with the breaks of a snapshot of the state
+     * @param s snapshot of the state of the component
+     * @return power consumed by the fridge and the freezer
+     */
+    private double getPower(long s) {
+        double power = 0.0;
+        if(!StateCell.getBoolean(s, Fridge.FRIDGE_BREAK)) {
+            power += this.currentFridgePower.v;
         }
-    }
-
-    public double getPower() {
-        return this.getFridgePower() + this.getFreezerPower();
+        if(!StateCell.getBoolean(s, Fridge.FREEZER_BREAK)) {
+            power += this.currentFreezerPower.v;
+        }
+        return power;
     }
 
     public FState getFridgeState() {
-        try {
-            return (FState) this.componentRef.getEmbeddingComponentStateValue("fridge state");
-        }catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return (FState) this.componentRef.getEnumState(Fridge.FRIDGE_STATE);
     }
 
     public void setFridgeState(FState state) {
-        try {
-            if(this.getFridgeState() != state) {
-                this.componentRef.setEmbeddingComponentStateValue("fridge state", state);
-                switch(state) {
-                case OFF :
-                    this.setFridgePower(0.0);
-                    break ;
-                case ON :
-                    this.setFridgePower(FRIDGE_ON_CONSUMPTION);
-                    break ;
-                }
+        if(this.getFridgeState() != state) {
+            this.componentRef.setEnumState(Fridge.FRIDGE_STATE, state);
+            switch(state) {
+            case OFF :
+                this.setFridgePower(0.0);
+                break ;
+            case ON :
+                this.setFridgePower(FRIDGE_ON_CONSUMPTION);
+                break ;
             }
-        }catch (Exception e) {
-            throw new RuntimeException(e);
         }
     }
 
     public FState getFreezerState() {
-        try {
-            return (FState) this.componentRef.getEmbeddingComponentStateValue("freezer state");
-        }catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return (FState) this.componentRef.getEnumState(Fridge.FREEZER_STATE);
     }
 
     public void setFreezerState(FState state) {
-        try {
-            if(this.getFreezerState() != state) {
-                this.componentRef.setEmbeddingComponentStateValue("freezer state", state);
-                switch(state) {
-                case OFF :
-                    this.setFreezerPower(0.0);
-                    break ;
-                case ON :
-                    this.setFreezerPower(FREEZER_ON_CONSUMPTION);
-                    break ;
-                }
+        if(this.getFreezerState() != state) {
+            this.componentRef.setEnumState(Fridge.FREEZER_STATE, state);
+            switch(state) {
+            case OFF :
+                this.setFreezerPower(0.0);
+                break ;
+            case ON :
+                this.setFreezerPower(FREEZER_ON_CONSUMPTION);
+                break ;
             }
-        }catch (Exception e) {
-            throw new RuntimeException(e);
         }
     }
 
@@ -504,28 +477,4 @@ public class FridgeModel extends AtomicHIOAwithEquations{
     public double getFridgeTemperature() {
         return this.currentFridgeTemperature.v;
     }
-
-    /**
-     * Return true if the Fridge has to be off (order from the controller)
-     * @return
-     */
-    private boolean isFridgeOnBreak() {
-        try {
-            return (boolean) this.componentRef.getEmbeddingComponentStateValue("fridge break");
-        }catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    /**
-     * Return true if the Freezer has to be off (order from the controller)
-     * @return
-     */
-    private boolean isFreezerOnBreak() {
-        try {
-            return (boolean) this.componentRef.getEmbeddingComponentStateValue("freezer break");
-        }catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
 }
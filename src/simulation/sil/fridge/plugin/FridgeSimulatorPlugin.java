@@ -10,6 +10,13 @@ import simulation.sil.fridge.models.FridgeModel;
  * The class <code>FridgeSimulatorPlugin</code> implements the simulation
  * plug-in for the component <code>FridgeSimulator</code>.
  * 
+ * <p><strong>Description</strong></p>
+ * 
+ * The model of the fridge is resolved once per run and kept, so that the
+ * queries of the component, e.g. <code>getPower</code>, are direct calls
+ * returning primitive values. <code>getModelStateValue</code> remains for
+ * the other users of the plug-in.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -18,9 +25,12 @@ import simulation.sil.fridge.models.FridgeModel;
  * 
  */
 public class FridgeSimulatorPlugin extends AtomicSimulatorPlugin {
-    
+
     private static final long serialVersionUID = 1L;
 
+    /** model of the fridge, null until the first request of a run */
+    protected volatile FridgeModel model;
+
     @Override
     public void setSimulationRunParameters(
             Map<String, Object> simParams
@@ -28,11 +38,36 @@ public class FridgeSimulatorPlugin extends AtomicSimulatorPlugin {
         simParams.put(FridgeModel.COMPONENT_REF, this.owner) ;
         super.setSimulationRunParameters(simParams) ;
         simParams.remove(FridgeModel.COMPONENT_REF) ;
+        this.model = null ;
+    }
+
+    /**
+     * Return the model of the fridge, resolved once per run
+     * 
+     * @return model of the fridge
+     * @throws Exception
+     */
+    protected FridgeModel getModel() throws Exception {
+        FridgeModel m = this.model;
+        if(m == null) {
+            m = (FridgeModel) this.simulator.getDescendentModel(FridgeModel.URI);
+            this.model = m;
+        }
+        return m;
+    }
+
+    /**
+     * @return power consumed by the fridge and the freezer
+     * @throws Exception
+     */
+    public double getPower() throws Exception {
+        return this.getModel().getPower();
     }
 
     @Override
     public Object getModelStateValue(String modelURI, String name) throws Exception {
-        ModelDescriptionI m = this.simulator.getDescendentModel(modelURI) ;
+        ModelDescriptionI m = FridgeModel.URI.equals(modelURI) ?
+                this.getModel() : this.simulator.getDescendentModel(modelURI) ;
         assert  m instanceof FridgeModel;
         if(name.equals("power")) {
             return ((FridgeModel)m).getPower();
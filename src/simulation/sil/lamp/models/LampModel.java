@@ -7,7 +7,6 @@ import java.util.concurrent.TimeUnit;
 import components.Lamp;
 import components.Lamp.LampState;
 import fr.sorbonne_u.devs_simulation.hioa.models.AtomicHIOAwithEquations;
-import fr.sorbonne_u.devs_simulation.hioa.models.vars.Value;
 import fr.sorbonne_u.devs_simulation.interfaces.SimulationReportI;
 import fr.sorbonne_u.devs_simulation.models.annotations.ModelExternalEvents;
 import fr.sorbonne_u.devs_simulation.models.events.Event;
@@ -25,6 +24,7 @@ import simulation.sil.lamp.events.LampHigh;
 import simulation.sil.lamp.events.LampLow;
 import simulation.sil.lamp.events.LampMedium;
 import simulation.sil.lamp.events.LampOff;
+import simulation.utils.DoubleVariable;
 
 /**
  * The class <code>LampModel</code> implements a simulation model
@@ -78,7 +78,7 @@ public class LampModel 	extends AtomicHIOAwithEquations {
     public static final double HIGH_MODE_CONSUMPTION = 60.0; // Watts
 
     /** current power in watts.			*/
-    private final Value<Double> currentPower = new Value<Double>(this, 0.0, 0);
+    private final DoubleVariable currentPower = new DoubleVariable(0.0);
     private boolean consumptionHasChanged;
     private double lastPower;
 
@@ -139,26 +139,22 @@ public class LampModel 	extends AtomicHIOAwithEquations {
 
     @Override
     protected void initialiseVariables(Time startTime){
-        try {
-            LampState s = (LampState) this.componentRef.getEmbeddingComponentStateValue("state");
-            switch(s) {
-            case OFF:
-                this.currentPower.v = 0.0;
-                break;
-            case LOW:
-                this.currentPower.v = LOW_MODE_CONSUMPTION;
-                break;
-            case MEDIUM:
-                this.currentPower.v = MEDIUM_MODE_CONSUMPTION;
-                break;
-            case HIGH:
-                this.currentPower.v = HIGH_MODE_CONSUMPTION;
-                break;
-            }
-            this.lastPower = this.currentPower.v;
-        }catch (Exception e) {
-            throw new RuntimeException(e);
+        LampState s = (LampState) this.componentRef.getEnumState(Lamp.STATE);
+        switch(s) {
+        case OFF:
+            this.currentPower.v = 0.0;
+            break;
+        case LOW:
+            this.currentPower.v = LOW_MODE_CONSUMPTION;
+            break;
+        case MEDIUM:
+            this.currentPower.v = MEDIUM_MODE_CONSUMPTION;
+            break;
+        case HIGH:
+            this.currentPower.v = HIGH_MODE_CONSUMPTION;
+            break;
         }
+        this.lastPower = this.currentPower.v;
 
         //First dot in the plotter
         if(this.powerPlotter != null) {
@@ -197,8 +193,9 @@ public class LampModel 	extends AtomicHIOAwithEquations {
     @Override
     public void userDefinedInternalTransition(Duration elapsedTime) {
         super.userDefinedInternalTransition(elapsedTime);
+        double power = this.getPower();
         if(powerPlotter != null) {
-            if(lastPower != this.getPower()) {
+            if(lastPower != power) {
                 this.powerPlotter.addData(
                         SERIES,
                         this.getCurrentStateTime().getSimulatedTime(),
@@ -207,11 +204,11 @@ public class LampModel 	extends AtomicHIOAwithEquations {
             this.powerPlotter.addData(
                     SERIES,
                     this.getCurrentStateTime().getSimulatedTime(),
-                    this.getPower());
+                    power);
         }
-        if(lastPower != this.getPower()) {
+        if(lastPower != power) {
             this.consumptionHasChanged = true;
-            lastPower = this.getPower();
+            lastPower = power;
         }
     }
 
@@ -252,36 +249,28 @@ public class LampModel 	extends AtomicHIOAwithEquations {
     // ------------------------------------------------------------------------
 
     public void	setState(LampState s){
-        try {
-            if(s != this.getState()) {
-                this.componentRef.setEmbeddingComponentStateValue("state", s);
-                switch (s){
-                case OFF :
-                    this.setPower(0);
-                    break;
-                case LOW :
-                    this.setPower(LOW_MODE_CONSUMPTION);
-                    break;
-                case MEDIUM :
-                    this.setPower(MEDIUM_MODE_CONSUMPTION);
-                    break;
-                case HIGH :
-                    this.setPower(HIGH_MODE_CONSUMPTION);
-                    break;
-                }
+        if(s != this.getState()) {
+            this.componentRef.setEnumState(Lamp.STATE, s);
+            switch (s){
+            case OFF :
+                this.setPower(0);
+                break;
+            case LOW :
+                this.setPower(LOW_MODE_CONSUMPTION);
+                break;
+            case MEDIUM :
+                this.setPower(MEDIUM_MODE_CONSUMPTION);
+                break;
+            case HIGH :
+                this.setPower(HIGH_MODE_CONSUMPTION);
+                break;
             }
-        }catch (Exception e) {
-            throw new RuntimeException(e);
         }
     }
 
 
     public LampState getState() {
-        try {
-            return (LampState) this.componentRef.getEmbeddingComponentStateValue("state");
-        }catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return (LampState) this.componentRef.getEnumState(Lamp.STATE);
     }
 
 
@@ -299,10 +288,6 @@ public class LampModel 	extends AtomicHIOAwithEquations {
     
     
     public boolean isOnBreak() {
-        try {
-            return (boolean) this.componentRef.getEmbeddingComponentStateValue("break");
-        }catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return this.componentRef.getBooleanState(Lamp.BREAK);
     }
 }
@@ -10,6 +10,13 @@ import simulation.sil.lamp.models.LampModel;
  * The class <code>LampSimulatorPlugin</code> implements the simulation
  * plug-in for the component <code>Lamp</code>.
  * 
+ * <p><strong>Description</strong></p>
+ * 
+ * The model of the lamp is resolved once per run and kept, so that the
+ * queries of the component, e.g. <code>getPower</code>, are direct calls
+ * returning primitive values. <code>getModelStateValue</code> remains for
+ * the other users of the plug-in.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -21,6 +28,9 @@ public class LampSimulatorPlugin  extends AtomicSimulatorPlugin {
 
     private static final long serialVersionUID = 1L;
 
+    /** model of the lamp, null until the first request of a run */
+    protected volatile LampModel model;
+
     @Override
     public void setSimulationRunParameters(
             Map<String, Object> simParams
@@ -28,11 +38,36 @@ public class LampSimulatorPlugin  extends AtomicSimulatorPlugin {
         simParams.put(LampModel.COMPONENT_REF, this.owner) ;
         super.setSimulationRunParameters(simParams) ;
         simParams.remove(LampModel.COMPONENT_REF) ;
+        this.model = null ;
+    }
+
+    /**
+     * Return the model of the lamp, resolved once per run
+     * 
+     * @return model of the lamp
+     * @throws Exception
+     */
+    protected LampModel getModel() throws Exception {
+        LampModel m = this.model;
+        if(m == null) {
+            m = (LampModel) this.simulator.getDescendentModel(LampModel.URI);
+            this.model = m;
+        }
+        return m;
+    }
+
+    /**
+     * @return power consumed by the lamp
+     * @throws Exception
+     */
+    public double getPower() throws Exception {
+        return this.getModel().getPower();
     }
 
     @Override
     public Object getModelStateValue(String modelURI, String name) throws Exception {
-        ModelDescriptionI m = this.simulator.getDescendentModel(modelURI) ;
+        ModelDescriptionI m = LampModel.URI.equals(modelURI) ?
+                this.getModel() : this.simulator.getDescendentModel(modelURI) ;
         assert	m instanceof LampModel;
         assert	name.equals("power") ;
         return ((LampModel)m).getPower() ;
@@ -146,15 +146,16 @@ public class WindSensorModel extends AtomicHIOAwithEquations{
     @Override
     public ArrayList<EventI> output() {
         if (this.triggerReading) {
+            double speed = this.wind.v;
             if (this.plotter != null) {
-                this.plotter.addData(SERIES,this.lastReadingTime,this.wind.v);
-                this.plotter.addData(SERIES,this.getCurrentStateTime().getSimulatedTime(),this.wind.v);
+                this.plotter.addData(SERIES,this.lastReadingTime,speed);
+                this.plotter.addData(SERIES,this.getCurrentStateTime().getSimulatedTime(),speed);
             }
-            this.lastReading = this.wind.v;
+            this.lastReading = speed;
             this.lastReadingTime = this.getCurrentStateTime().getSimulatedTime();
             ArrayList<EventI> ret = new ArrayList<EventI>(1);
             Time currentTime = this.getCurrentStateTime().add(this.getNextTimeAdvance());
-            WindReading wr = new WindReading(currentTime, this.wind.v);
+            WindReading wr = new WindReading(currentTime, speed);
             ret.add(wr);
             this.readings.addElement(wr);
             this.triggerReading = false;
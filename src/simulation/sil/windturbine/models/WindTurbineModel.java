@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import components.StateCell;
 import components.WindTurbine;
 import fr.sorbonne_u.devs_simulation.interfaces.SimulationReportI;
 import fr.sorbonne_u.devs_simulation.models.AtomicModel;
@@ -181,25 +182,29 @@ public class WindTurbineModel extends AtomicModel {
 
     @Override
     public void userDefinedInternalTransition(Duration elapsedTime) {
-        if(this.isOnBreak()) {
-            if(this.isOn()) {
+        //State of the component, read once for the transition
+        long s = this.componentRef.getStateCell().read();
+        boolean on = StateCell.getBoolean(s, WindTurbine.STATE);
+        if(StateCell.getBoolean(s, WindTurbine.BREAK)) {
+            if(on) {
                 this.setState(false);
             }
         } else {
-            this.checkSpeed();
-            if(this.isOn()) {
+            on = this.checkSpeed(on);
+            if(on) {
                 this.setPower(COEFF * Math.pow(speed, 3));
             }
         }
+        double power = this.getPower();
         if(this.powerPlotter != null) {
             this.powerPlotter.addData(
                     SERIES,
                     this.getCurrentStateTime().getSimulatedTime(),
-                    this.getPower()
+                    power
                     );
         }
-        if(this.lastPower != this.getPower()) {
-            this.lastPower = this.getPower();
+        if(this.lastPower != power) {
+            this.lastPower = power;
             this.productionHasChanged = true;
         }
 
@@ -240,25 +245,17 @@ public class WindTurbineModel extends AtomicModel {
     // ------------------------------------------------------------------------
 
     private boolean isOn() {
-        try {
-            return (boolean) this.componentRef.getEmbeddingComponentStateValue("state");
-        }catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return this.componentRef.getBooleanState(WindTurbine.STATE);
     }
 
     private void setState(boolean state) {
-        try {
-            if(this.isOn() != state) {
-                this.componentRef.setEmbeddingComponentStateValue("state", state);
-                if(state) {
-                    this.setPower(COEFF * Math.pow(speed, 3));
-                }else {
-                    this.setPower(0);
-                }
+        if(this.isOn() != state) {
+            this.componentRef.setBooleanState(WindTurbine.STATE, state);
+            if(state) {
+                this.setPower(COEFF * Math.pow(speed, 3));
+            }else {
+                this.setPower(0);
             }
-        }catch (Exception e) {
-            throw new RuntimeException(e);
         }
     }
 
@@ -278,20 +275,19 @@ public class WindTurbineModel extends AtomicModel {
         return speed;
     }
 
-    private void checkSpeed() {
-        boolean on = this.isOn();
+    /**
+     * Switch the wind turbine on or off following the speed of the wind
+     * @param on true if the wind turbine is on
+     * @return true if the wind turbine is on after the check
+     */
+    private boolean checkSpeed(boolean on) {
         if(!on && speed >= minSpeed && speed <= maxSpeed) {
             this.setState(true);
+            return true;
         }else if(on && (speed < minSpeed || speed > maxSpeed)) {
             this.setState(false);
+            return false;
         }
-    }
-
-    private boolean isOnBreak() {
-        try {
-            return (boolean) this.componentRef.getEmbeddingComponentStateValue("break");
-        }catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return on;
     }
 }
@@ -10,6 +10,13 @@ import simulation.sil.windturbine.models.WindTurbineModel;
  * The class <code>WindTurbineSimulatorPlugin</code> implements the simulation
  * plug-in for the component <code>WindTurbine</code>.
  * 
+ * <p><strong>Description</strong></p>
+ * 
+ * The model of the wind turbine is resolved once per run and kept, so that the
+ * queries of the component, e.g. <code>getSpeed</code>, are direct calls
+ * returning primitive values. <code>getModelStateValue</code> remains for
+ * the other users of the plug-in.
+ * 
  * <p><strong>Invariant</strong></p>
  * 
  * <pre>
@@ -21,6 +28,9 @@ public class WindTurbineSimulatorPlugin extends AtomicSimulatorPlugin {
 
     private static final long serialVersionUID = 1L;
 
+    /** model of the wind turbine, null until the first request of a run */
+    protected volatile WindTurbineModel model;
+
     @Override
     public void setSimulationRunParameters(
             Map<String, Object> simParams
@@ -28,11 +38,36 @@ public class WindTurbineSimulatorPlugin extends AtomicSimulatorPlugin {
         simParams.put(WindTurbineModel.COMPONENT_REF, this.owner) ;
         super.setSimulationRunParameters(simParams) ;
         simParams.remove(WindTurbineModel.COMPONENT_REF) ;
+        this.model = null ;
+    }
+
+    /**
+     * Return the model of the wind turbine, resolved once per run
+     * 
+     * @return model of the wind turbine
+     * @throws Exception
+     */
+    protected WindTurbineModel getModel() throws Exception {
+        WindTurbineModel m = this.model;
+        if(m == null) {
+            m = (WindTurbineModel) this.simulator.getDescendentModel(WindTurbineModel.URI);
+            this.model = m;
+        }
+        return m;
+    }
+
+    /**
+     * @return speed of the wind seen by the wind turbine
+     * @throws Exception
+     */
+    public double getSpeed() throws Exception {
+        return this.getModel().getSpeed();
     }
 
     @Override
     public Object getModelStateValue(String modelURI, String name) throws Exception {
-        ModelDescriptionI m = this.simulator.getDescendentModel(modelURI) ;
+        ModelDescriptionI m = WindTurbineModel.URI.equals(modelURI) ?
+                this.getModel() : this.simulator.getDescendentModel(modelURI) ;
         assert  m instanceof WindTurbineModel;
         if(name.equals("speed")) {
             return ((WindTurbineModel)m).getSpeed();
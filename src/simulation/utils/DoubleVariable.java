@@ -0,0 +1,31 @@
+package simulation.utils;
+
+/**
+ * The class <code>DoubleVariable</code> is a continuous variable of a model
+ * holding a primitive double.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * It replaces a <code>Value&lt;Double&gt;</code> that is neither exported
+ * nor imported: the value is read and written through the same field
+ * <code>v</code>, but a write does not box a <code>Double</code>. The
+ * variables bound by the HIOA architecture must remain
+ * <code>Value&lt;Double&gt;</code>, as the importing model shares the
+ * <code>Value</code> of the exporting one.
+ */
+public class DoubleVariable
+{
+    /** current value of the variable */
+    public double v;
+
+    public DoubleVariable(double v)
+    {
+        this.v = v;
+    }
+
+    @Override
+    public String toString()
+    {
+        return Double.toString(this.v);
+    }
+}
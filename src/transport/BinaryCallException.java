@@ -0,0 +1,19 @@
+package transport;
+
+/**
+ * The class <code>BinaryCallException</code> is thrown by a
+ * <code>BinaryClient</code> when the call failed on the server, with the
+ * message of the exception thrown there.
+ */
+public class BinaryCallException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create the exception
+     *
+     * @param message message of the exception thrown by the server
+     */
+    public BinaryCallException(String message) {
+        super(message);
+    }
+}
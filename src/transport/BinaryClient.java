@@ -0,0 +1,185 @@
+package transport;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The class <code>BinaryClient</code> sends the calls of the binary
+ * transport to one server.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * A client keeps one connection open to its server, shared by all the
+ * threads of the JVM calling this server: <code>get</code> returns the same
+ * client for the same address. A call writes its frame and waits for the
+ * response with the same identifier, read by the thread of the client;
+ * several calls may be pending at the same time.
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		address != null
+ * </pre>
+ */
+public class BinaryClient implements Closeable {
+    /** open clients, by address */
+    protected static final ConcurrentHashMap<String, BinaryClient> clients = new ConcurrentHashMap<>();
+
+    /** address of the server, as host:port */
+    protected final String address;
+    /** channel of the connection */
+    protected final SocketChannel channel;
+    /** calls waiting for their response, by identifier */
+    protected final ConcurrentHashMap<Integer, CompletableFuture<ByteBuffer>> pending =
+            new ConcurrentHashMap<>();
+    /** identifier of the last call */
+    protected final AtomicInteger lastId = new AtomicInteger();
+    /** thread reading the responses */
+    protected final Thread reader;
+    /** true once the connection is closed */
+    protected volatile boolean closed;
+
+    /**
+     * Return the client of a server, opening a connection if there is none
+     *
+     * @param address address of the server, as host:port
+     * @return client of the server
+     * @throws IOException
+     */
+    public static BinaryClient get(String address) throws IOException {
+        synchronized(clients) {
+            BinaryClient c = clients.get(address);
+            if(c == null || c.closed) {
+                c = new BinaryClient(address);
+                clients.put(address, c);
+            }
+            return c;
+        }
+    }
+
+    /**
+     * Open a connection to a server
+     *
+     * @param address address of the server, as host:port
+     * @throws IOException
+     */
+    public BinaryClient(String address) throws IOException {
+        assert address != null;
+        int i = address.lastIndexOf(':');
+        this.address = address;
+        this.channel = SocketChannel.open(new InetSocketAddress(
+                address.substring(0, i), Integer.parseInt(address.substring(i + 1))));
+        this.channel.socket().setTcpNoDelay(true);
+        this.reader = new Thread(this::read, "binary-client-" + address);
+        this.reader.setDaemon(true);
+        this.reader.start();
+    }
+
+    /**
+     * Make a call and wait for its result
+     *
+     * @param method identifier of the method
+     * @param args arguments of the call, or null if there is none
+     * @return result of the call
+     * @throws BinaryCallException if the call failed on the server
+     * @throws Exception
+     */
+    public ByteBuffer call(byte method, ByteBuffer args) throws Exception {
+        int size = args == null ? 0 : args.remaining();
+        int id = this.lastId.incrementAndGet();
+        ByteBuffer frame = ByteBuffer.allocate(BinaryTransport.HEADER_SIZE + size);
+        frame.putInt(BinaryTransport.HEADER_SIZE - 4 + size).putInt(id).put(method);
+        if(args != null) {
+            frame.put(args);
+        }
+        frame.flip();
+
+        CompletableFuture<ByteBuffer> f = new CompletableFuture<>();
+        this.pending.put(id, f);
+        try {
+            if(this.closed) {
+                throw new IOException("connection to " + this.address + " closed");
+            }
+            synchronized(this.channel) {
+                while(frame.hasRemaining()) {
+                    this.channel.write(frame);
+                }
+            }
+            ByteBuffer r = f.get(BinaryTransport.TIMEOUT, TimeUnit.MILLISECONDS);
+            if(r.get() == BinaryTransport.ERROR) {
+                throw new BinaryCallException(BinaryTransport.getString(r));
+            }
+            return r;
+        } catch(ExecutionException e) {
+            throw new IOException("connection to " + this.address + " closed", e.getCause());
+        } finally {
+            this.pending.remove(id);
+        }
+    }
+
+    /**
+     * Read the responses until the connection is closed
+     */
+    protected void read() {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        IOException cause = null;
+        try {
+            while(!this.closed) {
+                header.clear();
+                this.readFully(header);
+                int length = header.getInt(0);
+                if(length < BinaryTransport.HEADER_SIZE - 4 || length > BinaryTransport.MAX_FRAME_SIZE) {
+                    throw new IOException("invalid frame length " + length);
+                }
+                ByteBuffer frame = ByteBuffer.allocate(length);
+                this.readFully(frame);
+                frame.flip();
+                CompletableFuture<ByteBuffer> f = this.pending.get(frame.getInt());
+                if(f != null) {
+                    f.complete(frame);
+                }
+            }
+        } catch(IOException e) {
+            cause = e;
+        } finally {
+            this.closed = true;
+            clients.remove(this.address, this);
+            for(CompletableFuture<ByteBuffer> f : this.pending.values()) {
+                f.completeExceptionally(cause != null ? cause : new EOFException());
+            }
+            BinaryServer.closeQuietly(this.channel);
+        }
+    }
+
+    /**
+     * Fill a buffer from the channel
+     *
+     * @param b buffer to fill
+     * @throws IOException
+     */
+    protected void readFully(ByteBuffer b) throws IOException {
+        while(b.hasRemaining()) {
+            if(this.channel.read(b) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    /**
+     * Close the connection; the pending calls fail
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        BinaryServer.closeQuietly(this.channel);
+    }
+}
@@ -0,0 +1,25 @@
+package transport;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The interface <code>BinaryEndpointI</code> is implemented by the objects
+ * answering the calls received by a <code>BinaryServer</code>.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * An endpoint decodes the arguments of a method from its identifier, makes
+ * the call, usually on the inbound port of a device so that the call is
+ * run by the executor of the component, and encodes the result.
+ */
+public interface BinaryEndpointI {
+    /**
+     * Make a call
+     *
+     * @param method identifier of the method
+     * @param args arguments of the call
+     * @param result buffer to write the result in
+     * @throws Exception
+     */
+    public void call(byte method, ByteBuffer args, ByteBuffer result) throws Exception;
+}
@@ -0,0 +1,344 @@
+package transport;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * The class <code>BinaryServer</code> receives the calls of the binary
+ * transport and answers them with an endpoint.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * One thread selects on the channels: it accepts the connections, cuts the
+ * bytes read into frames and writes the responses. The calls themselves
+ * are made by a small pool, so that a call waiting for its component does
+ * not keep the server from accepting the connections and reading the other
+ * calls. A device has a single thread, which serialises its calls anyway,
+ * so <code>DEFAULT_THREADS</code> threads are enough for its server. The
+ * calls can also be made by the selecting thread, which saves two thread
+ * switches per call, but only for an endpoint that never blocks. A response
+ * is written at once if the channel accepts it, else it is queued to the
+ * selecting thread, which writes it without blocking. The connections are
+ * kept open by the clients. An error stopping the server is reported to
+ * the owner of the server, usually its log.
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		endpoint != null
+ * </pre>
+ */
+public class BinaryServer implements Closeable {
+    /** size of the buffer of a response */
+    public static final int RESULT_SIZE = 1024;
+    /** number of threads making the calls of a device */
+    public static final int DEFAULT_THREADS = 1;
+
+    /** endpoint answering the calls */
+    protected final BinaryEndpointI endpoint;
+    /** channel accepting the connections */
+    protected final ServerSocketChannel serverChannel;
+    /** selector of the channels */
+    protected final Selector selector;
+    /** threads making the calls, null if they are made by the selecting thread */
+    protected final ExecutorService calls;
+    /** receives the errors stopping the server */
+    protected final Consumer<String> errors;
+    /** connections with responses to write */
+    protected final ConcurrentLinkedQueue<Connection> ready = new ConcurrentLinkedQueue<>();
+    /** thread selecting on the channels */
+    protected final Thread loop;
+    /** true once the server is closed */
+    protected volatile boolean closed;
+
+    /**
+     * Open a server on a free port of the transport host, making the calls
+     * on <code>DEFAULT_THREADS</code> threads
+     *
+     * @param endpoint endpoint answering the calls
+     * @param errors receives the errors stopping the server
+     * @throws IOException
+     */
+    public BinaryServer(BinaryEndpointI endpoint, Consumer<String> errors) throws IOException {
+        this(endpoint, BinaryTransport.HOST, 0, DEFAULT_THREADS, errors);
+    }
+
+    /**
+     * Open a server.
+     *
+     * With <code>nbThreads == 0</code>, the calls are made on the selecting
+     * thread: a call that blocks, e.g. waiting for a busy component, stops
+     * the server from accepting the connections and from reading and
+     * writing every other call until it returns. Only an endpoint that
+     * never blocks should be served this way.
+     *
+     * <p><strong>Contract</strong></p>
+     *
+     * <pre>
+     * pre	endpoint != null and errors != null
+     * pre	nbThreads &gt;= 0
+     * post	true			// no postcondition.
+     * </pre>
+     *
+     * @param endpoint endpoint answering the calls
+     * @param host host to listen on
+     * @param port port to listen on, or 0 for a free port
+     * @param nbThreads number of threads making the calls, or 0 to make them
+     * on the selecting thread
+     * @param errors receives the errors stopping the server
+     * @throws IOException
+     */
+    public BinaryServer(BinaryEndpointI endpoint, String host, int port, int nbThreads,
+            Consumer<String> errors) throws IOException {
+        assert endpoint != null && errors != null;
+        assert nbThreads >= 0;
+        this.endpoint = endpoint;
+        this.errors = errors;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(host, port));
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+        this.calls = nbThreads == 0 ? null : Executors.newFixedThreadPool(nbThreads, r -> {
+            Thread t = new Thread(r, "binary-server-call");
+            t.setDaemon(true);
+            return t;
+        });
+        this.loop = new Thread(this::loop, "binary-server");
+        this.loop.setDaemon(true);
+        this.loop.start();
+    }
+
+    /**
+     * @return address of the server, as host:port
+     * @throws IOException
+     */
+    public String getAddress() throws IOException {
+        InetSocketAddress a = (InetSocketAddress) this.serverChannel.getLocalAddress();
+        return a.getHostString() + ":" + a.getPort();
+    }
+
+    /**
+     * Select on the channels until the server is closed
+     */
+    protected void loop() {
+        try {
+            while(!this.closed) {
+                this.selector.select();
+                Connection c;
+                while((c = this.ready.poll()) != null) {
+                    if(c.key.isValid()) {
+                        c.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    }
+                }
+                Iterator<SelectionKey> it = this.selector.selectedKeys().iterator();
+                while(it.hasNext()) {
+                    SelectionKey k = it.next();
+                    it.remove();
+                    try {
+                        if(k.isValid() && k.isAcceptable()) {
+                            this.accept();
+                        } else {
+                            c = (Connection) k.attachment();
+                            if(k.isValid() && k.isReadable()) {
+                                c.read();
+                            }
+                            if(k.isValid() && k.isWritable()) {
+                                c.write();
+                            }
+                        }
+                    } catch(IOException e) {
+                        // the client is gone, its pending responses are dropped
+                        k.cancel();
+                        closeQuietly(k.channel());
+                    }
+                }
+            }
+        } catch(IOException e) {
+            if(!this.closed) {
+                this.errors.accept("binary server stopped : " + e);
+            }
+        } finally {
+            for(SelectionKey k : this.selector.keys()) {
+                closeQuietly(k.channel());
+            }
+            closeQuietly(this.selector);
+        }
+    }
+
+    /**
+     * Accept a connection
+     *
+     * @throws IOException
+     */
+    protected void accept() throws IOException {
+        SocketChannel channel = this.serverChannel.accept();
+        if(channel != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey k = channel.register(this.selector, SelectionKey.OP_READ);
+            k.attach(new Connection(channel, k));
+        }
+    }
+
+    /**
+     * Close the server and its connections
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.selector.wakeup();
+        if(this.calls != null) {
+            this.calls.shutdownNow();
+        }
+    }
+
+    /**
+     * Close a channel or a selector, ignoring the errors
+     *
+     * @param c channel or selector to close
+     */
+    protected static void closeQuietly(Closeable c) {
+        try {
+            c.close();
+        } catch(IOException e) {
+            // nothing more to do
+        }
+    }
+
+    /**
+     * The class <code>Connection</code> holds the buffers of a connection.
+     */
+    protected class Connection {
+        /** channel of the connection */
+        protected final SocketChannel channel;
+        /** key of the channel */
+        protected final SelectionKey key;
+        /** bytes read and not yet cut into frames */
+        protected final ByteBuffer in = ByteBuffer.allocate(BinaryTransport.MAX_FRAME_SIZE + 4);
+        /** responses the channel did not accept yet, in their order */
+        protected final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+
+        /**
+         * Create the connection
+         *
+         * @param channel channel of the connection
+         * @param key key of the channel
+         */
+        protected Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        /**
+         * Read the available bytes and make the calls of the complete frames
+         *
+         * @throws IOException
+         */
+        protected void read() throws IOException {
+            if(this.channel.read(this.in) < 0) {
+                throw new EOFException();
+            }
+            this.in.flip();
+            while(this.in.remaining() >= 4) {
+                int length = this.in.getInt(this.in.position());
+                if(length < BinaryTransport.HEADER_SIZE - 4 || length > BinaryTransport.MAX_FRAME_SIZE) {
+                    throw new IOException("invalid frame length " + length);
+                }
+                if(this.in.remaining() < 4 + length) {
+                    break;
+                }
+                this.in.getInt();
+                ByteBuffer frame = ByteBuffer.allocate(length);
+                int limit = this.in.limit();
+                this.in.limit(this.in.position() + length);
+                frame.put(this.in);
+                this.in.limit(limit);
+                frame.flip();
+                if(calls == null) {
+                    this.answer(frame);
+                } else {
+                    calls.execute(() -> this.answer(frame));
+                }
+            }
+            this.in.compact();
+        }
+
+        /**
+         * Make the call of a frame and send its response
+         *
+         * @param frame frame of the call, without its length
+         */
+        protected void answer(ByteBuffer frame) {
+            int id = frame.getInt();
+            byte method = frame.get();
+            ByteBuffer r = ByteBuffer.allocate(RESULT_SIZE);
+            r.position(BinaryTransport.HEADER_SIZE);
+            byte status = BinaryTransport.OK;
+            try {
+                endpoint.call(method, frame, r);
+            } catch(Exception e) {
+                status = BinaryTransport.ERROR;
+                r.clear();
+                r.position(BinaryTransport.HEADER_SIZE);
+                BinaryTransport.putString(r, e.toString());
+            }
+            r.putInt(0, r.position() - 4);
+            r.putInt(4, id);
+            r.put(8, status);
+            r.flip();
+            synchronized(this) {
+                if(this.out.isEmpty()) {
+                    try {
+                        this.channel.write(r);
+                    } catch(IOException e) {
+                        // the selecting thread sees the closed channel
+                        return;
+                    }
+                    if(!r.hasRemaining()) {
+                        return;
+                    }
+                }
+                this.out.add(r);
+            }
+            if(Thread.currentThread() == loop) {
+                if(this.key.isValid()) {
+                    this.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+            } else {
+                ready.add(this);
+                selector.wakeup();
+            }
+        }
+
+        /**
+         * Write the queued responses, as far as the channel accepts them
+         *
+         * @throws IOException
+         */
+        protected synchronized void write() throws IOException {
+            ByteBuffer b;
+            while((b = this.out.peek()) != null) {
+                this.channel.write(b);
+                if(b.hasRemaining()) {
+                    return;
+                }
+                this.out.poll();
+            }
+            this.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+}
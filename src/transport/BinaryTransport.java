@@ -0,0 +1,140 @@
+package transport;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import controller.DeviceCommand;
+
+/**
+ * The class <code>BinaryTransport</code> defines the framing of the binary
+ * transport used between the controller and the devices of other JVMs.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * The transport is an option to RMI for the calls made at each tick, turned
+ * on for a whole deployment by starting the JVMs with
+ * <code>-Dziodyne.transport=nio</code>. A device then opens a
+ * <code>BinaryServer</code> and gives its address in its descriptor, and the
+ * controller sends its calls through a <code>BinaryClient</code> instead of
+ * the RMI stub of the inbound port. The BCM ports and connectors are kept,
+ * so that the connection itself and the threading of the components do not
+ * change.
+ *
+ * A request frame is the length of the rest of the frame, an identifier of
+ * the call chosen by the client, the identifier of the method and its
+ * arguments. A response frame is the length of the rest of the frame, the
+ * identifier of the call, a status and the result, or the message of the
+ * exception if the call failed. Arguments and results are primitives in
+ * the byte order of <code>ByteBuffer</code>; nothing is serialised by Java.
+ * Several calls may be pending on the same connection, the responses being
+ * matched to the calls by their identifier.
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		true
+ * </pre>
+ */
+public class BinaryTransport {
+    /** name of the system property choosing the transport */
+    public static final String PROPERTY = "ziodyne.transport";
+    /** name of the system property giving the host of the servers */
+    public static final String HOST_PROPERTY = "ziodyne.transport.host";
+    /** true if the devices open a binary server */
+    public static final boolean ENABLED = "nio".equals(System.getProperty(PROPERTY));
+    /** host the servers listen on */
+    public static final String HOST = System.getProperty(HOST_PROPERTY, "localhost");
+
+    /** size of the length, the identifier of the call and the method or the status */
+    public static final int HEADER_SIZE = 9;
+    /** greatest size of a frame, without its length */
+    public static final int MAX_FRAME_SIZE = 1 << 16;
+    /** milliseconds a client waits for a response */
+    public static final long TIMEOUT = 10000L;
+
+    /** status of a call that returned */
+    public static final byte OK = 0;
+    /** status of a call that threw an exception */
+    public static final byte ERROR = 1;
+
+    private BinaryTransport() {
+    }
+
+    /**
+     * Write a string
+     *
+     * @param b buffer to write in
+     * @param s string to write
+     */
+    public static void putString(ByteBuffer b, String s) {
+        byte[] bytes = String.valueOf(s).getBytes(StandardCharsets.UTF_8);
+        int n = Math.min(bytes.length, b.remaining() - 2);
+        b.putShort((short) n);
+        b.put(bytes, 0, n);
+    }
+
+    /**
+     * Read a string
+     *
+     * @param b buffer to read from
+     * @return string read
+     */
+    public static String getString(ByteBuffer b) {
+        byte[] bytes = new byte[b.getShort()];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write a boolean
+     *
+     * @param b buffer to write in
+     * @param value boolean to write
+     */
+    public static void putBoolean(ByteBuffer b, boolean value) {
+        b.put(value ? (byte) 1 : (byte) 0);
+    }
+
+    /**
+     * Read a boolean
+     *
+     * @param b buffer to read from
+     * @return boolean read
+     */
+    public static boolean getBoolean(ByteBuffer b) {
+        return b.get() != 0;
+    }
+
+    /**
+     * Write a batch of commands. Only the commands with a boolean value are
+     * sent: the modes are set through RMI.
+     *
+     * @param b buffer to write in
+     * @param commands commands to write
+     */
+    public static void putCommands(ByteBuffer b, DeviceCommand[] commands) {
+        b.putShort((short) commands.length);
+        for(DeviceCommand c : commands) {
+            if(!(c.value instanceof Boolean)) {
+                throw new IllegalArgumentException(c + " can not be sent by the binary transport");
+            }
+            b.put((byte) c.kind.ordinal());
+            putBoolean(b, c.booleanValue());
+        }
+    }
+
+    /**
+     * Read a batch of commands
+     *
+     * @param b buffer to read from
+     * @return commands read
+     */
+    public static DeviceCommand[] getCommands(ByteBuffer b) {
+        DeviceCommand[] commands = new DeviceCommand[b.getShort()];
+        for(int i = 0 ; i < commands.length ; i++) {
+            DeviceCommand.Kind kind = DeviceCommand.Kind.values()[b.get()];
+            commands[i] = new DeviceCommand(kind, getBoolean(b));
+        }
+        return commands;
+    }
+}
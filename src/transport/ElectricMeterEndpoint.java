@@ -0,0 +1,90 @@
+package transport;
+
+import java.nio.ByteBuffer;
+
+import components.ElectricMeter.ElectricMeterSnapshot;
+import interfaces.ElectricMeterI;
+
+/**
+ * The class <code>ElectricMeterEndpoint</code> answers the calls of the
+ * binary transport to an electric meter.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * The calls are made on the inbound port of the electric meter. A snapshot
+ * is encoded as its three doubles.
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		electricMeter != null
+ * </pre>
+ */
+public class ElectricMeterEndpoint implements BinaryEndpointI {
+    public static final byte GET_AVAILABLE_ENERGY = 0;
+    public static final byte GET_PRODUCTION = 1;
+    public static final byte GET_CONSUMPTION = 2;
+    public static final byte GET_SNAPSHOT = 3;
+    public static final byte APPLY_COMMANDS = 4;
+
+    /** inbound port of the electric meter */
+    protected final ElectricMeterI electricMeter;
+
+    /**
+     * Create the endpoint
+     *
+     * @param electricMeter inbound port of the electric meter
+     */
+    public ElectricMeterEndpoint(ElectricMeterI electricMeter) {
+        assert electricMeter != null;
+        this.electricMeter = electricMeter;
+    }
+
+    /**
+     * @see {@link transport.BinaryEndpointI#call(byte, ByteBuffer, ByteBuffer)}
+     */
+    @Override
+    public void call(byte method, ByteBuffer args, ByteBuffer result) throws Exception {
+        switch(method) {
+        case GET_AVAILABLE_ENERGY:
+            result.putDouble(this.electricMeter.getAvailableEnergy());
+            break;
+        case GET_PRODUCTION:
+            result.putDouble(this.electricMeter.getProduction());
+            break;
+        case GET_CONSUMPTION:
+            result.putDouble(this.electricMeter.getConsumption());
+            break;
+        case GET_SNAPSHOT:
+            putSnapshot(result, this.electricMeter.getSnapshot());
+            break;
+        case APPLY_COMMANDS:
+            putSnapshot(result, this.electricMeter.applyCommands(BinaryTransport.getCommands(args)));
+            break;
+        default:
+            throw new IllegalArgumentException("unknown method " + method);
+        }
+    }
+
+    /**
+     * Write a snapshot of the electric meter
+     *
+     * @param b buffer to write in
+     * @param s snapshot to write
+     */
+    public static void putSnapshot(ByteBuffer b, ElectricMeterSnapshot s) {
+        b.putDouble(s.availableEnergy);
+        b.putDouble(s.production);
+        b.putDouble(s.consumption);
+    }
+
+    /**
+     * Read a snapshot of the electric meter
+     *
+     * @param b buffer to read from
+     * @return snapshot read
+     */
+    public static ElectricMeterSnapshot getSnapshot(ByteBuffer b) {
+        return new ElectricMeterSnapshot(b.getDouble(), b.getDouble(), b.getDouble());
+    }
+}
@@ -0,0 +1,105 @@
+package transport;
+
+import java.nio.ByteBuffer;
+
+import components.Fridge.FridgeSnapshot;
+import interfaces.FridgeI;
+
+/**
+ * The class <code>FridgeEndpoint</code> answers the calls of the binary
+ * transport to a fridge.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * The calls are made on the inbound port of the fridge. A snapshot is
+ * encoded as its four booleans followed by its version.
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		fridge != null
+ * </pre>
+ */
+public class FridgeEndpoint implements BinaryEndpointI {
+    public static final byte SWITCH_FRIDGE_BREAK = 0;
+    public static final byte IS_FRIDGE_ON_BREAK = 1;
+    public static final byte SWITCH_FREEZER_BREAK = 2;
+    public static final byte IS_FREEZER_ON_BREAK = 3;
+    public static final byte IS_FRIDGE_ON = 4;
+    public static final byte IS_FREEZER_ON = 5;
+    public static final byte GET_SNAPSHOT = 6;
+    public static final byte APPLY_COMMANDS = 7;
+
+    /** inbound port of the fridge */
+    protected final FridgeI fridge;
+
+    /**
+     * Create the endpoint
+     *
+     * @param fridge inbound port of the fridge
+     */
+    public FridgeEndpoint(FridgeI fridge) {
+        assert fridge != null;
+        this.fridge = fridge;
+    }
+
+    /**
+     * @see {@link transport.BinaryEndpointI#call(byte, ByteBuffer, ByteBuffer)}
+     */
+    @Override
+    public void call(byte method, ByteBuffer args, ByteBuffer result) throws Exception {
+        switch(method) {
+        case SWITCH_FRIDGE_BREAK:
+            this.fridge.switchFridgeBreak();
+            break;
+        case IS_FRIDGE_ON_BREAK:
+            BinaryTransport.putBoolean(result, this.fridge.isFridgeOnBreak());
+            break;
+        case SWITCH_FREEZER_BREAK:
+            this.fridge.switchFreezerBreak();
+            break;
+        case IS_FREEZER_ON_BREAK:
+            BinaryTransport.putBoolean(result, this.fridge.isFreezerOnBreak());
+            break;
+        case IS_FRIDGE_ON:
+            BinaryTransport.putBoolean(result, this.fridge.isFridgeOn());
+            break;
+        case IS_FREEZER_ON:
+            BinaryTransport.putBoolean(result, this.fridge.isFreezerOn());
+            break;
+        case GET_SNAPSHOT:
+            putSnapshot(result, this.fridge.getSnapshot());
+            break;
+        case APPLY_COMMANDS:
+            putSnapshot(result, this.fridge.applyCommands(BinaryTransport.getCommands(args)));
+            break;
+        default:
+            throw new IllegalArgumentException("unknown method " + method);
+        }
+    }
+
+    /**
+     * Write a snapshot of the fridge
+     *
+     * @param b buffer to write in
+     * @param s snapshot to write
+     */
+    public static void putSnapshot(ByteBuffer b, FridgeSnapshot s) {
+        BinaryTransport.putBoolean(b, s.isFridgeOn);
+        BinaryTransport.putBoolean(b, s.isFreezerOn);
+        BinaryTransport.putBoolean(b, s.isFridgeOnBreak);
+        BinaryTransport.putBoolean(b, s.isFreezerOnBreak);
+        b.putInt(s.version);
+    }
+
+    /**
+     * Read a snapshot of the fridge
+     *
+     * @param b buffer to read from
+     * @return snapshot read
+     */
+    public static FridgeSnapshot getSnapshot(ByteBuffer b) {
+        return new FridgeSnapshot(BinaryTransport.getBoolean(b), BinaryTransport.getBoolean(b),
+                BinaryTransport.getBoolean(b), BinaryTransport.getBoolean(b), b.getInt());
+    }
+}
@@ -0,0 +1,173 @@
+package transport;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+/**
+ * The class <code>TransportBenchmark</code> compares the latency of the
+ * calls through the binary transport and through RMI, on localhost.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Two calls are measured: one returning a double, as
+ * <code>getAvailableEnergy</code>, and one returning three doubles, as the
+ * <code>getSnapshot</code> of the electric meter, which RMI returns as a
+ * serialised object. The servers answer constants, so that only the
+ * transport is measured. The arguments are
+ * the number of calls, the milliseconds between two calls of a thread, 0
+ * for calls at full speed and 1000 for the pace of one tick per second,
+ * and the number of threads calling at the same time on the same
+ * connection. Each transport is warmed up before it is measured.
+ *
+ * <pre>
+ * java -cp bin transport.TransportBenchmark 20000 0 1
+ * java -cp bin transport.TransportBenchmark 10 1000 1
+ * </pre>
+ */
+public class TransportBenchmark {
+    /** available energy answered by the servers */
+    protected static final double ENERGY = 1234.5;
+    /** identifier of the method returning a double */
+    protected static final byte ENERGY_METHOD = 0;
+    /** identifier of the method returning a snapshot */
+    protected static final byte SNAPSHOT = 1;
+
+    /**
+     * The class <code>Snapshot</code> is the snapshot returned by the RMI
+     * server.
+     */
+    public static class Snapshot implements Serializable {
+        private static final long serialVersionUID = 1L;
+        public final double availableEnergy;
+        public final double production;
+        public final double consumption;
+
+        public Snapshot(double availableEnergy, double production, double consumption) {
+            this.availableEnergy = availableEnergy;
+            this.production = production;
+            this.consumption = consumption;
+        }
+    }
+
+    /**
+     * The interface <code>MeterI</code> is the remote interface of the RMI
+     * server.
+     */
+    public interface MeterI extends Remote {
+        public double getAvailableEnergy() throws RemoteException;
+        public Snapshot getSnapshot() throws RemoteException;
+    }
+
+    /**
+     * The class <code>Meter</code> is the RMI server.
+     */
+    protected static class Meter implements MeterI {
+        @Override
+        public double getAvailableEnergy() {
+            return ENERGY;
+        }
+
+        @Override
+        public Snapshot getSnapshot() {
+            return new Snapshot(ENERGY, 0.0, 0.0);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        long period = args.length > 1 ? Long.parseLong(args[1]) : 0L;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        BinaryServer server = new BinaryServer((method, a, r) -> {
+            r.putDouble(ENERGY);
+            if(method == SNAPSHOT) {
+                r.putDouble(0.0).putDouble(0.0);
+            }
+        }, "localhost", 0, 0, System.err::println);
+        BinaryClient client = new BinaryClient(server.getAddress());
+        Meter meter = new Meter();
+        MeterI stub = (MeterI) UnicastRemoteObject.exportObject(meter, 0);
+        try {
+            Callable<Double> binary = () -> client.call(ENERGY_METHOD, null).getDouble();
+            Callable<Double> rmi = stub::getAvailableEnergy;
+            Callable<Double> binarySnapshot = () -> {
+                ByteBuffer r = client.call(SNAPSHOT, null);
+                Snapshot s = new Snapshot(r.getDouble(), r.getDouble(), r.getDouble());
+                return s.availableEnergy;
+            };
+            Callable<Double> rmiSnapshot = () -> stub.getSnapshot().availableEnergy;
+
+            int warmup = period == 0 ? Math.max(1000, calls / 10) : 100;
+            measure(binary, warmup, 0, 1);
+            measure(rmi, warmup, 0, 1);
+            measure(binarySnapshot, warmup, 0, 1);
+            measure(rmiSnapshot, warmup, 0, 1);
+            System.out.println("calls = " + calls + ", period = " + period + " ms, threads = " + threads);
+            System.out.println("double,   binary : " + measure(binary, calls, period, threads));
+            System.out.println("double,   rmi    : " + measure(rmi, calls, period, threads));
+            System.out.println("snapshot, binary : " + measure(binarySnapshot, calls, period, threads));
+            System.out.println("snapshot, rmi    : " + measure(rmiSnapshot, calls, period, threads));
+        } finally {
+            client.close();
+            server.close();
+            UnicastRemoteObject.unexportObject(meter, true);
+        }
+    }
+
+    /**
+     * Make calls and summarise their latencies
+     *
+     * @param call call to make
+     * @param calls number of calls
+     * @param period milliseconds between two calls of a thread
+     * @param threads number of threads making the calls
+     * @return summary of the latencies
+     * @throws Exception
+     */
+    protected static String measure(Callable<Double> call, int calls, long period, int threads)
+            throws Exception {
+        long[] latencies = new long[calls];
+        Thread[] t = new Thread[threads];
+        Exception[] error = new Exception[1];
+        long start = System.nanoTime();
+        for(int k = 0 ; k < threads ; k++) {
+            int first = k;
+            t[k] = new Thread(() -> {
+                try {
+                    for(int i = first ; i < calls ; i += threads) {
+                        long s = System.nanoTime();
+                        if(call.call() != ENERGY) {
+                            throw new IllegalStateException("wrong answer");
+                        }
+                        latencies[i] = System.nanoTime() - s;
+                        if(period > 0) {
+                            Thread.sleep(period);
+                        }
+                    }
+                } catch(Exception e) {
+                    error[0] = e;
+                }
+            });
+            t[k].start();
+        }
+        for(Thread thread : t) {
+            thread.join();
+        }
+        if(error[0] != null) {
+            throw error[0];
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(latencies);
+        return String.format("mean = %.1f us, p50 = %.1f us, p99 = %.1f us, max = %.1f us, %.0f calls/s",
+                Arrays.stream(latencies).average().orElse(0) / 1e3,
+                latencies[calls / 2] / 1e3,
+                latencies[Math.min(calls - 1, (int) (calls * 0.99))] / 1e3,
+                latencies[calls - 1] / 1e3,
+                calls / seconds);
+    }
+}
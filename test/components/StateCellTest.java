@@ -0,0 +1,119 @@
+package components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The class <code>StateCellTest</code> checks that the variables of a cell
+ * keep their own bits and that the version counts the writes that changed
+ * a value.
+ */
+public class StateCellTest {
+    protected enum Mode {LOW, MEDIUM, HIGH}
+
+    protected static final Mode[] MODES = Mode.values();
+
+    protected StateCell cell;
+
+    @Before
+    public void setUp() {
+        this.cell = new StateCell();
+    }
+
+    /**
+     * Every value written in a slot is read back, and the other slots keep
+     * their values
+     */
+    @Test
+    public void slotsRoundTrip() {
+        for(int key = 0 ; key < StateCell.MAX_VARIABLES ; key++) {
+            for(int value = 0 ; value < StateCell.MAX_VALUES ; value++) {
+                this.cell.set(key, value);
+                long s = this.cell.read();
+                assertEquals(value, StateCell.get(s, key));
+                for(int other = 0 ; other < key ; other++) {
+                    assertEquals(StateCell.MAX_VALUES - 1, StateCell.get(s, other));
+                }
+                for(int other = key + 1 ; other < StateCell.MAX_VARIABLES ; other++) {
+                    assertEquals(0, StateCell.get(s, other));
+                }
+            }
+        }
+    }
+
+    /**
+     * The booleans and the enumerations are read back from the cell and
+     * from a snapshot
+     */
+    @Test
+    public void booleansAndEnums() {
+        this.cell.setBoolean(0, true);
+        this.cell.setEnum(1, Mode.HIGH);
+        long s = this.cell.read();
+        assertTrue(this.cell.getBoolean(0));
+        assertTrue(StateCell.getBoolean(s, 0));
+        assertEquals(Mode.HIGH, this.cell.getEnum(1, MODES));
+        assertEquals(Mode.HIGH, StateCell.getEnum(s, 1, MODES));
+        assertFalse(this.cell.toggle(0));
+        assertFalse(this.cell.getBoolean(0));
+    }
+
+    /**
+     * The setters return true only if the value changed, and only such a
+     * write moves the version
+     */
+    @Test
+    public void versionCountsChanges() {
+        int v0 = StateCell.version(this.cell.read());
+        assertFalse(this.cell.setBoolean(0, false));
+        assertFalse(this.cell.setEnum(1, Mode.LOW));
+        assertEquals(v0, StateCell.version(this.cell.read()));
+
+        assertTrue(this.cell.setBoolean(0, true));
+        assertEquals(v0 + 1, StateCell.version(this.cell.read()));
+        assertTrue(this.cell.setEnum(1, Mode.MEDIUM));
+        assertEquals(v0 + 2, StateCell.version(this.cell.read()));
+        this.cell.toggle(0);
+        assertEquals(v0 + 3, StateCell.version(this.cell.read()));
+
+        assertFalse(this.cell.setBoolean(0, false));
+        assertFalse(this.cell.setEnum(1, Mode.MEDIUM));
+        assertEquals(v0 + 3, StateCell.version(this.cell.read()));
+    }
+
+    /**
+     * A key or a value out of the cell is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidValue() {
+        this.cell.set(0, StateCell.MAX_VALUES);
+    }
+
+    /**
+     * Switches from several threads are never lost
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void concurrentToggles() throws InterruptedException {
+        int perThread = 10001;
+        Thread[] threads = new Thread[4];
+        for(int i = 0 ; i < threads.length ; i++) {
+            threads[i] = new Thread(() -> {
+                for(int n = 0 ; n < perThread ; n++) {
+                    this.cell.toggle(0);
+                }
+            });
+            threads[i].start();
+        }
+        for(Thread t : threads) {
+            t.join();
+        }
+        assertFalse(this.cell.getBoolean(0));
+        assertEquals(threads.length * perThread, StateCell.version(this.cell.read()));
+    }
+}
@@ -0,0 +1,86 @@
+package connectors;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The class <code>ReadCacheTest</code> checks when the cached values are
+ * kept and when the device is asked again.
+ */
+public class ReadCacheTest {
+    protected ReadCache cache;
+    /** number of calls that reached the device */
+    protected AtomicInteger calls;
+
+    @Before
+    public void setUp() {
+        this.cache = new ReadCache(2);
+        this.calls = new AtomicInteger();
+    }
+
+    /**
+     * @param slot slot of the read
+     * @return value read, the number of calls made to the device so far
+     * @throws Exception
+     */
+    protected int read(int slot) throws Exception {
+        return this.cache.get(slot, () -> this.calls.incrementAndGet());
+    }
+
+    /**
+     * A value is kept for the whole tick, and each slot has its own value
+     *
+     * @throws Exception
+     */
+    @Test
+    public void valueKeptDuringTick() throws Exception {
+        this.cache.newTick(1.0);
+        assertEquals(1, this.read(0));
+        assertEquals(1, this.read(0));
+        assertEquals(2, this.read(1));
+        assertEquals(2, this.read(1));
+        this.cache.newTick(1.0);
+        assertEquals(1, this.read(0));
+        assertEquals(3, this.cache.getHits());
+        assertEquals(2, this.cache.getMisses());
+    }
+
+    /**
+     * A new simulated time and a write both start a new epoch
+     *
+     * @throws Exception
+     */
+    @Test
+    public void newTickAndWriteDropValues() throws Exception {
+        this.cache.newTick(1.0);
+        assertEquals(1, this.read(0));
+        this.cache.newTick(2.0);
+        assertEquals(2, this.read(0));
+        this.cache.invalidate();
+        assertEquals(3, this.read(0));
+        assertEquals(3, this.read(0));
+        assertEquals(1, this.cache.getHits());
+        assertEquals(3, this.cache.getMisses());
+    }
+
+    /**
+     * A value read while a write happened is returned but not kept
+     *
+     * @throws Exception
+     */
+    @Test
+    public void staleValueNotKept() throws Exception {
+        this.cache.newTick(1.0);
+        int stale = this.cache.get(0, () -> {
+            this.cache.invalidate();
+            return -1;
+        });
+        assertEquals(-1, stale);
+        assertEquals(1, this.read(0));
+        assertEquals(1, this.read(0));
+    }
+}
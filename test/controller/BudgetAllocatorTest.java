@@ -0,0 +1,169 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import interfaces.DeviceControllerI;
+
+/**
+ * The class <code>BudgetAllocatorTest</code> checks the budgets given to the
+ * zones and the actions the zones choose within them.
+ */
+public class BudgetAllocatorTest {
+    /** device receiving no call, the plans are only built */
+    protected static final DeviceControllerI<Serializable> DEVICE = new DeviceControllerI<Serializable>() {
+        @Override
+        public Serializable getSnapshot() {
+            return null;
+        }
+
+        @Override
+        public Serializable applyCommands(DeviceCommand[] commands) {
+            return null;
+        }
+    };
+
+    protected BudgetAllocator allocator;
+    protected LoadSheddingPlanner absorbPlanner;
+    protected LoadSheddingPlanner shedPlanner;
+    protected ArrayList<Action> plan;
+
+    @Before
+    public void setUp() {
+        this.allocator = new BudgetAllocator();
+        this.absorbPlanner = new LoadSheddingPlanner();
+        this.shedPlanner = new LoadSheddingPlanner();
+        this.plan = new ArrayList<>();
+    }
+
+    /**
+     * @return summary of the zone, as reported by a household
+     */
+    protected Flexibility flexibility() {
+        Flexibility f = new Flexibility();
+        f.metered = true;
+        f.absorbWatts = this.absorbPlanner.getMaxWatts();
+        f.absorbPriority = this.absorbPlanner.getMaxPriority();
+        f.shedWatts = this.shedPlanner.getMaxWatts();
+        f.shedPriority = this.shedPlanner.getMinPriority();
+        return f;
+    }
+
+    /**
+     * One household whose absorb actions cost nothing, e.g. a dishwasher and
+     * a fridge on break while they are off: with a surplus, both are
+     * restarted although the household gets no watt.
+     */
+    @Test
+    public void zeroWattAbsorbActionsWithSurplus() {
+        Action dishwasher = new Action(0, 0.0, 7, DEVICE, DeviceCommand.setBreak(false));
+        Action fridge = new Action(2, 0.0, 4, DEVICE, DeviceCommand.setFridgeBreak(false));
+        this.absorbPlanner.addAction(dishwasher);
+        this.absorbPlanner.addAction(fridge);
+        double[] budgets = new double[1];
+
+        double left = this.allocator.allocate(500.0, new Flexibility[] {this.flexibility()}, 1, budgets);
+        assertEquals(0.0, budgets[0], 0.0);
+        assertEquals(500.0, left, 0.0);
+
+        double watts = BudgetAllocator.planZone(budgets[0], true, this.absorbPlanner, this.shedPlanner, this.plan);
+        assertEquals(0.0, watts, 0.0);
+        assertEquals(2, this.plan.size());
+        assertTrue(this.plan.contains(dishwasher));
+        assertTrue(this.plan.contains(fridge));
+    }
+
+    /**
+     * The same household with a deficit restarts nothing
+     */
+    @Test
+    public void zeroWattAbsorbActionsWithDeficit() {
+        this.absorbPlanner.addAction(new Action(0, 0.0, 7, DEVICE, DeviceCommand.setBreak(false)));
+        double[] budgets = new double[1];
+
+        this.allocator.allocate(-100.0, new Flexibility[] {this.flexibility()}, 1, budgets);
+        assertEquals(0.0, budgets[0], 0.0);
+
+        double watts = BudgetAllocator.planZone(budgets[0], false, this.absorbPlanner, this.shedPlanner, this.plan);
+        assertEquals(0.0, watts, 0.0);
+        assertEquals(0, this.plan.size());
+    }
+
+    /**
+     * A surplus too small for the costly action still takes the free one
+     */
+    @Test
+    public void zeroWattAbsorbActionWithSmallSurplus() {
+        Action free = new Action(0, 0.0, 7, DEVICE, DeviceCommand.setBreak(false));
+        Action costly = new Action(2, 100.0, 6, DEVICE, DeviceCommand.setBreak(false));
+        this.absorbPlanner.addAction(free);
+        this.absorbPlanner.addAction(costly);
+        double[] budgets = new double[1];
+
+        this.allocator.allocate(50.0, new Flexibility[] {this.flexibility()}, 1, budgets);
+        assertEquals(50.0, budgets[0], 0.0);
+
+        double watts = BudgetAllocator.planZone(budgets[0], true, this.absorbPlanner, this.shedPlanner, this.plan);
+        assertEquals(0.0, watts, 0.0);
+        assertEquals(1, this.plan.size());
+        assertTrue(this.plan.contains(free));
+    }
+
+    /**
+     * @return summary of a household reading the energy on its own meter
+     */
+    protected static Flexibility household(double energy, double absorb, double shed) {
+        Flexibility f = new Flexibility();
+        f.metered = true;
+        f.availableEnergy = energy;
+        f.absorbWatts = absorb;
+        f.shedWatts = shed;
+        return f;
+    }
+
+    /**
+     * By default the households are separate: the surplus of one household
+     * does not cover the deficit of another one
+     */
+    @Test
+    public void separateHouseholds() {
+        Flexibility rich = household(300.0, 100.0, 0.0);
+        Flexibility poor = household(-200.0, 0.0, 50.0);
+        Flexibility unmetered = household(0.0, 400.0, 400.0);
+        unmetered.metered = false;
+        double[] budgets = new double[3];
+
+        double left = this.allocator.allocateEach(new Flexibility[] {rich, poor, unmetered}, 3, false, budgets);
+        assertEquals(100.0, budgets[0], 0.0);
+        assertEquals(-50.0, budgets[1], 0.0);
+        assertEquals(0.0, budgets[2], 0.0);
+        assertEquals(-150.0, left, 0.0);
+
+        this.allocator.allocateEach(new Flexibility[] {rich, poor, unmetered}, 3, true, budgets);
+        assertEquals(0.0, budgets[0], 0.0);
+        assertEquals(-50.0, budgets[1], 0.0);
+    }
+
+    /**
+     * With the pooling opt-in, the same households share the energy of the
+     * building: the deficit of one household is covered by the other one
+     */
+    @Test
+    public void pooledHouseholds() {
+        Flexibility rich = household(300.0, 100.0, 0.0);
+        Flexibility poor = household(-200.0, 0.0, 50.0);
+        double[] budgets = new double[2];
+
+        double left = this.allocator.allocate(rich.availableEnergy + poor.availableEnergy,
+                new Flexibility[] {rich, poor}, 2, budgets);
+        assertEquals(100.0, budgets[0], 0.0);
+        assertEquals(0.0, budgets[1], 0.0);
+        assertEquals(0.0, left, 0.0);
+    }
+}
@@ -0,0 +1,170 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import interfaces.DeviceControllerI;
+
+/**
+ * The class <code>LoadSheddingPlannerTest</code> checks the plans of the
+ * planner against a brute force search over small random ticks.
+ */
+public class LoadSheddingPlannerTest {
+    /** device receiving no call, the plans are only built */
+    protected static final DeviceControllerI<Serializable> DEVICE = new DeviceControllerI<Serializable>() {
+        @Override
+        public Serializable getSnapshot() {
+            return null;
+        }
+
+        @Override
+        public Serializable applyCommands(DeviceCommand[] commands) {
+            return null;
+        }
+    };
+    /** number of random ticks checked by a test */
+    protected static final int TICKS = 2000;
+
+    protected LoadSheddingPlanner planner;
+    protected ArrayList<Action> plan;
+    protected Random random;
+
+    @Before
+    public void setUp() {
+        this.planner = new LoadSheddingPlanner();
+        this.plan = new ArrayList<>();
+        this.random = new Random(42);
+    }
+
+    /**
+     * Add the actions of a random tick: up to 6 groups of up to 3 actions,
+     * some of them costing no watt
+     *
+     * @return actions added
+     */
+    protected ArrayList<Action> randomTick() {
+        this.planner.clear();
+        ArrayList<Action> actions = new ArrayList<>();
+        int groups = 1 + this.random.nextInt(6);
+        for(int g = 0 ; g < groups ; g++) {
+            int n = this.random.nextInt(4);
+            for(int i = 0 ; i < n ; i++) {
+                double watts = this.random.nextInt(5) == 0 ? 0.0 : 1 + this.random.nextInt(400);
+                Action a = new Action(g, watts, this.random.nextInt(10), DEVICE,
+                        DeviceCommand.setBreak(false));
+                actions.add(a);
+                this.planner.addAction(a);
+            }
+        }
+        return actions;
+    }
+
+    /**
+     * @param watts watts of an action
+     * @return knapsack steps of the action, as counted by the planner
+     */
+    protected static int steps(double watts) {
+        return (int) Math.ceil(watts / LoadSheddingPlanner.WATT_STEP);
+    }
+
+    /**
+     * Return the best sum of priorities of a plan taking at most one action
+     * of each group within a capacity, by trying every plan
+     *
+     * @param actions actions of the tick
+     * @param groups number of groups
+     * @param g first group still to choose
+     * @param capacity steps left
+     * @return best sum of priorities
+     */
+    protected static int bruteForce(ArrayList<Action> actions, int groups, int g, int capacity) {
+        if(g == groups) {
+            return 0;
+        }
+        int best = bruteForce(actions, groups, g + 1, capacity);
+        for(Action a : actions) {
+            int w = steps(a.watts);
+            if(a.group == g && a.priority > 0 && w <= capacity) {
+                best = Math.max(best, a.priority + bruteForce(actions, groups, g + 1, capacity - w));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Check that a plan takes at most one action of each group
+     *
+     * @param plan chosen actions
+     */
+    protected static void assertOnePerGroup(ArrayList<Action> plan) {
+        for(int i = 0 ; i < plan.size() ; i++) {
+            for(int j = i + 1 ; j < plan.size() ; j++) {
+                assertTrue(plan.get(i).group != plan.get(j).group);
+            }
+        }
+    }
+
+    /**
+     * With a surplus, the plan fits in the surplus and reaches the best sum
+     * of priorities found by the brute force search
+     */
+    @Test
+    public void surplusMatchesBruteForce() {
+        for(int t = 0 ; t < TICKS ; t++) {
+            ArrayList<Action> actions = this.randomTick();
+            double total = 0.0;
+            int groups = 0;
+            for(Action a : actions) {
+                total += a.watts;
+                groups = Math.max(groups, a.group + 1);
+            }
+            double surplus = this.random.nextInt(800);
+            this.plan.clear();
+
+            double used = this.planner.planSurplus(surplus, this.plan);
+            int capacity = (int) Math.floor(Math.min(surplus, total) / LoadSheddingPlanner.WATT_STEP);
+            int value = 0;
+            double watts = 0.0;
+            for(Action a : this.plan) {
+                value += a.priority;
+                watts += a.watts;
+            }
+            assertOnePerGroup(this.plan);
+            assertEquals(watts, used, 1e-9);
+            assertTrue(used <= surplus);
+            assertEquals(bruteForce(actions, groups, 0, capacity), value);
+        }
+    }
+
+    /**
+     * With a deficit, the plan covers the deficit when the greatest action
+     * of each group can cover it, and frees the watts it reports
+     */
+    @Test
+    public void deficitIsCovered() {
+        for(int t = 0 ; t < TICKS ; t++) {
+            this.randomTick();
+            double max = this.planner.getMaxWatts();
+            double deficit = this.random.nextInt(800);
+            this.plan.clear();
+
+            double freed = this.planner.planDeficit(deficit, this.plan);
+            double watts = 0.0;
+            for(Action a : this.plan) {
+                watts += a.watts;
+            }
+            assertOnePerGroup(this.plan);
+            assertEquals(watts, freed, 1e-9);
+            if(deficit <= max) {
+                assertTrue(freed >= deficit);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package transport;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import controller.DeviceCommand;
+
+/**
+ * The class <code>BinaryTransportTest</code> checks the encoding of the
+ * arguments and the framing of the calls between a
+ * <code>BinaryClient</code> and a <code>BinaryServer</code> on the loopback.
+ */
+public class BinaryTransportTest {
+    /** method echoing its arguments */
+    protected static final byte ECHO = 0;
+    /** method failing */
+    protected static final byte FAIL = 1;
+
+    protected enum Mode {ECO}
+
+    /** endpoint echoing the arguments, after the time given in their first int */
+    protected static final BinaryEndpointI ENDPOINT = (method, args, result) -> {
+        if(method == FAIL) {
+            throw new IllegalStateException("failed " + BinaryTransport.getString(args));
+        }
+        Thread.sleep(args.getInt(args.position()));
+        result.put(args);
+    };
+
+    /**
+     * Strings, booleans and commands are read back as they were written
+     */
+    @Test
+    public void encodingRoundTrip() {
+        ByteBuffer b = ByteBuffer.allocate(256);
+        BinaryTransport.putString(b, "fridge-é");
+        BinaryTransport.putBoolean(b, true);
+        BinaryTransport.putBoolean(b, false);
+        BinaryTransport.putCommands(b, new DeviceCommand[] {
+                DeviceCommand.setFridgeBreak(true), DeviceCommand.setFreezerBreak(false)});
+        b.flip();
+
+        assertEquals("fridge-é", BinaryTransport.getString(b));
+        assertTrue(BinaryTransport.getBoolean(b));
+        assertFalse(BinaryTransport.getBoolean(b));
+        DeviceCommand[] commands = BinaryTransport.getCommands(b);
+        assertEquals(2, commands.length);
+        assertEquals(DeviceCommand.Kind.SET_FRIDGE_BREAK, commands[0].kind);
+        assertTrue(commands[0].booleanValue());
+        assertEquals(DeviceCommand.Kind.SET_FREEZER_BREAK, commands[1].kind);
+        assertFalse(commands[1].booleanValue());
+        assertFalse(b.hasRemaining());
+    }
+
+    /**
+     * A command with a mode can not be sent by the binary transport
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void modeCommandRejected() {
+        BinaryTransport.putCommands(ByteBuffer.allocate(64),
+                new DeviceCommand[] {DeviceCommand.setMode(Mode.ECO)});
+    }
+
+    /**
+     * Calls pending at the same time on one connection get their own
+     * responses, even when they come back out of order, and an exception
+     * of the server is given to its caller
+     *
+     * @throws Exception
+     */
+    @Test
+    public void framingMatchesResponses() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try(BinaryServer server = new BinaryServer(ENDPOINT, "localhost", 0, 8, e -> {});
+                BinaryClient client = new BinaryClient(server.getAddress())) {
+            @SuppressWarnings("unchecked")
+            Future<Long>[] results = new Future[8];
+            for(int i = 0 ; i < results.length ; i++) {
+                int delay = (results.length - i) * 10;
+                long value = 1000L + i;
+                results[i] = callers.submit(() -> {
+                    ByteBuffer args = ByteBuffer.allocate(12);
+                    args.putInt(delay).putLong(value).flip();
+                    ByteBuffer r = client.call(ECHO, args);
+                    assertEquals(delay, r.getInt());
+                    return r.getLong();
+                });
+            }
+            long[] values = new long[results.length];
+            long[] expected = new long[results.length];
+            for(int i = 0 ; i < results.length ; i++) {
+                values[i] = results[i].get();
+                expected[i] = 1000L + i;
+            }
+            assertArrayEquals(expected, values);
+
+            ByteBuffer args = ByteBuffer.allocate(32);
+            BinaryTransport.putString(args, "now");
+            args.flip();
+            try {
+                client.call(FAIL, args);
+                fail("the call should have failed");
+            } catch(BinaryCallException e) {
+                assertTrue(e.getMessage().contains("failed now"));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}